@@ -0,0 +1,90 @@
+/*
+ * Copyright (C) 2016 Ronald Jack Jenkins Jr.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package info.ronjenkins.maven.rtr.benchmarks;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Parses {@code name=value} command line arguments for the benchmark
+ * programs.
+ *
+ * @author Ronald Jack Jenkins Jr.
+ */
+final class Arguments {
+  private final Map<String, String> values = new HashMap<>();
+
+  /**
+   * Constructor.
+   *
+   * @param args
+   *          not null.
+   * @throws IllegalArgumentException
+   *           if any argument is not of the form {@code name=value}.
+   */
+  Arguments(final String[] args) {
+    for (final String arg : args) {
+      final int separator = arg.indexOf('=');
+      if (separator < 1) {
+        throw new IllegalArgumentException("Expected name=value: " + arg);
+      }
+      this.values.put(arg.substring(0, separator),
+          arg.substring(separator + 1));
+    }
+  }
+
+  boolean getBoolean(final String name, final boolean defaultValue) {
+    final String value = this.values.get(name);
+    return value == null ? defaultValue : Boolean.parseBoolean(value);
+  }
+
+  double getDouble(final String name, final double defaultValue) {
+    final String value = this.values.get(name);
+    return value == null ? defaultValue : Double.parseDouble(value);
+  }
+
+  int getInt(final String name, final int defaultValue) {
+    final String value = this.values.get(name);
+    return value == null ? defaultValue : Integer.parseInt(value);
+  }
+
+  List<Integer> getInts(final String name, final String defaultValue) {
+    final List<Integer> ints = new ArrayList<>();
+    for (final String value : this.getString(name, defaultValue).split(",")) {
+      ints.add(Integer.parseInt(value.trim()));
+    }
+    return ints;
+  }
+
+  String getString(final String name, final String defaultValue) {
+    final String value = this.values.get(name);
+    return value == null ? defaultValue : value;
+  }
+
+  /*
+   * Returns the value of a required argument, or throws
+   * IllegalArgumentException if it is missing.
+   */
+  String require(final String name) {
+    final String value = this.values.get(name);
+    if (value == null) {
+      throw new IllegalArgumentException("Missing argument: " + name);
+    }
+    return value;
+  }
+}
@@ -0,0 +1,162 @@
+/*
+ * Copyright (C) 2016 Ronald Jack Jenkins Jr.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package info.ronjenkins.maven.rtr.benchmarks;
+
+import info.ronjenkins.maven.rtr.RTR;
+import info.ronjenkins.maven.rtr.RTRConfig;
+import info.ronjenkins.maven.rtr.RTRSettings;
+import info.ronjenkins.maven.rtr.releasephases.ConcurrentCreateBackupPomsPhase;
+import info.ronjenkins.maven.rtr.releasephases.RemoveBackupPomsPhase;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.maven.project.MavenProject;
+import org.apache.maven.shared.release.ReleaseExecutionException;
+import org.apache.maven.shared.release.ReleaseFailureException;
+import org.apache.maven.shared.release.ReleaseResult;
+import org.apache.maven.shared.release.config.ReleaseDescriptor;
+import org.apache.maven.shared.release.env.DefaultReleaseEnvironment;
+import org.apache.maven.shared.release.env.ReleaseEnvironment;
+import org.codehaus.plexus.util.FileUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the backup POM phases of a release against generated reactors
+ * whose POMs are written to a temporary directory.
+ *
+ * <p>
+ * {@code defensive-restore-backup-poms} is not measured: restoring delegates
+ * to the Maven Release Manager, which edits every POM through the configured
+ * SCM provider. The {@code threads} parameter is the Smart Reactor's
+ * {@code rtr.backupThreads}.
+ *
+ * @author Ronald Jack Jenkins Jr.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+public class BackupPomPhaseBenchmark {
+  /**
+   * A reactor whose POMs exist on disk, with backups created before every
+   * invocation.
+   */
+  @State(Scope.Thread)
+  public static class BackedUpReactor extends Reactor {
+    @Setup(Level.Invocation)
+    public void createBackups() throws ReleaseExecutionException,
+        ReleaseFailureException {
+      this.createPhase.execute(this.releaseDescriptor,
+          this.releaseEnvironment, this.projects);
+    }
+  }
+
+  /**
+   * A reactor whose POMs exist on disk.
+   */
+  @State(Scope.Thread)
+  public static class Reactor {
+    @Param({ "100", "1000" })
+    public int                                size;
+    @Param({ "1", "8" })
+    public int                                threads;
+    protected File                            directory;
+    protected List<MavenProject>              projects;
+    protected ReleaseDescriptor               releaseDescriptor;
+    protected ReleaseEnvironment              releaseEnvironment;
+    protected ConcurrentCreateBackupPomsPhase createPhase;
+    protected RemoveBackupPomsPhase           removePhase;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+      this.directory = Files.createTempDirectory("rtr-benchmark").toFile();
+      final SyntheticReactor reactor = SyntheticReactor.generate(
+          SyntheticReactor.Shape.WIDE, this.size, 1.0, this.directory);
+      this.projects = reactor.getProjects();
+      for (final MavenProject project : this.projects) {
+        final File pomFile = project.getFile();
+        Files.createDirectories(pomFile.getParentFile().toPath());
+        Files.write(pomFile.toPath(), Reactor.toPom(project).getBytes(
+            StandardCharsets.UTF_8));
+      }
+      this.releaseDescriptor = new ReleaseDescriptor();
+      this.releaseEnvironment = new DefaultReleaseEnvironment();
+      final MavenProject configuration = new MavenProject();
+      configuration.getProperties().setProperty(
+          RTRConfig.PROP_BACKUP_THREADS, String.valueOf(this.threads));
+      final RTR rtr = new RTR();
+      Fixtures.inject(rtr, "settings", new RTRSettings(null, configuration));
+      this.createPhase = new ConcurrentCreateBackupPomsPhase();
+      this.createPhase.enableLogging(Fixtures.newLogger());
+      Fixtures.inject(this.createPhase, "rtr", rtr);
+      this.removePhase = new RemoveBackupPomsPhase();
+      this.removePhase.enableLogging(Fixtures.newLogger());
+      Fixtures.inject(this.removePhase, "rtr", rtr);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+      FileUtils.deleteDirectory(this.directory);
+    }
+
+    private static String toPom(final MavenProject project) {
+      final StringBuilder pom = new StringBuilder();
+      pom.append("<project xmlns=\"http://maven.apache.org/POM/4.0.0\">\n");
+      pom.append("  <modelVersion>4.0.0</modelVersion>\n");
+      pom.append("  <groupId>").append(project.getGroupId())
+          .append("</groupId>\n");
+      pom.append("  <artifactId>").append(project.getArtifactId())
+          .append("</artifactId>\n");
+      pom.append("  <version>").append(project.getVersion())
+          .append("</version>\n");
+      pom.append("</project>\n");
+      return pom.toString();
+    }
+  }
+
+  @Benchmark
+  public ReleaseResult createBackupPoms(final Reactor reactor)
+      throws ReleaseExecutionException, ReleaseFailureException {
+    // The phase deletes existing backups first, so no reset is needed.
+    return reactor.createPhase.execute(reactor.releaseDescriptor,
+        reactor.releaseEnvironment, reactor.projects);
+  }
+
+  @Benchmark
+  public ReleaseResult removeBackupPoms(final BackedUpReactor reactor)
+      throws ReleaseExecutionException, ReleaseFailureException {
+    return reactor.removePhase.execute(reactor.releaseDescriptor,
+        reactor.releaseEnvironment, reactor.projects);
+  }
+}
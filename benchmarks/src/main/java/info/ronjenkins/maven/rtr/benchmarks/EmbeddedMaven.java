@@ -0,0 +1,139 @@
+/*
+ * Copyright (C) 2016 Ronald Jack Jenkins Jr.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package info.ronjenkins.maven.rtr.benchmarks;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Runs Maven in this JVM through {@code MavenCli} from the
+ * {@code maven-embedder} of a Maven installation.
+ *
+ * <p>
+ * Maven is loaded from the installation's {@code boot}, {@code lib} and
+ * {@code lib/ext} directories by a class loader that cannot see this
+ * program's class path. Otherwise the extension, which is part of the
+ * benchmarks JAR, would be discovered by every build, whether or not the
+ * build declares it.
+ *
+ * @author Ronald Jack Jenkins Jr.
+ */
+public final class EmbeddedMaven {
+  private static void addJars(final File directory, final List<URL> urls)
+      throws MalformedURLException {
+    final File[] files = directory.listFiles();
+    if (files == null) {
+      return;
+    }
+    for (final File file : files) {
+      if (file.getName().endsWith(".jar")) {
+        urls.add(file.toURI().toURL());
+      }
+    }
+  }
+
+  private final File        mavenHome;
+  private final ClassLoader classLoader;
+  private final Object      cli;
+  private final Method      doMain;
+
+  /**
+   * Constructor.
+   *
+   * @param mavenHome
+   *          the Maven installation. Not null.
+   * @throws IOException
+   *           if Maven cannot be loaded from the installation.
+   */
+  public EmbeddedMaven(final File mavenHome) throws IOException {
+    this.mavenHome = mavenHome.getAbsoluteFile();
+    final List<URL> urls = new ArrayList<>();
+    EmbeddedMaven.addJars(new File(this.mavenHome, "boot"), urls);
+    EmbeddedMaven.addJars(new File(this.mavenHome, "lib"), urls);
+    EmbeddedMaven.addJars(new File(this.mavenHome, "lib/ext"), urls);
+    if (urls.isEmpty()) {
+      throw new IOException("No Maven installation at " + this.mavenHome);
+    }
+    // The parent is the extension class loader, which excludes the class
+    // path.
+    this.classLoader = new URLClassLoader(urls.toArray(new URL[urls.size()]),
+        ClassLoader.getSystemClassLoader().getParent());
+    try {
+      final Class<?> cliClass = this.classLoader
+          .loadClass("org.apache.maven.cli.MavenCli");
+      this.cli = cliClass.newInstance();
+      this.doMain = cliClass.getMethod("doMain", String[].class,
+          String.class, PrintStream.class, PrintStream.class);
+    }
+    catch (final ReflectiveOperationException e) {
+      throw new IOException("Unable to load MavenCli from " + this.mavenHome,
+          e);
+    }
+  }
+
+  /**
+   * Builds the given reactor, discarding Maven's output unless the build
+   * fails.
+   *
+   * @param reactor
+   *          the directory of the execution root. Not null.
+   * @param args
+   *          the Maven command line, without {@code -f}.
+   * @throws IOException
+   *           if the build fails.
+   */
+  public void run(final File reactor, final String... args)
+      throws IOException {
+    final String[] fullArgs = new String[args.length + 2];
+    fullArgs[0] = "-f";
+    fullArgs[1] = new File(reactor, "pom.xml").getAbsolutePath();
+    System.arraycopy(args, 0, fullArgs, 2, args.length);
+    System.setProperty("maven.home", this.mavenHome.getPath());
+    System.setProperty("maven.multiModuleProjectDirectory",
+        reactor.getAbsolutePath());
+    final ByteArrayOutputStream output = new ByteArrayOutputStream();
+    final PrintStream printStream = new PrintStream(output, true, "UTF-8");
+    final Thread thread = Thread.currentThread();
+    final ClassLoader contextClassLoader = thread.getContextClassLoader();
+    thread.setContextClassLoader(this.classLoader);
+    final int exitCode;
+    try {
+      exitCode = (Integer) this.doMain.invoke(this.cli, fullArgs,
+          reactor.getAbsolutePath(), printStream, printStream);
+    }
+    catch (final IllegalAccessException | InvocationTargetException e) {
+      throw new IOException("Unable to run Maven", e);
+    }
+    finally {
+      thread.setContextClassLoader(contextClassLoader);
+    }
+    if (exitCode != 0) {
+      throw new IOException("Build of " + reactor + " failed with exit code "
+          + exitCode + ":\n"
+          + new String(output.toByteArray(), StandardCharsets.UTF_8));
+    }
+  }
+}
@@ -0,0 +1,105 @@
+/*
+ * Copyright (C) 2016 Ronald Jack Jenkins Jr.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package info.ronjenkins.maven.rtr.benchmarks;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.maven.execution.DefaultMavenExecutionRequest;
+import org.apache.maven.execution.DefaultMavenExecutionResult;
+import org.apache.maven.execution.MavenSession;
+import org.apache.maven.execution.ProjectDependencyGraph;
+import org.apache.maven.project.MavenProject;
+import org.codehaus.plexus.logging.Logger;
+import org.codehaus.plexus.logging.console.ConsoleLogger;
+
+/**
+ * Wires Smart Reactor components together without a Plexus container, so
+ * that benchmarks measure the components themselves.
+ *
+ * @author Ronald Jack Jenkins Jr.
+ */
+public final class Fixtures {
+  /**
+   * Sets a field of the given object, which may be declared by any of its
+   * superclasses. Stands in for Plexus' {@code @Requirement} injection.
+   *
+   * @param target
+   *          not null.
+   * @param name
+   *          the name of the field. Not null.
+   * @param value
+   *          may be null.
+   * @throws IllegalStateException
+   *           if the field does not exist or cannot be set.
+   */
+  public static void inject(final Object target, final String name,
+      final Object value) {
+    Class<?> type = target.getClass();
+    while (type != null) {
+      try {
+        final Field field = type.getDeclaredField(name);
+        field.setAccessible(true);
+        field.set(target, value);
+        return;
+      }
+      catch (final NoSuchFieldException e) {
+        type = type.getSuperclass();
+      }
+      catch (final IllegalAccessException e) {
+        throw new IllegalStateException(e);
+      }
+    }
+    throw new IllegalStateException("No field " + name + " in "
+        + target.getClass().getName());
+  }
+
+  /**
+   * Returns a logger that discards everything, so that logging cost does not
+   * distort measurements.
+   *
+   * @return never null.
+   */
+  public static Logger newLogger() {
+    return new ConsoleLogger(Logger.LEVEL_DISABLED, "benchmark");
+  }
+
+  /**
+   * Returns a session whose reactor is a modifiable copy of the given
+   * projects. The goal list is {@code install}.
+   *
+   * @param projects
+   *          not null.
+   * @param graph
+   *          may be null.
+   * @return never null.
+   */
+  public static MavenSession newSession(final List<MavenProject> projects,
+      final ProjectDependencyGraph graph) {
+    final DefaultMavenExecutionRequest request = new DefaultMavenExecutionRequest();
+    request.setGoals(Arrays.asList("install"));
+    final MavenSession session = new MavenSession(null, null, request,
+        new DefaultMavenExecutionResult());
+    session.setProjects(new ArrayList<>(projects));
+    session.setProjectDependencyGraph(graph);
+    return session;
+  }
+
+  /* This class is not instantiable. */
+  private Fixtures() {}
+}
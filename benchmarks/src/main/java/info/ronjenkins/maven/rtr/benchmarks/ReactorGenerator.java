@@ -0,0 +1,343 @@
+/*
+ * Copyright (C) 2016 Ronald Jack Jenkins Jr.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package info.ronjenkins.maven.rtr.benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Random;
+
+/**
+ * Writes a multi-module reactor to disk, for builds that exercise the
+ * extension through Maven itself.
+ *
+ * <p>
+ * The layout is:
+ * <ul>
+ * <li>{@code pom.xml}: the SNAPSHOT aggregator, which lists every other
+ * project as a module.</li>
+ * <li>{@code parents/parent-N/pom.xml}: an optional chain of SNAPSHOT parent
+ * POMs, each inheriting from the previous one and the first from the
+ * aggregator.</li>
+ * <li>{@code bom/pom.xml}: an optional SNAPSHOT BOM that manages the version
+ * of every module. It is imported by the innermost parent, and modules then
+ * omit dependency versions.</li>
+ * <li>{@code modules/module-N/pom.xml}: the modules, which inherit from the
+ * innermost parent and depend on each other according to the
+ * {@link SyntheticReactor.Shape shape}.</li>
+ * <li>{@code invoker.properties}: lets the Maven Invoker Plugin build the
+ * reactor with the timing report enabled.</li>
+ * <li>{@code .mvn/extensions.xml}: declares the extension, if a version is
+ * given.</li>
+ * </ul>
+ * Module versions and dependencies are chosen exactly as
+ * {@link SyntheticReactor} chooses them, so both describe the same reactor.
+ *
+ * <p>
+ * Run {@link #main(String[])} to generate a reactor from the command line.
+ *
+ * @author Ronald Jack Jenkins Jr.
+ */
+public final class ReactorGenerator {
+  private static final String ROOT_ARTIFACT_ID = "root";
+  private static final String BOM_ARTIFACT_ID  = "bom";
+
+  /**
+   * Generates a reactor. Arguments are {@code name=value} pairs:
+   * <ul>
+   * <li>{@code directory}: required, the directory to write to.</li>
+   * <li>{@code shape}: {@code WIDE} (default), {@code CHAIN}, {@code DIAMOND}
+   * or {@code RANDOM}.</li>
+   * <li>{@code size}: the number of modules, default 1000.</li>
+   * <li>{@code snapshotRatio}: the fraction of SNAPSHOT modules, default
+   * 0.5.</li>
+   * <li>{@code parentDepth}: the number of intermediate parent POMs, default
+   * 0.</li>
+   * <li>{@code sharedBom}: whether to manage versions in a BOM, default
+   * false.</li>
+   * <li>{@code extensionVersion}: the extension version to declare in
+   * {@code .mvn/extensions.xml}, default none.</li>
+   * </ul>
+   *
+   * @param args
+   *          see above.
+   * @throws IOException
+   *           if the reactor cannot be written.
+   */
+  public static void main(final String[] args) throws IOException {
+    final Arguments arguments = new Arguments(args);
+    final File directory = new File(arguments.require("directory"));
+    final SyntheticReactor.Shape shape = SyntheticReactor.Shape
+        .valueOf(arguments.getString("shape", "WIDE"));
+    final int size = arguments.getInt("size", 1000);
+    final double snapshotRatio = arguments.getDouble("snapshotRatio", 0.5);
+    final int parentDepth = arguments.getInt("parentDepth", 0);
+    final boolean sharedBom = arguments.getBoolean("sharedBom", false);
+    final String extensionVersion = arguments.getString("extensionVersion",
+        null);
+    final ReactorGenerator generator = new ReactorGenerator(shape, size,
+        snapshotRatio, parentDepth, sharedBom, extensionVersion);
+    generator.write(directory);
+    System.out.println("Wrote " + generator.getProjectCount()
+        + " projects to " + directory.getAbsolutePath());
+  }
+
+  private static void write(final File file, final String content)
+      throws IOException {
+    Files.createDirectories(file.getAbsoluteFile().getParentFile().toPath());
+    try (final Writer writer = Files.newBufferedWriter(file.toPath(),
+        StandardCharsets.UTF_8)) {
+      writer.write(content);
+    }
+  }
+
+  private final SyntheticReactor.Shape shape;
+  private final int                    size;
+  private final double                 snapshotRatio;
+  private final int                    parentDepth;
+  private final boolean                sharedBom;
+  private final String                 extensionVersion;
+
+  /**
+   * Constructor.
+   *
+   * @param shape
+   *          not null.
+   * @param size
+   *          the number of modules. At least 1.
+   * @param snapshotRatio
+   *          the fraction of modules that are SNAPSHOTs, between 0 and 1.
+   * @param parentDepth
+   *          the number of parent POMs between the aggregator and the
+   *          modules. At least 0.
+   * @param sharedBom
+   *          whether module versions are managed by a shared BOM.
+   * @param extensionVersion
+   *          the version of the extension to declare in
+   *          {@code .mvn/extensions.xml}. If null, the extension is not
+   *          declared.
+   */
+  public ReactorGenerator(final SyntheticReactor.Shape shape, final int size,
+      final double snapshotRatio, final int parentDepth,
+      final boolean sharedBom, final String extensionVersion) {
+    if (shape == null || size < 1 || snapshotRatio < 0 || snapshotRatio > 1
+        || parentDepth < 0) {
+      throw new IllegalArgumentException("Invalid reactor configuration");
+    }
+    this.shape = shape;
+    this.size = size;
+    this.snapshotRatio = snapshotRatio;
+    this.parentDepth = parentDepth;
+    this.sharedBom = sharedBom;
+    this.extensionVersion = extensionVersion;
+  }
+
+  /**
+   * Returns the number of projects in the generated reactor, including the
+   * aggregator, the parents and the BOM.
+   *
+   * @return at least 2.
+   */
+  public int getProjectCount() {
+    return 1 + this.parentDepth + (this.sharedBom ? 1 : 0) + this.size;
+  }
+
+  /**
+   * Writes the reactor.
+   *
+   * @param directory
+   *          the directory of the aggregator POM. Created if necessary;
+   *          existing files are overwritten.
+   * @throws IOException
+   *           if any file cannot be written.
+   */
+  public void write(final File directory) throws IOException {
+    final Random random = new Random(SyntheticReactor.SEED);
+    final boolean[] snapshots = SyntheticReactor.snapshots(this.size,
+        this.snapshotRatio, random);
+    final int[][] dependencies = SyntheticReactor.dependencies(this.shape,
+        snapshots, random);
+    ReactorGenerator.write(new File(directory, "pom.xml"),
+        this.aggregatorPom());
+    for (int depth = 1; depth <= this.parentDepth; depth++) {
+      ReactorGenerator.write(new File(directory, "parents/parent-" + depth
+          + "/pom.xml"), this.parentPom(depth));
+    }
+    if (this.sharedBom) {
+      ReactorGenerator.write(new File(directory, "bom/pom.xml"),
+          this.bomPom(snapshots));
+    }
+    for (int i = 0; i < this.size; i++) {
+      ReactorGenerator.write(new File(directory, "modules/"
+          + SyntheticReactor.artifactId(i) + "/pom.xml"), this.modulePom(i,
+          snapshots, dependencies[i]));
+    }
+    ReactorGenerator.write(new File(directory, "invoker.properties"),
+        "invoker.goals = -Drtr.timingReport=true validate\n"
+            + "invoker.buildResult = success\n");
+    if (this.extensionVersion != null) {
+      ReactorGenerator.write(new File(directory, ".mvn/extensions.xml"),
+          this.extensionsXml());
+    }
+  }
+
+  private String aggregatorPom() {
+    final StringBuilder pom = this.startPom(
+        ReactorGenerator.ROOT_ARTIFACT_ID, SyntheticReactor.SNAPSHOT_VERSION,
+        "pom", null, null);
+    pom.append("  <modules>\n");
+    for (int depth = 1; depth <= this.parentDepth; depth++) {
+      pom.append("    <module>parents/parent-").append(depth)
+          .append("</module>\n");
+    }
+    if (this.sharedBom) {
+      pom.append("    <module>bom</module>\n");
+    }
+    for (int i = 0; i < this.size; i++) {
+      pom.append("    <module>modules/")
+          .append(SyntheticReactor.artifactId(i)).append("</module>\n");
+    }
+    pom.append("  </modules>\n");
+    if (this.parentDepth == 0) {
+      this.appendBomImport(pom);
+    }
+    return pom.append("</project>\n").toString();
+  }
+
+  private void appendBomImport(final StringBuilder pom) {
+    if (!this.sharedBom) {
+      return;
+    }
+    pom.append("  <dependencyManagement>\n    <dependencies>\n");
+    this.appendDependency(pom, ReactorGenerator.BOM_ARTIFACT_ID,
+        SyntheticReactor.SNAPSHOT_VERSION, "      ",
+        "<type>pom</type><scope>import</scope>");
+    pom.append("    </dependencies>\n  </dependencyManagement>\n");
+  }
+
+  private void appendDependency(final StringBuilder pom,
+      final String artifactId, final String version, final String indent,
+      final String extra) {
+    pom.append(indent).append("<dependency><groupId>")
+        .append(SyntheticReactor.GROUP_ID).append("</groupId><artifactId>")
+        .append(artifactId).append("</artifactId>");
+    if (version != null) {
+      pom.append("<version>").append(version).append("</version>");
+    }
+    if (extra != null) {
+      pom.append(extra);
+    }
+    pom.append("</dependency>\n");
+  }
+
+  private String bomPom(final boolean[] snapshots) {
+    final StringBuilder pom = this.startPom(ReactorGenerator.BOM_ARTIFACT_ID,
+        SyntheticReactor.SNAPSHOT_VERSION, "pom", null, null);
+    pom.append("  <dependencyManagement>\n    <dependencies>\n");
+    for (int i = 0; i < this.size; i++) {
+      this.appendDependency(pom, SyntheticReactor.artifactId(i),
+          SyntheticReactor.version(snapshots[i]), "      ", null);
+    }
+    pom.append("    </dependencies>\n  </dependencyManagement>\n");
+    return pom.append("</project>\n").toString();
+  }
+
+  private String extensionsXml() {
+    final StringBuilder xml = new StringBuilder();
+    xml.append("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n");
+    xml.append("<extensions>\n  <extension>\n");
+    xml.append("    <groupId>info.ronjenkins</groupId>\n");
+    xml.append("    <artifactId>smart-reactor-maven-extension</artifactId>\n");
+    xml.append("    <version>").append(this.extensionVersion)
+        .append("</version>\n");
+    xml.append("  </extension>\n</extensions>\n");
+    return xml.toString();
+  }
+
+  private String innermostParentArtifactId() {
+    return this.parentDepth == 0 ? ReactorGenerator.ROOT_ARTIFACT_ID
+        : "parent-" + this.parentDepth;
+  }
+
+  private String modulePom(final int index, final boolean[] snapshots,
+      final int[] dependencies) {
+    final String parentPath = this.parentDepth == 0 ? "../../pom.xml"
+        : "../../parents/" + this.innermostParentArtifactId() + "/pom.xml";
+    final StringBuilder pom = this.startPom(
+        SyntheticReactor.artifactId(index),
+        SyntheticReactor.version(snapshots[index]), "jar",
+        this.innermostParentArtifactId(), parentPath);
+    if (dependencies.length > 0) {
+      pom.append("  <dependencies>\n");
+      for (final int upstream : dependencies) {
+        // With a BOM, the version is managed.
+        this.appendDependency(pom, SyntheticReactor.artifactId(upstream),
+            this.sharedBom ? null : SyntheticReactor
+                .version(snapshots[upstream]), "    ", null);
+      }
+      pom.append("  </dependencies>\n");
+    }
+    return pom.append("</project>\n").toString();
+  }
+
+  private String parentPom(final int depth) {
+    final StringBuilder pom;
+    if (depth == 1) {
+      pom = this.startPom("parent-1", SyntheticReactor.SNAPSHOT_VERSION,
+          "pom", ReactorGenerator.ROOT_ARTIFACT_ID, "../../pom.xml");
+    }
+    else {
+      pom = this.startPom("parent-" + depth,
+          SyntheticReactor.SNAPSHOT_VERSION, "pom", "parent-" + (depth - 1),
+          "../parent-" + (depth - 1) + "/pom.xml");
+    }
+    if (depth == this.parentDepth) {
+      this.appendBomImport(pom);
+    }
+    return pom.append("</project>\n").toString();
+  }
+
+  /*
+   * Starts a POM, up to and including <packaging>. Every parent is a
+   * SNAPSHOT.
+   */
+  private StringBuilder startPom(final String artifactId,
+      final String version, final String packaging,
+      final String parentArtifactId, final String parentPath) {
+    final StringBuilder pom = new StringBuilder();
+    pom.append("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n");
+    pom.append("<project xmlns=\"http://maven.apache.org/POM/4.0.0\">\n");
+    pom.append("  <modelVersion>4.0.0</modelVersion>\n");
+    if (parentArtifactId != null) {
+      pom.append("  <parent>\n    <groupId>")
+          .append(SyntheticReactor.GROUP_ID).append("</groupId>\n")
+          .append("    <artifactId>").append(parentArtifactId)
+          .append("</artifactId>\n    <version>")
+          .append(SyntheticReactor.SNAPSHOT_VERSION)
+          .append("</version>\n    <relativePath>").append(parentPath)
+          .append("</relativePath>\n  </parent>\n");
+    }
+    pom.append("  <groupId>").append(SyntheticReactor.GROUP_ID)
+        .append("</groupId>\n");
+    pom.append("  <artifactId>").append(artifactId)
+        .append("</artifactId>\n");
+    pom.append("  <version>").append(version).append("</version>\n");
+    pom.append("  <packaging>").append(packaging).append("</packaging>\n");
+    return pom;
+  }
+}
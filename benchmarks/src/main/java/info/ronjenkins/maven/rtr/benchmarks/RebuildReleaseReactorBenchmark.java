@@ -0,0 +1,124 @@
+/*
+ * Copyright (C) 2016 Ronald Jack Jenkins Jr.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package info.ronjenkins.maven.rtr.benchmarks;
+
+import info.ronjenkins.maven.rtr.RTR;
+import info.ronjenkins.maven.rtr.RTRComponents;
+import info.ronjenkins.maven.rtr.RTRConfig;
+import info.ronjenkins.maven.rtr.RTRSettings;
+import info.ronjenkins.maven.rtr.reactor.ReactorIndex;
+import info.ronjenkins.maven.rtr.steps.release.RebuildReleaseReactor;
+
+import java.io.File;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.maven.MavenExecutionException;
+import org.apache.maven.execution.MavenSession;
+import org.apache.maven.project.MavenProject;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures {@link RebuildReleaseReactor} in each of its reload modes against
+ * a generated release reactor.
+ *
+ * <p>
+ * POMs are "loaded" by {@link StubProjectBuilder}, which copies models in
+ * memory. The results therefore show the step's own overhead (scheduling,
+ * ordering, project replacement and index remapping), not the cost of
+ * Maven's model builder.
+ *
+ * @author Ronald Jack Jenkins Jr.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xss8m")
+public class RebuildReleaseReactorBenchmark {
+  /**
+   * How the step reloads POMs.
+   */
+  public enum ReloadMode {
+    /** One POM at a time. */
+    SEQUENTIAL,
+    /** One POM per task, on four threads. */
+    CONCURRENT,
+    /** All POMs with a single project builder call. */
+    BATCH
+  }
+
+  @Param({ "WIDE", "RANDOM" })
+  public SyntheticReactor.Shape shape;
+  @Param({ "100", "1000", "5000" })
+  public int                    size;
+  @Param({ "SEQUENTIAL", "CONCURRENT", "BATCH" })
+  public ReloadMode             mode;
+  private List<MavenProject>    releaseProjects;
+  private StubProjectBuilder    projectBuilder;
+  private RebuildReleaseReactor step;
+  private MavenSession          session;
+  private RTRComponents         components;
+
+  @Benchmark
+  public MavenSession rebuildReleaseReactor() throws MavenExecutionException {
+    this.step.execute(this.session, this.components);
+    return this.session;
+  }
+
+  /**
+   * Gives every invocation the original projects, since the step replaces
+   * them.
+   */
+  @Setup(Level.Invocation)
+  public void resetReactor() {
+    this.session = Fixtures.newSession(this.releaseProjects, null);
+    this.components = new RTRComponents(this.projectBuilder);
+    this.components.setReactorIndex(ReactorIndex.build(this.session));
+  }
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    // Every module is a SNAPSHOT, so every module is released.
+    final SyntheticReactor reactor = SyntheticReactor.generate(this.shape,
+        this.size, 1.0, new File("synthetic"));
+    this.releaseProjects = reactor.getProjects();
+    this.projectBuilder = new StubProjectBuilder(this.releaseProjects);
+    final MavenProject configuration = new MavenProject();
+    configuration.getProperties().setProperty(RTRConfig.PROP_RELEASE, "true");
+    configuration.getProperties().setProperty(RTRConfig.PROP_RELOAD_THREADS,
+        this.mode == ReloadMode.CONCURRENT ? "4" : "1");
+    configuration.getProperties().setProperty(RTRConfig.PROP_BATCH_RELOAD,
+        String.valueOf(this.mode == ReloadMode.BATCH));
+    final RTR rtr = new RTR();
+    Fixtures.inject(rtr, "settings", new RTRSettings(null, configuration));
+    this.step = new RebuildReleaseReactor();
+    Fixtures.inject(this.step, "rtr", rtr);
+    Fixtures.inject(this.step, "logger", Fixtures.newLogger());
+  }
+}
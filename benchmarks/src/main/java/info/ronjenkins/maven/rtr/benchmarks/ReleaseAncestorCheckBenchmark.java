@@ -0,0 +1,100 @@
+/*
+ * Copyright (C) 2016 Ronald Jack Jenkins Jr.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package info.ronjenkins.maven.rtr.benchmarks;
+
+import info.ronjenkins.maven.rtr.reactor.ReactorIndex;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.maven.execution.ProjectDependencyGraph;
+import org.apache.maven.project.MavenProject;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares the eligibility check that finds release projects upstream of
+ * SNAPSHOTs, as implemented before and after the reactor index was
+ * introduced.
+ *
+ * @author Ronald Jack Jenkins Jr.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xss8m")
+public class ReleaseAncestorCheckBenchmark {
+  @Param({ "WIDE", "CHAIN", "DIAMOND", "RANDOM" })
+  public SyntheticReactor.Shape shape;
+  @Param({ "1000", "5000", "20000" })
+  public int                    size;
+  @Param({ "0.5" })
+  public double                 snapshotRatio;
+  private SyntheticReactor      reactor;
+  private ReactorIndex          index;
+
+  @Benchmark
+  public BitSet indexed() {
+    return this.index.findReleaseAncestorsOfSnapshots();
+  }
+
+  /**
+   * The check as ValidateSmartReactorEligibility performed it originally: a
+   * transitive upstream query against Maven's dependency graph for every
+   * SNAPSHOT.
+   *
+   * @return the offending projects.
+   */
+  @Benchmark
+  public List<MavenProject> legacy() {
+    final ProjectDependencyGraph graph = this.reactor.getGraph();
+    final List<MavenProject> badProjects = new ArrayList<>();
+    for (final MavenProject project : this.reactor.getProjects()) {
+      if (project.getArtifact().isSnapshot()) {
+        for (final MavenProject ancestor : graph.getUpstreamProjects(project,
+            true)) {
+          if (!ancestor.getArtifact().isSnapshot()) {
+            badProjects.add(ancestor);
+          }
+        }
+      }
+    }
+    return badProjects;
+  }
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    this.reactor = SyntheticReactor.generate(this.shape, this.size,
+        this.snapshotRatio, new File("synthetic"));
+    this.index = ReactorIndex.build(this.reactor.getProjects(),
+        this.reactor.getGraph());
+  }
+}
@@ -0,0 +1,148 @@
+/*
+ * Copyright (C) 2016 Ronald Jack Jenkins Jr.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package info.ronjenkins.maven.rtr.benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.codehaus.plexus.util.cli.CommandLineException;
+import org.codehaus.plexus.util.cli.CommandLineUtils;
+import org.codehaus.plexus.util.cli.CommandLineUtils.StringStreamConsumer;
+import org.codehaus.plexus.util.cli.Commandline;
+
+/**
+ * Measures how the extension's {@code afterProjectsRead} pipeline scales
+ * with reactor size, by building generated reactors with the Maven command
+ * line and reading the extension's timing report.
+ *
+ * <p>
+ * Each reactor is built with {@code mvn -B -q -Drtr.timingReport=true
+ * validate}, which loads every POM and runs the Smart Reactor without
+ * compiling anything. The extension must be installed in the local
+ * repository in the given version.
+ *
+ * @author Ronald Jack Jenkins Jr.
+ */
+public final class ScalingCurve {
+  /**
+   * Builds one reactor per size and prints a table of median timings.
+   * Arguments are {@code name=value} pairs:
+   * <ul>
+   * <li>{@code directory}: required, where reactors are generated.</li>
+   * <li>{@code extensionVersion}: required, the extension version to
+   * declare.</li>
+   * <li>{@code sizes}: comma-separated module counts, default
+   * {@code 1000,5000,10000,20000,50000}.</li>
+   * <li>{@code runs}: builds per size, default 3.</li>
+   * <li>{@code mvn}: the Maven executable, default {@code mvn}.</li>
+   * <li>{@code shape}, {@code snapshotRatio}, {@code parentDepth},
+   * {@code sharedBom}: as for {@link ReactorGenerator#main(String[])}.</li>
+   * </ul>
+   *
+   * @param args
+   *          see above.
+   * @throws IOException
+   *           if a reactor cannot be generated, built or measured.
+   */
+  public static void main(final String[] args) throws IOException {
+    final Arguments arguments = new Arguments(args);
+    final File directory = new File(arguments.require("directory"));
+    final String extensionVersion = arguments.require("extensionVersion");
+    final List<Integer> sizes = arguments.getInts("sizes",
+        "1000,5000,10000,20000,50000");
+    final int runs = arguments.getInt("runs", 3);
+    final String mvn = arguments.getString("mvn", "mvn");
+    final SyntheticReactor.Shape shape = SyntheticReactor.Shape
+        .valueOf(arguments.getString("shape", "WIDE"));
+    final double snapshotRatio = arguments.getDouble("snapshotRatio", 0.5);
+    final int parentDepth = arguments.getInt("parentDepth", 0);
+    final boolean sharedBom = arguments.getBoolean("sharedBom", false);
+    System.out.println(String.format("%8s %8s %14s %22s %20s", "modules",
+        "projects", "mvn (ms)", "afterProjectsRead (ms)",
+        "afterSessionEnd (ms)"));
+    for (final int size : sizes) {
+      final ReactorGenerator generator = new ReactorGenerator(shape, size,
+          snapshotRatio, parentDepth, sharedBom, extensionVersion);
+      final File reactor = new File(directory, shape + "-" + size);
+      generator.write(reactor);
+      final long[] mvnNanos = new long[runs];
+      final long[] afterProjectsReadNanos = new long[runs];
+      final long[] afterSessionEndNanos = new long[runs];
+      for (int run = 0; run < runs; run++) {
+        mvnNanos[run] = ScalingCurve.build(mvn, reactor);
+        final TimingReport report = TimingReport.read(reactor);
+        afterProjectsReadNanos[run] = report.getWallNanos("lifecycle",
+            "afterProjectsRead");
+        afterSessionEndNanos[run] = report.getWallNanos("lifecycle",
+            "afterSessionEnd");
+      }
+      System.out.println(String.format("%8d %8d %14d %22d %20d", size,
+          generator.getProjectCount(), ScalingCurve.medianMillis(mvnNanos),
+          ScalingCurve.medianMillis(afterProjectsReadNanos),
+          ScalingCurve.medianMillis(afterSessionEndNanos)));
+    }
+  }
+
+  /*
+   * Runs Maven against the given reactor and returns the wall time of the
+   * whole process.
+   */
+  static long build(final String mvn, final File reactor, final String... args)
+      throws IOException {
+    final Commandline commandline = new Commandline();
+    commandline.setExecutable(mvn);
+    commandline.setWorkingDirectory(reactor);
+    commandline.addArguments(new String[] { "-B", "-q",
+        "-Drtr.timingReport=true" });
+    commandline.addArguments(args);
+    commandline.addArguments(new String[] { "validate" });
+    final StringStreamConsumer out = new StringStreamConsumer();
+    final StringStreamConsumer err = new StringStreamConsumer();
+    final long start = System.nanoTime();
+    final int exitCode;
+    try {
+      exitCode = CommandLineUtils.executeCommandLine(commandline, out, err);
+    }
+    catch (final CommandLineException e) {
+      throw new IOException("Unable to execute " + mvn, e);
+    }
+    final long elapsed = System.nanoTime() - start;
+    if (exitCode != 0) {
+      throw new IOException("Build of " + reactor + " failed with exit code "
+          + exitCode + ":\n" + out.getOutput() + err.getOutput());
+    }
+    return elapsed;
+  }
+
+  /*
+   * Returns the median of the given nanosecond values in milliseconds, or -1
+   * if any value is missing.
+   */
+  static long medianMillis(final long[] nanos) {
+    final long[] sorted = nanos.clone();
+    Arrays.sort(sorted);
+    if (sorted.length == 0 || sorted[0] < 0) {
+      return -1;
+    }
+    return TimeUnit.NANOSECONDS.toMillis(sorted[sorted.length / 2]);
+  }
+
+  /* This class is not instantiable. */
+  private ScalingCurve() {}
+}
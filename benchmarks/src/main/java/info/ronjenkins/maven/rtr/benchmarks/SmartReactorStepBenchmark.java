@@ -0,0 +1,142 @@
+/*
+ * Copyright (C) 2016 Ronald Jack Jenkins Jr.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package info.ronjenkins.maven.rtr.benchmarks;
+
+import info.ronjenkins.maven.rtr.RTRComponents;
+import info.ronjenkins.maven.rtr.reactor.ReactorIndex;
+import info.ronjenkins.maven.rtr.steps.BuildSmartReactor;
+import info.ronjenkins.maven.rtr.steps.RebuildProjectDependencyGraph;
+import info.ronjenkins.maven.rtr.steps.ValidateSmartReactorEligibility;
+
+import java.io.File;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.maven.MavenExecutionException;
+import org.apache.maven.execution.MavenSession;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the Smart Reactor start steps, and the reactor index they share,
+ * against generated reactors.
+ *
+ * <p>
+ * Steps receive components carrying a prebuilt index, as they do when run by
+ * the extension. The {@code Unindexed} variants pass no components, which
+ * exercises the fallback path.
+ *
+ * @author Ronald Jack Jenkins Jr.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xss8m")
+public class SmartReactorStepBenchmark {
+  @Param({ "WIDE", "CHAIN", "DIAMOND", "RANDOM" })
+  public SyntheticReactor.Shape           shape;
+  @Param({ "100", "1000", "5000" })
+  public int                              size;
+  @Param({ "0.5" })
+  public double                           snapshotRatio;
+  private SyntheticReactor                reactor;
+  private RTRComponents                   components;
+  private BuildSmartReactor               buildSmartReactor;
+  private ValidateSmartReactorEligibility validate;
+  private RebuildProjectDependencyGraph   rebuildGraph;
+  private MavenSession                    fullSession;
+  private MavenSession                    smartSession;
+  private MavenSession                    buildSession;
+
+  @Benchmark
+  public ReactorIndex buildReactorIndex() {
+    return ReactorIndex.build(this.fullSession);
+  }
+
+  @Benchmark
+  public MavenSession buildSmartReactor() {
+    this.buildSmartReactor.execute(this.buildSession, this.components);
+    return this.buildSession;
+  }
+
+  @Benchmark
+  public MavenSession rebuildProjectDependencyGraph()
+      throws MavenExecutionException {
+    this.rebuildGraph.execute(this.smartSession, this.components);
+    return this.smartSession;
+  }
+
+  @Benchmark
+  public MavenSession rebuildProjectDependencyGraphUnindexed()
+      throws MavenExecutionException {
+    this.rebuildGraph.execute(this.smartSession, null);
+    return this.smartSession;
+  }
+
+  /**
+   * Gives {@link #buildSmartReactor()} an unpruned reactor, since the step
+   * modifies it.
+   */
+  @Setup(Level.Invocation)
+  public void resetReactor() {
+    this.buildSession = Fixtures.newSession(this.reactor.getProjects(),
+        this.reactor.getGraph());
+  }
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    this.reactor = SyntheticReactor.generate(this.shape, this.size,
+        this.snapshotRatio, new File("synthetic"));
+    this.fullSession = Fixtures.newSession(this.reactor.getProjects(),
+        this.reactor.getGraph());
+    this.smartSession = Fixtures.newSession(
+        this.reactor.getSnapshotProjects(), null);
+    this.components = new RTRComponents(new StubProjectBuilder(
+        this.reactor.getProjects()));
+    this.components.setReactorIndex(ReactorIndex.build(this.fullSession));
+    this.buildSmartReactor = new BuildSmartReactor();
+    this.validate = new ValidateSmartReactorEligibility();
+    this.rebuildGraph = new RebuildProjectDependencyGraph();
+    Fixtures.inject(this.buildSmartReactor, "logger", Fixtures.newLogger());
+    Fixtures.inject(this.validate, "logger", Fixtures.newLogger());
+    Fixtures.inject(this.rebuildGraph, "logger", Fixtures.newLogger());
+  }
+
+  @Benchmark
+  public MavenSession validateSmartReactorEligibility()
+      throws MavenExecutionException {
+    this.validate.execute(this.fullSession, this.components);
+    return this.fullSession;
+  }
+
+  @Benchmark
+  public MavenSession validateSmartReactorEligibilityUnindexed()
+      throws MavenExecutionException {
+    this.validate.execute(this.fullSession, null);
+    return this.fullSession;
+  }
+}
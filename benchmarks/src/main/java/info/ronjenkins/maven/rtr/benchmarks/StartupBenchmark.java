@@ -0,0 +1,145 @@
+/*
+ * Copyright (C) 2016 Ronald Jack Jenkins Jr.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package info.ronjenkins.maven.rtr.benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.List;
+
+/**
+ * Measures how much time the extension adds to a Maven invocation, by
+ * building generated reactors with an {@link EmbeddedMaven} in three modes:
+ * <ul>
+ * <li>{@code absent}: the extension is not declared.</li>
+ * <li>{@code disabled}: the extension is declared, and
+ * {@code -Drtr.disabled=true} is given.</li>
+ * <li>{@code enabled}: the extension is declared and active.</li>
+ * </ul>
+ * Every build runs {@code mvn -B -q -o -Drtr.timingReport=true validate}, so
+ * the extension and the reactor's plugins must already be in the local
+ * repository. Modes are interleaved within each run, so that drift in the
+ * JVM or the machine affects them equally.
+ *
+ * <p>
+ * The output is a Markdown table with one row per reactor size and mode, in
+ * a fixed order. The overhead column is the difference from the
+ * {@code absent} median. The extension's callbacks are only timed in the
+ * {@code enabled} mode; a disabled extension returns before it starts
+ * timing.
+ *
+ * @author Ronald Jack Jenkins Jr.
+ */
+public final class StartupBenchmark {
+  private static final String[] MODES = { "absent", "disabled", "enabled" };
+
+  /**
+   * Runs the benchmark. Arguments are {@code name=value} pairs:
+   * <ul>
+   * <li>{@code mavenHome}: required, the Maven installation to embed.</li>
+   * <li>{@code directory}: required, where reactors are generated.</li>
+   * <li>{@code extensionVersion}: required, the extension version to
+   * declare.</li>
+   * <li>{@code sizes}: comma-separated module counts, default
+   * {@code 1,100,1000}.</li>
+   * <li>{@code warmups}: unmeasured runs per size, default 2.</li>
+   * <li>{@code runs}: measured runs per size, default 5.</li>
+   * <li>{@code shape}, {@code snapshotRatio}, {@code parentDepth},
+   * {@code sharedBom}: as for {@link ReactorGenerator#main(String[])}.</li>
+   * </ul>
+   *
+   * @param args
+   *          see above.
+   * @throws IOException
+   *           if a reactor cannot be generated or built.
+   */
+  public static void main(final String[] args) throws IOException {
+    final Arguments arguments = new Arguments(args);
+    final EmbeddedMaven maven = new EmbeddedMaven(new File(
+        arguments.require("mavenHome")));
+    final File directory = new File(arguments.require("directory"));
+    final String extensionVersion = arguments.require("extensionVersion");
+    final List<Integer> sizes = arguments.getInts("sizes", "1,100,1000");
+    final int warmups = arguments.getInt("warmups", 2);
+    final int runs = arguments.getInt("runs", 5);
+    final SyntheticReactor.Shape shape = SyntheticReactor.Shape
+        .valueOf(arguments.getString("shape", "WIDE"));
+    final double snapshotRatio = arguments.getDouble("snapshotRatio", 0.5);
+    final int parentDepth = arguments.getInt("parentDepth", 0);
+    final boolean sharedBom = arguments.getBoolean("sharedBom", false);
+    System.out.println("| modules | mode     | runs | maven (ms) "
+        + "| overhead (ms) | afterProjectsRead (ms) "
+        + "| afterSessionEnd (ms) |");
+    System.out.println("| ---: | :--- | ---: | ---: | ---: | ---: | ---: |");
+    for (final int size : sizes) {
+      final File declared = new File(directory, shape + "-" + size);
+      final File undeclared = new File(directory, shape + "-" + size
+          + "-absent");
+      new ReactorGenerator(shape, size, snapshotRatio, parentDepth,
+          sharedBom, extensionVersion).write(declared);
+      new ReactorGenerator(shape, size, snapshotRatio, parentDepth,
+          sharedBom, null).write(undeclared);
+      final int modes = StartupBenchmark.MODES.length;
+      final long[][] mavenNanos = new long[modes][runs];
+      final long[][] afterProjectsReadNanos = new long[modes][runs];
+      final long[][] afterSessionEndNanos = new long[modes][runs];
+      for (int run = -warmups; run < runs; run++) {
+        for (int mode = 0; mode < modes; mode++) {
+          final File reactor = mode == 0 ? undeclared : declared;
+          final File report = new File(reactor, "target/"
+              + TimingReport.FILE_NAME);
+          Files.deleteIfExists(report.toPath());
+          final long start = System.nanoTime();
+          maven.run(reactor, "-B", "-q", "-o", "-Drtr.timingReport=true",
+              "-Drtr.disabled=" + (mode == 1), "validate");
+          final long elapsed = System.nanoTime() - start;
+          if (run < 0) {
+            continue;
+          }
+          mavenNanos[mode][run] = elapsed;
+          if (report.isFile()) {
+            final TimingReport timings = TimingReport.read(reactor);
+            afterProjectsReadNanos[mode][run] = timings.getWallNanos(
+                "lifecycle", "afterProjectsRead");
+            afterSessionEndNanos[mode][run] = timings.getWallNanos(
+                "lifecycle", "afterSessionEnd");
+          }
+          else {
+            afterProjectsReadNanos[mode][run] = -1;
+            afterSessionEndNanos[mode][run] = -1;
+          }
+        }
+      }
+      final long baseline = ScalingCurve.medianMillis(mavenNanos[0]);
+      for (int mode = 0; mode < modes; mode++) {
+        final long median = ScalingCurve.medianMillis(mavenNanos[mode]);
+        System.out.println(String.format(
+            "| %7d | %-8s | %4d | %10d | %13d | %22s | %20s |", size,
+            StartupBenchmark.MODES[mode], runs, median, median - baseline,
+            StartupBenchmark.format(afterProjectsReadNanos[mode]),
+            StartupBenchmark.format(afterSessionEndNanos[mode])));
+      }
+    }
+  }
+
+  private static String format(final long[] nanos) {
+    final long millis = ScalingCurve.medianMillis(nanos);
+    return millis < 0 ? "n/a" : Long.toString(millis);
+  }
+
+  /* This class is not instantiable. */
+  private StartupBenchmark() {}
+}
@@ -0,0 +1,135 @@
+/*
+ * Copyright (C) 2016 Ronald Jack Jenkins Jr.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package info.ronjenkins.maven.rtr.benchmarks;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.maven.artifact.Artifact;
+import org.apache.maven.model.building.ModelProblem;
+import org.apache.maven.model.building.ModelSource;
+import org.apache.maven.project.DependencyResolutionResult;
+import org.apache.maven.project.MavenProject;
+import org.apache.maven.project.ProjectBuilder;
+import org.apache.maven.project.ProjectBuildingException;
+import org.apache.maven.project.ProjectBuildingRequest;
+import org.apache.maven.project.ProjectBuildingResult;
+
+/**
+ * A project builder that "loads" a POM by copying the model of a known
+ * project, so that reload benchmarks measure the Smart Reactor's bookkeeping
+ * rather than Maven's model builder or the disk.
+ *
+ * @author Ronald Jack Jenkins Jr.
+ */
+public final class StubProjectBuilder implements ProjectBuilder {
+  private static final class Result implements ProjectBuildingResult {
+    private final MavenProject project;
+
+    private Result(final MavenProject project) {
+      this.project = project;
+    }
+
+    @Override
+    public DependencyResolutionResult getDependencyResolutionResult() {
+      return null;
+    }
+
+    @Override
+    public File getPomFile() {
+      return this.project.getFile();
+    }
+
+    @Override
+    public List<ModelProblem> getProblems() {
+      return Collections.emptyList();
+    }
+
+    @Override
+    public MavenProject getProject() {
+      return this.project;
+    }
+
+    @Override
+    public String getProjectId() {
+      return this.project.getId();
+    }
+  }
+
+  private final Map<File, MavenProject> projectsByPom = new HashMap<>();
+
+  /**
+   * Constructor.
+   *
+   * @param projects
+   *          the projects that this builder can load. Not null.
+   */
+  public StubProjectBuilder(final List<MavenProject> projects) {
+    for (final MavenProject project : projects) {
+      this.projectsByPom.put(project.getFile(), project);
+    }
+  }
+
+  @Override
+  public ProjectBuildingResult build(final Artifact projectArtifact,
+      final boolean allowStubModel, final ProjectBuildingRequest request)
+      throws ProjectBuildingException {
+    throw new UnsupportedOperationException();
+  }
+
+  @Override
+  public ProjectBuildingResult build(final Artifact projectArtifact,
+      final ProjectBuildingRequest request) throws ProjectBuildingException {
+    throw new UnsupportedOperationException();
+  }
+
+  @Override
+  public ProjectBuildingResult build(final File projectFile,
+      final ProjectBuildingRequest request) throws ProjectBuildingException {
+    final MavenProject original = this.projectsByPom.get(projectFile);
+    if (original == null) {
+      throw new ProjectBuildingException(null, "Unknown POM", projectFile);
+    }
+    final MavenProject copy = new MavenProject(original.getModel().clone());
+    copy.setFile(projectFile);
+    copy.setParent(original.getParent());
+    copy.setArtifact(original.getArtifact());
+    copy.setPluginArtifacts(original.getPluginArtifacts());
+    return new Result(copy);
+  }
+
+  @Override
+  public List<ProjectBuildingResult> build(final List<File> pomFiles,
+      final boolean recursive, final ProjectBuildingRequest request)
+      throws ProjectBuildingException {
+    final List<ProjectBuildingResult> results = new ArrayList<>(
+        pomFiles.size());
+    for (final File pomFile : pomFiles) {
+      results.add(this.build(pomFile, request));
+    }
+    return results;
+  }
+
+  @Override
+  public ProjectBuildingResult build(final ModelSource modelSource,
+      final ProjectBuildingRequest request) throws ProjectBuildingException {
+    throw new UnsupportedOperationException();
+  }
+}
@@ -0,0 +1,277 @@
+/*
+ * Copyright (C) 2016 Ronald Jack Jenkins Jr.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package info.ronjenkins.maven.rtr.benchmarks;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import org.apache.maven.artifact.Artifact;
+import org.apache.maven.artifact.DefaultArtifact;
+import org.apache.maven.artifact.handler.DefaultArtifactHandler;
+import org.apache.maven.execution.ProjectDependencyGraph;
+import org.apache.maven.graph.DefaultProjectDependencyGraph;
+import org.apache.maven.model.Dependency;
+import org.apache.maven.model.Model;
+import org.apache.maven.model.Parent;
+import org.apache.maven.project.DuplicateProjectException;
+import org.apache.maven.project.MavenProject;
+import org.codehaus.plexus.util.dag.CycleDetectedException;
+
+/**
+ * An in-memory reactor of generated {@link MavenProject}s, sorted and graphed
+ * exactly as Maven would.
+ *
+ * <p>
+ * Every reactor has a SNAPSHOT {@code pom} root that is the parent of all
+ * other modules. Modules are SNAPSHOTs or releases at random, with a fixed
+ * seed so that runs are comparable. A SNAPSHOT module never depends on a
+ * release module, so every generated reactor is eligible to become a Smart
+ * Reactor.
+ *
+ * @author Ronald Jack Jenkins Jr.
+ */
+public final class SyntheticReactor {
+  /**
+   * The dependency structure of the generated modules.
+   */
+  public enum Shape {
+    /** Every module depends on the first module. */
+    WIDE,
+    /** Every module depends on the previous module. */
+    CHAIN,
+    /**
+     * Modules form square layers; every module depends on two modules of the
+     * previous layer.
+     */
+    DIAMOND,
+    /** Every module depends on up to three random earlier modules. */
+    RANDOM
+  }
+
+  static final String GROUP_ID         = "info.ronjenkins.synthetic";
+  static final String RELEASE_VERSION  = "1.0";
+  static final String SNAPSHOT_VERSION = "1.0-SNAPSHOT";
+  static final long   SEED             = 20160101L;
+
+  /**
+   * Generates a reactor.
+   *
+   * @param shape
+   *          not null.
+   * @param size
+   *          the number of modules, not counting the root. At least 1.
+   * @param snapshotRatio
+   *          the fraction of modules that are SNAPSHOTs, between 0 and 1.
+   * @param basedir
+   *          the directory in which the root POM is considered to live. Module
+   *          POMs are considered to live in subdirectories. Nothing is
+   *          written to disk.
+   * @return never null.
+   */
+  public static SyntheticReactor generate(final Shape shape, final int size,
+      final double snapshotRatio, final File basedir) {
+    final Random random = new Random(SyntheticReactor.SEED);
+    final boolean[] snapshots = SyntheticReactor.snapshots(size,
+        snapshotRatio, random);
+    final int[][] dependencies = SyntheticReactor.dependencies(shape,
+        snapshots, random);
+    final MavenProject root = SyntheticReactor.newProject("root",
+        SyntheticReactor.SNAPSHOT_VERSION, "pom", null, new File(basedir,
+            "pom.xml"));
+    root.setExecutionRoot(true);
+    final List<MavenProject> projects = new ArrayList<>(size + 1);
+    projects.add(root);
+    for (int i = 0; i < size; i++) {
+      final String artifactId = SyntheticReactor.artifactId(i);
+      final MavenProject module = SyntheticReactor.newProject(artifactId,
+          SyntheticReactor.version(snapshots[i]), "jar", root, new File(
+              basedir, artifactId + "/pom.xml"));
+      for (final int upstream : dependencies[i]) {
+        final Dependency dependency = new Dependency();
+        dependency.setGroupId(SyntheticReactor.GROUP_ID);
+        dependency.setArtifactId(SyntheticReactor.artifactId(upstream));
+        dependency.setVersion(SyntheticReactor.version(snapshots[upstream]));
+        module.getModel().addDependency(dependency);
+      }
+      projects.add(module);
+    }
+    final ProjectDependencyGraph graph;
+    try {
+      graph = new DefaultProjectDependencyGraph(projects);
+    }
+    catch (final CycleDetectedException | DuplicateProjectException e) {
+      throw new IllegalStateException(e);
+    }
+    return new SyntheticReactor(graph.getSortedProjects(), graph);
+  }
+
+  /*
+   * Returns the module artifactId for the given index.
+   */
+  static String artifactId(final int index) {
+    return "module-" + index;
+  }
+
+  /*
+   * Returns the indices of the modules that each module depends on, given the
+   * shape. SNAPSHOT modules only depend on SNAPSHOT modules, which keeps the
+   * reactor eligible to become a Smart Reactor.
+   */
+  static int[][] dependencies(final Shape shape, final boolean[] snapshots,
+      final Random random) {
+    final int[][] dependencies = new int[snapshots.length][];
+    for (int i = 0; i < snapshots.length; i++) {
+      final List<Integer> eligible = new ArrayList<>();
+      for (final int upstream : SyntheticReactor.upstream(shape,
+          snapshots.length, i, random)) {
+        if (!snapshots[i] || snapshots[upstream]) {
+          eligible.add(upstream);
+        }
+      }
+      dependencies[i] = new int[eligible.size()];
+      for (int j = 0; j < dependencies[i].length; j++) {
+        dependencies[i][j] = eligible.get(j);
+      }
+    }
+    return dependencies;
+  }
+
+  private static MavenProject newProject(final String artifactId,
+      final String version, final String packaging, final MavenProject parent,
+      final File pomFile) {
+    final Model model = new Model();
+    model.setModelVersion("4.0.0");
+    model.setGroupId(SyntheticReactor.GROUP_ID);
+    model.setArtifactId(artifactId);
+    model.setVersion(version);
+    model.setPackaging(packaging);
+    if (parent != null) {
+      final Parent modelParent = new Parent();
+      modelParent.setGroupId(parent.getGroupId());
+      modelParent.setArtifactId(parent.getArtifactId());
+      modelParent.setVersion(parent.getVersion());
+      model.setParent(modelParent);
+    }
+    final MavenProject project = new MavenProject(model);
+    project.setFile(pomFile);
+    project.setParent(parent);
+    project.setArtifact(new DefaultArtifact(SyntheticReactor.GROUP_ID,
+        artifactId, version, null, packaging, null,
+        new DefaultArtifactHandler(packaging)));
+    project.setPluginArtifacts(Collections.<Artifact> emptySet());
+    return project;
+  }
+
+  /*
+   * Chooses, with the given ratio, which modules are SNAPSHOTs.
+   */
+  static boolean[] snapshots(final int size, final double snapshotRatio,
+      final Random random) {
+    final boolean[] snapshots = new boolean[size];
+    for (int i = 0; i < size; i++) {
+      snapshots[i] = random.nextDouble() < snapshotRatio;
+    }
+    return snapshots;
+  }
+
+  private static Set<Integer> upstream(final Shape shape, final int size,
+      final int index, final Random random) {
+    final Set<Integer> upstream = new LinkedHashSet<>();
+    if (index == 0) {
+      return upstream;
+    }
+    switch (shape) {
+      case WIDE:
+        upstream.add(0);
+        break;
+      case CHAIN:
+        upstream.add(index - 1);
+        break;
+      case DIAMOND:
+        final int width = Math.max(1, (int) Math.sqrt(size));
+        final int layer = index / width;
+        if (layer > 0) {
+          final int previousLayer = (layer - 1) * width;
+          upstream.add(previousLayer + index % width);
+          upstream.add(previousLayer + (index + 1) % width);
+        }
+        break;
+      case RANDOM:
+        for (int i = 0; i < 3; i++) {
+          upstream.add(random.nextInt(index));
+        }
+        break;
+      default:
+        throw new IllegalArgumentException("Unknown shape: " + shape);
+    }
+    return upstream;
+  }
+
+  /*
+   * Returns the module version for the given SNAPSHOT status.
+   */
+  static String version(final boolean snapshot) {
+    return snapshot ? SyntheticReactor.SNAPSHOT_VERSION
+        : SyntheticReactor.RELEASE_VERSION;
+  }
+
+  private final List<MavenProject>     projects;
+  private final ProjectDependencyGraph graph;
+
+  private SyntheticReactor(final List<MavenProject> projects,
+      final ProjectDependencyGraph graph) {
+    this.projects = Collections.unmodifiableList(projects);
+    this.graph = graph;
+  }
+
+  /**
+   * Returns the dependency graph of the whole reactor.
+   *
+   * @return never null.
+   */
+  public ProjectDependencyGraph getGraph() {
+    return this.graph;
+  }
+
+  /**
+   * Returns the reactor, sorted.
+   *
+   * @return never null, unmodifiable.
+   */
+  public List<MavenProject> getProjects() {
+    return this.projects;
+  }
+
+  /**
+   * Returns the SNAPSHOT projects of the reactor, sorted.
+   *
+   * @return never null, modifiable.
+   */
+  public List<MavenProject> getSnapshotProjects() {
+    final List<MavenProject> snapshots = new ArrayList<>();
+    for (final MavenProject project : this.projects) {
+      if (project.getArtifact().isSnapshot()) {
+        snapshots.add(project);
+      }
+    }
+    return snapshots;
+  }
+}
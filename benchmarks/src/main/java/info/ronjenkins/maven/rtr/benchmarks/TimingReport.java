@@ -0,0 +1,93 @@
+/*
+ * Copyright (C) 2016 Ronald Jack Jenkins Jr.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package info.ronjenkins.maven.rtr.benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Reads the {@code rtr-timings.json} report that the extension writes when
+ * {@code rtr.timingReport} is enabled.
+ *
+ * <p>
+ * The report is parsed line by line, relying on the extension writing one
+ * sample per line.
+ *
+ * @author Ronald Jack Jenkins Jr.
+ */
+public final class TimingReport {
+  /**
+   * The name of the report file in the execution root's build directory.
+   */
+  public static final String  FILE_NAME = "rtr-timings.json";
+  private static final Pattern SAMPLE    = Pattern
+      .compile("\\{\"kind\": \"([^\"]*)\", \"name\": \"([^\"]*)\", .*\"wallNanos\": (-?\\d+)");
+
+  /**
+   * Reads the report of the given reactor, from its {@code target}
+   * directory.
+   *
+   * @param directory
+   *          the directory of the execution root. Not null.
+   * @return never null.
+   * @throws IOException
+   *           if the report cannot be read.
+   */
+  public static TimingReport read(final File directory) throws IOException {
+    final File file = new File(directory, "target/" + TimingReport.FILE_NAME);
+    final List<String[]> samples = new ArrayList<>();
+    for (final String line : Files.readAllLines(file.toPath(),
+        StandardCharsets.UTF_8)) {
+      final Matcher matcher = TimingReport.SAMPLE.matcher(line);
+      if (matcher.find()) {
+        samples.add(new String[] { matcher.group(1), matcher.group(2),
+            matcher.group(3) });
+      }
+    }
+    return new TimingReport(samples);
+  }
+
+  private final List<String[]> samples;
+
+  private TimingReport(final List<String[]> samples) {
+    this.samples = samples;
+  }
+
+  /**
+   * Returns the total wall time of all samples with the given kind and name.
+   *
+   * @param kind
+   *          e.g. "lifecycle", "step" or "phase". Not null.
+   * @param name
+   *          not null.
+   * @return -1 if there is no such sample.
+   */
+  public long getWallNanos(final String kind, final String name) {
+    long total = -1;
+    for (final String[] sample : this.samples) {
+      if (sample[0].equals(kind) && sample[1].equals(name)) {
+        total = Math.max(total, 0) + Long.parseLong(sample[2]);
+      }
+    }
+    return total;
+  }
+}
@@ -0,0 +1,60 @@
+// Copyright (C) 2016 Ronald Jack Jenkins Jr.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+def buildLog = new java.io.File(basedir, 'build.log').readLines('UTF-8')
+
+if (!buildLog.contains('[INFO] Assembling smart reactor...')) {
+  throw new IllegalStateException('Extension was not executed.')
+}
+if (!buildLog.any { it.contains('Nothing will be built.') }) {
+  throw new IllegalStateException('Plan was not reported.')
+}
+if (!buildLog.contains('[INFO] BUILD SUCCESS')) {
+  throw new IllegalStateException('Session did not end cleanly.')
+}
+if (!buildLog.contains('[INFO] Building Smart Reactor placeholder 0.1.0-SNAPSHOT')) {
+  throw new IllegalStateException('Placeholder project was not the reactor.')
+}
+['plan-output', 'module-a', 'module-b'].each { artifactId ->
+  if (buildLog.contains("[INFO] Building ${artifactId} 0.1.0-SNAPSHOT".toString())) {
+    throw new IllegalStateException("${artifactId} was built.")
+  }
+}
+['module-a', 'module-b'].each { module ->
+  if (new java.io.File(basedir, "${module}/target").exists()) {
+    throw new IllegalStateException("${module} has build output.")
+  }
+}
+
+def planFile = new java.io.File(basedir, 'rtr-plan.json')
+if (!planFile.isFile()) {
+  throw new IllegalStateException('Plan was not written.')
+}
+def plan = new groovy.json.JsonSlurper().parseText(planFile.getText('UTF-8'))
+if (plan.release) {
+  throw new IllegalStateException('Plan claims a release was requested.')
+}
+def expected = [
+  [artifactId: 'plan-output', path: ''],
+  [artifactId: 'module-a', path: 'module-a'],
+  [artifactId: 'module-b', path: 'module-b']
+]
+def actual = plan.projects.collect { [artifactId: it.artifactId, path: it.path] }
+if (actual != expected) {
+  throw new IllegalStateException("Unexpected plan: ${actual}")
+}
+if (plan.projects.any { it.groupId != 'it' || it.version != '0.1.0-SNAPSHOT' }) {
+  throw new IllegalStateException("Unexpected coordinates: ${plan.projects}")
+}
+
+return true
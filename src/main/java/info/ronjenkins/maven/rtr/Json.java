@@ -0,0 +1,71 @@
+/*
+ * Copyright (C) 2016 Ronald Jack Jenkins Jr.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package info.ronjenkins.maven.rtr;
+
+/**
+ * Helpers for writing the small JSON documents that the Smart Reactor
+ * produces.
+ *
+ * @author Ronald Jack Jenkins Jr.
+ */
+public final class Json {
+  /**
+   * Appends the given value to the given JSON document as a JSON string.
+   *
+   * @param json
+   *          not null.
+   * @param value
+   *          may be null, in which case JSON null is appended.
+   */
+  public static void appendString(final StringBuilder json,
+      final String value) {
+    if (value == null) {
+      json.append("null");
+      return;
+    }
+    json.append('"');
+    for (int i = 0; i < value.length(); i++) {
+      final char c = value.charAt(i);
+      switch (c) {
+        case '"':
+          json.append("\\\"");
+          break;
+        case '\\':
+          json.append("\\\\");
+          break;
+        case '\n':
+          json.append("\\n");
+          break;
+        case '\r':
+          json.append("\\r");
+          break;
+        case '\t':
+          json.append("\\t");
+          break;
+        default:
+          if (c < 0x20) {
+            json.append(String.format("\\u%04x", (int) c));
+          }
+          else {
+            json.append(c);
+          }
+      }
+    }
+    json.append('"');
+  }
+
+  private Json() {}
+}
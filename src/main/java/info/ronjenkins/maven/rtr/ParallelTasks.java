@@ -0,0 +1,154 @@
+/*
+ * Copyright (C) 2016 Ronald Jack Jenkins Jr.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package info.ronjenkins.maven.rtr;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Applies a task to every element of a list with a bounded number of threads,
+ * as the Smart Reactor does when it backs up, restores and reloads POMs.
+ *
+ * <p>
+ * Every element is processed, even if the task fails for some of them. The
+ * failures are gathered in list order, so that callers can report them
+ * together.
+ *
+ * @author Ronald Jack Jenkins Jr.
+ */
+public final class ParallelTasks {
+  /**
+   * A task on a single element. Implementations must be safe to call
+   * concurrently for different elements.
+   *
+   * @param <I>
+   *          the type of the elements.
+   * @param <O>
+   *          the type of the results.
+   */
+  public interface Task<I, O> {
+    /**
+     * Applies this task to the given element.
+     *
+     * @param input
+     *          not null.
+     * @return the result, which may be null.
+     * @throws Exception
+     *           as needed.
+     */
+    O apply(I input) throws Exception;
+  }
+
+  /**
+   * Applies the given task to all of the given elements.
+   *
+   * @param <I>
+   *          the type of the elements.
+   * @param <O>
+   *          the type of the results.
+   * @param inputs
+   *          not null.
+   * @param threads
+   *          the maximum number of threads to use. Values less than 2 apply
+   *          the task sequentially, on the calling thread.
+   * @param task
+   *          not null.
+   * @param failures
+   *          not null. Every exception thrown by the task is added to it, in
+   *          the order of the elements.
+   * @return the results of the task, in the order of the elements. The result
+   *         for an element whose task failed is null.
+   * @throws InterruptedException
+   *           if the calling thread is interrupted while waiting for the
+   *           other threads. Tasks that are still running are interrupted.
+   */
+  public static <I, O> List<O> applyToAll(final List<I> inputs,
+      final int threads, final Task<I, O> task, final List<Exception> failures)
+      throws InterruptedException {
+    final List<O> results = new ArrayList<>(inputs.size());
+    if (threads < 2 || inputs.size() < 2) {
+      for (final I input : inputs) {
+        try {
+          results.add(task.apply(input));
+        }
+        catch (final Exception e) {
+          results.add(null);
+          failures.add(e);
+        }
+      }
+      return results;
+    }
+    final ExecutorService executor = Executors.newFixedThreadPool(Math.min(
+        threads, inputs.size()));
+    try {
+      final List<Future<O>> futures = new ArrayList<>(inputs.size());
+      for (final I input : inputs) {
+        futures.add(executor.submit(new Callable<O>() {
+          @Override
+          public O call() throws Exception {
+            return task.apply(input);
+          }
+        }));
+      }
+      // Wait for every element, gathering every failure in list order.
+      for (final Future<O> future : futures) {
+        try {
+          results.add(future.get());
+        }
+        catch (final ExecutionException e) {
+          if (!(e.getCause() instanceof Exception)) {
+            throw (Error) e.getCause();
+          }
+          results.add(null);
+          failures.add((Exception) e.getCause());
+        }
+      }
+      return results;
+    }
+    finally {
+      executor.shutdownNow();
+    }
+  }
+
+  /**
+   * Adds every failure but the first to the given exception as suppressed.
+   * Callers report the first failure as the cause of the given exception.
+   *
+   * @param <T>
+   *          the type of the given exception.
+   * @param e
+   *          not null.
+   * @param failures
+   *          not null.
+   * @return the given exception.
+   */
+  public static <T extends Throwable> T suppressRest(final T e,
+      final List<? extends Throwable> failures) {
+    for (final Throwable failure : failures.subList(
+        Math.min(1, failures.size()), failures.size())) {
+      e.addSuppressed(failure);
+    }
+    return e;
+  }
+
+  /* This class is not instantiable. */
+  private ParallelTasks() {}
+}
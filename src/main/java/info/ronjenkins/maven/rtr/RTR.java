@@ -16,11 +16,21 @@
 package info.ronjenkins.maven.rtr;
 
 import info.ronjenkins.maven.rtr.exceptions.SmartReactorSanityCheckException;
+import info.ronjenkins.maven.rtr.reactor.ReactorIndex;
+import info.ronjenkins.maven.rtr.reactor.ReactorPlan;
 import info.ronjenkins.maven.rtr.steps.SmartReactorStep;
+import info.ronjenkins.maven.rtr.timing.ExecutionTimings;
 
+import java.io.File;
+import java.io.IOException;
 import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.apache.commons.lang.exception.ExceptionUtils;
 import org.apache.maven.AbstractMavenLifecycleParticipant;
@@ -42,6 +52,8 @@ import org.codehaus.plexus.logging.Logger;
  */
 @Component(role = AbstractMavenLifecycleParticipant.class, hint = "rtr")
 public class RTR extends AbstractMavenLifecycleParticipant {
+  private static final String TIMING_REPORT = "rtr-timings.json";
+
   private static void checkForRequiredClasses() {
     try {
       new DefaultProjectDependencyGraph(new ArrayList<MavenProject>());
@@ -59,6 +71,7 @@ public class RTR extends AbstractMavenLifecycleParticipant {
   @Requirement
   private ProjectBuilder                  builder;
   protected List<String>                  startSteps;
+  protected List<String>                  planSteps;
   protected List<String>                  endSuccessSteps;
   protected List<String>                  endFailureSteps;
   @Requirement(role = SmartReactorStep.class)
@@ -66,9 +79,11 @@ public class RTR extends AbstractMavenLifecycleParticipant {
   private RTRComponents                   components;
   private boolean                         disabledDueToDoubleLoad;
   private boolean                         disabled;
-  private boolean                         release;
-  private boolean                         backupPomsCreated;
-  private boolean                         externalSnapshotsAllowed;
+  private RTRSettings                     settings;
+  private final Set<File>                 backupPoms = Collections
+      .newSetFromMap(new ConcurrentHashMap<File, Boolean>());
+  private File                            snapshotCheckCache;
+  private ExecutionTimings                timings;
 
   /**
    * RTR entry point.
@@ -98,12 +113,45 @@ public class RTR extends AbstractMavenLifecycleParticipant {
     if (this.disabled) {
       return;
     }
-    this.release = RTRConfig.isRelease(session, executionRoot);
-    this.externalSnapshotsAllowed = RTRConfig.isExternalSnapshotsAllowed(
-        session, executionRoot);
-    this.logger.info("Assembling smart reactor...");
-    this.components = new RTRComponents(this.builder);
-    this.executeSteps(this.startSteps, session, this.components);
+    if (RTRConfig.isTimingReport(session, executionRoot)) {
+      this.timings = new ExecutionTimings();
+    }
+    final ExecutionTimings.Sample total = this.startSample("lifecycle",
+        "afterProjectsRead");
+    try {
+      // Resolve the configuration of the execution root once, so that steps
+      // don't have to look it up again.
+      final RTRSettings settings = RTRSettings.resolve(session);
+      this.settings = settings;
+      this.snapshotCheckCache = RTR.getCacheFile(
+          settings.getSnapshotCheckCache(), executionRoot);
+      this.logger.info("Assembling smart reactor...");
+      this.components = new RTRComponents(this.builder);
+      this.components.setSettings(settings);
+      this.components.setTimings(this.timings);
+      final File planCache = RTR.getCacheFile(settings.getPlanCache(),
+          executionRoot);
+      final String planKey = planCache == null ? null : ReactorPlan
+          .computeKey(session);
+      final ReactorPlan plan = this.readPlan(planCache, planKey, session);
+      if (plan == null) {
+        this.components.setReactorIndex(ReactorIndex.build(session));
+      }
+      else {
+        this.components.setReactorIndex(plan.toIndex(session.getProjects()));
+        this.components.setReactorPlan(plan);
+      }
+      // In plan-only mode, the plan steps end the session instead of
+      // transforming the reactor.
+      this.executeSteps(this.isPlanOnly() ? this.planSteps : this.startSteps,
+          session, this.components);
+      if (plan == null && planKey != null) {
+        this.writePlan(planCache, planKey, session);
+      }
+    }
+    finally {
+      this.stopSample(total);
+    }
     // Done. Maven build will proceed from here, none the wiser. ;)
   }
 
@@ -117,12 +165,35 @@ public class RTR extends AbstractMavenLifecycleParticipant {
     if (this.disabled) {
       return;
     }
-    if (session.getResult().hasExceptions()) {
-      this.executeSteps(this.endFailureSteps, session, this.components);
+    final ExecutionTimings.Sample total = this.startSample("lifecycle",
+        "afterSessionEnd");
+    try {
+      // Nothing is transformed in plan-only mode, or if the configuration
+      // could not be resolved, so there is nothing to finish.
+      if (this.settings == null || this.isPlanOnly()) {
+        return;
+      }
+      if (session.getResult().hasExceptions()) {
+        this.executeSteps(this.endFailureSteps, session, this.components);
+      }
+      else {
+        this.executeSteps(this.endSuccessSteps, session, this.components);
+      }
     }
-    else {
-      this.executeSteps(this.endSuccessSteps, session, this.components);
+    finally {
+      this.stopSample(total);
+      this.writeTimingReport(session);
+    }
+  }
+
+  private static File getCacheFile(final String path,
+      final MavenProject executionRoot) {
+    if (path == null) {
+      return null;
     }
+    final File file = new File(path);
+    return file.isAbsolute() || executionRoot == null ? file : new File(
+        executionRoot.getBasedir(), path);
   }
 
   private void detectDoubleExecution(final MavenSession session)
@@ -166,7 +237,13 @@ public class RTR extends AbstractMavenLifecycleParticipant {
         throw new MavenExecutionException("Unable to find step '" + name
             + "' to execute", new IllegalStateException());
       }
-      step.execute(session, components);
+      final ExecutionTimings.Sample sample = this.startSample("step", name);
+      try {
+        step.execute(session, components);
+      }
+      finally {
+        this.stopSample(sample);
+      }
     }
   }
 
@@ -187,14 +264,20 @@ public class RTR extends AbstractMavenLifecycleParticipant {
       Thread.currentThread().setContextClassLoader(plexusCore);
       mvnExtensionsXml.addAll(this.container
           .lookupList(AbstractMavenLifecycleParticipant.class));
-      // Get the .mvn/extensions.xml extensions.
+      // Get the .mvn/extensions.xml extensions. Projects with the same build
+      // extensions share a realm, so look up each distinct realm only once;
+      // the number of lookups then depends on the number of distinct
+      // extension sets, not on the size of the reactor.
+      final Set<ClassLoader> visitedRealms = Collections
+          .newSetFromMap(new IdentityHashMap<ClassLoader, Boolean>());
+      visitedRealms.add(plexusCore);
       for (final MavenProject project : session.getProjects()) {
         // getClassRealm() is not considered part of Maven's public API for
         // plugins, but no mention is made of extensions. It's the only reliable
         // way to see which extensions are loaded for each project, so we'll use
         // it as long as we can get away with it.
         final ClassLoader projectRealm = project.getClassRealm();
-        if (projectRealm != null) {
+        if (projectRealm != null && visitedRealms.add(projectRealm)) {
           Thread.currentThread().setContextClassLoader(projectRealm);
           mvnExtensionsXml.addAll(this.container
               .lookupList(AbstractMavenLifecycleParticipant.class));
@@ -208,14 +291,149 @@ public class RTR extends AbstractMavenLifecycleParticipant {
     return mvnExtensionsXml;
   }
 
+  private boolean isPlanOnly() {
+    return this.settings.getPlanOutput() != null;
+  }
+
+  private ReactorPlan readPlan(final File planCache, final String planKey,
+      final MavenSession session) {
+    if (planKey == null) {
+      return null;
+    }
+    final ReactorPlan plan = ReactorPlan.read(planCache);
+    if (plan == null || !plan.matches(planKey, session.getProjects())) {
+      this.logger.debug("No usable Smart Reactor plan in " + planCache);
+      return null;
+    }
+    this.logger.info("Using cached Smart Reactor plan from " + planCache);
+    return plan;
+  }
+
+  private ExecutionTimings.Sample startSample(final String kind,
+      final String name) {
+    return this.timings == null ? null : this.timings.start(kind, name);
+  }
+
+  private void stopSample(final ExecutionTimings.Sample sample) {
+    if (sample != null) {
+      this.timings.stop(sample);
+    }
+  }
+
+  private void writeTimingReport(final MavenSession session) {
+    if (this.timings == null) {
+      return;
+    }
+    final MavenProject executionRoot = session.getTopLevelProject();
+    final String buildDirectory = executionRoot.getBuild() == null ? null
+        : executionRoot.getBuild().getDirectory();
+    final File report = new File(buildDirectory == null ? new File(
+        executionRoot.getBasedir(), "target") : new File(buildDirectory),
+        RTR.TIMING_REPORT);
+    try {
+      this.timings.write(report);
+      this.logger.info("Smart Reactor timing report written to " + report);
+    }
+    catch (final IOException e) {
+      // The report is diagnostic; never fail the build over it.
+      this.logger.warn("Unable to write Smart Reactor timing report to "
+          + report + ": " + e.getMessage());
+    }
+  }
+
+  private void writePlan(final File planCache, final String planKey,
+      final MavenSession session) {
+    final ReactorIndex index = this.components.getReactorIndex();
+    // Store what the Smart Reactor rules selected, not the final reactor,
+    // which may also have been pruned based on the state of the working tree.
+    BitSet retained = this.components.getSmartReactorIds();
+    if (retained == null) {
+      retained = new BitSet(index.size());
+      for (final MavenProject project : session.getProjects()) {
+        final int id = index.getId(project);
+        if (id >= 0) {
+          retained.set(id);
+        }
+      }
+    }
+    final ReactorPlan plan = ReactorPlan.create(planKey, index, retained);
+    try {
+      plan.write(planCache);
+    }
+    catch (final IOException e) {
+      // The cache is an optimization; never fail the build over it.
+      this.logger.warn("Unable to write Smart Reactor plan to " + planCache
+          + ": " + e.getMessage());
+    }
+  }
+
+  /**
+   * Returns the strategy used to back up POMs.
+   *
+   * @return never null when the Smart Reactor is enabled.
+   * @see RTRConfig#getBackupStrategy(MavenSession, MavenProject)
+   */
+  public String getBackupStrategy() {
+    return this.settings.getBackupStrategy();
+  }
+
+  /**
+   * Returns the number of threads used to create, remove and restore backup
+   * POMs.
+   *
+   * @return 1 or more when the Smart Reactor is enabled.
+   */
+  public int getBackupThreads() {
+    return this.settings.getBackupThreads();
+  }
+
+  /**
+   * Returns the number of threads used to reload release POMs from disk.
+   *
+   * @return 1 or more when the Smart Reactor is enabled.
+   */
+  public int getReloadThreads() {
+    return this.settings.getReloadThreads();
+  }
+
+  /**
+   * Returns the location of the cache of external SNAPSHOT check results.
+   *
+   * @return null if the cache is disabled.
+   */
+  public File getSnapshotCheckCache() {
+    return this.snapshotCheckCache;
+  }
+
+  /**
+   * Indicates whether or not the release process created a backup of the
+   * given POM.
+   *
+   * @param pomFile
+   *          may be null.
+   * @return true if the POM has been backed up, false otherwise.
+   */
+  public boolean isBackupPomCreated(final File pomFile) {
+    return pomFile != null && this.backupPoms.contains(pomFile);
+  }
+
   /**
    * Indicates whether or not backup POMs were created by the release process.
    *
-   * @return backupPomsCreated true if backup POMs have been created, false
-   *         otherwise.
+   * @return true if any backup POM has been created, false otherwise.
    */
   public boolean isBackupPomsCreated() {
-    return this.backupPomsCreated;
+    return !this.backupPoms.isEmpty();
+  }
+
+  /**
+   * Indicates whether or not release POMs should be reloaded from disk in a
+   * single batch.
+   *
+   * @return true if batch reload is enabled, false otherwise.
+   */
+  public boolean isBatchReload() {
+    return this.settings.isBatchReload();
   }
 
   /**
@@ -225,7 +443,7 @@ public class RTR extends AbstractMavenLifecycleParticipant {
    * @return true if allowed, false if prohibited.
    */
   public boolean isExternalSnapshotsAllowed() {
-    return this.externalSnapshotsAllowed;
+    return this.settings.isExternalSnapshotsAllowed();
   }
 
   /**
@@ -234,17 +452,82 @@ public class RTR extends AbstractMavenLifecycleParticipant {
    * @return true if a release was requested, false otherwise.
    */
   public boolean isRelease() {
-    return this.release;
+    return this.settings.isRelease();
   }
 
   /**
-   * Sets the flag that indicates whether or not backup POMs were created by the
-   * release process.
+   * Indicates whether or not release versions should be applied to the
+   * in-memory reactor instead of reloading the rewritten POMs from disk.
    *
-   * @param backupPomsCreated
-   *          true if backup POMs have been created, false otherwise.
+   * @return true if the reactor should be transformed in memory, false
+   *         otherwise.
    */
-  public void setBackupPomsCreated(final boolean backupPomsCreated) {
-    this.backupPomsCreated = backupPomsCreated;
+  public boolean isInMemoryTransform() {
+    return this.settings.isInMemoryTransform();
+  }
+
+  /**
+   * Indicates whether or not only POMs that were changed by the release
+   * transformation, and their in-reactor children, should be reloaded.
+   *
+   * @return true if only changed POMs should be reloaded, false otherwise.
+   */
+  public boolean isReloadChangedPomsOnly() {
+    return this.settings.isReloadChangedPomsOnly();
+  }
+
+  /**
+   * Indicates whether or not a POM journal left behind by an interrupted
+   * release should be replayed before a new release starts.
+   *
+   * @return true if the journal should be replayed, false if its presence
+   *         should fail the release.
+   */
+  public boolean isReplayJournal() {
+    return this.settings.isReplayJournal();
+  }
+
+  /**
+   * Indicates whether or not release POMs should be rewritten in a single
+   * streaming pass instead of by the Maven Release Manager.
+   *
+   * @return true if POMs should be rewritten by streaming, false otherwise.
+   */
+  public boolean isStreamingRewrite() {
+    return this.settings.isStreamingRewrite();
+  }
+
+  /**
+   * Indicates whether or not external SNAPSHOT artifacts should be found by
+   * scanning the whole reactor at once instead of by the Maven Release
+   * Manager.
+   *
+   * @return true if the reactor should be scanned at once, false otherwise.
+   */
+  public boolean isReactorSnapshotScan() {
+    return this.settings.isReactorSnapshotScan();
+  }
+
+  /**
+   * Records whether or not the release process created a backup of the given
+   * POM. Safe to call concurrently.
+   *
+   * @param pomFile
+   *          may be null, in which case nothing is recorded.
+   * @param backupPomCreated
+   *          true if the POM has been backed up, false if its backup has been
+   *          restored or removed.
+   */
+  public void setBackupPomCreated(final File pomFile,
+      final boolean backupPomCreated) {
+    if (pomFile == null) {
+      return;
+    }
+    if (backupPomCreated) {
+      this.backupPoms.add(pomFile);
+    }
+    else {
+      this.backupPoms.remove(pomFile);
+    }
   }
 }
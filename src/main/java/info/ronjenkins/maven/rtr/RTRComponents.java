@@ -15,6 +15,14 @@
  */
 package info.ronjenkins.maven.rtr;
 
+import info.ronjenkins.maven.rtr.reactor.ReactorIndex;
+import info.ronjenkins.maven.rtr.reactor.ReactorPlan;
+import info.ronjenkins.maven.rtr.timing.ExecutionTimings;
+
+import java.io.File;
+import java.util.BitSet;
+import java.util.Map;
+
 import org.apache.commons.lang.Validate;
 import org.apache.maven.project.ProjectBuilder;
 
@@ -27,6 +35,12 @@ import org.apache.maven.project.ProjectBuilder;
 // TODO: work on eliminating this class if possible.
 public final class RTRComponents {
   private final ProjectBuilder projectBuilder;
+  private ReactorIndex         reactorIndex;
+  private Map<File, String>    releasePomDigests;
+  private ReactorPlan          reactorPlan;
+  private RTRSettings          settings;
+  private BitSet               smartReactorIds;
+  private ExecutionTimings     timings;
 
   /**
    * Constructor.
@@ -47,4 +61,122 @@ public final class RTRComponents {
   public ProjectBuilder getProjectBuilder() {
     return this.projectBuilder;
   }
+
+  /**
+   * Returns the cached plan that was applied to this session's reactor.
+   *
+   * @return null if no cached plan was applied.
+   */
+  public ReactorPlan getReactorPlan() {
+    return this.reactorPlan;
+  }
+
+  /**
+   * Returns the digests of the reactor POMs, taken before they were rewritten
+   * for release.
+   *
+   * @return null if no digests were taken.
+   */
+  public Map<File, String> getReleasePomDigests() {
+    return this.releasePomDigests;
+  }
+
+  /**
+   * Returns the configuration resolved for this session.
+   *
+   * @return null if the configuration has not been resolved.
+   */
+  public RTRSettings getSettings() {
+    return this.settings;
+  }
+
+  /**
+   * Returns the reactor index ids of the projects selected by the Smart
+   * Reactor rules, before any further pruning.
+   *
+   * @return null if the Smart Reactor has not been built.
+   */
+  public BitSet getSmartReactorIds() {
+    return this.smartReactorIds;
+  }
+
+  /**
+   * Returns the timings of this session's Smart Reactor work.
+   *
+   * @return null if timings are not being recorded.
+   */
+  public ExecutionTimings getTimings() {
+    return this.timings;
+  }
+
+  /**
+   * Returns the index of the original reactor.
+   *
+   * @return null if the index has not been built.
+   */
+  public ReactorIndex getReactorIndex() {
+    return this.reactorIndex;
+  }
+
+  /**
+   * Sets the cached plan that was applied to this session's reactor.
+   *
+   * @param reactorPlan
+   *          can be null.
+   */
+  public void setReactorPlan(final ReactorPlan reactorPlan) {
+    this.reactorPlan = reactorPlan;
+  }
+
+  /**
+   * Sets the digests of the reactor POMs, taken before they were rewritten for
+   * release.
+   *
+   * @param releasePomDigests
+   *          can be null.
+   */
+  public void setReleasePomDigests(final Map<File, String> releasePomDigests) {
+    this.releasePomDigests = releasePomDigests;
+  }
+
+  /**
+   * Sets the configuration resolved for this session.
+   *
+   * @param settings
+   *          can be null.
+   */
+  public void setSettings(final RTRSettings settings) {
+    this.settings = settings;
+  }
+
+  /**
+   * Sets the reactor index ids of the projects selected by the Smart Reactor
+   * rules, before any further pruning.
+   *
+   * @param smartReactorIds
+   *          can be null.
+   */
+  public void setSmartReactorIds(final BitSet smartReactorIds) {
+    this.smartReactorIds = smartReactorIds;
+  }
+
+  /**
+   * Sets the timings of this session's Smart Reactor work.
+   *
+   * @param timings
+   *          can be null.
+   */
+  public void setTimings(final ExecutionTimings timings) {
+    this.timings = timings;
+  }
+
+  /**
+   * Sets the index of the original reactor.
+   *
+   * @param reactorIndex
+   *          can be null.
+   */
+  public void setReactorIndex(final ReactorIndex reactorIndex) {
+    this.reactorIndex = reactorIndex;
+  }
 }
@@ -34,6 +34,36 @@ public final class RTRConfig {
   public static final boolean DEFAULT_EXTERNAL_SNAPSHOTS_ALLOWED = false;
   public static final String  PROP_RELEASE                       = "rtr.release";
   public static final boolean DEFAULT_RELEASE                    = false;
+  public static final String  PROP_RELOAD_THREADS                = "rtr.reloadThreads";
+  public static final int     DEFAULT_RELOAD_THREADS             = 1;
+  public static final String  PROP_BATCH_RELOAD                  = "rtr.batchReload";
+  public static final boolean DEFAULT_BATCH_RELOAD               = false;
+  public static final String  PROP_RELOAD_CHANGED_POMS_ONLY      = "rtr.reloadChangedPomsOnly";
+  public static final boolean DEFAULT_RELOAD_CHANGED_POMS_ONLY   = false;
+  public static final String  PROP_IN_MEMORY_TRANSFORM           = "rtr.inMemoryTransform";
+  public static final boolean DEFAULT_IN_MEMORY_TRANSFORM        = false;
+  public static final String  PROP_PLAN_CACHE                    = "rtr.planCache";
+  public static final String  PROP_CHANGED_SINCE                 = "rtr.changedSince";
+  public static final String  PROP_TIMING_REPORT                 = "rtr.timingReport";
+  public static final boolean DEFAULT_TIMING_REPORT              = false;
+  public static final String  PROP_BACKUP_THREADS                = "rtr.backupThreads";
+  public static final int     DEFAULT_BACKUP_THREADS             = 1;
+  public static final String  PROP_BACKUP_STRATEGY               = "rtr.backupStrategy";
+  public static final String  BACKUP_STRATEGY_FILES              = "files";
+  public static final String  BACKUP_STRATEGY_JOURNAL            = "journal";
+  public static final String  BACKUP_STRATEGY_LINK               = "link";
+  public static final String  DEFAULT_BACKUP_STRATEGY            = RTRConfig.BACKUP_STRATEGY_FILES;
+  public static final String  PROP_REPLAY_JOURNAL                = "rtr.replayJournal";
+  public static final boolean DEFAULT_REPLAY_JOURNAL             = false;
+  public static final String  PROP_STREAMING_REWRITE             = "rtr.streamingRewrite";
+  public static final boolean DEFAULT_STREAMING_REWRITE          = false;
+  public static final String  PROP_REACTOR_SNAPSHOT_SCAN         = "rtr.reactorSnapshotScan";
+  public static final boolean DEFAULT_REACTOR_SNAPSHOT_SCAN      = false;
+  public static final String  PROP_SNAPSHOT_CHECK_CACHE          = "rtr.snapshotCheckCache";
+  public static final String  PROP_ELIGIBILITY_FAIL_FAST         = "rtr.eligibilityFailFast";
+  public static final boolean DEFAULT_ELIGIBILITY_FAIL_FAST      = false;
+  public static final String  PROP_FORBIDDEN_PLUGINS             = "rtr.forbiddenPlugins";
+  public static final String  PROP_PLAN_OUTPUT                   = "rtr.planOutput";
   public static final String  PROP_ADDSCHEMA                     = "addSchema";
   public static final boolean DEFAULT_ADDSCHEMA                  = true;
   public static final String  PROP_ALLOWTIMESTAMPEDSNAPSHOTS     = "allowTimestampedSnapshots";
@@ -61,6 +91,145 @@ public final class RTRConfig {
         "true", "false");
   }
 
+  private static int getInteger(final String prop, final int defaultValue,
+      final MavenSession session, final MavenProject project) {
+    final String rawValue = RTRConfig.getProperty(prop, session, project);
+    if (rawValue == null) {
+      return defaultValue;
+    }
+    int value;
+    try {
+      value = Integer.parseInt(rawValue.trim());
+    }
+    catch (final NumberFormatException e) {
+      value = 0;
+    }
+    if (value < 1) {
+      throw new IllegalArgumentException("Property \"" + prop
+          + "\" must be a positive integer, not \"" + rawValue + "\".");
+    }
+    return value;
+  }
+
+  /**
+   * Returns the strategy used to back up POMs during a release.
+   *
+   * @param session
+   *          the Maven session.
+   * @param project
+   *          a project that may have this property set.
+   * @return "files" if unset anywhere, otherwise "files", "journal" or
+   *         "link".
+   * @throws IllegalArgumentException
+   *           if the property has any other value.
+   */
+  public static String getBackupStrategy(final MavenSession session,
+      final MavenProject project) {
+    RTRConfig.checkParameters(session, project);
+    final String value = StringUtils.defaultString(
+        StringUtils.trimToNull(RTRConfig.getProperty(
+            RTRConfig.PROP_BACKUP_STRATEGY, session, project)),
+        RTRConfig.DEFAULT_BACKUP_STRATEGY);
+    if (!value.equals(RTRConfig.BACKUP_STRATEGY_FILES)
+        && !value.equals(RTRConfig.BACKUP_STRATEGY_JOURNAL)
+        && !value.equals(RTRConfig.BACKUP_STRATEGY_LINK)) {
+      throw new IllegalArgumentException("Property \""
+          + RTRConfig.PROP_BACKUP_STRATEGY + "\" must be \""
+          + RTRConfig.BACKUP_STRATEGY_FILES + "\", \""
+          + RTRConfig.BACKUP_STRATEGY_JOURNAL + "\" or \""
+          + RTRConfig.BACKUP_STRATEGY_LINK + "\", not \"" + value + "\".");
+    }
+    return value;
+  }
+
+  /**
+   * Returns the number of threads used to create, remove and restore backup
+   * POMs during a release.
+   *
+   * @param session
+   *          the Maven session.
+   * @param project
+   *          a project that may have this property set.
+   * @return 1 if unset anywhere, never less than 1.
+   * @throws IllegalArgumentException
+   *           if the property is not a positive integer.
+   */
+  public static int getBackupThreads(final MavenSession session,
+      final MavenProject project) {
+    RTRConfig.checkParameters(session, project);
+    return RTRConfig.getInteger(RTRConfig.PROP_BACKUP_THREADS,
+        RTRConfig.DEFAULT_BACKUP_THREADS, session, project);
+  }
+
+  /**
+   * Returns the git ref against which changed projects are determined.
+   *
+   * @param session
+   *          the Maven session.
+   * @param project
+   *          a project that may have this property set.
+   * @return null if change-aware pruning is disabled.
+   */
+  public static String getChangedSince(final MavenSession session,
+      final MavenProject project) {
+    RTRConfig.checkParameters(session, project);
+    return StringUtils.trimToNull(RTRConfig.getProperty(
+        RTRConfig.PROP_CHANGED_SINCE, session, project));
+  }
+
+  /**
+   * Returns the plugins, in addition to the Maven Release Plugin, that no
+   * project in a Smart Reactor may declare.
+   *
+   * @param session
+   *          the Maven session.
+   * @param project
+   *          a project that may have this property set.
+   * @return null if unset anywhere, otherwise a comma-separated list of
+   *         {@code groupId:artifactId} coordinates.
+   */
+  public static String getForbiddenPlugins(final MavenSession session,
+      final MavenProject project) {
+    RTRConfig.checkParameters(session, project);
+    return StringUtils.trimToNull(RTRConfig.getProperty(
+        RTRConfig.PROP_FORBIDDEN_PLUGINS, session, project));
+  }
+
+  /**
+   * Returns the location of the Smart Reactor plan cache.
+   *
+   * @param session
+   *          the Maven session.
+   * @param project
+   *          a project that may have this property set.
+   * @return null if the plan cache is disabled, otherwise a path that is
+   *         relative to the execution root unless it is absolute.
+   */
+  public static String getPlanCache(final MavenSession session,
+      final MavenProject project) {
+    RTRConfig.checkParameters(session, project);
+    return StringUtils.trimToNull(RTRConfig.getProperty(
+        RTRConfig.PROP_PLAN_CACHE, session, project));
+  }
+
+  /**
+   * Returns the location of the file to which the Smart Reactor writes its
+   * plan instead of building anything.
+   *
+   * @param session
+   *          the Maven session.
+   * @param project
+   *          a project that may have this property set.
+   * @return null if plan-only mode is disabled, otherwise a path that is
+   *         relative to the execution root unless it is absolute.
+   */
+  public static String getPlanOutput(final MavenSession session,
+      final MavenProject project) {
+    RTRConfig.checkParameters(session, project);
+    return StringUtils.trimToNull(RTRConfig.getProperty(
+        RTRConfig.PROP_PLAN_OUTPUT, session, project));
+  }
+
   /**
    * Returns the "projectVersionPolicyId" property.
    *
@@ -109,6 +278,41 @@ public final class RTRConfig {
         project);
   }
 
+  /**
+   * Returns the number of threads used to reload release POMs from disk.
+   *
+   * @param session
+   *          the Maven session.
+   * @param project
+   *          a project that may have this property set.
+   * @return 1 if unset anywhere, never less than 1.
+   * @throws IllegalArgumentException
+   *           if the property is not a positive integer.
+   */
+  public static int getReloadThreads(final MavenSession session,
+      final MavenProject project) {
+    RTRConfig.checkParameters(session, project);
+    return RTRConfig.getInteger(RTRConfig.PROP_RELOAD_THREADS,
+        RTRConfig.DEFAULT_RELOAD_THREADS, session, project);
+  }
+
+  /**
+   * Returns the location of the cache of external SNAPSHOT check results.
+   *
+   * @param session
+   *          the Maven session.
+   * @param project
+   *          a project that may have this property set.
+   * @return null if the cache is disabled, otherwise a path that is relative
+   *         to the execution root unless it is absolute.
+   */
+  public static String getSnapshotCheckCache(final MavenSession session,
+      final MavenProject project) {
+    RTRConfig.checkParameters(session, project);
+    return StringUtils.trimToNull(RTRConfig.getProperty(
+        RTRConfig.PROP_SNAPSHOT_CHECK_CACHE, session, project));
+  }
+
   /**
    * Returns the "tag" property.
    *
@@ -203,6 +407,23 @@ public final class RTRConfig {
         RTRConfig.DEFAULT_AUTOVERSIONSUBMODULES, session, project);
   }
 
+  /**
+   * Indicates whether or not release POMs should be reloaded from disk in a
+   * single batch.
+   *
+   * @param session
+   *          the Maven session.
+   * @param project
+   *          a project that may have this property set.
+   * @return true if batch reload is enabled, false otherwise.
+   */
+  public static boolean isBatchReload(final MavenSession session,
+      final MavenProject project) {
+    RTRConfig.checkParameters(session, project);
+    return RTRConfig.getFlag(RTRConfig.PROP_BATCH_RELOAD,
+        RTRConfig.DEFAULT_BATCH_RELOAD, session, project);
+  }
+
   /**
    * Indicates whether or not the Smart Reactor is disabled.
    *
@@ -219,6 +440,25 @@ public final class RTRConfig {
         RTRConfig.DEFAULT_DISABLED, session, project);
   }
 
+  /**
+   * Indicates whether or not the Smart Reactor should stop validating the
+   * eligibility of the reactor at the first violation, instead of reporting
+   * every violation.
+   *
+   * @param session
+   *          the Maven session.
+   * @param project
+   *          a project that may have this property set.
+   * @return true if validation should stop at the first violation, false
+   *         otherwise.
+   */
+  public static boolean isEligibilityFailFast(final MavenSession session,
+      final MavenProject project) {
+    RTRConfig.checkParameters(session, project);
+    return RTRConfig.getFlag(RTRConfig.PROP_ELIGIBILITY_FAIL_FAST,
+        RTRConfig.DEFAULT_ELIGIBILITY_FAIL_FAST, session, project);
+  }
+
   /**
    * Indicates whether or not the Smart Reactor should allow a release reactor
    * containing references to any non-reactor SNAPSHOT artifacts.
@@ -255,6 +495,94 @@ public final class RTRConfig {
         session, project);
   }
 
+  /**
+   * Indicates whether or not a report of the time and resources used by the
+   * Smart Reactor should be written at the end of the session.
+   *
+   * @param session
+   *          the Maven session.
+   * @param project
+   *          a project that may have this property set.
+   * @return true if the report should be written, false otherwise.
+   */
+  public static boolean isTimingReport(final MavenSession session,
+      final MavenProject project) {
+    RTRConfig.checkParameters(session, project);
+    return RTRConfig.getFlag(RTRConfig.PROP_TIMING_REPORT,
+        RTRConfig.DEFAULT_TIMING_REPORT, session, project);
+  }
+
+  /**
+   * Indicates whether or not release versions should be applied to the
+   * in-memory reactor instead of reloading the rewritten POMs from disk.
+   *
+   * @param session
+   *          the Maven session.
+   * @param project
+   *          a project that may have this property set.
+   * @return true if the reactor should be transformed in memory, false
+   *         otherwise.
+   */
+  public static boolean isInMemoryTransform(final MavenSession session,
+      final MavenProject project) {
+    RTRConfig.checkParameters(session, project);
+    return RTRConfig.getFlag(RTRConfig.PROP_IN_MEMORY_TRANSFORM,
+        RTRConfig.DEFAULT_IN_MEMORY_TRANSFORM, session, project);
+  }
+
+  /**
+   * Indicates whether or not external SNAPSHOT artifacts should be found by
+   * scanning the whole reactor at once instead of by the Maven Release
+   * Manager.
+   *
+   * @param session
+   *          the Maven session.
+   * @param project
+   *          a project that may have this property set.
+   * @return true if the reactor should be scanned at once, false otherwise.
+   */
+  public static boolean isReactorSnapshotScan(final MavenSession session,
+      final MavenProject project) {
+    RTRConfig.checkParameters(session, project);
+    return RTRConfig.getFlag(RTRConfig.PROP_REACTOR_SNAPSHOT_SCAN,
+        RTRConfig.DEFAULT_REACTOR_SNAPSHOT_SCAN, session, project);
+  }
+
+  /**
+   * Indicates whether or not only POMs that were changed by the release
+   * transformation, and their in-reactor children, should be reloaded.
+   *
+   * @param session
+   *          the Maven session.
+   * @param project
+   *          a project that may have this property set.
+   * @return true if only changed POMs should be reloaded, false otherwise.
+   */
+  public static boolean isReloadChangedPomsOnly(final MavenSession session,
+      final MavenProject project) {
+    RTRConfig.checkParameters(session, project);
+    return RTRConfig.getFlag(RTRConfig.PROP_RELOAD_CHANGED_POMS_ONLY,
+        RTRConfig.DEFAULT_RELOAD_CHANGED_POMS_ONLY, session, project);
+  }
+
+  /**
+   * Indicates whether or not a POM journal left behind by an interrupted
+   * release should be replayed before a new release starts.
+   *
+   * @param session
+   *          the Maven session.
+   * @param project
+   *          a project that may have this property set.
+   * @return true if the journal should be replayed, false if its presence
+   *         should fail the release.
+   */
+  public static boolean isReplayJournal(final MavenSession session,
+      final MavenProject project) {
+    RTRConfig.checkParameters(session, project);
+    return RTRConfig.getFlag(RTRConfig.PROP_REPLAY_JOURNAL,
+        RTRConfig.DEFAULT_REPLAY_JOURNAL, session, project);
+  }
+
   /**
    * Indicates whether or not the Smart Reactor should allow a reactor
    * containing a single POM-packaging project.
@@ -272,6 +600,23 @@ public final class RTRConfig {
         RTRConfig.DEFAULT_SINGLE_POM_REACTOR_ALLOWED, session, project);
   }
 
+  /**
+   * Indicates whether or not release POMs should be rewritten in a single
+   * streaming pass instead of by the Maven Release Manager.
+   *
+   * @param session
+   *          the Maven session.
+   * @param project
+   *          a project that may have this property set.
+   * @return true if POMs should be rewritten by streaming, false otherwise.
+   */
+  public static boolean isStreamingRewrite(final MavenSession session,
+      final MavenProject project) {
+    RTRConfig.checkParameters(session, project);
+    return RTRConfig.getFlag(RTRConfig.PROP_STREAMING_REWRITE,
+        RTRConfig.DEFAULT_STREAMING_REWRITE, session, project);
+  }
+
   /* This class is not instantiable. */
   private RTRConfig() {}
 }
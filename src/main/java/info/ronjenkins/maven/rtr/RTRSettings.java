@@ -0,0 +1,413 @@
+/*
+ * Copyright (C) 2016 Ronald Jack Jenkins Jr.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package info.ronjenkins.maven.rtr;
+
+import org.apache.maven.execution.MavenSession;
+import org.apache.maven.project.MavenProject;
+
+/**
+ * An immutable snapshot of the Smart Reactor configuration, resolved once per
+ * session.
+ *
+ * <p>
+ * Every value is resolved through {@link RTRConfig}, so the usual precedence
+ * applies: user properties override project properties. The snapshot returned
+ * by {@link #resolve(MavenSession)} holds the values of the execution root,
+ * which apply to the whole reactor.
+ *
+ * @author Ronald Jack Jenkins Jr.
+ */
+public final class RTRSettings {
+  /**
+   * Resolves the configuration of the execution root of the given session.
+   *
+   * @param session
+   *          not null.
+   * @return never null.
+   * @throws IllegalArgumentException
+   *           if the execution root has an invalid value.
+   */
+  public static RTRSettings resolve(final MavenSession session) {
+    return new RTRSettings(session, session.getTopLevelProject());
+  }
+
+  private final boolean disabled;
+  private final boolean singlePomReactorAllowed;
+  private final boolean externalSnapshotsAllowed;
+  private final boolean release;
+  private final int     reloadThreads;
+  private final boolean batchReload;
+  private final boolean reloadChangedPomsOnly;
+  private final boolean inMemoryTransform;
+  private final String  planCache;
+  private final String  changedSince;
+  private final boolean timingReport;
+  private final int     backupThreads;
+  private final String  backupStrategy;
+  private final boolean replayJournal;
+  private final boolean streamingRewrite;
+  private final boolean reactorSnapshotScan;
+  private final String  snapshotCheckCache;
+  private final boolean eligibilityFailFast;
+  private final String  forbiddenPlugins;
+  private final String  planOutput;
+  private final boolean addSchema;
+  private final boolean allowTimestampedSnapshots;
+  private final boolean autoVersionSubmodules;
+  private final String  projectVersionPolicyId;
+  private final String  releaseVersion;
+  private final String  tag;
+  private final String  tagBase;
+  private final String  tagNameFormat;
+
+  /**
+   * Resolves the configuration of a single project.
+   *
+   * @param session
+   *          the Maven session.
+   * @param project
+   *          a project that may have properties set.
+   * @throws NullPointerException
+   *           if session and project are both null.
+   */
+  public RTRSettings(final MavenSession session, final MavenProject project) {
+    this.disabled = RTRConfig.isDisabled(session, project);
+    this.singlePomReactorAllowed = RTRConfig.isSinglePomReactorAllowed(
+        session, project);
+    this.externalSnapshotsAllowed = RTRConfig.isExternalSnapshotsAllowed(
+        session, project);
+    this.release = RTRConfig.isRelease(session, project);
+    this.reloadThreads = RTRConfig.getReloadThreads(session, project);
+    this.batchReload = RTRConfig.isBatchReload(session, project);
+    this.reloadChangedPomsOnly = RTRConfig.isReloadChangedPomsOnly(session,
+        project);
+    this.inMemoryTransform = RTRConfig.isInMemoryTransform(session, project);
+    this.planCache = RTRConfig.getPlanCache(session, project);
+    this.changedSince = RTRConfig.getChangedSince(session, project);
+    this.timingReport = RTRConfig.isTimingReport(session, project);
+    this.backupThreads = RTRConfig.getBackupThreads(session, project);
+    this.backupStrategy = RTRConfig.getBackupStrategy(session, project);
+    this.replayJournal = RTRConfig.isReplayJournal(session, project);
+    this.streamingRewrite = RTRConfig.isStreamingRewrite(session, project);
+    this.reactorSnapshotScan = RTRConfig.isReactorSnapshotScan(session,
+        project);
+    this.snapshotCheckCache = RTRConfig.getSnapshotCheckCache(session,
+        project);
+    this.eligibilityFailFast = RTRConfig.isEligibilityFailFast(session,
+        project);
+    this.forbiddenPlugins = RTRConfig.getForbiddenPlugins(session, project);
+    this.planOutput = RTRConfig.getPlanOutput(session, project);
+    this.addSchema = RTRConfig.isAddSchema(session, project);
+    this.allowTimestampedSnapshots = RTRConfig.isAllowTimestampedSnapshots(
+        session, project);
+    this.autoVersionSubmodules = RTRConfig.isAutoVersionSubmodules(session,
+        project);
+    this.projectVersionPolicyId = RTRConfig.getProjectVersionPolicyId(
+        session, project);
+    this.releaseVersion = RTRConfig.getReleaseVersion(session, project);
+    this.tag = RTRConfig.getTag(session, project);
+    this.tagBase = RTRConfig.getTagBase(session, project);
+    this.tagNameFormat = RTRConfig.getTagNameFormat(session, project);
+  }
+
+  /**
+   * Returns the strategy used to back up POMs.
+   *
+   * @return never null.
+   * @see RTRConfig#getBackupStrategy(MavenSession, MavenProject)
+   */
+  public String getBackupStrategy() {
+    return this.backupStrategy;
+  }
+
+  /**
+   * Returns the number of threads used to create, remove and restore backup
+   * POMs.
+   *
+   * @return 1 or more.
+   * @see RTRConfig#getBackupThreads(MavenSession, MavenProject)
+   */
+  public int getBackupThreads() {
+    return this.backupThreads;
+  }
+
+  /**
+   * Returns the git ref against which changed projects are determined.
+   *
+   * @return null if change-aware pruning is disabled.
+   * @see RTRConfig#getChangedSince(MavenSession, MavenProject)
+   */
+  public String getChangedSince() {
+    return this.changedSince;
+  }
+
+  /**
+   * Returns the plugins, in addition to the Maven Release Plugin, that no
+   * project may declare.
+   *
+   * @return null if there are none.
+   * @see RTRConfig#getForbiddenPlugins(MavenSession, MavenProject)
+   */
+  public String getForbiddenPlugins() {
+    return this.forbiddenPlugins;
+  }
+
+  /**
+   * Returns the location of the Smart Reactor plan cache.
+   *
+   * @return null if the plan cache is disabled.
+   * @see RTRConfig#getPlanCache(MavenSession, MavenProject)
+   */
+  public String getPlanCache() {
+    return this.planCache;
+  }
+
+  /**
+   * Returns the location of the file to which the plan is written in
+   * plan-only mode.
+   *
+   * @return null if plan-only mode is disabled.
+   * @see RTRConfig#getPlanOutput(MavenSession, MavenProject)
+   */
+  public String getPlanOutput() {
+    return this.planOutput;
+  }
+
+  /**
+   * Returns the "projectVersionPolicyId" property.
+   *
+   * @return never null.
+   * @see RTRConfig#getProjectVersionPolicyId(MavenSession, MavenProject)
+   */
+  public String getProjectVersionPolicyId() {
+    return this.projectVersionPolicyId;
+  }
+
+  /**
+   * Returns the "releaseVersion" property.
+   *
+   * @return may be null.
+   * @see RTRConfig#getReleaseVersion(MavenSession, MavenProject)
+   */
+  public String getReleaseVersion() {
+    return this.releaseVersion;
+  }
+
+  /**
+   * Returns the number of threads used to reload release POMs from disk.
+   *
+   * @return 1 or more.
+   * @see RTRConfig#getReloadThreads(MavenSession, MavenProject)
+   */
+  public int getReloadThreads() {
+    return this.reloadThreads;
+  }
+
+  /**
+   * Returns the location of the cache of external SNAPSHOT check results.
+   *
+   * @return null if the cache is disabled.
+   * @see RTRConfig#getSnapshotCheckCache(MavenSession, MavenProject)
+   */
+  public String getSnapshotCheckCache() {
+    return this.snapshotCheckCache;
+  }
+
+  /**
+   * Returns the "tag" property.
+   *
+   * @return may be null.
+   * @see RTRConfig#getTag(MavenSession, MavenProject)
+   */
+  public String getTag() {
+    return this.tag;
+  }
+
+  /**
+   * Returns the "tagBase" property.
+   *
+   * @return may be null.
+   * @see RTRConfig#getTagBase(MavenSession, MavenProject)
+   */
+  public String getTagBase() {
+    return this.tagBase;
+  }
+
+  /**
+   * Returns the "tagNameFormat" property.
+   *
+   * @return may be null.
+   * @see RTRConfig#getTagNameFormat(MavenSession, MavenProject)
+   */
+  public String getTagNameFormat() {
+    return this.tagNameFormat;
+  }
+
+  /**
+   * Returns the "addSchema" property.
+   *
+   * @return true or false.
+   * @see RTRConfig#isAddSchema(MavenSession, MavenProject)
+   */
+  public boolean isAddSchema() {
+    return this.addSchema;
+  }
+
+  /**
+   * Returns the "allowTimestampedSnapshots" property.
+   *
+   * @return true or false.
+   * @see RTRConfig#isAllowTimestampedSnapshots(MavenSession, MavenProject)
+   */
+  public boolean isAllowTimestampedSnapshots() {
+    return this.allowTimestampedSnapshots;
+  }
+
+  /**
+   * Returns the "autoVersionSubmodules" property.
+   *
+   * @return true or false.
+   * @see RTRConfig#isAutoVersionSubmodules(MavenSession, MavenProject)
+   */
+  public boolean isAutoVersionSubmodules() {
+    return this.autoVersionSubmodules;
+  }
+
+  /**
+   * Indicates whether or not release POMs should be reloaded from disk in a
+   * single batch.
+   *
+   * @return true or false.
+   * @see RTRConfig#isBatchReload(MavenSession, MavenProject)
+   */
+  public boolean isBatchReload() {
+    return this.batchReload;
+  }
+
+  /**
+   * Indicates whether or not the Smart Reactor is disabled.
+   *
+   * @return true or false.
+   * @see RTRConfig#isDisabled(MavenSession, MavenProject)
+   */
+  public boolean isDisabled() {
+    return this.disabled;
+  }
+
+  /**
+   * Indicates whether or not eligibility validation stops at the first
+   * violation.
+   *
+   * @return true or false.
+   * @see RTRConfig#isEligibilityFailFast(MavenSession, MavenProject)
+   */
+  public boolean isEligibilityFailFast() {
+    return this.eligibilityFailFast;
+  }
+
+  /**
+   * Indicates whether or not a release reactor may reference non-reactor
+   * SNAPSHOT artifacts.
+   *
+   * @return true or false.
+   * @see RTRConfig#isExternalSnapshotsAllowed(MavenSession, MavenProject)
+   */
+  public boolean isExternalSnapshotsAllowed() {
+    return this.externalSnapshotsAllowed;
+  }
+
+  /**
+   * Indicates whether or not release POMs are transformed in memory.
+   *
+   * @return true or false.
+   * @see RTRConfig#isInMemoryTransform(MavenSession, MavenProject)
+   */
+  public boolean isInMemoryTransform() {
+    return this.inMemoryTransform;
+  }
+
+  /**
+   * Indicates whether or not a release was requested.
+   *
+   * @return true or false.
+   * @see RTRConfig#isRelease(MavenSession, MavenProject)
+   */
+  public boolean isRelease() {
+    return this.release;
+  }
+
+  /**
+   * Indicates whether or not only changed release POMs are reloaded from disk.
+   *
+   * @return true or false.
+   * @see RTRConfig#isReloadChangedPomsOnly(MavenSession, MavenProject)
+   */
+  public boolean isReloadChangedPomsOnly() {
+    return this.reloadChangedPomsOnly;
+  }
+
+  /**
+   * Indicates whether or not the POM journal of an interrupted release is
+   * replayed.
+   *
+   * @return true or false.
+   * @see RTRConfig#isReplayJournal(MavenSession, MavenProject)
+   */
+  public boolean isReplayJournal() {
+    return this.replayJournal;
+  }
+
+  /**
+   * Indicates whether or not external SNAPSHOT artifacts are found by
+   * scanning the whole reactor at once.
+   *
+   * @return true or false.
+   * @see RTRConfig#isReactorSnapshotScan(MavenSession, MavenProject)
+   */
+  public boolean isReactorSnapshotScan() {
+    return this.reactorSnapshotScan;
+  }
+
+  /**
+   * Indicates whether or not a single-POM reactor is allowed.
+   *
+   * @return true or false.
+   * @see RTRConfig#isSinglePomReactorAllowed(MavenSession, MavenProject)
+   */
+  public boolean isSinglePomReactorAllowed() {
+    return this.singlePomReactorAllowed;
+  }
+
+  /**
+   * Indicates whether or not release POMs are rewritten by streaming.
+   *
+   * @return true or false.
+   * @see RTRConfig#isStreamingRewrite(MavenSession, MavenProject)
+   */
+  public boolean isStreamingRewrite() {
+    return this.streamingRewrite;
+  }
+
+  /**
+   * Indicates whether or not a timing report is written.
+   *
+   * @return true or false.
+   * @see RTRConfig#isTimingReport(MavenSession, MavenProject)
+   */
+  public boolean isTimingReport() {
+    return this.timingReport;
+  }
+}
@@ -0,0 +1,180 @@
+/*
+ * Copyright (C) 2016 Ronald Jack Jenkins Jr.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package info.ronjenkins.maven.rtr.reactor;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+import org.apache.commons.lang.Validate;
+import org.apache.maven.execution.ProjectDependencyGraph;
+import org.apache.maven.project.MavenProject;
+
+/**
+ * A view of the original project dependency graph, as captured by a
+ * {@link ReactorIndex}, restricted to the projects that remain in the Smart
+ * Reactor. Nothing is re-sorted or re-resolved; every query is answered from
+ * the index.
+ *
+ * <p>
+ * Projects are always returned in reactor order, which is the topological
+ * order Maven computed for the original reactor. Transitive queries walk the
+ * original graph, so relationships that pass through pruned projects are
+ * preserved.
+ *
+ * @author Ronald Jack Jenkins Jr.
+ */
+public final class FilteredProjectDependencyGraph implements
+    ProjectDependencyGraph {
+  private static final ThreadLocal<Scratch> SCRATCH = new ThreadLocal<Scratch>() {
+    @Override
+    protected Scratch initialValue() {
+      return new Scratch();
+    }
+  };
+  private final ReactorIndex       index;
+  private final BitSet             included;
+  private final List<MavenProject> sortedProjects;
+
+  /**
+   * Constructor.
+   *
+   * @param index
+   *          the index of the original reactor. Not null.
+   * @param projects
+   *          the projects that remain in the reactor. Not null. Every project
+   *          must be present in the index.
+   * @throws IllegalArgumentException
+   *           if any project is not present in the index.
+   */
+  public FilteredProjectDependencyGraph(final ReactorIndex index,
+      final Collection<MavenProject> projects) {
+    Validate.notNull(index, "Reactor index is null");
+    Validate.notNull(projects, "Projects collection is null");
+    this.index = index;
+    this.included = new BitSet(index.size());
+    for (final MavenProject project : projects) {
+      final int id = index.getId(project);
+      Validate.isTrue(id >= 0, "Project is not in the reactor index: ",
+          project);
+      this.included.set(id);
+    }
+    this.sortedProjects = Collections.unmodifiableList(this
+        .toProjects(this.included));
+  }
+
+  /**
+   * Returns all projects in this graph. Equivalent to
+   * {@link #getSortedProjects()}; provided for newer versions of Maven.
+   *
+   * @return never null, unmodifiable.
+   */
+  public List<MavenProject> getAllProjects() {
+    return this.sortedProjects;
+  }
+
+  @Override
+  public List<MavenProject> getDownstreamProjects(final MavenProject project,
+      final boolean transitive) {
+    return this.walk(project, transitive, false);
+  }
+
+  @Override
+  public List<MavenProject> getSortedProjects() {
+    return this.sortedProjects;
+  }
+
+  @Override
+  public List<MavenProject> getUpstreamProjects(final MavenProject project,
+      final boolean transitive) {
+    return this.walk(project, transitive, true);
+  }
+
+  @Override
+  public String toString() {
+    return this.sortedProjects.toString();
+  }
+
+  private List<MavenProject> toProjects(final BitSet ids) {
+    final List<MavenProject> projects = new ArrayList<>(ids.cardinality());
+    for (int id = ids.nextSetBit(0); id >= 0; id = ids.nextSetBit(id + 1)) {
+      projects.add(this.index.getProject(id));
+    }
+    return projects;
+  }
+
+  private List<MavenProject> walk(final MavenProject project,
+      final boolean transitive, final boolean upstream) {
+    Validate.notNull(project, "Project is null");
+    final int start = this.index.getId(project);
+    if (start < 0) {
+      return new ArrayList<>();
+    }
+    final int[] offsets = upstream ? this.index.getUpstreamOffsets()
+        : this.index.getDownstreamOffsets();
+    final int[] targets = upstream ? this.index.getUpstreamTargets()
+        : this.index.getDownstreamTargets();
+    if (!transitive) {
+      // Direct neighbors are already sorted by id, i.e. in reactor order.
+      final List<MavenProject> projects = new ArrayList<>(offsets[start + 1]
+          - offsets[start]);
+      for (int i = offsets[start]; i < offsets[start + 1]; i++) {
+        if (this.included.get(targets[i])) {
+          projects.add(this.index.getProject(targets[i]));
+        }
+      }
+      return projects;
+    }
+    final Scratch scratch = FilteredProjectDependencyGraph.SCRATCH.get();
+    final BitSet visited = scratch.visited;
+    visited.clear();
+    if (scratch.stack.length < this.index.size()) {
+      scratch.stack = new int[this.index.size()];
+    }
+    final int[] stack = scratch.stack;
+    int top = 0;
+    stack[top++] = start;
+    while (top > 0) {
+      final int current = stack[--top];
+      for (int i = offsets[current]; i < offsets[current + 1]; i++) {
+        final int neighbor = targets[i];
+        if (!visited.get(neighbor)) {
+          visited.set(neighbor);
+          stack[top++] = neighbor;
+        }
+      }
+    }
+    final List<MavenProject> projects = new ArrayList<>();
+    for (int id = visited.nextSetBit(0); id >= 0; id = visited
+        .nextSetBit(id + 1)) {
+      if (this.included.get(id)) {
+        projects.add(this.index.getProject(id));
+      }
+    }
+    return projects;
+  }
+
+  /*
+   * Working storage for transitive walks, reused by every graph on the same
+   * thread so that a query allocates nothing but its result.
+   */
+  private static final class Scratch {
+    private final BitSet visited = new BitSet();
+    private int[]        stack   = new int[0];
+  }
+}
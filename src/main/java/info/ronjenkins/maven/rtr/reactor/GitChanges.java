@@ -0,0 +1,113 @@
+/*
+ * Copyright (C) 2016 Ronald Jack Jenkins Jr.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package info.ronjenkins.maven.rtr.reactor;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+import org.apache.commons.lang.StringUtils;
+import org.apache.commons.lang.Validate;
+import org.codehaus.plexus.util.cli.CommandLineException;
+import org.codehaus.plexus.util.cli.CommandLineUtils;
+import org.codehaus.plexus.util.cli.CommandLineUtils.StringStreamConsumer;
+import org.codehaus.plexus.util.cli.Commandline;
+
+/**
+ * Lists the files of a local git working tree that differ from a base ref.
+ * Only the local repository is consulted; nothing is fetched.
+ *
+ * @author Ronald Jack Jenkins Jr.
+ */
+public final class GitChanges {
+  private static final String GIT = "git";
+
+  /**
+   * Returns every file that differs between the given ref and the working
+   * tree, including staged, unstaged and untracked files. Both sides of a
+   * rename are returned, as are deleted files.
+   *
+   * @param directory
+   *          any directory inside the working tree. Not null.
+   * @param baseRef
+   *          the ref to compare against, e.g. {@code origin/master}. Not null.
+   * @return never null, absolute paths.
+   * @throws IOException
+   *           if git cannot be executed or fails.
+   */
+  public static Set<File> getChangedFiles(final File directory,
+      final String baseRef) throws IOException {
+    Validate.notNull(directory, "Directory is null");
+    Validate.notEmpty(baseRef, "Base ref is empty");
+    // Don't let the ref be mistaken for an option.
+    Validate.isTrue(!baseRef.startsWith("-"), "Invalid base ref: ", baseRef);
+    final File root = new File(StringUtils.chomp(GitChanges.git(directory,
+        "rev-parse", "--show-toplevel")));
+    final Set<File> changedFiles = new LinkedHashSet<>();
+    changedFiles.addAll(GitChanges.parse(
+        root,
+        GitChanges.git(directory, "diff", "--name-only", "--no-renames",
+            "-z", baseRef, "--")));
+    changedFiles.addAll(GitChanges.parse(
+        root,
+        GitChanges.git(directory, "ls-files", "--others",
+            "--exclude-standard", "--full-name", "-z")));
+    return changedFiles;
+  }
+
+  /*
+   * Parses NUL-separated paths relative to the given root.
+   */
+  static Set<File> parse(final File root, final String output) {
+    final Set<File> files = new LinkedHashSet<>();
+    for (final String token : StringUtils.split(output, '\0')) {
+      // The output is consumed line by line, so a line separator follows the
+      // last path.
+      final String path = StringUtils.chomp(token);
+      if (!path.isEmpty()) {
+        files.add(new File(root, path).getAbsoluteFile());
+      }
+    }
+    return files;
+  }
+
+  private static String git(final File directory, final String... args)
+      throws IOException {
+    final Commandline commandline = new Commandline();
+    commandline.setExecutable(GitChanges.GIT);
+    commandline.setWorkingDirectory(directory);
+    commandline.addArguments(args);
+    final StringStreamConsumer out = new StringStreamConsumer();
+    final StringStreamConsumer err = new StringStreamConsumer();
+    final int exitCode;
+    try {
+      exitCode = CommandLineUtils.executeCommandLine(commandline, out, err);
+    }
+    catch (final CommandLineException e) {
+      throw new IOException("Unable to execute git", e);
+    }
+    if (exitCode != 0) {
+      throw new IOException("git " + StringUtils.join(args, ' ')
+          + " failed with exit code " + exitCode + ": "
+          + StringUtils.trim(err.getOutput()));
+    }
+    return out.getOutput();
+  }
+
+  /* This class is not instantiable. */
+  private GitChanges() {}
+}
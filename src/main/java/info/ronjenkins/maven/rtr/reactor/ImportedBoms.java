@@ -0,0 +1,90 @@
+/*
+ * Copyright (C) 2016 Ronald Jack Jenkins Jr.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package info.ronjenkins.maven.rtr.reactor;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Properties;
+
+import org.apache.maven.model.Dependency;
+import org.apache.maven.model.Model;
+
+/**
+ * Lists the BOMs that a POM imports. Imported BOMs are merged into the
+ * effective model and dropped from it, so they are read from the original
+ * model and their coordinates are resolved against the effective properties
+ * of a project.
+ *
+ * @author Ronald Jack Jenkins Jr.
+ */
+public final class ImportedBoms {
+  /**
+   * Returns the BOMs imported by the given original model.
+   *
+   * @param model
+   *          the original model of a POM. May be null.
+   * @param props
+   *          the properties against which {@code ${...}} expressions in the
+   *          coordinates are resolved. May be null.
+   * @return never null, copies of the import-scoped managed dependencies with
+   *         their group id, artifact id and version resolved. Unresolvable
+   *         expressions are left as-is.
+   */
+  public static List<Dependency> list(final Model model,
+      final Properties props) {
+    if (model == null || model.getDependencyManagement() == null) {
+      return Collections.emptyList();
+    }
+    final List<Dependency> boms = new ArrayList<>();
+    for (final Dependency dependency : model.getDependencyManagement()
+        .getDependencies()) {
+      if ("import".equals(dependency.getScope())) {
+        final Dependency bom = dependency.clone();
+        bom.setGroupId(ImportedBoms.resolve(dependency.getGroupId(), props));
+        bom.setArtifactId(ImportedBoms.resolve(dependency.getArtifactId(),
+            props));
+        bom.setVersion(ImportedBoms.resolve(dependency.getVersion(), props));
+        boms.add(bom);
+      }
+    }
+    return boms;
+  }
+
+  private static String resolve(final String value, final Properties props) {
+    if (value == null || props == null) {
+      return value;
+    }
+    final StringBuilder sb = new StringBuilder();
+    int from = 0;
+    for (int start = value.indexOf("${"); start >= 0; start = value.indexOf(
+        "${", from)) {
+      final int end = value.indexOf('}', start);
+      if (end < 0) {
+        break;
+      }
+      final String name = value.substring(start + 2, end);
+      final String resolved = props.getProperty(name);
+      sb.append(value, from, start);
+      sb.append(resolved == null ? value.substring(start, end + 1) : resolved);
+      from = end + 1;
+    }
+    return sb.append(value, from, value.length()).toString();
+  }
+
+  /* This class is not instantiable. */
+  private ImportedBoms() {}
+}
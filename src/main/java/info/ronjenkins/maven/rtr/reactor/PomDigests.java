@@ -0,0 +1,110 @@
+/*
+ * Copyright (C) 2016 Ronald Jack Jenkins Jr.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package info.ronjenkins.maven.rtr.reactor;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.commons.lang.Validate;
+import org.apache.maven.project.MavenProject;
+
+/**
+ * Content digests of POM files, used to detect which POMs have changed.
+ *
+ * @author Ronald Jack Jenkins Jr.
+ */
+public final class PomDigests {
+  private static final String ALGORITHM = "SHA-1";
+  private static final char[] HEX       = "0123456789abcdef".toCharArray();
+
+  /**
+   * Returns the digest of the given bytes.
+   *
+   * @param bytes
+   *          not null.
+   * @return never null, a lowercase hex string.
+   */
+  public static String digest(final byte[] bytes) {
+    Validate.notNull(bytes, "Bytes are null");
+    final byte[] digest = PomDigests.newMessageDigest().digest(bytes);
+    final char[] hex = new char[digest.length * 2];
+    for (int i = 0; i < digest.length; i++) {
+      hex[i * 2] = PomDigests.HEX[(digest[i] >> 4) & 0xF];
+      hex[i * 2 + 1] = PomDigests.HEX[digest[i] & 0xF];
+    }
+    return new String(hex);
+  }
+
+  /**
+   * Returns the digest of the given file's contents.
+   *
+   * @param file
+   *          not null.
+   * @return null if the file cannot be read.
+   */
+  public static String digest(final File file) {
+    Validate.notNull(file, "File is null");
+    try {
+      return PomDigests.digest(Files.readAllBytes(file.toPath()));
+    }
+    catch (final IOException e) {
+      return null;
+    }
+  }
+
+  /**
+   * Returns the digests of the POM files of the given projects.
+   *
+   * @param projects
+   *          not null.
+   * @return never null, keyed by POM file. Unreadable POMs are omitted.
+   */
+  public static Map<File, String> digestPoms(
+      final Collection<MavenProject> projects) {
+    Validate.notNull(projects, "Projects collection is null");
+    final Map<File, String> digests = new HashMap<>(projects.size() * 2);
+    for (final MavenProject project : projects) {
+      final File pomFile = project.getFile();
+      if (pomFile == null) {
+        continue;
+      }
+      final String digest = PomDigests.digest(pomFile);
+      if (digest != null) {
+        digests.put(pomFile, digest);
+      }
+    }
+    return digests;
+  }
+
+  private static MessageDigest newMessageDigest() {
+    try {
+      return MessageDigest.getInstance(PomDigests.ALGORITHM);
+    }
+    catch (final NoSuchAlgorithmException e) {
+      // Every JVM is required to support SHA-1.
+      throw new IllegalStateException(e);
+    }
+  }
+
+  /* This class is not instantiable. */
+  private PomDigests() {}
+}
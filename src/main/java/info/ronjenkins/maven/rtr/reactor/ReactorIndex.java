@@ -0,0 +1,414 @@
+/*
+ * Copyright (C) 2016 Ronald Jack Jenkins Jr.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package info.ronjenkins.maven.rtr.reactor;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.commons.lang.Validate;
+import org.apache.maven.execution.MavenSession;
+import org.apache.maven.execution.ProjectDependencyGraph;
+import org.apache.maven.project.MavenProject;
+
+/**
+ * Compact, read-only index of the original Maven reactor. Every project is
+ * assigned an integer id (its position in the original reactor), SNAPSHOT
+ * status is kept in a bitset and the direct upstream/downstream relationships
+ * from the project dependency graph are kept in CSR-style primitive arrays.
+ *
+ * <p>
+ * The index is built once per session so that Smart Reactor steps can answer
+ * reactor questions in O(1) or O(degree) without re-walking the object graph.
+ * It describes the reactor as it was when Maven finished reading projects; it
+ * is not updated when projects are pruned from the session.
+ *
+ * @author Ronald Jack Jenkins Jr.
+ */
+public final class ReactorIndex {
+  /**
+   * Builds an index of the given session's reactor and dependency graph.
+   *
+   * @param session
+   *          not null.
+   * @return never null.
+   */
+  public static ReactorIndex build(final MavenSession session) {
+    Validate.notNull(session, "Session is null");
+    return ReactorIndex.build(session.getProjects(),
+        session.getProjectDependencyGraph());
+  }
+
+  /**
+   * Builds an index of the given reactor.
+   *
+   * @param projects
+   *          the reactor, not null. Ids are assigned in list order.
+   * @param graph
+   *          the dependency graph of the given reactor. If null, the index
+   *          contains no edges.
+   * @return never null.
+   */
+  public static ReactorIndex build(final List<MavenProject> projects,
+      final ProjectDependencyGraph graph) {
+    Validate.notNull(projects, "Projects list is null");
+    final int size = projects.size();
+    final List<MavenProject> byId = new ArrayList<>(projects);
+    final Map<MavenProject, Integer> ids = new IdentityHashMap<>(size);
+    final BitSet snapshots = new BitSet(size);
+    for (int id = 0; id < size; id++) {
+      final MavenProject project = byId.get(id);
+      ids.put(project, id);
+      if (project.getArtifact().isSnapshot()) {
+        snapshots.set(id);
+      }
+    }
+    // Gather direct upstream edges, keeping only in-reactor projects.
+    final int[] upstreamOffsets = new int[size + 1];
+    int[] upstreamTargets = new int[size];
+    int edges = 0;
+    for (int id = 0; id < size; id++) {
+      upstreamOffsets[id] = edges;
+      if (graph == null) {
+        continue;
+      }
+      for (final MavenProject upstream : graph.getUpstreamProjects(
+          byId.get(id), false)) {
+        final Integer upstreamId = ids.get(upstream);
+        if (upstreamId == null) {
+          continue;
+        }
+        if (edges == upstreamTargets.length) {
+          upstreamTargets = Arrays.copyOf(upstreamTargets,
+              Math.max(16, edges * 2));
+        }
+        upstreamTargets[edges++] = upstreamId;
+      }
+    }
+    upstreamOffsets[size] = edges;
+    upstreamTargets = Arrays.copyOf(upstreamTargets, edges);
+    ReactorIndex.sortSlices(size, upstreamOffsets, upstreamTargets);
+    return new ReactorIndex(byId, ids, snapshots, upstreamOffsets,
+        upstreamTargets);
+  }
+
+  /*
+   * Builds an index of the given reactor from previously computed SNAPSHOT
+   * bits and direct upstream edges, e.g. from a cached reactor plan.
+   */
+  static ReactorIndex build(final List<MavenProject> projects,
+      final BitSet snapshots, final int[] upstreamOffsets,
+      final int[] upstreamTargets) {
+    Validate.notNull(projects, "Projects list is null");
+    final int size = projects.size();
+    Validate.isTrue(upstreamOffsets.length == size + 1,
+        "Upstream offsets do not match the reactor size");
+    Validate.isTrue(upstreamOffsets[size] == upstreamTargets.length,
+        "Upstream targets do not match the upstream offsets");
+    for (final int target : upstreamTargets) {
+      Validate.isTrue(target >= 0 && target < size,
+          "Upstream target is out of range: ", target);
+    }
+    final List<MavenProject> byId = new ArrayList<>(projects);
+    final Map<MavenProject, Integer> ids = new IdentityHashMap<>(size);
+    for (int id = 0; id < size; id++) {
+      ids.put(byId.get(id), id);
+    }
+    final int[] targets = upstreamTargets.clone();
+    ReactorIndex.sortSlices(size, upstreamOffsets, targets);
+    return new ReactorIndex(byId, ids, (BitSet) snapshots.clone(),
+        upstreamOffsets.clone(), targets);
+  }
+
+  /*
+   * Sorts the given CSR graph topologically (Kahn's algorithm), upstream
+   * projects first. Projects on a cycle, which Maven does not allow, are
+   * appended in id order.
+   */
+  private static int[] sort(final int size, final int[] upstreamOffsets,
+      final int[] downstreamOffsets, final int[] downstreamTargets) {
+    final int[] order = new int[size];
+    final int[] pending = new int[size];
+    int head = 0;
+    int tail = 0;
+    for (int id = 0; id < size; id++) {
+      pending[id] = upstreamOffsets[id + 1] - upstreamOffsets[id];
+      if (pending[id] == 0) {
+        order[tail++] = id;
+      }
+    }
+    while (head < tail) {
+      final int id = order[head++];
+      for (int i = downstreamOffsets[id]; i < downstreamOffsets[id + 1]; i++) {
+        if (--pending[downstreamTargets[i]] == 0) {
+          order[tail++] = downstreamTargets[i];
+        }
+      }
+    }
+    for (int id = 0; tail < size && id < size; id++) {
+      if (pending[id] > 0) {
+        order[tail++] = id;
+      }
+    }
+    return order;
+  }
+
+  /*
+   * Sorts the targets of every project in the given CSR graph by id, so that
+   * direct neighbors can be read in reactor order.
+   */
+  private static void sortSlices(final int size, final int[] offsets,
+      final int[] targets) {
+    for (int id = 0; id < size; id++) {
+      Arrays.sort(targets, offsets[id], offsets[id + 1]);
+    }
+  }
+
+  /*
+   * Inverts a CSR adjacency structure. The targets of every project in the
+   * result are sorted by id.
+   */
+  private static int[][] invert(final int size, final int[] offsets,
+      final int[] targets) {
+    final int[] invertedOffsets = new int[size + 1];
+    for (final int target : targets) {
+      invertedOffsets[target + 1]++;
+    }
+    for (int i = 0; i < size; i++) {
+      invertedOffsets[i + 1] += invertedOffsets[i];
+    }
+    final int[] cursor = Arrays.copyOf(invertedOffsets, size);
+    final int[] invertedTargets = new int[targets.length];
+    for (int source = 0; source < size; source++) {
+      for (int i = offsets[source]; i < offsets[source + 1]; i++) {
+        invertedTargets[cursor[targets[i]]++] = source;
+      }
+    }
+    return new int[][] { invertedOffsets, invertedTargets };
+  }
+
+  private final List<MavenProject>        projects;
+  private final Map<MavenProject, Integer> ids;
+  private final BitSet                    snapshots;
+  private final int[]                     upstreamOffsets;
+  private final int[]                     upstreamTargets;
+  private final int[]                     downstreamOffsets;
+  private final int[]                     downstreamTargets;
+  private final int[]                     topologicalOrder;
+
+  private ReactorIndex(final List<MavenProject> projects,
+      final Map<MavenProject, Integer> ids, final BitSet snapshots,
+      final int[] upstreamOffsets, final int[] upstreamTargets) {
+    this.projects = projects;
+    this.ids = ids;
+    this.snapshots = snapshots;
+    this.upstreamOffsets = upstreamOffsets;
+    this.upstreamTargets = upstreamTargets;
+    final int[][] downstream = ReactorIndex.invert(projects.size(),
+        upstreamOffsets, upstreamTargets);
+    this.downstreamOffsets = downstream[0];
+    this.downstreamTargets = downstream[1];
+    this.topologicalOrder = ReactorIndex.sort(projects.size(),
+        upstreamOffsets, this.downstreamOffsets, this.downstreamTargets);
+  }
+
+  /**
+   * Finds every release project that is an ancestor (direct or transitive
+   * upstream project) of a SNAPSHOT project. This is computed in a single pass
+   * over the reactor in reverse topological order, propagating a
+   * "feeds a SNAPSHOT" bit from each project to its direct upstream projects,
+   * so it costs O(projects + edges) regardless of reactor depth.
+   *
+   * @return never null, may be empty.
+   */
+  public BitSet findReleaseAncestorsOfSnapshots() {
+    final int size = this.projects.size();
+    final BitSet feedsSnapshot = new BitSet(size);
+    final BitSet releaseAncestors = new BitSet(size);
+    for (int i = size - 1; i >= 0; i--) {
+      final int id = this.topologicalOrder[i];
+      for (int j = this.downstreamOffsets[id]; j < this.downstreamOffsets[id + 1]; j++) {
+        final int downstream = this.downstreamTargets[j];
+        if (this.snapshots.get(downstream) || feedsSnapshot.get(downstream)) {
+          feedsSnapshot.set(id);
+          break;
+        }
+      }
+      if (feedsSnapshot.get(id) && !this.snapshots.get(id)) {
+        releaseAncestors.set(id);
+      }
+    }
+    return releaseAncestors;
+  }
+
+  /**
+   * Returns the ids of the direct downstream projects of the given project.
+   *
+   * @param id
+   *          a valid project id.
+   * @return never null, may be empty. Sorted by id.
+   */
+  public int[] getDownstream(final int id) {
+    return Arrays.copyOfRange(this.downstreamTargets,
+        this.downstreamOffsets[id], this.downstreamOffsets[id + 1]);
+  }
+
+  /*
+   * Returns the offsets into the direct downstream targets, by project id.
+   * Not a copy; never modify it.
+   */
+  int[] getDownstreamOffsets() {
+    return this.downstreamOffsets;
+  }
+
+  /*
+   * Returns the direct downstream targets of all projects, sorted by id
+   * within each project. Not a copy; never modify it.
+   */
+  int[] getDownstreamTargets() {
+    return this.downstreamTargets;
+  }
+
+  /**
+   * Returns the id of the given project.
+   *
+   * @param project
+   *          may be null.
+   * @return -1 if the project is not in this index.
+   */
+  public int getId(final MavenProject project) {
+    final Integer id = this.ids.get(project);
+    return id == null ? -1 : id;
+  }
+
+  /**
+   * Returns the project with the given id.
+   *
+   * @param id
+   *          a valid project id.
+   * @return never null.
+   */
+  public MavenProject getProject(final int id) {
+    return this.projects.get(id);
+  }
+
+  /**
+   * Returns all indexed projects, in id order.
+   *
+   * @return never null, unmodifiable.
+   */
+  public List<MavenProject> getProjects() {
+    return Collections.unmodifiableList(this.projects);
+  }
+
+  /**
+   * Returns the ids of all SNAPSHOT projects.
+   *
+   * @return never null, a copy.
+   */
+  public BitSet getSnapshots() {
+    return (BitSet) this.snapshots.clone();
+  }
+
+  /**
+   * Returns the ids of the direct upstream projects of the given project.
+   *
+   * @param id
+   *          a valid project id.
+   * @return never null, may be empty. Sorted by id.
+   */
+  public int[] getUpstream(final int id) {
+    return Arrays.copyOfRange(this.upstreamTargets,
+        this.upstreamOffsets[id], this.upstreamOffsets[id + 1]);
+  }
+
+  /*
+   * Returns the offsets into the direct upstream targets, by project id. Not
+   * a copy; never modify it.
+   */
+  int[] getUpstreamOffsets() {
+    return this.upstreamOffsets;
+  }
+
+  /*
+   * Returns the direct upstream targets of all projects, sorted by id within
+   * each project. Not a copy; never modify it.
+   */
+  int[] getUpstreamTargets() {
+    return this.upstreamTargets;
+  }
+
+  /**
+   * Returns the ids of all projects in topological order, upstream projects
+   * first.
+   *
+   * @return never null, a copy.
+   */
+  public int[] getTopologicalOrder() {
+    return this.topologicalOrder.clone();
+  }
+
+  /**
+   * Indicates whether or not the given project is a SNAPSHOT.
+   *
+   * @param id
+   *          a valid project id.
+   * @return true if SNAPSHOT, false otherwise.
+   */
+  public boolean isSnapshot(final int id) {
+    return this.snapshots.get(id);
+  }
+
+  /**
+   * Returns a copy of this index whose projects are replaced by the given
+   * ones, e.g. after the reactor has been reloaded from disk. Ids, SNAPSHOT
+   * status and edges are retained.
+   *
+   * @param replacements
+   *          maps projects in this index to their replacements. Not null.
+   *          Unmapped projects are retained.
+   * @return never null.
+   */
+  public ReactorIndex remap(final Map<MavenProject, MavenProject> replacements) {
+    Validate.notNull(replacements, "Replacement map is null");
+    final int size = this.projects.size();
+    final List<MavenProject> byId = new ArrayList<>(size);
+    final Map<MavenProject, Integer> newIds = new IdentityHashMap<>(size);
+    for (int id = 0; id < size; id++) {
+      final MavenProject original = this.projects.get(id);
+      final MavenProject replacement = replacements.get(original);
+      final MavenProject project = replacement == null ? original
+          : replacement;
+      byId.add(project);
+      newIds.put(project, id);
+    }
+    return new ReactorIndex(byId, newIds, this.snapshots,
+        this.upstreamOffsets, this.upstreamTargets);
+  }
+
+  /**
+   * Returns the number of projects in this index.
+   *
+   * @return zero or more.
+   */
+  public int size() {
+    return this.projects.size();
+  }
+}
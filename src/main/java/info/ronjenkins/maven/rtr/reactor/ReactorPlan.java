@@ -0,0 +1,412 @@
+/*
+ * Copyright (C) 2016 Ronald Jack Jenkins Jr.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package info.ronjenkins.maven.rtr.reactor;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+import org.apache.commons.lang.StringUtils;
+import org.apache.commons.lang.Validate;
+import org.apache.maven.execution.MavenSession;
+import org.apache.maven.model.Dependency;
+import org.apache.maven.model.Model;
+import org.apache.maven.project.MavenProject;
+
+/**
+ * A Smart Reactor plan that can be persisted between builds: the SNAPSHOT
+ * status and direct upstream edges of every project in the original reactor,
+ * plus the ids of the projects that the Smart Reactor retained.
+ *
+ * <p>
+ * A plan is only valid for the key it was computed for. The key is a digest
+ * of every reactor POM and its parent POMs, the reactor order, the requested
+ * profiles, the profiles active in each project, the coordinates of every
+ * imported BOM, all user properties and the Smart Reactor properties of the
+ * execution root, so any change to these invalidates the plan. The contents
+ * of imported BOMs are not digested.
+ *
+ * @author Ronald Jack Jenkins Jr.
+ */
+public final class ReactorPlan {
+  private static final String FORMAT           = "1";
+  private static final String PROP_FORMAT      = "format";
+  private static final String PROP_KEY         = "key";
+  private static final String PROP_SIZE        = "size";
+  private static final String PROP_SNAPSHOTS   = "snapshots";
+  private static final String PROP_OFFSETS     = "upstreamOffsets";
+  private static final String PROP_TARGETS     = "upstreamTargets";
+  private static final String PROP_RETAINED    = "retained";
+  private static final String RTR_PROPS_PREFIX = "rtr.";
+
+  /**
+   * Computes the cache key of the given session's reactor.
+   *
+   * @param session
+   *          not null.
+   * @return null if any POM cannot be read, in which case no plan should be
+   *         used or stored.
+   */
+  public static String computeKey(final MavenSession session) {
+    Validate.notNull(session, "Session is null");
+    final StringBuilder key = new StringBuilder();
+    ReactorPlan.appendProperties(key, "user", session.getUserProperties(),
+        null);
+    final MavenProject executionRoot = session.getTopLevelProject();
+    if (executionRoot != null) {
+      ReactorPlan.appendProperties(key, "root",
+          executionRoot.getProperties(), ReactorPlan.RTR_PROPS_PREFIX);
+    }
+    if (session.getRequest() != null) {
+      key.append("activeProfiles=")
+          .append(session.getRequest().getActiveProfiles()).append('\n');
+      key.append("inactiveProfiles=")
+          .append(session.getRequest().getInactiveProfiles()).append('\n');
+    }
+    // Every POM, including parents outside the reactor, is read only once.
+    final Map<File, String> digests = new HashMap<>();
+    for (final MavenProject project : session.getProjects()) {
+      key.append("project=").append(project.getId()).append('\n');
+      // Profiles can come from settings.xml, which is not digested.
+      for (final Map.Entry<String, List<String>> entry : project
+          .getInjectedProfileIds().entrySet()) {
+        key.append("profiles=").append(entry.getKey()).append(':')
+            .append(entry.getValue()).append('\n');
+      }
+      for (MavenProject current = project; current != null; current = current
+          .getParent()) {
+        final File pomFile = current.getFile();
+        if (pomFile == null) {
+          continue;
+        }
+        String digest = digests.get(pomFile);
+        if (digest == null) {
+          digest = PomDigests.digest(pomFile);
+          if (digest == null) {
+            return null;
+          }
+          digests.put(pomFile, digest);
+        }
+        key.append("pom=").append(pomFile.getAbsolutePath()).append(':')
+            .append(digest).append('\n');
+        ReactorPlan.appendImports(key, current.getOriginalModel(),
+            project.getProperties());
+      }
+    }
+    return PomDigests.digest(key.toString().getBytes(StandardCharsets.UTF_8));
+  }
+
+  /**
+   * Creates a plan from the given index.
+   *
+   * @param key
+   *          the key of the reactor described by the index. Not null.
+   * @param index
+   *          the index of the original reactor. Not null.
+   * @param retained
+   *          the ids of the projects retained by the Smart Reactor. Not null.
+   * @return never null.
+   */
+  public static ReactorPlan create(final String key, final ReactorIndex index,
+      final BitSet retained) {
+    Validate.notNull(key, "Key is null");
+    Validate.notNull(index, "Reactor index is null");
+    Validate.notNull(retained, "Retained ids are null");
+    final int size = index.size();
+    final int[] offsets = new int[size + 1];
+    final List<Integer> targets = new ArrayList<>();
+    for (int id = 0; id < size; id++) {
+      offsets[id] = targets.size();
+      for (final int upstream : index.getUpstream(id)) {
+        targets.add(upstream);
+      }
+    }
+    offsets[size] = targets.size();
+    final int[] targetArray = new int[targets.size()];
+    for (int i = 0; i < targetArray.length; i++) {
+      targetArray[i] = targets.get(i);
+    }
+    final BitSet retainedIds = (BitSet) retained.clone();
+    if (retainedIds.length() > size) {
+      retainedIds.clear(size, retainedIds.length());
+    }
+    return new ReactorPlan(key, size, index.getSnapshots(), offsets,
+        targetArray, retainedIds);
+  }
+
+  /**
+   * Reads a plan from the given file.
+   *
+   * @param file
+   *          not null.
+   * @return null if the file does not exist, cannot be read or does not
+   *         contain a valid plan.
+   */
+  public static ReactorPlan read(final File file) {
+    Validate.notNull(file, "File is null");
+    if (!file.isFile()) {
+      return null;
+    }
+    final Properties props = new Properties();
+    try (final InputStream in = Files.newInputStream(file.toPath())) {
+      props.load(in);
+    }
+    catch (final IOException e) {
+      return null;
+    }
+    try {
+      if (!ReactorPlan.FORMAT.equals(props
+          .getProperty(ReactorPlan.PROP_FORMAT))) {
+        return null;
+      }
+      final String key = props.getProperty(ReactorPlan.PROP_KEY);
+      final int size = Integer.parseInt(props
+          .getProperty(ReactorPlan.PROP_SIZE));
+      final int[] offsets = ReactorPlan.parseInts(props
+          .getProperty(ReactorPlan.PROP_OFFSETS));
+      final int[] targets = ReactorPlan.parseInts(props
+          .getProperty(ReactorPlan.PROP_TARGETS));
+      final BitSet snapshots = ReactorPlan.parseBits(
+          props.getProperty(ReactorPlan.PROP_SNAPSHOTS), size);
+      final BitSet retained = ReactorPlan.parseBits(
+          props.getProperty(ReactorPlan.PROP_RETAINED), size);
+      if (key == null || !ReactorPlan.isValidGraph(size, offsets, targets)) {
+        return null;
+      }
+      return new ReactorPlan(key, size, snapshots, offsets, targets, retained);
+    }
+    catch (final RuntimeException e) {
+      // Missing or malformed values.
+      return null;
+    }
+  }
+
+  private static void appendProperties(final StringBuilder key,
+      final String label, final Properties props, final String prefix) {
+    if (props == null) {
+      return;
+    }
+    final List<String> names = new ArrayList<>(props.stringPropertyNames());
+    Collections.sort(names);
+    for (final String name : names) {
+      if (prefix == null || name.startsWith(prefix)) {
+        key.append(label).append('.').append(name).append('=')
+            .append(props.getProperty(name)).append('\n');
+      }
+    }
+  }
+
+  private static void appendImports(final StringBuilder key,
+      final Model model, final Properties props) {
+    for (final Dependency bom : ImportedBoms.list(model, props)) {
+      key.append("import=").append(bom.getGroupId()).append(':')
+          .append(bom.getArtifactId()).append(':').append(bom.getType())
+          .append(':').append(bom.getVersion()).append('\n');
+    }
+  }
+
+  private static String formatBits(final BitSet bits) {
+    final StringBuilder sb = new StringBuilder();
+    for (int i = bits.nextSetBit(0); i >= 0; i = bits.nextSetBit(i + 1)) {
+      if (sb.length() > 0) {
+        sb.append(',');
+      }
+      sb.append(i);
+    }
+    return sb.toString();
+  }
+
+  private static String formatInts(final int[] ints) {
+    final StringBuilder sb = new StringBuilder();
+    for (int i = 0; i < ints.length; i++) {
+      if (i > 0) {
+        sb.append(',');
+      }
+      sb.append(ints[i]);
+    }
+    return sb.toString();
+  }
+
+  private static boolean isValidGraph(final int size, final int[] offsets,
+      final int[] targets) {
+    if (size < 0 || offsets.length != size + 1 || offsets[0] != 0
+        || offsets[size] != targets.length) {
+      return false;
+    }
+    for (int i = 0; i < size; i++) {
+      if (offsets[i] > offsets[i + 1]) {
+        return false;
+      }
+    }
+    for (final int target : targets) {
+      if (target < 0 || target >= size) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static BitSet parseBits(final String value, final int size) {
+    final BitSet bits = new BitSet(size);
+    for (final int i : ReactorPlan.parseInts(value)) {
+      Validate.isTrue(i >= 0 && i < size, "Bit is out of range: ", i);
+      bits.set(i);
+    }
+    return bits;
+  }
+
+  private static int[] parseInts(final String value) {
+    Validate.notNull(value, "Value is null");
+    if (value.isEmpty()) {
+      return new int[0];
+    }
+    final String[] parts = StringUtils.split(value, ',');
+    final int[] ints = new int[parts.length];
+    for (int i = 0; i < parts.length; i++) {
+      ints[i] = Integer.parseInt(parts[i].trim());
+    }
+    return ints;
+  }
+
+  private final String key;
+  private final int    size;
+  private final BitSet snapshots;
+  private final int[]  upstreamOffsets;
+  private final int[]  upstreamTargets;
+  private final BitSet retained;
+
+  private ReactorPlan(final String key, final int size,
+      final BitSet snapshots, final int[] upstreamOffsets,
+      final int[] upstreamTargets, final BitSet retained) {
+    this.key = key;
+    this.size = size;
+    this.snapshots = snapshots;
+    this.upstreamOffsets = upstreamOffsets;
+    this.upstreamTargets = upstreamTargets;
+    this.retained = retained;
+  }
+
+  /**
+   * Returns the key of the reactor that this plan describes.
+   *
+   * @return never null.
+   */
+  public String getKey() {
+    return this.key;
+  }
+
+  /**
+   * Returns the ids of the projects that the Smart Reactor retained.
+   *
+   * @return never null, a copy.
+   */
+  public BitSet getRetained() {
+    return (BitSet) this.retained.clone();
+  }
+
+  /**
+   * Indicates whether or not this plan can be applied to the given reactor.
+   *
+   * @param key
+   *          the key of the reactor, as returned by
+   *          {@link #computeKey(MavenSession)}. May be null.
+   * @param projects
+   *          the reactor. Not null.
+   * @return true if the key and reactor size match, false otherwise.
+   */
+  public boolean matches(final String key, final List<MavenProject> projects) {
+    Validate.notNull(projects, "Projects list is null");
+    return this.key.equals(key) && this.size == projects.size();
+  }
+
+  /**
+   * Returns the number of projects in the original reactor.
+   *
+   * @return zero or more.
+   */
+  public int size() {
+    return this.size;
+  }
+
+  /**
+   * Rebuilds the reactor index that this plan was created from, for the given
+   * projects.
+   *
+   * @param projects
+   *          the original reactor, in the same order as when this plan was
+   *          created. Not null.
+   * @return never null.
+   * @throws IllegalArgumentException
+   *           if the reactor size does not match this plan.
+   */
+  public ReactorIndex toIndex(final List<MavenProject> projects) {
+    Validate.notNull(projects, "Projects list is null");
+    Validate.isTrue(projects.size() == this.size,
+        "Reactor size does not match the plan: ", projects.size());
+    return ReactorIndex.build(projects, this.snapshots, this.upstreamOffsets,
+        this.upstreamTargets);
+  }
+
+  /**
+   * Writes this plan to the given file, replacing any existing file.
+   *
+   * @param file
+   *          not null.
+   * @throws IOException
+   *           if the plan cannot be written.
+   */
+  public void write(final File file) throws IOException {
+    Validate.notNull(file, "File is null");
+    final Properties props = new Properties();
+    props.setProperty(ReactorPlan.PROP_FORMAT, ReactorPlan.FORMAT);
+    props.setProperty(ReactorPlan.PROP_KEY, this.key);
+    props.setProperty(ReactorPlan.PROP_SIZE, Integer.toString(this.size));
+    props.setProperty(ReactorPlan.PROP_SNAPSHOTS,
+        ReactorPlan.formatBits(this.snapshots));
+    props.setProperty(ReactorPlan.PROP_OFFSETS,
+        ReactorPlan.formatInts(this.upstreamOffsets));
+    props.setProperty(ReactorPlan.PROP_TARGETS,
+        ReactorPlan.formatInts(this.upstreamTargets));
+    props.setProperty(ReactorPlan.PROP_RETAINED,
+        ReactorPlan.formatBits(this.retained));
+    final File directory = file.getAbsoluteFile().getParentFile();
+    Files.createDirectories(directory.toPath());
+    // Write to a temporary file first so that concurrent builds never read a
+    // partially written plan.
+    final File temp = File.createTempFile(file.getName(), ".tmp", directory);
+    try {
+      try (final OutputStream out = Files.newOutputStream(temp.toPath())) {
+        props.store(out, "Smart Reactor plan");
+      }
+      Files.move(temp.toPath(), file.toPath(),
+          StandardCopyOption.REPLACE_EXISTING);
+    }
+    finally {
+      Files.deleteIfExists(temp.toPath());
+    }
+  }
+}
@@ -0,0 +1,251 @@
+/*
+ * Copyright (C) 2016 Ronald Jack Jenkins Jr.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package info.ronjenkins.maven.rtr.reactor;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.commons.lang.Validate;
+import org.apache.maven.artifact.Artifact;
+import org.apache.maven.artifact.ArtifactUtils;
+import org.apache.maven.model.Build;
+import org.apache.maven.model.Dependency;
+import org.apache.maven.model.DependencyManagement;
+import org.apache.maven.model.Parent;
+import org.apache.maven.model.Plugin;
+import org.apache.maven.model.PluginManagement;
+import org.apache.maven.project.MavenProject;
+
+/**
+ * Applies release versions directly to the in-memory models of reactor
+ * projects, so that the reactor does not have to be reloaded from disk after
+ * its POMs are rewritten.
+ *
+ * <p>
+ * Only SNAPSHOT versions of projects present in the version map are replaced:
+ * project versions (including the project artifact and a default final name),
+ * parent versions, dependency and managed dependency versions, and plugin and
+ * managed plugin versions. The artifacts that Maven derived from the model
+ * when the project was built (the parent artifact, the managed version map and
+ * the dependency, plugin, report and extension artifacts) are patched as well,
+ * and {@link #reindex(Map)} re-keys the session's project map so that the
+ * reactor resolves projects by their release versions.
+ *
+ * <p>
+ * Other values that were interpolated from the project version when the model
+ * was built, such as properties, resources or plugin configuration, are left
+ * untouched; builds that depend on them must reload the reactor from disk
+ * instead.
+ *
+ * @author Ronald Jack Jenkins Jr.
+ */
+public final class ReleaseVersionPatcher {
+  /**
+   * Applies release versions to the given projects.
+   *
+   * @param projects
+   *          not null.
+   * @param releaseVersions
+   *          maps versionless keys ({@code groupId:artifactId}) to release
+   *          versions, as populated by the {@code map-release-versions}
+   *          release phase. Not null.
+   * @return the number of projects whose own version was changed.
+   */
+  public static int patch(final List<MavenProject> projects,
+      final Map<?, ?> releaseVersions) {
+    Validate.notNull(projects, "Projects list is null");
+    Validate.notNull(releaseVersions, "Release versions map is null");
+    int patched = 0;
+    for (final MavenProject project : projects) {
+      if (ReleaseVersionPatcher.patchProject(project, releaseVersions)) {
+        patched++;
+      }
+      final Parent parent = project.getModel().getParent();
+      if (parent != null) {
+        final String version = ReleaseVersionPatcher.getReleaseVersion(
+            releaseVersions, parent.getGroupId(), parent.getArtifactId(),
+            parent.getVersion());
+        if (version != null) {
+          parent.setVersion(version);
+        }
+      }
+      ReleaseVersionPatcher.patchDependencies(project.getDependencies(),
+          releaseVersions);
+      ReleaseVersionPatcher.patchArtifacts(project, releaseVersions);
+      final DependencyManagement dependencyManagement = project
+          .getDependencyManagement();
+      if (dependencyManagement != null) {
+        ReleaseVersionPatcher.patchDependencies(
+            dependencyManagement.getDependencies(), releaseVersions);
+      }
+      final Build build = project.getBuild();
+      if (build != null) {
+        ReleaseVersionPatcher.patchPlugins(build.getPlugins(),
+            releaseVersions);
+        final PluginManagement pluginManagement = build.getPluginManagement();
+        if (pluginManagement != null) {
+          ReleaseVersionPatcher.patchPlugins(pluginManagement.getPlugins(),
+              releaseVersions);
+        }
+      }
+    }
+    return patched;
+  }
+
+  /**
+   * Re-keys the session's project map after its projects have been
+   * {@link #patch(List, Map) patched}. The map is modified in place because
+   * the reactor's workspace reader may hold a reference to it.
+   *
+   * @param projectMap
+   *          maps {@code groupId:artifactId:version} keys to projects. May be
+   *          null.
+   */
+  public static void reindex(final Map<String, MavenProject> projectMap) {
+    if (projectMap == null) {
+      return;
+    }
+    final List<MavenProject> projects = new ArrayList<>(projectMap.values());
+    projectMap.clear();
+    for (final MavenProject project : projects) {
+      projectMap.put(ArtifactUtils.key(project.getGroupId(),
+          project.getArtifactId(), project.getVersion()), project);
+    }
+  }
+
+  /*
+   * Returns the release version for the given coordinates, or null if the
+   * given version is not a SNAPSHOT or no release version is mapped.
+   */
+  private static String getReleaseVersion(final Map<?, ?> releaseVersions,
+      final String groupId, final String artifactId, final String version) {
+    if (version == null || !ArtifactUtils.isSnapshot(version)) {
+      return null;
+    }
+    final Object releaseVersion = releaseVersions.get(ArtifactUtils
+        .versionlessKey(groupId, artifactId));
+    return releaseVersion == null ? null : releaseVersion.toString();
+  }
+
+  private static void patchArtifact(final Artifact artifact,
+      final Map<?, ?> releaseVersions) {
+    if (artifact == null) {
+      return;
+    }
+    final String version = ReleaseVersionPatcher.getReleaseVersion(
+        releaseVersions, artifact.getGroupId(), artifact.getArtifactId(),
+        artifact.getVersion());
+    if (version != null) {
+      artifact.setVersion(version);
+    }
+  }
+
+  private static void patchArtifacts(final Collection<Artifact> artifacts,
+      final Map<?, ?> releaseVersions) {
+    if (artifacts == null) {
+      return;
+    }
+    for (final Artifact artifact : artifacts) {
+      ReleaseVersionPatcher.patchArtifact(artifact, releaseVersions);
+    }
+  }
+
+  /*
+   * The artifact maps of a project are keyed by versionless ids, so patching
+   * the artifacts in place keeps them consistent.
+   */
+  private static void patchArtifacts(final MavenProject project,
+      final Map<?, ?> releaseVersions) {
+    ReleaseVersionPatcher.patchArtifact(project.getParentArtifact(),
+        releaseVersions);
+    final Map<String, Artifact> managedVersionMap = project
+        .getManagedVersionMap();
+    if (managedVersionMap != null) {
+      ReleaseVersionPatcher.patchArtifacts(managedVersionMap.values(),
+          releaseVersions);
+    }
+    ReleaseVersionPatcher.patchArtifacts(project.getDependencyArtifacts(),
+        releaseVersions);
+    ReleaseVersionPatcher.patchArtifacts(project.getArtifacts(),
+        releaseVersions);
+    ReleaseVersionPatcher.patchArtifacts(project.getPluginArtifacts(),
+        releaseVersions);
+    ReleaseVersionPatcher.patchArtifacts(project.getReportArtifacts(),
+        releaseVersions);
+    ReleaseVersionPatcher.patchArtifacts(project.getExtensionArtifacts(),
+        releaseVersions);
+  }
+
+  private static void patchDependencies(
+      final Collection<Dependency> dependencies,
+      final Map<?, ?> releaseVersions) {
+    if (dependencies == null) {
+      return;
+    }
+    for (final Dependency dependency : dependencies) {
+      final String version = ReleaseVersionPatcher.getReleaseVersion(
+          releaseVersions, dependency.getGroupId(),
+          dependency.getArtifactId(), dependency.getVersion());
+      if (version != null) {
+        dependency.setVersion(version);
+      }
+    }
+  }
+
+  private static void patchPlugins(final Collection<Plugin> plugins,
+      final Map<?, ?> releaseVersions) {
+    if (plugins == null) {
+      return;
+    }
+    for (final Plugin plugin : plugins) {
+      final String version = ReleaseVersionPatcher.getReleaseVersion(
+          releaseVersions, plugin.getGroupId(), plugin.getArtifactId(),
+          plugin.getVersion());
+      if (version != null) {
+        plugin.setVersion(version);
+      }
+    }
+  }
+
+  private static boolean patchProject(final MavenProject project,
+      final Map<?, ?> releaseVersions) {
+    final String oldVersion = project.getVersion();
+    final String newVersion = ReleaseVersionPatcher.getReleaseVersion(
+        releaseVersions, project.getGroupId(), project.getArtifactId(),
+        oldVersion);
+    if (newVersion == null) {
+      return false;
+    }
+    project.setVersion(newVersion);
+    final Artifact artifact = project.getArtifact();
+    if (artifact != null) {
+      artifact.setVersion(newVersion);
+    }
+    // Only the default final name is derived from the version.
+    final Build build = project.getBuild();
+    if (build != null
+        && (project.getArtifactId() + "-" + oldVersion).equals(build
+            .getFinalName())) {
+      build.setFinalName(project.getArtifactId() + "-" + newVersion);
+    }
+    return true;
+  }
+
+  /* This class is not instantiable. */
+  private ReleaseVersionPatcher() {}
+}
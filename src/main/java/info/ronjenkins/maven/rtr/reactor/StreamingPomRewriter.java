@@ -0,0 +1,597 @@
+/*
+ * Copyright (C) 2016 Ronald Jack Jenkins Jr.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package info.ronjenkins.maven.rtr.reactor;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.apache.commons.lang.StringEscapeUtils;
+import org.apache.commons.lang.Validate;
+
+/**
+ * Rewrites the text of a POM for release in a single pass, copying everything
+ * it does not rewrite verbatim.
+ *
+ * <p>
+ * The following are rewritten, as by the Maven Release Manager's
+ * {@code rewrite-poms-for-release} phase:
+ * <ul>
+ * <li>the project's own version, which is added after its {@code artifactId}
+ * if it was inherited but no longer matches the parent's version;</li>
+ * <li>the parent version, if the parent is a reactor project;</li>
+ * <li>the versions of reactor projects that are used as dependencies, plugins
+ * or extensions, managed or not, including within profiles. If such a version
+ * refers to a property of this POM, the property is rewritten instead;
+ * {@code project.*}, {@code pom.*} and {@code version} expressions are left
+ * alone;</li>
+ * <li>the {@code scm/tag} element, if a tag is given;</li>
+ * <li>the POM namespace and schema location of the root element, if
+ * requested.</li>
+ * </ul>
+ * Apart from the project's own version, a version is only rewritten if it is
+ * the current version of the reactor project that it refers to.
+ *
+ * <p>
+ * The POM is scanned as text rather than with an XML parser, so that every
+ * change is made at its exact original location. Comments, CDATA sections,
+ * processing instructions and the document type declaration are skipped, and
+ * nothing within a {@code configuration} element is rewritten.
+ *
+ * @author Ronald Jack Jenkins Jr.
+ */
+public final class StreamingPomRewriter {
+  private static final String  DEFAULT_PLUGIN_GROUP_ID = "org.apache.maven.plugins";
+  private static final Pattern EXPRESSION              = Pattern.compile("\\$\\{(.+)\\}");
+  private static final Pattern XMLNS                   = Pattern.compile("\\sxmlns\\s*=");
+  private static final Pattern XMLNS_XSI               = Pattern.compile("\\sxmlns:xsi\\s*=");
+  private static final Pattern XSI_SCHEMA_LOCATION     = Pattern.compile("\\sxsi:schemaLocation\\s*=");
+
+  /* The children of an element that names an artifact. */
+  private static final class Coordinates {
+    private String groupId;
+    private String artifactId;
+    private int    artifactIdStart = -1;
+    private int    artifactIdEnd   = -1;
+    private String version;
+    private int    versionStart    = -1;
+    private int    versionEnd      = -1;
+  }
+
+  /* A replacement of the characters between start and end. */
+  private static final class Edit {
+    private final int    start;
+    private final int    end;
+    private final String text;
+
+    private Edit(final int start, final int end, final String text) {
+      this.start = start;
+      this.end = end;
+      this.text = text;
+    }
+  }
+
+  /* An open element. */
+  private static final class Element {
+    private final String  name;
+    private final int     start;
+    private final int     contentStart;
+    private final boolean empty;
+    private Coordinates   coordinates;
+    private String        lastChildIndent = "";
+    private int           lastChildEnd    = -1;
+
+    private Element(final String name, final int start,
+        final int contentStart, final boolean empty) {
+      this.name = name;
+      this.start = start;
+      this.contentStart = contentStart;
+      this.empty = empty;
+    }
+  }
+
+  /* The state of a single rewrite. */
+  private final class Scan {
+    private final String                pom;
+    private final String                scmTag;
+    private final List<Edit>            edits            = new ArrayList<>();
+    private final List<Element>         stack            = new ArrayList<>();
+    private final Map<String, int[]>    properties       = new HashMap<>();
+    private final Map<String, String[]> propertyRewrites = new LinkedHashMap<>();
+    private int                         rootTagEnd       = -1;
+    private String                      rootAttributes;
+    private String                      modelVersion     = "4.0.0";
+    private String                      parentGroupId;
+    private String                      parentVersion;
+    private boolean                     scmTagSeen;
+
+    private Scan(final String pom, final String scmTag) {
+      this.pom = pom;
+      this.scmTag = scmTag;
+    }
+
+    private void addSchema() {
+      if (this.rootTagEnd < 0) {
+        return;
+      }
+      final StringBuilder attributes = new StringBuilder();
+      if (!StreamingPomRewriter.XMLNS.matcher(this.rootAttributes).find()) {
+        attributes.append(" xmlns=\"http://maven.apache.org/POM/")
+            .append(this.modelVersion).append('"');
+      }
+      if (!StreamingPomRewriter.XMLNS_XSI.matcher(this.rootAttributes).find()) {
+        attributes
+            .append(" xmlns:xsi=\"http://www.w3.org/2001/XMLSchema-instance\"");
+      }
+      if (!StreamingPomRewriter.XSI_SCHEMA_LOCATION.matcher(
+          this.rootAttributes).find()) {
+        attributes.append(" xsi:schemaLocation=\"http://maven.apache.org/POM/")
+            .append(this.modelVersion)
+            .append(" http://maven.apache.org/maven-v")
+            .append(this.modelVersion.replace('.', '_')).append(".xsd\"");
+      }
+      if (attributes.length() > 0) {
+        this.edits.add(new Edit(this.rootTagEnd, this.rootTagEnd, attributes
+            .toString()));
+      }
+    }
+
+    /* Whether or not the open elements are exactly the given ones. */
+    private boolean at(final String... names) {
+      if (this.stack.size() != names.length) {
+        return false;
+      }
+      for (int i = 0; i < names.length; i++) {
+        if (!names[i].equals(this.stack.get(i).name)) {
+          return false;
+        }
+      }
+      return true;
+    }
+
+    private void endElement(final String name, final int contentEnd,
+        final int end) {
+      if (this.stack.isEmpty()) {
+        throw new IllegalArgumentException("POM is not well-formed: </"
+            + name + "> at offset " + contentEnd + " was never opened");
+      }
+      final Element element = this.stack.remove(this.stack.size() - 1);
+      if (!element.name.equals(name)) {
+        throw new IllegalArgumentException("POM is not well-formed: </"
+            + name + "> at offset " + contentEnd + " does not close <"
+            + element.name + ">");
+      }
+      if (!this.stack.isEmpty()) {
+        final Element parent = this.stack.get(this.stack.size() - 1);
+        parent.lastChildEnd = end;
+        this.endChild(parent, element, contentEnd, end);
+      }
+      if (element.coordinates != null) {
+        this.endCoordinates(element);
+      }
+    }
+
+    /* Records a closed child element of an open element. */
+    private void endChild(final Element parent, final Element child,
+        final int contentEnd, final int end) {
+      final String content = child.empty ? "" : this.pom.substring(
+          child.contentStart, contentEnd);
+      if (parent.coordinates != null) {
+        final Coordinates coordinates = parent.coordinates;
+        if ("groupId".equals(child.name)) {
+          coordinates.groupId = content.trim();
+        }
+        else if ("artifactId".equals(child.name)) {
+          coordinates.artifactId = content.trim();
+          coordinates.artifactIdStart = child.start;
+          coordinates.artifactIdEnd = end;
+        }
+        else if ("version".equals(child.name) && !child.empty) {
+          coordinates.version = content;
+          coordinates.versionStart = child.contentStart;
+          coordinates.versionEnd = contentEnd;
+        }
+      }
+      if (this.at("project")) {
+        if ("modelVersion".equals(child.name)) {
+          this.modelVersion = content.trim();
+        }
+        else if ("scm".equals(child.name) && this.scmTag != null
+            && !this.scmTagSeen && !child.empty) {
+          this.insertScmTag(child, contentEnd);
+        }
+      }
+      else if (this.at("project", "properties")) {
+        this.properties.put(child.name, new int[] { child.contentStart,
+            contentEnd });
+      }
+      else if (this.at("project", "scm") && "tag".equals(child.name)) {
+        this.scmTagSeen = true;
+        if (this.scmTag == null || this.scmTag.equals(content.trim())) {
+          return;
+        }
+        if (child.empty) {
+          this.edits.add(new Edit(child.start, end, "<tag>"
+              + StringEscapeUtils.escapeXml(this.scmTag) + "</tag>"));
+        }
+        else {
+          this.replace(child.contentStart, contentEnd, this.scmTag);
+        }
+      }
+    }
+
+    /* Rewrites the version of a closed element that names an artifact. */
+    private void endCoordinates(final Element element) {
+      final Coordinates coordinates = element.coordinates;
+      if (this.stack.isEmpty()) {
+        this.rewriteProjectVersion(coordinates);
+      }
+      else if (this.at("project") && "parent".equals(element.name)) {
+        this.parentGroupId = coordinates.groupId;
+        final String mapped = this.rewriteVersion(coordinates,
+            coordinates.groupId);
+        if (mapped != null) {
+          this.parentVersion = mapped;
+        }
+        else if (coordinates.version != null) {
+          this.parentVersion = coordinates.version.trim();
+        }
+      }
+      else {
+        String groupId = coordinates.groupId;
+        if (groupId == null && !"dependency".equals(element.name)) {
+          groupId = StreamingPomRewriter.DEFAULT_PLUGIN_GROUP_ID;
+        }
+        this.rewriteVersion(coordinates, groupId);
+      }
+    }
+
+    private boolean hasCoordinates(final String name) {
+      if (this.stack.isEmpty()) {
+        return "project".equals(name);
+      }
+      if ("parent".equals(name)) {
+        return this.at("project");
+      }
+      final String parent = this.stack.get(this.stack.size() - 1).name;
+      if (!("dependency".equals(name) && "dependencies".equals(parent)
+          || "plugin".equals(name) && "plugins".equals(parent) || "extension"
+          .equals(name) && "extensions".equals(parent))) {
+        return false;
+      }
+      for (final Element element : this.stack) {
+        if ("configuration".equals(element.name)) {
+          return false;
+        }
+      }
+      return true;
+    }
+
+    private void insertScmTag(final Element scm, final int contentEnd) {
+      final String tag = "<tag>" + StringEscapeUtils.escapeXml(this.scmTag)
+          + "</tag>";
+      if (scm.lastChildEnd < 0) {
+        this.edits.add(new Edit(contentEnd, contentEnd, tag));
+      }
+      else {
+        this.edits.add(new Edit(scm.lastChildEnd, scm.lastChildEnd,
+            scm.lastChildIndent + tag));
+      }
+    }
+
+    /* Replaces the given element content, keeping its surrounding spaces. */
+    private void replace(final int start, final int end, final String value) {
+      int from = start;
+      while (from < end && Character.isWhitespace(this.pom.charAt(from))) {
+        from++;
+      }
+      int to = end;
+      while (to > from && Character.isWhitespace(this.pom.charAt(to - 1))) {
+        to--;
+      }
+      if (this.pom.substring(from, to).indexOf('<') >= 0) {
+        // Comments or CDATA; leave them alone.
+        return;
+      }
+      this.edits.add(new Edit(from, to, StringEscapeUtils.escapeXml(value)));
+    }
+
+    private String result() {
+      if (this.edits.isEmpty()) {
+        return this.pom;
+      }
+      Collections.sort(this.edits, new Comparator<Edit>() {
+        @Override
+        public int compare(final Edit a, final Edit b) {
+          return Integer.compare(a.start, b.start);
+        }
+      });
+      final StringBuilder result = new StringBuilder(this.pom.length() + 256);
+      int copied = 0;
+      for (final Edit edit : this.edits) {
+        result.append(this.pom, copied, edit.start).append(edit.text);
+        copied = edit.end;
+      }
+      result.append(this.pom, copied, this.pom.length());
+      return result.toString();
+    }
+
+    private void rewriteProjectVersion(final Coordinates coordinates) {
+      final String groupId = coordinates.groupId == null ? this.parentGroupId
+          : coordinates.groupId;
+      final String mapped = StreamingPomRewriter.this.releaseVersions
+          .get(groupId + ":" + coordinates.artifactId);
+      if (mapped == null) {
+        return;
+      }
+      if (coordinates.version != null) {
+        if (!mapped.equals(coordinates.version.trim())) {
+          this.replace(coordinates.versionStart, coordinates.versionEnd,
+              mapped);
+        }
+      }
+      else if (!mapped.equals(this.parentVersion)
+          && coordinates.artifactIdEnd >= 0) {
+        // Inherited, but no longer the same as the parent's version.
+        int lineStart = coordinates.artifactIdStart;
+        while (lineStart > 0 && this.pom.charAt(lineStart - 1) != '\n'
+            && this.pom.charAt(lineStart - 1) != '\r') {
+          lineStart--;
+        }
+        final String indent = this.pom.substring(lineStart,
+            coordinates.artifactIdStart);
+        this.edits.add(new Edit(coordinates.artifactIdEnd,
+            coordinates.artifactIdEnd, (indent.trim().isEmpty() ? "\n"
+                + indent : "\n  ")
+                + "<version>"
+                + StringEscapeUtils.escapeXml(mapped)
+                + "</version>"));
+      }
+    }
+
+    private void rewriteProperties() {
+      for (final Map.Entry<String, String[]> entry : this.propertyRewrites
+          .entrySet()) {
+        final int[] range = this.properties.get(entry.getKey());
+        if (range != null
+            && this.pom.substring(range[0], range[1]).trim()
+                .equals(entry.getValue()[0])) {
+          this.replace(range[0], range[1], entry.getValue()[1]);
+        }
+      }
+    }
+
+    /* Returns the release version that was written, or null if none was. */
+    private String rewriteVersion(final Coordinates coordinates,
+        final String groupId) {
+      if (groupId == null || coordinates.artifactId == null
+          || coordinates.version == null) {
+        return null;
+      }
+      final String key = groupId + ":" + coordinates.artifactId;
+      final String mapped = StreamingPomRewriter.this.releaseVersions.get(key);
+      if (mapped == null) {
+        return null;
+      }
+      final String original = StreamingPomRewriter.this.originalVersions
+          .get(key);
+      final String version = coordinates.version.trim();
+      if (version.equals(original)) {
+        this.replace(coordinates.versionStart, coordinates.versionEnd, mapped);
+        return mapped;
+      }
+      final Matcher matcher = StreamingPomRewriter.EXPRESSION.matcher(version);
+      if (matcher.matches()) {
+        final String expression = matcher.group(1);
+        if (!expression.startsWith("project.")
+            && !expression.startsWith("pom.") && !"version".equals(expression)) {
+          // Properties may be declared after they are used.
+          this.propertyRewrites.put(expression, new String[] { original,
+              mapped });
+        }
+      }
+      return null;
+    }
+
+    private void run(final boolean addSchema) {
+      final String s = this.pom;
+      int textStart = 0;
+      int i = s.indexOf('<');
+      while (i >= 0) {
+        if (s.startsWith("<!--", i)) {
+          i = this.skipPast(i, "-->");
+        }
+        else if (s.startsWith("<![CDATA[", i)) {
+          i = this.skipPast(i, "]]>");
+        }
+        else if (s.startsWith("<?", i)) {
+          i = this.skipPast(i, "?>");
+        }
+        else if (s.startsWith("<!", i)) {
+          i = this.skipDeclaration(i);
+        }
+        else if (s.startsWith("</", i)) {
+          final int end = this.skipPast(i, ">");
+          this.endElement(StreamingPomRewriter.localName(s.substring(i + 2,
+              end - 1).trim()), i, end);
+          i = end;
+        }
+        else {
+          i = this.startElement(i, textStart);
+        }
+        textStart = i;
+        i = s.indexOf('<', i);
+      }
+      if (!this.stack.isEmpty()) {
+        throw new IllegalArgumentException("POM is not well-formed: <"
+            + this.stack.get(this.stack.size() - 1).name + "> is not closed");
+      }
+      this.rewriteProperties();
+      if (addSchema) {
+        this.addSchema();
+      }
+    }
+
+    private int skipDeclaration(final int start) {
+      int depth = 0;
+      for (int i = start + 2; i < this.pom.length(); i++) {
+        final char c = this.pom.charAt(i);
+        if (c == '[') {
+          depth++;
+        }
+        else if (c == ']') {
+          depth--;
+        }
+        else if (c == '>' && depth <= 0) {
+          return i + 1;
+        }
+      }
+      throw new IllegalArgumentException(
+          "POM is not well-formed: unterminated declaration at offset "
+              + start);
+    }
+
+    private int skipPast(final int start, final String terminator) {
+      final int end = this.pom.indexOf(terminator, start);
+      if (end < 0) {
+        throw new IllegalArgumentException("POM is not well-formed: missing \""
+            + terminator + "\" after offset " + start);
+      }
+      return end + terminator.length();
+    }
+
+    /* Returns the offset just past the start tag at the given offset. */
+    private int startElement(final int start, final int textStart) {
+      final String s = this.pom;
+      int i = start + 1;
+      while (i < s.length() && !Character.isWhitespace(s.charAt(i))
+          && s.charAt(i) != '>' && s.charAt(i) != '/') {
+        i++;
+      }
+      final String name = StreamingPomRewriter.localName(s.substring(
+          start + 1, i));
+      final int nameEnd = i;
+      char quote = 0;
+      for (; i < s.length(); i++) {
+        final char c = s.charAt(i);
+        if (quote != 0) {
+          if (c == quote) {
+            quote = 0;
+          }
+        }
+        else if (c == '"' || c == '\'') {
+          quote = c;
+        }
+        else if (c == '>') {
+          break;
+        }
+      }
+      if (i >= s.length()) {
+        throw new IllegalArgumentException(
+            "POM is not well-formed: unterminated tag at offset " + start);
+      }
+      final boolean empty = s.charAt(i - 1) == '/';
+      if (this.stack.isEmpty()) {
+        if (this.rootTagEnd >= 0) {
+          throw new IllegalArgumentException(
+              "POM is not well-formed: more than one root element");
+        }
+        this.rootTagEnd = empty ? i - 1 : i;
+        this.rootAttributes = s.substring(nameEnd, this.rootTagEnd);
+      }
+      else {
+        final Element parent = this.stack.get(this.stack.size() - 1);
+        final String text = s.substring(textStart, start);
+        parent.lastChildIndent = text.trim().isEmpty() ? text : "";
+      }
+      final Element element = new Element(name, start, i + 1, empty);
+      if (this.hasCoordinates(name)) {
+        element.coordinates = new Coordinates();
+      }
+      this.stack.add(element);
+      if (empty) {
+        this.endElement(name, i + 1, i + 1);
+      }
+      return i + 1;
+    }
+  }
+
+  private static String localName(final String name) {
+    final int colon = name.indexOf(':');
+    return colon < 0 ? name : name.substring(colon + 1);
+  }
+
+  private static Map<String, String> toStrings(final Map<?, ?> map) {
+    final Map<String, String> strings = new HashMap<>(map.size() * 2);
+    for (final Map.Entry<?, ?> entry : map.entrySet()) {
+      if (entry.getKey() != null && entry.getValue() != null) {
+        strings.put(entry.getKey().toString(), entry.getValue().toString());
+      }
+    }
+    return strings;
+  }
+
+  private final Map<String, String> releaseVersions;
+  private final Map<String, String> originalVersions;
+
+  /**
+   * Constructor.
+   *
+   * @param releaseVersions
+   *          the release version of every reactor project, keyed by
+   *          versionless key. Not null.
+   * @param originalVersions
+   *          the current version of every reactor project, keyed by
+   *          versionless key. Not null.
+   */
+  public StreamingPomRewriter(final Map<?, ?> releaseVersions,
+      final Map<?, ?> originalVersions) {
+    Validate.notNull(releaseVersions, "Release versions map is null");
+    Validate.notNull(originalVersions, "Original versions map is null");
+    this.releaseVersions = StreamingPomRewriter.toStrings(releaseVersions);
+    this.originalVersions = StreamingPomRewriter.toStrings(originalVersions);
+  }
+
+  /**
+   * Rewrites the given POM for release.
+   *
+   * @param pom
+   *          the text of the POM. Not null.
+   * @param scmTag
+   *          the value of the {@code scm/tag} element, which is added if the
+   *          project has an {@code scm} element without one. Null to leave
+   *          the SCM information alone.
+   * @param addSchema
+   *          whether or not to add the POM namespace and schema location to
+   *          the root element if they are missing.
+   * @return never null. The given POM if nothing was rewritten.
+   * @throws IllegalArgumentException
+   *           if the POM is not well-formed.
+   */
+  public String rewrite(final String pom, final String scmTag,
+      final boolean addSchema) {
+    Validate.notNull(pom, "POM is null");
+    final Scan scan = new Scan(pom, scmTag);
+    scan.run(addSchema);
+    return scan.result();
+  }
+}
@@ -0,0 +1,227 @@
+/*
+ * Copyright (C) 2016 Ronald Jack Jenkins Jr.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package info.ronjenkins.maven.rtr.releasephases;
+
+import info.ronjenkins.maven.rtr.RTR;
+import info.ronjenkins.maven.rtr.RTRConfig;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.maven.AbstractMavenLifecycleParticipant;
+import org.apache.maven.project.MavenProject;
+import org.apache.maven.shared.release.ReleaseExecutionException;
+import org.apache.maven.shared.release.ReleaseFailureException;
+import org.apache.maven.shared.release.ReleaseResult;
+import org.apache.maven.shared.release.config.ReleaseDescriptor;
+import org.apache.maven.shared.release.env.ReleaseEnvironment;
+import org.apache.maven.shared.release.phase.AbstractBackupPomsPhase;
+import org.apache.maven.shared.release.phase.ReleasePhase;
+import org.apache.maven.shared.release.util.ReleaseUtil;
+import org.codehaus.plexus.component.annotations.Component;
+import org.codehaus.plexus.component.annotations.Requirement;
+import org.codehaus.plexus.logging.Logger;
+import org.codehaus.plexus.util.FileUtils;
+
+/**
+ * Creates backup POMs with as many threads as the Smart Reactor allows. Either
+ * every backup POM is created, or none are left behind. Each POM is recorded
+ * as backed up in the Smart Reactor as soon as its backup exists. If the
+ * Smart Reactor uses the journal backup strategy, a single {@link PomJournal}
+ * is written instead, after replaying any complete journal left behind by an
+ * interrupted release if so configured; with the link strategy and the
+ * streaming rewrite, backup POMs are created as {@link LinkedPomBackups}.
+ *
+ * @author Ronald Jack Jenkins Jr.
+ * @see RemoveBackupPomsPhase
+ */
+// Derived from CreateBackupPomsPhase.java in maven-release-plugin, see
+// THIRDPARTY file for further legal information.
+@Component(role = ReleasePhase.class, hint = "concurrent-create-backup-poms")
+public class ConcurrentCreateBackupPomsPhase extends AbstractBackupPomsPhase {
+  @Requirement(role = AbstractMavenLifecycleParticipant.class, hint = "rtr")
+  private RTR      rtr;
+  @Requirement
+  protected Logger logger;
+
+  /**
+   * Creates backup POMs for the given projects. If any backup POM cannot be
+   * created, the backup POMs of all of the given projects are deleted. With
+   * the journal backup strategy, a complete journal that already exists fails
+   * the release, unless the Smart Reactor is configured to replay it first,
+   * restoring the POMs of the interrupted release it belongs to.
+   *
+   * @param rd
+   *          not null.
+   * @param re
+   *          not null.
+   * @param projects
+   *          not null.
+   * @return the result of the phase execution.
+   * @throws ReleaseExecutionException
+   *           as needed.
+   * @throws ReleaseFailureException
+   *           as needed.
+   */
+  @Override
+  public ReleaseResult execute(final ReleaseDescriptor rd,
+      final ReleaseEnvironment re, final List<MavenProject> projects)
+      throws ReleaseExecutionException, ReleaseFailureException {
+    if (RTRConfig.BACKUP_STRATEGY_JOURNAL.equals(this.rtr
+        .getBackupStrategy())) {
+      this.createPomJournal(projects);
+      final ReleaseResult result = new ReleaseResult();
+      result.setResultCode(ReleaseResult.SUCCESS);
+      return result;
+    }
+    final int threads = this.rtr.getBackupThreads();
+    // The streaming rewrite replaces each POM, breaking its link on its own;
+    // the in-place rewrite would write through it into the backup, and
+    // breaking the link first costs more than copying the POM.
+    final boolean link = RTRConfig.BACKUP_STRATEGY_LINK.equals(this.rtr
+        .getBackupStrategy()) && this.rtr.isStreamingRewrite();
+    try {
+      ProjectOperations.applyToAll(projects, threads,
+          new ProjectOperations.Operation() {
+            @Override
+            public void apply(final MavenProject project)
+                throws ReleaseExecutionException {
+              ConcurrentCreateBackupPomsPhase.this.createPomBackup(project,
+                  link);
+            }
+          });
+    }
+    catch (final ReleaseExecutionException | ReleaseFailureException e) {
+      // No POM has been rewritten yet, so the backups are of no use. Delete
+      // them and withdraw their records, so that no stale backup files are
+      // left next to the POMs and the rollback phases don't restore from
+      // them.
+      try {
+        ProjectOperations.applyToAll(projects, threads,
+            new ProjectOperations.Operation() {
+              @Override
+              public void apply(final MavenProject project) {
+                ConcurrentCreateBackupPomsPhase.this.deletePomBackup(project);
+                ConcurrentCreateBackupPomsPhase.this.rtr.setBackupPomCreated(
+                    ReleaseUtil.getStandardPom(project), false);
+              }
+            });
+      }
+      catch (final ReleaseExecutionException | ReleaseFailureException f) {
+        e.addSuppressed(f);
+      }
+      throw e;
+    }
+    final ReleaseResult result = new ReleaseResult();
+    result.setResultCode(ReleaseResult.SUCCESS);
+    return result;
+  }
+
+  /**
+   * Invokes the {@link #execute(ReleaseDescriptor, ReleaseEnvironment, List)
+   * execute} method.
+   *
+   * @param rd
+   *          not null.
+   * @param re
+   *          not null.
+   * @param projects
+   *          not null.
+   * @return the result of the phase execution.
+   * @throws ReleaseExecutionException
+   *           as needed.
+   * @throws ReleaseFailureException
+   *           as needed.
+   */
+  @Override
+  public ReleaseResult simulate(final ReleaseDescriptor rd,
+      final ReleaseEnvironment re, final List<MavenProject> projects)
+      throws ReleaseExecutionException, ReleaseFailureException {
+    return this.execute(rd, re, projects);
+  }
+
+  private void createPomJournal(final List<MavenProject> projects)
+      throws ReleaseExecutionException, ReleaseFailureException {
+    final File journal = PomJournal.getFile(projects);
+    // A complete journal means that an earlier release was interrupted after
+    // it may have rewritten POMs. The POMs may have been edited by hand since,
+    // so they are only restored if asked to; a corrupt journal is never
+    // replayed.
+    try {
+      if (PomJournal.isCommitted(journal)) {
+        if (!this.rtr.isReplayJournal()) {
+          throw new ReleaseFailureException("A POM journal left behind by an interrupted release exists at "
+              + journal
+              + ". Delete it to keep the POMs as they are now, or set property \""
+              + RTRConfig.PROP_REPLAY_JOURNAL
+              + "\" to true to restore the POMs it recorded.");
+        }
+        final int restored = PomJournal.replay(journal);
+        this.logger.warn("Restored " + restored
+            + " POMs from the journal of an interrupted release at "
+            + journal + ".");
+      }
+    }
+    catch (final IOException e) {
+      throw new ReleaseExecutionException("Error replaying POM journal "
+          + journal + ": " + e.getMessage(), e);
+    }
+    final List<File> pomFiles = new ArrayList<>(projects.size());
+    for (final MavenProject project : projects) {
+      pomFiles.add(ReleaseUtil.getStandardPom(project));
+    }
+    try {
+      PomJournal.write(journal, pomFiles);
+    }
+    catch (final IOException e) {
+      // Don't leave a partial journal behind.
+      try {
+        PomJournal.delete(journal);
+      }
+      catch (final IOException f) {
+        e.addSuppressed(f);
+      }
+      throw new ReleaseExecutionException("Error creating POM journal: "
+          + e.getMessage(), e);
+    }
+    // The journal backs up every POM at once.
+    for (final File pomFile : pomFiles) {
+      this.rtr.setBackupPomCreated(pomFile, true);
+    }
+  }
+
+  private void createPomBackup(final MavenProject project, final boolean link)
+      throws ReleaseExecutionException {
+    final File pomFile = ReleaseUtil.getStandardPom(project);
+    try {
+      if (link) {
+        LinkedPomBackups.create(pomFile, this.getPomBackup(project));
+      }
+      else {
+        // Delete any existing backup first.
+        this.deletePomBackup(project);
+        FileUtils.copyFile(pomFile, this.getPomBackup(project));
+      }
+    }
+    catch (final IOException e) {
+      throw new ReleaseExecutionException("Error creating backup POM: "
+          + e.getMessage(), e);
+    }
+    this.rtr.setBackupPomCreated(pomFile, true);
+  }
+}
@@ -16,8 +16,14 @@
 package info.ronjenkins.maven.rtr.releasephases;
 
 import info.ronjenkins.maven.rtr.RTR;
+import info.ronjenkins.maven.rtr.RTRConfig;
 
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 import org.apache.maven.AbstractMavenLifecycleParticipant;
 import org.apache.maven.project.MavenProject;
@@ -34,8 +40,15 @@ import org.codehaus.plexus.logging.Logger;
 
 /**
  * Checks for SNAPSHOT dependencies in the reactor, but only if requested.
+ * Unless the release is interactive or allows timestamped SNAPSHOTs, the
+ * whole reactor may be scanned at once instead, and every external SNAPSHOT
+ * artifact is then reported with the projects that use it. If a cache is
+ * configured, projects that passed the check in an earlier build and have not
+ * changed since then are not checked again.
  *
  * @author Ronald Jack Jenkins Jr.
+ * @see ExternalSnapshotScan
+ * @see SnapshotCheckCache
  */
 @Component(role = ReleasePhase.class, hint = "conditional-check-dependency-snapshots")
 public class ConditionalCheckDependencySnapshotsPhase extends
@@ -46,7 +59,8 @@ public class ConditionalCheckDependencySnapshotsPhase extends
   protected Logger logger;
 
   /**
-   * Calls super, if permitted.
+   * Calls super or scans the reactor for the projects that need to be
+   * checked, if permitted.
    *
    * @param rd
    *          not null.
@@ -64,15 +78,60 @@ public class ConditionalCheckDependencySnapshotsPhase extends
   public ReleaseResult execute(final ReleaseDescriptor rd,
       final ReleaseEnvironment re, final List<MavenProject> projects)
       throws ReleaseExecutionException, ReleaseFailureException {
-    final ReleaseResult result;
     if (this.rtr.isExternalSnapshotsAllowed()) {
       this.logger
           .warn("External SNAPSHOT artifacts are allowed for this release. Artifacts produced by this build may not behave consistently compared to earlier builds.");
+      final ReleaseResult result = new ReleaseResult();
+      result.setResultCode(ReleaseResult.SUCCESS);
+      return result;
+    }
+    final File cacheFile = this.rtr.getSnapshotCheckCache();
+    // Prompting can resolve SNAPSHOTs without changing any POM, so the results
+    // of interactive releases are not cached.
+    if (cacheFile == null || rd.isInteractive()) {
+      return this.check(rd, re, projects);
+    }
+    // The release descriptor keeps the original versions of the first list of
+    // projects that it is given, so give it the whole reactor before checking
+    // only part of it.
+    final Map<String, String> originalVersions = rd
+        .getOriginalVersions(projects);
+    final String flags = RTRConfig.PROP_EXTERNAL_SNAPSHOTS_ALLOWED + "="
+        + this.rtr.isExternalSnapshotsAllowed() + "\n"
+        + RTRConfig.PROP_ALLOWTIMESTAMPEDSNAPSHOTS + "="
+        + rd.isAllowTimestampedSnapshots();
+    final SnapshotCheckCache cache = SnapshotCheckCache.read(cacheFile);
+    final Map<MavenProject, String> unchecked = new LinkedHashMap<>();
+    for (final MavenProject project : projects) {
+      final String digest = ExternalSnapshotScan.digest(project,
+          originalVersions, flags);
+      if (!cache.isPassed(project, digest)) {
+        unchecked.put(project, digest);
+      }
+    }
+    this.logger.info((projects.size() - unchecked.size()) + " of "
+        + projects.size()
+        + " projects passed the SNAPSHOT check in an earlier build.");
+    final ReleaseResult result;
+    if (unchecked.isEmpty()) {
       result = new ReleaseResult();
       result.setResultCode(ReleaseResult.SUCCESS);
     }
     else {
-      result = super.execute(rd, re, projects);
+      result = this.check(rd, re, new ArrayList<>(unchecked.keySet()));
+    }
+    for (final Map.Entry<MavenProject, String> entry : unchecked.entrySet()) {
+      cache.setPassed(entry.getKey(), entry.getValue());
+    }
+    if (cache.isModified()) {
+      try {
+        cache.write(cacheFile);
+      }
+      catch (final IOException e) {
+        // The cache is an optimization; never fail the build over it.
+        this.logger.warn("Unable to write SNAPSHOT check results to "
+            + cacheFile + ": " + e.getMessage());
+      }
     }
     return result;
   }
@@ -99,4 +158,26 @@ public class ConditionalCheckDependencySnapshotsPhase extends
       throws ReleaseExecutionException, ReleaseFailureException {
     return this.execute(rd, re, projects);
   }
+
+  /* Checks the given projects, failing if any of them fails the check. */
+  private ReleaseResult check(final ReleaseDescriptor rd,
+      final ReleaseEnvironment re, final List<MavenProject> projects)
+      throws ReleaseExecutionException, ReleaseFailureException {
+    if (!this.rtr.isReactorSnapshotScan() || rd.isInteractive()
+        || rd.isAllowTimestampedSnapshots()) {
+      return super.execute(rd, re, projects);
+    }
+    this.logger.info("Checking the reactor for SNAPSHOT artifacts...");
+    final ExternalSnapshotScan scan = new ExternalSnapshotScan(
+        rd.getOriginalVersions(projects));
+    final Map<String, List<MavenProject>> violations = scan.scan(projects,
+        Runtime.getRuntime().availableProcessors());
+    if (!violations.isEmpty()) {
+      throw new ReleaseFailureException(
+          ExternalSnapshotScan.describe(violations));
+    }
+    final ReleaseResult result = new ReleaseResult();
+    result.setResultCode(ReleaseResult.SUCCESS);
+    return result;
+  }
 }
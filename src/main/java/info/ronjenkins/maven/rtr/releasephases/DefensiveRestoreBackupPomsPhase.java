@@ -16,11 +16,21 @@
 package info.ronjenkins.maven.rtr.releasephases;
 
 import info.ronjenkins.maven.rtr.RTR;
+import info.ronjenkins.maven.rtr.RTRConfig;
 
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 
 import org.apache.maven.AbstractMavenLifecycleParticipant;
 import org.apache.maven.project.MavenProject;
+import org.apache.maven.scm.manager.NoSuchScmProviderException;
+import org.apache.maven.scm.provider.ScmProvider;
+import org.apache.maven.scm.repository.ScmRepository;
+import org.apache.maven.scm.repository.ScmRepositoryException;
 import org.apache.maven.shared.release.ReleaseExecutionException;
 import org.apache.maven.shared.release.ReleaseFailureException;
 import org.apache.maven.shared.release.ReleaseResult;
@@ -28,23 +38,35 @@ import org.apache.maven.shared.release.config.ReleaseDescriptor;
 import org.apache.maven.shared.release.env.ReleaseEnvironment;
 import org.apache.maven.shared.release.phase.ReleasePhase;
 import org.apache.maven.shared.release.phase.RestoreBackupPomsPhase;
+import org.apache.maven.shared.release.scm.ReleaseScmRepositoryException;
+import org.apache.maven.shared.release.scm.ScmRepositoryConfigurator;
+import org.apache.maven.shared.release.util.ReleaseUtil;
 import org.codehaus.plexus.component.annotations.Component;
 import org.codehaus.plexus.component.annotations.Requirement;
+import org.codehaus.plexus.util.FileUtils;
 
 /**
- * Restores backup POMs, but only if they were created.
+ * Restores backup POMs, but only those of projects that were backed up and
+ * whose POMs were modified since. Backup POMs are copied back with as many
+ * threads as the Smart Reactor allows, unless POMs must be put into SCM edit
+ * mode first; SCM operations are never run concurrently, so such POMs are
+ * restored one at a time. A {@link PomJournal} is replayed in a single pass.
+ * With the link backup strategy, each backup POM is renamed over its POM, as
+ * described by {@link LinkedPomBackups}.
  *
  * @author Ronald Jack Jenkins Jr.
- * @see IndicatePresenceOfBackupPomsPhase
  * @see RemoveBackupPomsPhase
  */
 @Component(role = ReleasePhase.class, hint = "defensive-restore-backup-poms")
 public class DefensiveRestoreBackupPomsPhase extends RestoreBackupPomsPhase {
   @Requirement(role = AbstractMavenLifecycleParticipant.class, hint = "rtr")
-  private RTR rtr;
+  private RTR                       rtr;
+  @Requirement(hint = "rtr-src")
+  private ScmRepositoryConfigurator scmConfigurator;
 
   /**
-   * Restores all backup POMs for the given projects, if they were created.
+   * Restores the backup POMs of those of the given projects that were backed
+   * up, skipping POMs that still match their backups.
    *
    * @param rd
    *          not null.
@@ -62,14 +84,64 @@ public class DefensiveRestoreBackupPomsPhase extends RestoreBackupPomsPhase {
   public ReleaseResult execute(final ReleaseDescriptor rd,
       final ReleaseEnvironment re, final List<MavenProject> projects)
       throws ReleaseExecutionException, ReleaseFailureException {
-    final ReleaseResult result;
-    if (this.rtr.isBackupPomsCreated()) {
-      result = super.execute(rd, re, projects);
+    if (this.rtr.isBackupPomsCreated()
+        && RTRConfig.BACKUP_STRATEGY_JOURNAL.equals(this.rtr
+            .getBackupStrategy())) {
+      try {
+        PomJournal.replay(PomJournal.getFile(projects));
+      }
+      catch (final IOException e) {
+        throw new ReleaseExecutionException(
+            "Error restoring POMs from journal: " + e.getMessage(), e);
+      }
     }
-    else {
-      result = new ReleaseResult();
-      result.setResultCode(ReleaseResult.SUCCESS);
+    else if (this.rtr.isBackupPomsCreated()
+        && RTRConfig.BACKUP_STRATEGY_LINK
+            .equals(this.rtr.getBackupStrategy())) {
+      ProjectOperations.applyToAll(
+          ProjectOperations.withBackupPoms(this.rtr, projects),
+          this.rtr.getBackupThreads(), new ProjectOperations.Operation() {
+            @Override
+            public void apply(final MavenProject project)
+                throws ReleaseExecutionException {
+              DefensiveRestoreBackupPomsPhase.this.restoreLinkedPom(project);
+            }
+          });
     }
+    else if (this.rtr.isBackupPomsCreated()
+        && this.isEditModeRequired(rd, re)) {
+      // Restore each project on its own, so that every restorable POM is
+      // restored even if others fail, but one at a time: the SCM edit is not
+      // safe to run concurrently.
+      ProjectOperations.applyToAll(
+          ProjectOperations.withBackupPoms(this.rtr, projects), 1,
+          new ProjectOperations.Operation() {
+            @Override
+            public void apply(final MavenProject project)
+                throws ReleaseExecutionException, ReleaseFailureException {
+              // Unmodified POMs need neither an SCM edit nor a copy.
+              if (DefensiveRestoreBackupPomsPhase.this.isModified(project)) {
+                DefensiveRestoreBackupPomsPhase.super.execute(rd, re,
+                    Collections.singletonList(project));
+              }
+            }
+          });
+    }
+    else if (this.rtr.isBackupPomsCreated()) {
+      ProjectOperations.applyToAll(
+          ProjectOperations.withBackupPoms(this.rtr, projects),
+          this.rtr.getBackupThreads(), new ProjectOperations.Operation() {
+            @Override
+            public void apply(final MavenProject project)
+                throws ReleaseExecutionException {
+              if (DefensiveRestoreBackupPomsPhase.this.isModified(project)) {
+                DefensiveRestoreBackupPomsPhase.this.copyBackupPom(project);
+              }
+            }
+          });
+    }
+    final ReleaseResult result = new ReleaseResult();
+    result.setResultCode(ReleaseResult.SUCCESS);
     return result;
   }
 
@@ -95,4 +167,83 @@ public class DefensiveRestoreBackupPomsPhase extends RestoreBackupPomsPhase {
       throws ReleaseExecutionException, ReleaseFailureException {
     return this.execute(rd, re, projects);
   }
+
+  private void copyBackupPom(final MavenProject project)
+      throws ReleaseExecutionException {
+    final File backupFile = this.getPomBackup(project);
+    // The backup was recorded, so the POM cannot be restored without it.
+    if (!backupFile.exists()) {
+      throw new ReleaseExecutionException(
+          "Cannot restore from a missing backup POM: "
+              + backupFile.getAbsolutePath());
+    }
+    try {
+      FileUtils.copyFile(backupFile, ReleaseUtil.getStandardPom(project));
+    }
+    catch (final IOException e) {
+      throw new ReleaseExecutionException("Error restoring from backup POM: "
+          + e.getMessage(), e);
+    }
+  }
+
+  /*
+   * Indicates whether or not POMs must be put into SCM edit mode before they
+   * are restored, either because the release asks for it or because the SCM
+   * provider requires it.
+   */
+  private boolean isEditModeRequired(final ReleaseDescriptor rd,
+      final ReleaseEnvironment re) throws ReleaseExecutionException,
+      ReleaseFailureException {
+    if (rd.isScmUseEditMode()) {
+      return true;
+    }
+    final ScmProvider provider;
+    try {
+      final ScmRepository repository = this.scmConfigurator
+          .getConfiguredRepository(rd, re.getSettings());
+      provider = this.scmConfigurator.getRepositoryProvider(repository);
+    }
+    catch (final ScmRepositoryException e) {
+      throw new ReleaseScmRepositoryException(e.getMessage(),
+          e.getValidationMessages());
+    }
+    catch (final NoSuchScmProviderException e) {
+      throw new ReleaseExecutionException("Unable to configure SCM repository: "
+          + e.getMessage(), e);
+    }
+    return provider.requiresEditMode();
+  }
+
+  /*
+   * Indicates whether or not the given project's POM differs from its backup.
+   * If either cannot be read, the POM is considered modified so that the
+   * restore reports the problem.
+   */
+  private boolean isModified(final MavenProject project) {
+    final File pomFile = ReleaseUtil.getStandardPom(project);
+    final File backupFile = this.getPomBackup(project);
+    if (pomFile == null || backupFile == null) {
+      return true;
+    }
+    try {
+      return pomFile.length() != backupFile.length()
+          || !Arrays.equals(Files.readAllBytes(pomFile.toPath()),
+              Files.readAllBytes(backupFile.toPath()));
+    }
+    catch (final IOException e) {
+      return true;
+    }
+  }
+
+  private void restoreLinkedPom(final MavenProject project)
+      throws ReleaseExecutionException {
+    try {
+      LinkedPomBackups.restore(ReleaseUtil.getStandardPom(project),
+          this.getPomBackup(project));
+    }
+    catch (final IOException e) {
+      throw new ReleaseExecutionException("Error restoring backup POM: "
+          + e.getMessage(), e);
+    }
+  }
 }
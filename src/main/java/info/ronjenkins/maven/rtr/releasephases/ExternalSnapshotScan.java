@@ -0,0 +1,278 @@
+/*
+ * Copyright (C) 2016 Ronald Jack Jenkins Jr.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package info.ronjenkins.maven.rtr.releasephases;
+
+import info.ronjenkins.maven.rtr.reactor.PomDigests;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.apache.maven.artifact.Artifact;
+import org.apache.maven.artifact.ArtifactUtils;
+import org.apache.maven.model.Dependency;
+import org.apache.maven.project.MavenProject;
+import org.apache.maven.shared.release.ReleaseExecutionException;
+import org.apache.maven.shared.release.ReleaseFailureException;
+
+/**
+ * Finds the external SNAPSHOT artifacts used by a release reactor.
+ *
+ * <p>
+ * The parent, dependencies, plugins, reports and extensions of every project
+ * are gathered concurrently, and each distinct artifact is interned so that
+ * it is checked only once no matter how many projects use it. As in the Maven
+ * Release Manager, an artifact is an external SNAPSHOT if its base version is
+ * a SNAPSHOT that is not the current version of a reactor project, and a
+ * resolved artifact's version takes precedence over the declared one.
+ *
+ * @author Ronald Jack Jenkins Jr.
+ */
+final class ExternalSnapshotScan {
+  /* A distinct artifact, shared by every project that uses it. */
+  private static final class Coordinate {
+    private final String groupId;
+    private final String artifactId;
+    private final String version;
+    private boolean      snapshot;
+
+    private Coordinate(final String groupId, final String artifactId,
+        final String version) {
+      this.groupId = groupId;
+      this.artifactId = artifactId;
+      this.version = version;
+    }
+
+    @Override
+    public String toString() {
+      return this.groupId + ":" + this.artifactId + ":" + this.version;
+    }
+  }
+
+  /* Receives the coordinates of each artifact used by a project. */
+  private interface Visitor {
+    void visit(String groupId, String artifactId, String version);
+  }
+
+  /**
+   * Returns a message that lists the given external SNAPSHOT artifacts and
+   * the projects that use each of them.
+   *
+   * @param violations
+   *          as returned by {@link #scan(List, int)}. Not null.
+   * @return never null.
+   */
+  static String describe(final Map<String, List<MavenProject>> violations) {
+    final StringBuilder message = new StringBuilder(
+        "Can't release project due to non released dependencies :");
+    for (final Map.Entry<String, List<MavenProject>> entry : violations
+        .entrySet()) {
+      message.append("\n    ").append(entry.getKey());
+      for (final MavenProject project : entry.getValue()) {
+        message.append("\n        in project '").append(project.getName())
+            .append("' (").append(project.getId()).append(")");
+      }
+    }
+    return message.toString();
+  }
+
+  /**
+   * Returns a digest of everything that determines whether or not the given
+   * project uses external SNAPSHOT artifacts: the artifacts it uses, the
+   * current version of each of them that is a reactor project, and the given
+   * flags.
+   *
+   * @param project
+   *          not null.
+   * @param originalVersions
+   *          the current version of every reactor project, keyed by
+   *          versionless key. Not null.
+   * @param flags
+   *          anything else that affects the check. Not null.
+   * @return never null.
+   */
+  static String digest(final MavenProject project,
+      final Map<String, String> originalVersions, final String flags) {
+    final Set<String> entries = new TreeSet<>();
+    ExternalSnapshotScan.visit(project, new Visitor() {
+      @Override
+      public void visit(final String groupId, final String artifactId,
+          final String version) {
+        entries.add(groupId + ":" + artifactId + ":" + version + "="
+            + originalVersions.get(ArtifactUtils.versionlessKey(groupId,
+                artifactId)));
+      }
+    });
+    final StringBuilder key = new StringBuilder(flags);
+    for (final String entry : entries) {
+      key.append('\n').append(entry);
+    }
+    return PomDigests.digest(key.toString().getBytes(StandardCharsets.UTF_8));
+  }
+
+  /*
+   * Visits the parent, dependencies, plugins, reports and extensions of the
+   * given project, preferring resolved versions to declared ones.
+   */
+  private static void visit(final MavenProject project,
+      final Visitor visitor) {
+    final Set<Artifact> artifacts = project.getArtifacts();
+    final Map<String, Artifact> resolved = artifacts == null ? Collections
+        .<String, Artifact> emptyMap() : ArtifactUtils
+        .artifactMapByVersionlessId(artifacts);
+    final Artifact parent = project.getParentArtifact();
+    if (parent != null) {
+      ExternalSnapshotScan.visit(resolved, visitor, parent.getGroupId(),
+          parent.getArtifactId(), parent.getVersion());
+    }
+    for (final Dependency dependency : project.getDependencies()) {
+      ExternalSnapshotScan.visit(resolved, visitor, dependency.getGroupId(),
+          dependency.getArtifactId(), dependency.getVersion());
+    }
+    ExternalSnapshotScan.visitAll(resolved, visitor,
+        project.getPluginArtifacts());
+    ExternalSnapshotScan.visitAll(resolved, visitor,
+        project.getReportArtifacts());
+    ExternalSnapshotScan.visitAll(resolved, visitor,
+        project.getExtensionArtifacts());
+  }
+
+  private static void visit(final Map<String, Artifact> resolved,
+      final Visitor visitor, final String groupId, final String artifactId,
+      final String declaredVersion) {
+    final Artifact artifact = resolved.get(ArtifactUtils.versionlessKey(
+        groupId, artifactId));
+    final String version = artifact == null ? declaredVersion : artifact
+        .getVersion();
+    if (version != null) {
+      visitor.visit(groupId, artifactId, version);
+    }
+  }
+
+  private static void visitAll(final Map<String, Artifact> resolved,
+      final Visitor visitor, final Collection<Artifact> artifacts) {
+    if (artifacts == null) {
+      return;
+    }
+    for (final Artifact artifact : artifacts) {
+      ExternalSnapshotScan.visit(resolved, visitor, artifact.getGroupId(),
+          artifact.getArtifactId(), artifact.getVersion());
+    }
+  }
+
+  private final Map<String, String>                 originalVersions;
+  private final ConcurrentMap<String, Coordinate>   coordinates = new ConcurrentHashMap<>();
+  private final Map<MavenProject, Set<Coordinate>> used        = new ConcurrentHashMap<>();
+
+  /**
+   * Constructor.
+   *
+   * @param originalVersions
+   *          the current version of every reactor project, keyed by
+   *          versionless key. Not null.
+   */
+  ExternalSnapshotScan(final Map<String, String> originalVersions) {
+    this.originalVersions = originalVersions;
+  }
+
+  /**
+   * Scans the given projects.
+   *
+   * @param projects
+   *          not null.
+   * @param threads
+   *          the maximum number of threads used to gather the artifacts of the
+   *          projects.
+   * @return the external SNAPSHOT artifacts, sorted by their coordinates,
+   *         each mapped to the projects that use it in reactor order. Empty
+   *         if there are none.
+   * @throws ReleaseExecutionException
+   *           if the artifacts of any project cannot be gathered.
+   * @throws ReleaseFailureException
+   *           never.
+   */
+  Map<String, List<MavenProject>> scan(final List<MavenProject> projects,
+      final int threads) throws ReleaseExecutionException,
+      ReleaseFailureException {
+    ProjectOperations.applyToAll(projects, threads,
+        new ProjectOperations.Operation() {
+          @Override
+          public void apply(final MavenProject project) {
+            ExternalSnapshotScan.this.used.put(project,
+                ExternalSnapshotScan.this.gather(project));
+          }
+        });
+    for (final Coordinate coordinate : this.coordinates.values()) {
+      coordinate.snapshot = ArtifactUtils.isSnapshot(coordinate.version)
+          && !ArtifactUtils.toSnapshotVersion(coordinate.version).equals(
+              this.originalVersions.get(ArtifactUtils.versionlessKey(
+                  coordinate.groupId, coordinate.artifactId)));
+    }
+    final Map<String, List<MavenProject>> violations = new TreeMap<>();
+    for (final MavenProject project : projects) {
+      for (final Coordinate coordinate : this.used.get(project)) {
+        if (!coordinate.snapshot) {
+          continue;
+        }
+        final String key = coordinate.toString();
+        List<MavenProject> users = violations.get(key);
+        if (users == null) {
+          users = new ArrayList<>();
+          violations.put(key, users);
+        }
+        users.add(project);
+      }
+    }
+    return violations;
+  }
+
+  /* Returns the distinct artifacts used by the given project. */
+  private Set<Coordinate> gather(final MavenProject project) {
+    final Set<Coordinate> artifacts = new HashSet<>();
+    ExternalSnapshotScan.visit(project, new Visitor() {
+      @Override
+      public void visit(final String groupId, final String artifactId,
+          final String version) {
+        artifacts.add(ExternalSnapshotScan.this.intern(groupId, artifactId,
+            version));
+      }
+    });
+    return artifacts;
+  }
+
+  private Coordinate intern(final String groupId, final String artifactId,
+      final String version) {
+    final String key = groupId + ":" + artifactId + ":" + version;
+    Coordinate coordinate = this.coordinates.get(key);
+    if (coordinate == null) {
+      final Coordinate created = new Coordinate(groupId, artifactId, version);
+      coordinate = this.coordinates.putIfAbsent(key, created);
+      if (coordinate == null) {
+        coordinate = created;
+      }
+    }
+    return coordinate;
+  }
+}
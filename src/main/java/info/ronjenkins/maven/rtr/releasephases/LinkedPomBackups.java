@@ -0,0 +1,136 @@
+/*
+ * Copyright (C) 2016 Ronald Jack Jenkins Jr.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package info.ronjenkins.maven.rtr.releasephases;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileSystemException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.PosixFileAttributeView;
+
+/**
+ * Creates and restores backup POMs by moving files rather than by streaming
+ * their contents.
+ *
+ * <p>
+ * A backup is created as a hard link to the original POM, so the backup keeps
+ * the original file itself. The link is broken as soon as the POM is replaced
+ * by a rename, which is how the streaming rewrite writes it. The Maven Release
+ * Manager rewrites POMs in place instead, and would rewrite the backup too, so
+ * linked backups are only safe with the streaming rewrite. If the file system
+ * cannot link the two files, the POM is copied instead. Either way, a backup
+ * is restored by renaming it over the POM.
+ *
+ * @author Ronald Jack Jenkins Jr.
+ */
+final class LinkedPomBackups {
+  /**
+   * Backs up the given POM, replacing any existing backup.
+   *
+   * @param pomFile
+   *          not null.
+   * @param backupFile
+   *          not null.
+   * @return true if the backup is a hard link to the original POM, false if
+   *         it is a copy.
+   * @throws IOException
+   *           if the backup cannot be created.
+   */
+  static boolean create(final File pomFile, final File backupFile)
+      throws IOException {
+    final Path pom = pomFile.toPath();
+    final Path backup = backupFile.toPath();
+    Files.deleteIfExists(backup);
+    try {
+      Files.createLink(backup, pom);
+    }
+    catch (final UnsupportedOperationException | FileSystemException e) {
+      Files.copy(pom, backup, StandardCopyOption.COPY_ATTRIBUTES);
+      return false;
+    }
+    return true;
+  }
+
+  /**
+   * Restores the given POM from its backup, consuming the backup.
+   *
+   * @param pomFile
+   *          not null.
+   * @param backupFile
+   *          not null.
+   * @return true if the POM was restored, false if there was no backup.
+   * @throws IOException
+   *           if the backup exists but cannot be restored.
+   */
+  static boolean restore(final File pomFile, final File backupFile)
+      throws IOException {
+    if (!backupFile.isFile()) {
+      return false;
+    }
+    LinkedPomBackups.move(backupFile.toPath(), pomFile.toPath());
+    return true;
+  }
+
+  /**
+   * Gives the target file the permissions of the source file. Temporary files
+   * are created readable only by their owner, so a file that is renamed over
+   * a POM needs the POM's permissions first. Does nothing on file systems
+   * without POSIX permissions.
+   *
+   * @param source
+   *          not null.
+   * @param target
+   *          not null.
+   * @throws IOException
+   *           if the permissions cannot be copied.
+   */
+  static void copyPermissions(final Path source, final Path target)
+      throws IOException {
+    final PosixFileAttributeView view = Files.getFileAttributeView(source,
+        PosixFileAttributeView.class);
+    if (view == null) {
+      return;
+    }
+    Files.setPosixFilePermissions(target, view.readAttributes().permissions());
+  }
+
+  /**
+   * Renames the given file over the target, atomically if the file system
+   * supports it.
+   *
+   * @param source
+   *          not null.
+   * @param target
+   *          not null.
+   * @throws IOException
+   *           if the file cannot be moved.
+   */
+  static void move(final Path source, final Path target) throws IOException {
+    try {
+      Files.move(source, target, StandardCopyOption.ATOMIC_MOVE,
+          StandardCopyOption.REPLACE_EXISTING);
+    }
+    catch (final AtomicMoveNotSupportedException e) {
+      Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+    }
+  }
+
+  /* This class is not instantiable. */
+  private LinkedPomBackups() {}
+}
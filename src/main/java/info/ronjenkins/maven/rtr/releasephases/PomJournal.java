@@ -0,0 +1,240 @@
+/*
+ * Copyright (C) 2016 Ronald Jack Jenkins Jr.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package info.ronjenkins.maven.rtr.releasephases;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.zip.CRC32;
+
+import org.apache.commons.lang.Validate;
+import org.apache.maven.project.MavenProject;
+
+/**
+ * A write-ahead journal of the original contents of a reactor's POMs, kept in
+ * a single append-only file at the execution root.
+ *
+ * <p>
+ * The journal is written and forced to disk before any POM is rewritten. It
+ * ends with a commit marker, so a journal that was cut short by a crash is
+ * recognized as incomplete; since no POM had been rewritten at that point, an
+ * incomplete journal restores nothing. Every record carries a checksum, and
+ * the whole journal is verified before any POM is restored. POMs are restored
+ * by writing a temporary file next to each POM and renaming it over the POM;
+ * POMs that still match the journal are left alone.
+ *
+ * @author Ronald Jack Jenkins Jr.
+ */
+final class PomJournal {
+  /**
+   * The name of the journal file in the execution root's base directory.
+   */
+  static final String        FILE_NAME = "pom.xml.releaseJournal";
+  private static final int   MAGIC     = 0x52545231;                // "RTR1"
+  private static final byte  RECORD    = 1;
+  private static final byte  COMMIT    = 0;
+
+  /**
+   * Deletes the given journal.
+   *
+   * @param journal
+   *          not null.
+   * @throws IOException
+   *           if the journal exists and cannot be deleted.
+   */
+  static void delete(final File journal) throws IOException {
+    Validate.notNull(journal, "Journal is null");
+    Files.deleteIfExists(journal.toPath());
+  }
+
+  /**
+   * Returns the location of the journal for the given reactor: the base
+   * directory of its execution root, or of its first project if the execution
+   * root is not part of it.
+   *
+   * @param projects
+   *          not null or empty.
+   * @return never null.
+   */
+  static File getFile(final List<MavenProject> projects) {
+    Validate.notEmpty(projects, "Projects list is null or empty");
+    MavenProject root = projects.get(0);
+    for (final MavenProject project : projects) {
+      if (project.isExecutionRoot()) {
+        root = project;
+        break;
+      }
+    }
+    return new File(root.getBasedir(), PomJournal.FILE_NAME);
+  }
+
+  /**
+   * Indicates whether or not the given journal exists and is complete, i.e.
+   * whether or not the POMs it records may have been rewritten since.
+   *
+   * @param journal
+   *          not null.
+   * @return true if the journal exists and has a commit marker.
+   * @throws IOException
+   *           if the journal exists but is corrupt.
+   */
+  static boolean isCommitted(final File journal) throws IOException {
+    Validate.notNull(journal, "Journal is null");
+    return journal.isFile() && PomJournal.read(journal, false) >= 0;
+  }
+
+  /**
+   * Restores every POM recorded in the given journal.
+   *
+   * @param journal
+   *          not null.
+   * @return the number of POMs restored, not counting those that still matched
+   *         the journal. 0 if the journal is missing or incomplete.
+   * @throws IOException
+   *           if the journal is corrupt, or if any POM cannot be restored.
+   */
+  static int replay(final File journal) throws IOException {
+    // Verify everything before touching any POM.
+    if (!PomJournal.isCommitted(journal)) {
+      return 0;
+    }
+    return PomJournal.read(journal, true);
+  }
+
+  /**
+   * Writes a new journal containing the current contents of the given POMs,
+   * replacing any existing journal, and forces it to disk.
+   *
+   * @param journal
+   *          not null.
+   * @param pomFiles
+   *          not null.
+   * @throws IOException
+   *           if any POM cannot be read or the journal cannot be written.
+   */
+  static void write(final File journal, final Collection<File> pomFiles)
+      throws IOException {
+    Validate.notNull(journal, "Journal is null");
+    Validate.notNull(pomFiles, "POM files collection is null");
+    final FileOutputStream file = new FileOutputStream(journal);
+    try (final DataOutputStream out = new DataOutputStream(
+        new BufferedOutputStream(file))) {
+      out.writeInt(PomJournal.MAGIC);
+      final CRC32 crc = new CRC32();
+      for (final File pomFile : pomFiles) {
+        final byte[] bytes = Files.readAllBytes(pomFile.toPath());
+        crc.reset();
+        crc.update(bytes);
+        out.writeByte(PomJournal.RECORD);
+        out.writeUTF(pomFile.getAbsolutePath());
+        out.writeInt(bytes.length);
+        out.write(bytes);
+        out.writeLong(crc.getValue());
+      }
+      out.writeByte(PomJournal.COMMIT);
+      out.writeInt(pomFiles.size());
+      out.flush();
+      file.getChannel().force(true);
+    }
+  }
+
+  /*
+   * Reads the journal, restoring POMs if requested. Returns the number of
+   * records, or of restored POMs if restoring, or -1 if the journal has no
+   * commit marker.
+   */
+  private static int read(final File journal, final boolean restore)
+      throws IOException {
+    try (final DataInputStream in = new DataInputStream(
+        new BufferedInputStream(new FileInputStream(journal)))) {
+      if (in.readInt() != PomJournal.MAGIC) {
+        throw new IOException(journal + " is not a POM journal");
+      }
+      final CRC32 crc = new CRC32();
+      int records = 0;
+      int restored = 0;
+      byte type;
+      while ((type = in.readByte()) == PomJournal.RECORD) {
+        final File pomFile = new File(in.readUTF());
+        final int length = in.readInt();
+        if (length < 0) {
+          throw new IOException(journal + " is corrupt: the record for "
+              + pomFile + " has a negative length");
+        }
+        final byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        crc.reset();
+        crc.update(bytes);
+        if (in.readLong() != crc.getValue()) {
+          throw new IOException(journal + " is corrupt: the record for "
+              + pomFile + " does not match its checksum");
+        }
+        if (restore && PomJournal.restore(pomFile, bytes)) {
+          restored++;
+        }
+        records++;
+      }
+      if (type != PomJournal.COMMIT) {
+        throw new IOException(journal + " is corrupt: unknown record type "
+            + type);
+      }
+      if (in.readInt() != records) {
+        throw new IOException(journal + " is corrupt: expected " + records
+            + " records");
+      }
+      return restore ? restored : records;
+    }
+    catch (final EOFException e) {
+      return -1;
+    }
+  }
+
+  private static boolean restore(final File pomFile, final byte[] bytes)
+      throws IOException {
+    final Path target = pomFile.toPath();
+    if (pomFile.isFile() && pomFile.length() == bytes.length
+        && Arrays.equals(Files.readAllBytes(target), bytes)) {
+      return false;
+    }
+    final Path temp = Files.createTempFile(target.getParent(),
+        pomFile.getName(), ".tmp");
+    try {
+      Files.write(temp, bytes);
+      if (pomFile.isFile()) {
+        LinkedPomBackups.copyPermissions(target, temp);
+      }
+      LinkedPomBackups.move(temp, target);
+    }
+    finally {
+      Files.deleteIfExists(temp);
+    }
+    return true;
+  }
+
+  /* This class is not instantiable. */
+  private PomJournal() {}
+}
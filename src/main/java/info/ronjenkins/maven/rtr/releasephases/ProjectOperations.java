@@ -0,0 +1,147 @@
+/*
+ * Copyright (C) 2016 Ronald Jack Jenkins Jr.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package info.ronjenkins.maven.rtr.releasephases;
+
+import info.ronjenkins.maven.rtr.ParallelTasks;
+import info.ronjenkins.maven.rtr.RTR;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.maven.project.MavenProject;
+import org.apache.maven.shared.release.ReleaseExecutionException;
+import org.apache.maven.shared.release.ReleaseFailureException;
+import org.apache.maven.shared.release.util.ReleaseUtil;
+
+/**
+ * Applies an operation to every project of a release reactor, with a
+ * bounded number of threads.
+ *
+ * <p>
+ * Every project is processed, even if the operation fails for some of them.
+ * A single {@link ReleaseExecutionException} or
+ * {@link ReleaseFailureException} is rethrown as-is; any other failure, or
+ * several failures, are reported together as one
+ * {@link ReleaseExecutionException} that suppresses the others.
+ *
+ * @author Ronald Jack Jenkins Jr.
+ */
+final class ProjectOperations {
+  /**
+   * An operation on a single project. Implementations must be safe to call
+   * concurrently for different projects.
+   */
+  interface Operation {
+    /**
+     * Applies this operation to the given project.
+     *
+     * @param project
+     *          not null.
+     * @throws ReleaseExecutionException
+     *           as needed.
+     * @throws ReleaseFailureException
+     *           as needed.
+     */
+    void apply(MavenProject project) throws ReleaseExecutionException,
+        ReleaseFailureException;
+  }
+
+  /**
+   * Applies the given operation to all of the given projects.
+   *
+   * @param projects
+   *          not null.
+   * @param threads
+   *          the maximum number of threads to use. Values less than 2 apply
+   *          the operation sequentially, on the calling thread.
+   * @param operation
+   *          not null.
+   * @throws ReleaseExecutionException
+   *           if the operation failed for more than one project, or if it
+   *           failed with this or an unchecked exception for exactly one
+   *           project.
+   * @throws ReleaseFailureException
+   *           if the operation failed with this exception for exactly one
+   *           project.
+   */
+  static void applyToAll(final List<MavenProject> projects, final int threads,
+      final Operation operation) throws ReleaseExecutionException,
+      ReleaseFailureException {
+    final List<Exception> failures = new ArrayList<>();
+    try {
+      ParallelTasks.applyToAll(projects, threads,
+          new ParallelTasks.Task<MavenProject, Void>() {
+            @Override
+            public Void apply(final MavenProject project)
+                throws ReleaseExecutionException, ReleaseFailureException {
+              operation.apply(project);
+              return null;
+            }
+          }, failures);
+    }
+    catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new ReleaseExecutionException(
+          "Interrupted while processing reactor projects", e);
+    }
+    ProjectOperations.throwFailures(failures, projects.size());
+  }
+
+  /**
+   * Returns those of the given projects whose POMs the Smart Reactor recorded
+   * as backed up, in the same order.
+   *
+   * @param rtr
+   *          not null.
+   * @param projects
+   *          not null.
+   * @return never null.
+   */
+  static List<MavenProject> withBackupPoms(final RTR rtr,
+      final List<MavenProject> projects) {
+    final List<MavenProject> backedUp = new ArrayList<>(projects.size());
+    for (final MavenProject project : projects) {
+      if (rtr.isBackupPomCreated(ReleaseUtil.getStandardPom(project))) {
+        backedUp.add(project);
+      }
+    }
+    return backedUp;
+  }
+
+  private static void throwFailures(final List<Exception> failures,
+      final int total) throws ReleaseExecutionException,
+      ReleaseFailureException {
+    if (failures.isEmpty()) {
+      return;
+    }
+    final Exception first = failures.get(0);
+    if (failures.size() == 1) {
+      if (first instanceof ReleaseFailureException) {
+        throw (ReleaseFailureException) first;
+      }
+      if (first instanceof ReleaseExecutionException) {
+        throw (ReleaseExecutionException) first;
+      }
+    }
+    throw ParallelTasks.suppressRest(new ReleaseExecutionException(
+        failures.size() + " of " + total
+            + " project operations failed. The first failure was: "
+            + first.getMessage(), first), failures);
+  }
+
+  /* This class is not instantiable. */
+  private ProjectOperations() {}
+}
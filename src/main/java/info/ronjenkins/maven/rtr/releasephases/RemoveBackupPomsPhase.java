@@ -16,7 +16,9 @@
 package info.ronjenkins.maven.rtr.releasephases;
 
 import info.ronjenkins.maven.rtr.RTR;
+import info.ronjenkins.maven.rtr.RTRConfig;
 
+import java.io.IOException;
 import java.util.List;
 
 import org.apache.maven.AbstractMavenLifecycleParticipant;
@@ -28,14 +30,16 @@ import org.apache.maven.shared.release.config.ReleaseDescriptor;
 import org.apache.maven.shared.release.env.ReleaseEnvironment;
 import org.apache.maven.shared.release.phase.AbstractBackupPomsPhase;
 import org.apache.maven.shared.release.phase.ReleasePhase;
+import org.apache.maven.shared.release.util.ReleaseUtil;
 import org.codehaus.plexus.component.annotations.Component;
 import org.codehaus.plexus.component.annotations.Requirement;
 
 /**
- * Deletes all backup POMs, but only if they were created.
+ * Deletes all backup POMs, but only those of projects that were backed up.
+ * Backup POMs are deleted with as many threads as the Smart Reactor allows; a
+ * {@link PomJournal} is deleted as a single file.
  *
  * @author Ronald Jack Jenkins Jr.
- * @see IndicatePresenceOfBackupPomsPhase
  * @see DefensiveRestoreBackupPomsPhase
  */
 // Derived from CreateBackupPomsPhase.java in maven-release-plugin, see
@@ -46,7 +50,8 @@ public class RemoveBackupPomsPhase extends AbstractBackupPomsPhase {
   private RTR rtr;
 
   /**
-   * Deletes all backup POMs for the given projects, if they were created.
+   * Deletes the backup POMs of those of the given projects that were backed
+   * up.
    *
    * @param rd
    *          not null.
@@ -65,11 +70,33 @@ public class RemoveBackupPomsPhase extends AbstractBackupPomsPhase {
       final ReleaseEnvironment re, final List<MavenProject> projects)
       throws ReleaseExecutionException, ReleaseFailureException {
     final ReleaseResult result = new ReleaseResult();
-    if (this.rtr.isBackupPomsCreated()) {
+    if (this.rtr.isBackupPomsCreated()
+        && RTRConfig.BACKUP_STRATEGY_JOURNAL.equals(this.rtr
+            .getBackupStrategy())) {
+      try {
+        PomJournal.delete(PomJournal.getFile(projects));
+      }
+      catch (final IOException e) {
+        throw new ReleaseExecutionException("Error deleting POM journal: "
+            + e.getMessage(), e);
+      }
       for (final MavenProject project : projects) {
-        this.deletePomBackup(project);
+        this.rtr.setBackupPomCreated(ReleaseUtil.getStandardPom(project),
+            false);
       }
     }
+    else if (this.rtr.isBackupPomsCreated()) {
+      ProjectOperations.applyToAll(
+          ProjectOperations.withBackupPoms(this.rtr, projects),
+          this.rtr.getBackupThreads(), new ProjectOperations.Operation() {
+            @Override
+            public void apply(final MavenProject project) {
+              RemoveBackupPomsPhase.this.deletePomBackup(project);
+              RemoveBackupPomsPhase.this.rtr.setBackupPomCreated(
+                  ReleaseUtil.getStandardPom(project), false);
+            }
+          });
+    }
     result.setResultCode(ReleaseResult.SUCCESS);
     return result;
   }
@@ -0,0 +1,151 @@
+/*
+ * Copyright (C) 2016 Ronald Jack Jenkins Jr.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package info.ronjenkins.maven.rtr.releasephases;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.util.Properties;
+
+import org.apache.maven.artifact.ArtifactUtils;
+import org.apache.maven.project.MavenProject;
+
+/**
+ * The projects that passed the external SNAPSHOT check in earlier builds.
+ *
+ * <p>
+ * Each project is recorded with the digest that it passed the check with, as
+ * returned by
+ * {@link ExternalSnapshotScan#digest(MavenProject, java.util.Map, String)}.
+ * A project whose digest has not changed since then does not need to be
+ * checked again. Projects that failed the check are never recorded.
+ *
+ * @author Ronald Jack Jenkins Jr.
+ */
+final class SnapshotCheckCache {
+  private static final String FORMAT         = "1";
+  private static final String PROP_FORMAT    = "format";
+  private static final String PROJECT_PREFIX = "project.";
+
+  /**
+   * Reads the cache from the given file.
+   *
+   * @param file
+   *          not null.
+   * @return never null. Empty if the file does not exist, cannot be read or
+   *         does not contain a valid cache.
+   */
+  static SnapshotCheckCache read(final File file) {
+    final SnapshotCheckCache cache = new SnapshotCheckCache();
+    if (!file.isFile()) {
+      return cache;
+    }
+    final Properties props = new Properties();
+    try (final InputStream in = Files.newInputStream(file.toPath())) {
+      props.load(in);
+    }
+    catch (final IOException | IllegalArgumentException e) {
+      return cache;
+    }
+    if (SnapshotCheckCache.FORMAT.equals(props
+        .getProperty(SnapshotCheckCache.PROP_FORMAT))) {
+      cache.props.putAll(props);
+    }
+    return cache;
+  }
+
+  private static String getKey(final MavenProject project) {
+    return SnapshotCheckCache.PROJECT_PREFIX
+        + ArtifactUtils.versionlessKey(project.getGroupId(),
+            project.getArtifactId());
+  }
+
+  private final Properties props = new Properties();
+  private boolean          modified;
+
+  private SnapshotCheckCache() {
+    this.props.setProperty(SnapshotCheckCache.PROP_FORMAT,
+        SnapshotCheckCache.FORMAT);
+  }
+
+  /**
+   * Indicates whether or not the given project passed the check with the
+   * given digest.
+   *
+   * @param project
+   *          not null.
+   * @param digest
+   *          not null.
+   * @return true if the project need not be checked again, false otherwise.
+   */
+  boolean isPassed(final MavenProject project, final String digest) {
+    return digest.equals(this.props.getProperty(SnapshotCheckCache
+        .getKey(project)));
+  }
+
+  /**
+   * Indicates whether or not this cache changed since it was read.
+   *
+   * @return true if it should be written, false otherwise.
+   */
+  boolean isModified() {
+    return this.modified;
+  }
+
+  /**
+   * Records that the given project passed the check with the given digest.
+   *
+   * @param project
+   *          not null.
+   * @param digest
+   *          not null.
+   */
+  void setPassed(final MavenProject project, final String digest) {
+    final Object previous = this.props.setProperty(
+        SnapshotCheckCache.getKey(project), digest);
+    if (!digest.equals(previous)) {
+      this.modified = true;
+    }
+  }
+
+  /**
+   * Writes this cache to the given file, replacing any existing file.
+   *
+   * @param file
+   *          not null.
+   * @throws IOException
+   *           if the cache cannot be written.
+   */
+  void write(final File file) throws IOException {
+    final File directory = file.getAbsoluteFile().getParentFile();
+    Files.createDirectories(directory.toPath());
+    // Write to a temporary file first so that concurrent builds never read a
+    // partially written cache.
+    final File temp = File.createTempFile(file.getName(), ".tmp", directory);
+    try {
+      try (final OutputStream out = Files.newOutputStream(temp.toPath())) {
+        this.props.store(out, "Smart Reactor external SNAPSHOT check results");
+      }
+      LinkedPomBackups.move(temp.toPath(), file.toPath());
+    }
+    finally {
+      Files.deleteIfExists(temp.toPath());
+    }
+    this.modified = false;
+  }
+}
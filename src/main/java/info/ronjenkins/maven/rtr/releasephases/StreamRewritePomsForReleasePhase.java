@@ -0,0 +1,223 @@
+/*
+ * Copyright (C) 2016 Ronald Jack Jenkins Jr.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package info.ronjenkins.maven.rtr.releasephases;
+
+import info.ronjenkins.maven.rtr.RTRConfig;
+import info.ronjenkins.maven.rtr.reactor.StreamingPomRewriter;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.apache.maven.artifact.ArtifactUtils;
+import org.apache.maven.model.Scm;
+import org.apache.maven.project.MavenProject;
+import org.apache.maven.scm.provider.ScmUrlUtils;
+import org.apache.maven.shared.release.ReleaseExecutionException;
+import org.apache.maven.shared.release.ReleaseFailureException;
+import org.apache.maven.shared.release.ReleaseResult;
+import org.apache.maven.shared.release.config.ReleaseDescriptor;
+import org.apache.maven.shared.release.env.ReleaseEnvironment;
+import org.apache.maven.shared.release.phase.AbstractReleasePhase;
+import org.apache.maven.shared.release.phase.ReleasePhase;
+import org.apache.maven.shared.release.scm.ScmTranslator;
+import org.apache.maven.shared.release.util.ReleaseUtil;
+import org.codehaus.plexus.component.annotations.Component;
+import org.codehaus.plexus.component.annotations.Requirement;
+
+/**
+ * Rewrites POMs for release with a {@link StreamingPomRewriter}, instead of
+ * building and serializing a document tree for each POM. Each rewritten POM
+ * is written next to the original and renamed over it, in the original
+ * encoding.
+ *
+ * <p>
+ * Only the {@code scm/tag} element is rewritten. If the SCM provider would
+ * rewrite the SCM URLs for the tag, as Subversion does, the release fails.
+ *
+ * @author Ronald Jack Jenkins Jr.
+ * @see RTRConfig#isStreamingRewrite(org.apache.maven.execution.MavenSession,
+ *      MavenProject)
+ */
+@Component(role = ReleasePhase.class, hint = "stream-rewrite-poms-for-release")
+public class StreamRewritePomsForReleasePhase extends AbstractReleasePhase {
+  private static final byte[]  UTF8_BOM = { (byte) 0xEF, (byte) 0xBB,
+      (byte) 0xBF                      };
+  private static final Pattern ENCODING = Pattern
+                                            .compile("^<\\?xml[^>]*?encoding\\s*=\\s*[\"']([A-Za-z0-9._-]+)[\"']");
+
+  @Requirement(role = ScmTranslator.class)
+  private Map<String, ScmTranslator> scmTranslators;
+
+  /**
+   * Rewrites the POMs of the given projects for release.
+   *
+   * @param rd
+   *          not null.
+   * @param re
+   *          not null.
+   * @param projects
+   *          not null.
+   * @return the result of the phase execution.
+   * @throws ReleaseExecutionException
+   *           if any POM cannot be read, parsed or written.
+   * @throws ReleaseFailureException
+   *           if any project's release version was not mapped, or if the SCM
+   *           URLs of any project would have to be rewritten.
+   */
+  @Override
+  public ReleaseResult execute(final ReleaseDescriptor rd,
+      final ReleaseEnvironment re, final List<MavenProject> projects)
+      throws ReleaseExecutionException, ReleaseFailureException {
+    final Map<?, ?> releaseVersions = rd.getReleaseVersions();
+    final StreamingPomRewriter rewriter = new StreamingPomRewriter(
+        releaseVersions, rd.getOriginalVersions(projects));
+    for (final MavenProject project : projects) {
+      if (!releaseVersions.containsKey(ArtifactUtils.versionlessKey(
+          project.getGroupId(), project.getArtifactId()))) {
+        throw new ReleaseFailureException("Version for '" + project.getName()
+            + "' was not mapped");
+      }
+      final String scmTag = this.resolveScmTag(rd, project);
+      StreamRewritePomsForReleasePhase.rewritePom(
+          ReleaseUtil.getStandardPom(project), rewriter, scmTag,
+          rd.isAddSchema());
+    }
+    final ReleaseResult result = new ReleaseResult();
+    result.setResultCode(ReleaseResult.SUCCESS);
+    return result;
+  }
+
+  /**
+   * Invokes the {@link #execute(ReleaseDescriptor, ReleaseEnvironment, List)
+   * execute} method.
+   *
+   * @param rd
+   *          not null.
+   * @param re
+   *          not null.
+   * @param projects
+   *          not null.
+   * @return the result of the phase execution.
+   * @throws ReleaseExecutionException
+   *           as needed.
+   * @throws ReleaseFailureException
+   *           as needed.
+   */
+  @Override
+  public ReleaseResult simulate(final ReleaseDescriptor rd,
+      final ReleaseEnvironment re, final List<MavenProject> projects)
+      throws ReleaseExecutionException, ReleaseFailureException {
+    return this.execute(rd, re, projects);
+  }
+
+  /*
+   * Returns the charset declared by the given POM, or UTF-8 if it declares
+   * none.
+   */
+  private static Charset getCharset(final byte[] bytes) {
+    final String prolog = new String(bytes, 0, Math.min(bytes.length, 256),
+        StandardCharsets.ISO_8859_1);
+    final Matcher matcher = StreamRewritePomsForReleasePhase.ENCODING
+        .matcher(prolog);
+    return matcher.find() ? Charset.forName(matcher.group(1))
+        : StandardCharsets.UTF_8;
+  }
+
+  private static void rewritePom(final File pomFile,
+      final StreamingPomRewriter rewriter, final String scmTag,
+      final boolean addSchema) throws ReleaseExecutionException {
+    try {
+      final byte[] bytes = Files.readAllBytes(pomFile.toPath());
+      final byte[] bom = StreamRewritePomsForReleasePhase.UTF8_BOM;
+      final boolean hasBom = bytes.length >= bom.length
+          && Arrays.equals(bom, Arrays.copyOf(bytes, bom.length));
+      final int offset = hasBom ? bom.length : 0;
+      final Charset charset = hasBom ? StandardCharsets.UTF_8
+          : StreamRewritePomsForReleasePhase.getCharset(bytes);
+      final String pom = new String(bytes, offset, bytes.length - offset,
+          charset);
+      final String rewritten = rewriter.rewrite(pom, scmTag, addSchema);
+      if (rewritten == pom) {
+        return;
+      }
+      // Replace the POM rather than writing into it, so that a linked backup
+      // keeps the original.
+      final Path target = pomFile.toPath();
+      final Path temp = Files.createTempFile(target.getParent(),
+          pomFile.getName(), ".tmp");
+      try {
+        final byte[] text = rewritten.getBytes(charset);
+        final byte[] out = new byte[offset + text.length];
+        System.arraycopy(bytes, 0, out, 0, offset);
+        System.arraycopy(text, 0, out, offset, text.length);
+        Files.write(temp, out);
+        LinkedPomBackups.copyPermissions(target, temp);
+        LinkedPomBackups.move(temp, target);
+      }
+      finally {
+        Files.deleteIfExists(temp);
+      }
+    }
+    catch (final IOException | IllegalArgumentException e) {
+      throw new ReleaseExecutionException("Error rewriting POM " + pomFile
+          + ": " + e.getMessage(), e);
+    }
+  }
+
+  /*
+   * Returns the tag to write into the project's SCM information, or null to
+   * leave it alone.
+   */
+  private String resolveScmTag(final ReleaseDescriptor rd,
+      final MavenProject project) throws ReleaseFailureException {
+    final Scm scm = project.getOriginalModel().getScm();
+    final String tag = rd.getScmReleaseLabel();
+    if (scm == null || tag == null) {
+      return null;
+    }
+    final String connection = scm.getConnection() == null ? scm
+        .getDeveloperConnection() : scm.getConnection();
+    if (connection == null || !ScmUrlUtils.isValid(connection)) {
+      return null;
+    }
+    final ScmTranslator translator = this.scmTranslators.get(ScmUrlUtils
+        .getProvider(connection));
+    if (translator == null) {
+      return null;
+    }
+    for (final String url : Arrays.asList(scm.getConnection(),
+        scm.getDeveloperConnection(), scm.getUrl())) {
+      if (url != null
+          && !url.equals(translator.translateTagUrl(url, tag,
+              rd.getScmTagBase()))) {
+        throw new ReleaseFailureException("The SCM URLs of '"
+            + project.getName()
+            + "' must be rewritten for the release tag, which the streaming POM rewriter does not do. Set property \""
+            + RTRConfig.PROP_STREAMING_REWRITE + "\" to false.");
+      }
+    }
+    return translator.resolveTag(tag);
+  }
+}
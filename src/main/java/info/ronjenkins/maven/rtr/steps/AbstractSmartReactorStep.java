@@ -15,6 +15,11 @@
  */
 package info.ronjenkins.maven.rtr.steps;
 
+import info.ronjenkins.maven.rtr.RTRComponents;
+import info.ronjenkins.maven.rtr.RTRSettings;
+import info.ronjenkins.maven.rtr.reactor.ReactorIndex;
+
+import org.apache.maven.execution.MavenSession;
 import org.codehaus.plexus.component.annotations.Requirement;
 import org.codehaus.plexus.logging.Logger;
 
@@ -24,6 +29,42 @@ import org.codehaus.plexus.logging.Logger;
  * @author Ronald Jack Jenkins Jr.
  */
 public abstract class AbstractSmartReactorStep implements SmartReactorStep {
+  /**
+   * Returns the index of the original reactor, building it from the session if
+   * the given components do not carry one.
+   *
+   * @param session
+   *          not null.
+   * @param components
+   *          may be null.
+   * @return never null.
+   */
+  protected static ReactorIndex getReactorIndex(final MavenSession session,
+      final RTRComponents components) {
+    if (components != null && components.getReactorIndex() != null) {
+      return components.getReactorIndex();
+    }
+    return ReactorIndex.build(session);
+  }
+
+  /**
+   * Returns the configuration resolved for this session, resolving the
+   * execution root's configuration if the given components do not carry one.
+   *
+   * @param session
+   *          not null.
+   * @param components
+   *          may be null.
+   * @return never null.
+   */
+  protected static RTRSettings getSettings(final MavenSession session,
+      final RTRComponents components) {
+    if (components != null && components.getSettings() != null) {
+      return components.getSettings();
+    }
+    return new RTRSettings(session, session.getTopLevelProject());
+  }
+
   @Requirement
   protected Logger logger;
 }
@@ -16,7 +16,10 @@
 package info.ronjenkins.maven.rtr.steps;
 
 import info.ronjenkins.maven.rtr.RTRComponents;
+import info.ronjenkins.maven.rtr.reactor.ReactorIndex;
+import info.ronjenkins.maven.rtr.reactor.ReactorPlan;
 
+import java.util.BitSet;
 import java.util.Iterator;
 
 import org.apache.maven.execution.MavenSession;
@@ -24,7 +27,9 @@ import org.apache.maven.project.MavenProject;
 import org.codehaus.plexus.component.annotations.Component;
 
 /**
- * Reassembles the Maven session's reactor using Smart Reactor rules.
+ * Reassembles the Maven session's reactor using Smart Reactor rules. If a
+ * cached plan was applied to the session, the projects it retained are kept
+ * instead.
  *
  * @author Ronald Jack Jenkins Jr.
  */
@@ -35,13 +40,25 @@ public class BuildSmartReactor extends AbstractSmartReactorStep {
     // The reactor is a mutable list whose type is unknown, so rather than
     // reassign it via sessions.setProjects(), we will manipulate the live
     // list instead.
+    final ReactorIndex index = AbstractSmartReactorStep.getReactorIndex(
+        session, components);
+    final ReactorPlan plan = components == null ? null : components
+        .getReactorPlan();
+    final BitSet retained = plan == null ? index.getSnapshots() : plan
+        .getRetained();
     final Iterator<MavenProject> iterator = session.getProjects().iterator();
     MavenProject project;
+    int id;
     while (iterator.hasNext()) {
       project = iterator.next();
-      if (!project.getArtifact().isSnapshot()) {
+      id = index.getId(project);
+      if (id < 0 ? !project.getArtifact().isSnapshot() : !retained.get(id)) {
         iterator.remove();
       }
     }
+    // Later steps may prune further, so remember what these rules selected.
+    if (components != null) {
+      components.setSmartReactorIds(retained);
+    }
   }
 }
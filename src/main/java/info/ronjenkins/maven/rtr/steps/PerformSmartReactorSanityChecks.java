@@ -38,7 +38,8 @@ public class PerformSmartReactorSanityChecks extends AbstractSmartReactorStep {
     if (session.getProjects().size() == 1) {
       final MavenProject executionRoot = session.getTopLevelProject();
       if (executionRoot.getArtifact().getType().equals("pom")
-          && !RTRConfig.isSinglePomReactorAllowed(session, executionRoot)) {
+          && !AbstractSmartReactorStep.getSettings(session, components)
+              .isSinglePomReactorAllowed()) {
         this.logger.error("");
         throw new SmartReactorSanityCheckException(
             "Reactor contains a single POM-packaging project, which is not allowed. If this is intended, set property \""
@@ -0,0 +1,153 @@
+/*
+ * Copyright (C) 2016 Ronald Jack Jenkins Jr.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package info.ronjenkins.maven.rtr.steps;
+
+import info.ronjenkins.maven.rtr.RTRComponents;
+import info.ronjenkins.maven.rtr.RTRConfig;
+import info.ronjenkins.maven.rtr.RTRSettings;
+import info.ronjenkins.maven.rtr.exceptions.SmartReactorSanityCheckException;
+import info.ronjenkins.maven.rtr.reactor.GitChanges;
+import info.ronjenkins.maven.rtr.reactor.ReactorIndex;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.maven.MavenExecutionException;
+import org.apache.maven.execution.MavenSession;
+import org.apache.maven.project.MavenProject;
+import org.codehaus.plexus.component.annotations.Component;
+
+/**
+ * Removes projects from the Smart Reactor that are not affected by changes in
+ * the local git working tree, relative to a configured base ref. A project is
+ * affected if any file beneath its base directory (and not beneath a nested
+ * project's base directory) changed, or if it is downstream of an affected
+ * project. If no project is affected, the Smart Reactor is left empty and
+ * nothing is built. No-op unless a base ref is configured.
+ *
+ * @author Ronald Jack Jenkins Jr.
+ */
+@Component(role = SmartReactorStep.class, hint = "prune-unchanged")
+public class PruneUnchangedProjects extends AbstractSmartReactorStep {
+  private static File canonicalize(final File file) {
+    try {
+      return file.getCanonicalFile();
+    }
+    catch (final IOException e) {
+      return file.getAbsoluteFile();
+    }
+  }
+
+  @Override
+  public void execute(final MavenSession session, final RTRComponents components)
+      throws MavenExecutionException {
+    final MavenProject executionRoot = session.getTopLevelProject();
+    final RTRSettings settings = AbstractSmartReactorStep.getSettings(session,
+        components);
+    final String baseRef = settings.getChangedSince();
+    if (baseRef == null) {
+      return;
+    }
+    if (settings.isRelease()) {
+      this.logger.error("");
+      throw new SmartReactorSanityCheckException("Property \""
+          + RTRConfig.PROP_CHANGED_SINCE
+          + "\" cannot be used to perform a release.");
+    }
+    final Set<File> changedFiles;
+    try {
+      changedFiles = GitChanges.getChangedFiles(executionRoot.getBasedir(),
+          baseRef);
+    }
+    catch (final IOException | IllegalArgumentException e) {
+      this.logger.error("");
+      throw new SmartReactorSanityCheckException(
+          "Unable to determine which files changed since " + baseRef + ": "
+              + e.getMessage());
+    }
+    final ReactorIndex index = AbstractSmartReactorStep.getReactorIndex(
+        session, components);
+    final BitSet affected = this.findAffectedProjects(index, changedFiles);
+    final Iterator<MavenProject> iterator = session.getProjects().iterator();
+    final int before = session.getProjects().size();
+    MavenProject project;
+    int id;
+    while (iterator.hasNext()) {
+      project = iterator.next();
+      id = index.getId(project);
+      if (id >= 0 && !affected.get(id)) {
+        iterator.remove();
+      }
+    }
+    if (session.getProjects().isEmpty()) {
+      // Common for a re-run build. The rebuild-graph step ends the session of
+      // an empty reactor without building anything.
+      this.logger.info("No projects are affected by changes since " + baseRef
+          + ".");
+    }
+    else {
+      this.logger.info(session.getProjects().size() + " of " + before
+          + " projects are affected by changes since " + baseRef + ".");
+    }
+  }
+
+  /*
+   * Maps each changed file to the innermost indexed project that contains it,
+   * then adds every project downstream of those projects.
+   */
+  private BitSet findAffectedProjects(final ReactorIndex index,
+      final Set<File> changedFiles) {
+    final Map<File, Integer> idsByBasedir = new HashMap<>();
+    for (int id = 0; id < index.size(); id++) {
+      final File basedir = index.getProject(id).getBasedir();
+      if (basedir != null) {
+        idsByBasedir.put(PruneUnchangedProjects.canonicalize(basedir), id);
+      }
+    }
+    final BitSet affected = new BitSet(index.size());
+    final int[] stack = new int[index.size()];
+    int top = 0;
+    for (final File changedFile : changedFiles) {
+      File directory = PruneUnchangedProjects.canonicalize(changedFile)
+          .getParentFile();
+      while (directory != null) {
+        final Integer id = idsByBasedir.get(directory);
+        if (id != null) {
+          if (!affected.get(id)) {
+            affected.set(id);
+            stack[top++] = id;
+          }
+          break;
+        }
+        directory = directory.getParentFile();
+      }
+    }
+    while (top > 0) {
+      for (final int downstream : index.getDownstream(stack[--top])) {
+        if (!affected.get(downstream)) {
+          affected.set(downstream);
+          stack[top++] = downstream;
+        }
+      }
+    }
+    return affected;
+  }
+}
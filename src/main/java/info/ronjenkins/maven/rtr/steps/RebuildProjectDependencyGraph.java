@@ -16,11 +16,20 @@
 package info.ronjenkins.maven.rtr.steps;
 
 import info.ronjenkins.maven.rtr.RTRComponents;
+import info.ronjenkins.maven.rtr.reactor.FilteredProjectDependencyGraph;
+import info.ronjenkins.maven.rtr.reactor.ReactorIndex;
+
+import java.util.Collections;
+import java.util.List;
 
 import org.apache.maven.MavenExecutionException;
+import org.apache.maven.artifact.DefaultArtifact;
+import org.apache.maven.artifact.handler.DefaultArtifactHandler;
 import org.apache.maven.execution.MavenSession;
 import org.apache.maven.graph.DefaultProjectDependencyGraph;
+import org.apache.maven.model.Model;
 import org.apache.maven.project.DuplicateProjectException;
+import org.apache.maven.project.MavenProject;
 import org.codehaus.plexus.component.annotations.Component;
 import org.codehaus.plexus.util.dag.CycleDetectedException;
 
@@ -28,13 +37,61 @@ import org.codehaus.plexus.util.dag.CycleDetectedException;
  * Rebuilds the dependency graph for the session after all project changes have
  * taken effect.
  *
+ * <p>
+ * When the reactor index covers every remaining project, the new graph is a
+ * filtered view of the original graph rather than a new graph built from
+ * scratch.
+ *
+ * <p>
+ * Maven fails a session that has no project to build, so if no project is
+ * left in the Smart Reactor, the reactor is replaced with a single empty
+ * project and the goals with the {@code validate} phase. Maven then ends the
+ * session without executing any mojos.
+ *
  * @author Ronald Jack Jenkins Jr.
  */
 @Component(role = SmartReactorStep.class, hint = "rebuild-graph")
 public class RebuildProjectDependencyGraph extends AbstractSmartReactorStep {
+  /*
+   * An empty project in place of the execution root. It declares no plugins,
+   * so no mojos are bound to its lifecycle.
+   */
+  private static MavenProject newPlaceholder(final MavenProject executionRoot) {
+    final Model model = new Model();
+    model.setModelVersion("4.0.0");
+    model.setGroupId(executionRoot.getGroupId());
+    model.setArtifactId(executionRoot.getArtifactId() + "-rtr-placeholder");
+    model.setVersion(executionRoot.getVersion());
+    model.setPackaging("pom");
+    model.setName("Smart Reactor placeholder");
+    final MavenProject placeholder = new MavenProject(model);
+    placeholder.setArtifact(new DefaultArtifact(model.getGroupId(), model
+        .getArtifactId(), model.getVersion(), null, model.getPackaging(), null,
+        new DefaultArtifactHandler(model.getPackaging())));
+    placeholder.setFile(executionRoot.getFile());
+    placeholder.setExecutionRoot(true);
+    return placeholder;
+  }
+
   @Override
   public void execute(final MavenSession session, final RTRComponents components)
       throws MavenExecutionException {
+    final List<MavenProject> projects = session.getProjects();
+    if (projects.isEmpty()) {
+      this.logger.info("The Smart Reactor is empty. Nothing will be built.");
+      // As in BuildSmartReactor, manipulate the live list rather than
+      // reassign it.
+      projects.add(RebuildProjectDependencyGraph.newPlaceholder(session
+          .getTopLevelProject()));
+      session.getRequest().setGoals(Collections.singletonList("validate"));
+    }
+    final ReactorIndex index = components == null ? null : components
+        .getReactorIndex();
+    if (index != null && this.isIndexed(index, session)) {
+      session.setProjectDependencyGraph(new FilteredProjectDependencyGraph(
+          index, session.getProjects()));
+      return;
+    }
     try {
       session.setProjectDependencyGraph(new DefaultProjectDependencyGraph(
           session.getProjects()));
@@ -45,4 +102,13 @@ public class RebuildProjectDependencyGraph extends AbstractSmartReactorStep {
           "Could not assemble new project dependency graph", e);
     }
   }
+
+  private boolean isIndexed(final ReactorIndex index, final MavenSession session) {
+    for (final MavenProject project : session.getProjects()) {
+      if (index.getId(project) < 0) {
+        return false;
+      }
+    }
+    return true;
+  }
 }
@@ -16,88 +16,55 @@
 package info.ronjenkins.maven.rtr.steps;
 
 import info.ronjenkins.maven.rtr.RTRComponents;
+import info.ronjenkins.maven.rtr.RTRSettings;
 import info.ronjenkins.maven.rtr.exceptions.SmartReactorSanityCheckException;
+import info.ronjenkins.maven.rtr.steps.eligibility.EligibilityContext;
+import info.ronjenkins.maven.rtr.steps.eligibility.EligibilityRule;
+import info.ronjenkins.maven.rtr.steps.eligibility.EligibilityValidator;
 
-import java.util.ArrayList;
 import java.util.List;
 
 import org.apache.maven.MavenExecutionException;
-import org.apache.maven.artifact.Artifact;
 import org.apache.maven.execution.MavenSession;
-import org.apache.maven.execution.ProjectDependencyGraph;
-import org.apache.maven.project.MavenProject;
 import org.codehaus.plexus.component.annotations.Component;
+import org.codehaus.plexus.component.annotations.Requirement;
 
 /**
  * Validates that this Maven session is eligible to be processed by the Smart
  * Reactor.
  *
+ * <p>
+ * The standard rules and any {@link EligibilityRule} components are applied
+ * in a single traversal of the reactor. Every violation is reported unless
+ * {@code rtr.eligibilityFailFast} is set, in which case validation stops at
+ * the first one.
+ *
  * @author Ronald Jack Jenkins Jr.
  */
 @Component(role = SmartReactorStep.class, hint = "validate-eligibility")
 public class ValidateSmartReactorEligibility extends AbstractSmartReactorStep {
+  @Requirement(role = EligibilityRule.class)
+  private List<EligibilityRule> customRules;
+
   @Override
   public void execute(final MavenSession session, final RTRComponents components)
       throws MavenExecutionException {
-    // Ensure that the Maven Release Plugin is not in the list of goals.
-    for (final String goal : session.getGoals()) {
-      if (goal.startsWith("release:")
-          || goal.startsWith("org.apache.maven.plugins:maven-release-plugin:")) {
-        this.logger.error("");
-        throw new SmartReactorSanityCheckException(
-            "A goal from the Maven Release Plugin was specified for execution.");
-      }
-    }
-    // Ensure that the Maven Release Plugin is not declared in the POM.
-    final List<MavenProject> projectsWithMavenReleasePlugin = new ArrayList<>();
-    for (final MavenProject project : session.getProjects()) {
-      for (final Artifact artifact : project.getPluginArtifacts()) {
-        if (artifact.getGroupId().equals("org.apache.maven.plugins")
-            && artifact.getArtifactId().equals("maven-release-plugin")) {
-          projectsWithMavenReleasePlugin.add(project);
-        }
-      }
-    }
-    if (!projectsWithMavenReleasePlugin.isEmpty()) {
-      this.logger.error("");
-      for (final MavenProject project : projectsWithMavenReleasePlugin) {
-        this.logger.error("Project " + project
-            + " contains a reference to the Maven Release Plugin.");
-      }
-      this.logger.error("");
-      throw new SmartReactorSanityCheckException(
-          "Reactor is ineligible to become a Smart Reactor.");
-    }
-    // Ensure that the root is a SNAPSHOT.
-    final MavenProject root = session.getTopLevelProject();
-    if (!root.getArtifact().isSnapshot()) {
-      this.logger.error("");
-      this.logger.error("Top-level project " + root + " is not a SNAPSHOT.");
-      this.logger.error("");
-      throw new SmartReactorSanityCheckException(
-          "Reactor is ineligible to become a Smart Reactor.");
-    }
-    // Ensure that the ancestors of every SNAPSHOT are also SNAPSHOTs.
-    final ProjectDependencyGraph pdg = session.getProjectDependencyGraph();
-    final List<MavenProject> badProjects = new ArrayList<>();
-    for (final MavenProject project : session.getProjects()) {
-      if (project.getArtifact().isSnapshot()) {
-        for (final MavenProject ancestor : pdg.getUpstreamProjects(project,
-            true)) {
-          if (!ancestor.getArtifact().isSnapshot()) {
-            badProjects.add(ancestor);
-          }
-        }
-      }
+    final RTRSettings settings = AbstractSmartReactorStep.getSettings(
+        session, components);
+    final List<EligibilityRule> rules = EligibilityValidator
+        .getStandardRules(settings.getForbiddenPlugins());
+    if (this.customRules != null) {
+      rules.addAll(this.customRules);
     }
-    // Fail if necessary.
-    if (!badProjects.isEmpty()) {
+    final EligibilityContext context = new EligibilityContext(session,
+        AbstractSmartReactorStep.getReactorIndex(session, components),
+        settings.isEligibilityFailFast());
+    final List<String> violations = new EligibilityValidator(rules)
+        .validate(context);
+    if (!violations.isEmpty()) {
       this.logger.error("");
-      this.logger
-          .error("The following release projects in the reactor have SNAPSHOT dependencies in the reactor, which is not allowed:");
-      for (final MavenProject badProject : badProjects) {
-        this.logger.error("  " + badProject.getArtifact().toString() + " @ "
-            + badProject.getFile().getAbsolutePath());
+      for (final String violation : violations) {
+        this.logger.error(violation);
       }
       this.logger.error("");
       throw new SmartReactorSanityCheckException(
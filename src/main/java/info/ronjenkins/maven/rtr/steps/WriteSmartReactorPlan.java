@@ -0,0 +1,149 @@
+/*
+ * Copyright (C) 2016 Ronald Jack Jenkins Jr.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package info.ronjenkins.maven.rtr.steps;
+
+import info.ronjenkins.maven.rtr.Json;
+import info.ronjenkins.maven.rtr.RTRComponents;
+import info.ronjenkins.maven.rtr.RTRConfig;
+import info.ronjenkins.maven.rtr.RTRSettings;
+import info.ronjenkins.maven.rtr.exceptions.SmartReactorSanityCheckException;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+
+import org.apache.maven.MavenExecutionException;
+import org.apache.maven.execution.MavenSession;
+import org.apache.maven.project.MavenProject;
+import org.codehaus.plexus.component.annotations.Component;
+
+/**
+ * Writes the Smart Reactor plan to the file given by
+ * {@link RTRConfig#PROP_PLAN_OUTPUT}, then empties the reactor so that
+ * nothing is built, as described by {@link RebuildProjectDependencyGraph}.
+ *
+ * <p>
+ * The plan is a JSON document that says whether or not a release was
+ * requested and lists the projects in the Smart Reactor in build order.
+ *
+ * @author Ronald Jack Jenkins Jr.
+ */
+@Component(role = SmartReactorStep.class, hint = "write-plan")
+public class WriteSmartReactorPlan extends AbstractSmartReactorStep {
+  /**
+   * Returns the given plan as a JSON document.
+   *
+   * @param release
+   *          whether or not a release was requested.
+   * @param executionRoot
+   *          not null.
+   * @param projects
+   *          the Smart Reactor in build order. Not null.
+   * @return never null.
+   */
+  static String toJson(final boolean release, final MavenProject executionRoot,
+      final List<MavenProject> projects) {
+    final StringBuilder json = new StringBuilder();
+    json.append("{\n  \"release\": ").append(release)
+        .append(",\n  \"projects\": [");
+    for (int i = 0; i < projects.size(); i++) {
+      final MavenProject project = projects.get(i);
+      json.append(i == 0 ? "\n" : ",\n").append("    {\"groupId\": ");
+      Json.appendString(json, project.getGroupId());
+      json.append(", \"artifactId\": ");
+      Json.appendString(json, project.getArtifactId());
+      json.append(", \"version\": ");
+      Json.appendString(json, project.getVersion());
+      json.append(", \"path\": ");
+      Json.appendString(json,
+          WriteSmartReactorPlan.getPath(executionRoot, project));
+      json.append('}');
+    }
+    json.append(projects.isEmpty() ? "]\n}\n" : "\n  ]\n}\n");
+    return json.toString();
+  }
+
+  /*
+   * Returns the base directory of the given project relative to the
+   * execution root's, with forward slashes, or null if either is unknown.
+   */
+  private static String getPath(final MavenProject executionRoot,
+      final MavenProject project) {
+    final File rootBasedir = executionRoot.getBasedir();
+    final File basedir = project.getBasedir();
+    if (rootBasedir == null || basedir == null) {
+      return null;
+    }
+    return rootBasedir.getAbsoluteFile().toPath()
+        .relativize(basedir.getAbsoluteFile().toPath()).toString()
+        .replace(File.separatorChar, '/');
+  }
+
+  @Override
+  public void execute(final MavenSession session, final RTRComponents components)
+      throws MavenExecutionException {
+    final MavenProject executionRoot = session.getTopLevelProject();
+    final RTRSettings settings = AbstractSmartReactorStep.getSettings(session,
+        components);
+    final String path = settings.getPlanOutput();
+    if (path == null) {
+      return;
+    }
+    File file = new File(path);
+    if (!file.isAbsolute()) {
+      file = new File(executionRoot.getBasedir(), path);
+    }
+    final List<MavenProject> projects = session.getProjects();
+    try {
+      this.write(file, WriteSmartReactorPlan.toJson(settings.isRelease(),
+          executionRoot, projects));
+    }
+    catch (final IOException e) {
+      this.logger.error("");
+      throw new SmartReactorSanityCheckException(
+          "Unable to write Smart Reactor plan to " + file + ": "
+              + e.getMessage());
+    }
+    this.logger.info("Smart Reactor plan for " + projects.size()
+        + " projects written to " + file + ".");
+    // As in BuildSmartReactor, manipulate the live list rather than reassign
+    // it. The rebuild-graph step ends the session of an empty reactor.
+    projects.clear();
+  }
+
+  private void write(final File file, final String json) throws IOException {
+    final File directory = file.getAbsoluteFile().getParentFile();
+    Files.createDirectories(directory.toPath());
+    // Write to a temporary file first so that a reader never sees a partially
+    // written plan.
+    final File temp = File.createTempFile(file.getName(), ".tmp", directory);
+    try {
+      try (final Writer writer = Files.newBufferedWriter(temp.toPath(),
+          StandardCharsets.UTF_8)) {
+        writer.write(json);
+      }
+      Files.move(temp.toPath(), file.toPath(),
+          StandardCopyOption.REPLACE_EXISTING);
+    }
+    finally {
+      Files.deleteIfExists(temp.toPath());
+    }
+  }
+}
@@ -0,0 +1,32 @@
+/*
+ * Copyright (C) 2016 Ronald Jack Jenkins Jr.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package info.ronjenkins.maven.rtr.steps.eligibility;
+
+/**
+ * Base implementation of an eligibility rule that does nothing. Subclasses
+ * override only the methods they need.
+ *
+ * @author Ronald Jack Jenkins Jr.
+ */
+public abstract class AbstractEligibilityRule implements EligibilityRule {
+  @Override
+  public void start(final EligibilityContext context) {
+  }
+
+  @Override
+  public void visit(final EligibilityContext context, final int id) {
+  }
+}
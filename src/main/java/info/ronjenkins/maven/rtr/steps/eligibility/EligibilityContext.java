@@ -0,0 +1,122 @@
+/*
+ * Copyright (C) 2016 Ronald Jack Jenkins Jr.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package info.ronjenkins.maven.rtr.steps.eligibility;
+
+import info.ronjenkins.maven.rtr.reactor.ReactorIndex;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.List;
+
+import org.apache.maven.execution.MavenSession;
+
+/**
+ * The state of a single eligibility validation, shared by every rule.
+ *
+ * @author Ronald Jack Jenkins Jr.
+ */
+public final class EligibilityContext {
+  private final MavenSession session;
+  private final ReactorIndex index;
+  private final boolean      failFast;
+  private final List<String> violations = new ArrayList<>();
+  private BitSet             releaseAncestorsOfSnapshots;
+
+  /**
+   * Constructor.
+   *
+   * @param session
+   *          not null.
+   * @param index
+   *          the index of the reactor. Not null.
+   * @param failFast
+   *          true if validation stops at the first violation, false otherwise.
+   */
+  public EligibilityContext(final MavenSession session,
+      final ReactorIndex index, final boolean failFast) {
+    this.session = session;
+    this.index = index;
+    this.failFast = failFast;
+  }
+
+  /**
+   * Returns the index of the reactor being validated.
+   *
+   * @return never null.
+   */
+  public ReactorIndex getIndex() {
+    return this.index;
+  }
+
+  /**
+   * Returns the release projects in the reactor that are ancestors of a
+   * SNAPSHOT project. This is computed from the index the first time it is
+   * needed, so that any number of rules can use it without walking the
+   * reactor again.
+   *
+   * @return never null. Must not be modified.
+   * @see ReactorIndex#findReleaseAncestorsOfSnapshots()
+   */
+  public BitSet getReleaseAncestorsOfSnapshots() {
+    if (this.releaseAncestorsOfSnapshots == null) {
+      this.releaseAncestorsOfSnapshots = this.index
+          .findReleaseAncestorsOfSnapshots();
+    }
+    return this.releaseAncestorsOfSnapshots;
+  }
+
+  /**
+   * Returns the session being validated.
+   *
+   * @return never null.
+   */
+  public MavenSession getSession() {
+    return this.session;
+  }
+
+  /**
+   * Returns the violations reported so far, in the order in which they were
+   * reported.
+   *
+   * @return never null, may be empty. Unmodifiable.
+   */
+  public List<String> getViolations() {
+    return Collections.unmodifiableList(this.violations);
+  }
+
+  /**
+   * Indicates whether or not validation should stop, because a violation has
+   * been reported and validation stops at the first violation.
+   *
+   * @return true if no more rules should be applied, false otherwise.
+   */
+  public boolean isStopped() {
+    return this.failFast && !this.violations.isEmpty();
+  }
+
+  /**
+   * Reports a violation. Ignored if validation has already stopped.
+   *
+   * @param violation
+   *          a description of the violation. Not null.
+   */
+  public void report(final String violation) {
+    if (!this.isStopped()) {
+      this.violations.add(violation);
+    }
+  }
+}
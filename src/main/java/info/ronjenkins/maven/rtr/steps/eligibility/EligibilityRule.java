@@ -0,0 +1,48 @@
+/*
+ * Copyright (C) 2016 Ronald Jack Jenkins Jr.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package info.ronjenkins.maven.rtr.steps.eligibility;
+
+/**
+ * A rule that the reactor must satisfy to become a Smart Reactor.
+ *
+ * <p>
+ * Every rule is applied during a single traversal of the reactor: each rule is
+ * started once, and then each project is visited by every rule in turn before
+ * the next project is visited. Additional rules can be plugged in by declaring
+ * Plexus components with this role.
+ *
+ * @author Ronald Jack Jenkins Jr.
+ */
+public interface EligibilityRule {
+  /**
+   * Applies this rule to the session as a whole, before any project is
+   * visited.
+   *
+   * @param context
+   *          to which any violations are reported. Not null.
+   */
+  public void start(final EligibilityContext context);
+
+  /**
+   * Applies this rule to a single project in the reactor.
+   *
+   * @param context
+   *          to which any violations are reported. Not null.
+   * @param id
+   *          the id of the project in {@link EligibilityContext#getIndex()}.
+   */
+  public void visit(final EligibilityContext context, final int id);
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright (C) 2016 Ronald Jack Jenkins Jr.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package info.ronjenkins.maven.rtr.steps.eligibility;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Applies a list of eligibility rules to the reactor in a single traversal.
+ *
+ * @author Ronald Jack Jenkins Jr.
+ */
+public final class EligibilityValidator {
+  /**
+   * Returns the rules that every reactor must satisfy, in the order in which
+   * they are applied.
+   *
+   * @param forbiddenPlugins
+   *          the plugins to forbid in addition to the Maven Release Plugin.
+   *          May be null.
+   * @return never null. Mutable, so that more rules may be added.
+   * @throws IllegalArgumentException
+   *           if any forbidden plugin is malformed.
+   * @see ForbiddenPluginRule#ForbiddenPluginRule(String)
+   */
+  public static List<EligibilityRule> getStandardRules(
+      final String forbiddenPlugins) {
+    final List<EligibilityRule> rules = new ArrayList<>();
+    rules.add(new ReleasePluginGoalRule());
+    rules.add(new SnapshotRootRule());
+    rules.add(new ForbiddenPluginRule(forbiddenPlugins));
+    rules.add(new ReleaseAncestorRule());
+    return rules;
+  }
+
+  private final List<EligibilityRule> rules;
+
+  /**
+   * Constructor.
+   *
+   * @param rules
+   *          in the order in which they are applied. Not null.
+   */
+  public EligibilityValidator(final List<EligibilityRule> rules) {
+    this.rules = Collections
+        .unmodifiableList(new ArrayList<EligibilityRule>(rules));
+  }
+
+  /**
+   * Starts every rule, and then visits every project in reactor order with
+   * every rule, stopping as soon as the given context says so.
+   *
+   * @param context
+   *          not null.
+   * @return the violations reported to the context. Never null, may be empty.
+   */
+  public List<String> validate(final EligibilityContext context) {
+    for (final EligibilityRule rule : this.rules) {
+      rule.start(context);
+      if (context.isStopped()) {
+        return context.getViolations();
+      }
+    }
+    final int size = context.getIndex().size();
+    for (int id = 0; id < size; id++) {
+      for (final EligibilityRule rule : this.rules) {
+        rule.visit(context, id);
+        if (context.isStopped()) {
+          return context.getViolations();
+        }
+      }
+    }
+    return context.getViolations();
+  }
+}
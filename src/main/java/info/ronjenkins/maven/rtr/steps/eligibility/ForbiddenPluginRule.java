@@ -0,0 +1,105 @@
+/*
+ * Copyright (C) 2016 Ronald Jack Jenkins Jr.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package info.ronjenkins.maven.rtr.steps.eligibility;
+
+import info.ronjenkins.maven.rtr.RTRConfig;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.apache.maven.model.Plugin;
+import org.apache.maven.project.MavenProject;
+
+/**
+ * Ensures that no project in the reactor declares a forbidden plugin. The
+ * Maven Release Plugin is always forbidden.
+ *
+ * <p>
+ * Plugins are read from the build section of each project's model, so no
+ * plugin artifacts are created. Managed plugins are not checked: the Maven
+ * super POM manages the Maven Release Plugin for every project, and a managed
+ * plugin is never executed unless it is also declared.
+ *
+ * @author Ronald Jack Jenkins Jr.
+ */
+public final class ForbiddenPluginRule extends AbstractEligibilityRule {
+  private static final String MAVEN_RELEASE_PLUGIN = "org.apache.maven.plugins:maven-release-plugin";
+
+  private final Set<String>   forbiddenPlugins;
+
+  /**
+   * Constructor.
+   *
+   * @param forbiddenPlugins
+   *          a comma-separated list of {@code groupId:artifactId} coordinates
+   *          to forbid in addition to the Maven Release Plugin. May be null.
+   * @throws IllegalArgumentException
+   *           if any coordinate is malformed.
+   * @see RTRConfig#getForbiddenPlugins(org.apache.maven.execution.MavenSession,
+   *      MavenProject)
+   */
+  public ForbiddenPluginRule(final String forbiddenPlugins) {
+    final Set<String> plugins = new HashSet<>();
+    plugins.add(ForbiddenPluginRule.MAVEN_RELEASE_PLUGIN);
+    if (forbiddenPlugins != null) {
+      for (final String entry : forbiddenPlugins.split(",")) {
+        final String key = entry.trim();
+        if (key.isEmpty()) {
+          continue;
+        }
+        final int separator = key.indexOf(':');
+        if (separator <= 0 || separator == key.length() - 1
+            || key.indexOf(':', separator + 1) >= 0) {
+          throw new IllegalArgumentException("Property \""
+              + RTRConfig.PROP_FORBIDDEN_PLUGINS
+              + "\" must contain groupId:artifactId coordinates, not \"" + key
+              + "\".");
+        }
+        plugins.add(key);
+      }
+    }
+    this.forbiddenPlugins = Collections.unmodifiableSet(plugins);
+  }
+
+  /**
+   * Returns the forbidden plugins.
+   *
+   * @return never null. Contains at least the Maven Release Plugin.
+   */
+  public Set<String> getForbiddenPlugins() {
+    return this.forbiddenPlugins;
+  }
+
+  @Override
+  public void visit(final EligibilityContext context, final int id) {
+    final MavenProject project = context.getIndex().getProject(id);
+    for (final Plugin plugin : project.getBuildPlugins()) {
+      final String key = plugin.getKey();
+      if (!this.forbiddenPlugins.contains(key)) {
+        continue;
+      }
+      if (key.equals(ForbiddenPluginRule.MAVEN_RELEASE_PLUGIN)) {
+        context.report("Project " + project
+            + " contains a reference to the Maven Release Plugin.");
+      }
+      else {
+        context.report("Project " + project
+            + " contains a reference to the forbidden plugin " + key + ".");
+      }
+    }
+  }
+}
@@ -0,0 +1,34 @@
+/*
+ * Copyright (C) 2016 Ronald Jack Jenkins Jr.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package info.ronjenkins.maven.rtr.steps.eligibility;
+
+/**
+ * Ensures that the Maven Release Plugin is not in the list of goals.
+ *
+ * @author Ronald Jack Jenkins Jr.
+ */
+public final class ReleasePluginGoalRule extends AbstractEligibilityRule {
+  @Override
+  public void start(final EligibilityContext context) {
+    for (final String goal : context.getSession().getGoals()) {
+      if (goal.startsWith("release:")
+          || goal.startsWith("org.apache.maven.plugins:maven-release-plugin:")) {
+        context.report("A goal from the Maven Release Plugin was specified for execution: "
+            + goal);
+      }
+    }
+  }
+}
@@ -0,0 +1,38 @@
+/*
+ * Copyright (C) 2016 Ronald Jack Jenkins Jr.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package info.ronjenkins.maven.rtr.steps.eligibility;
+
+import info.ronjenkins.maven.rtr.reactor.ReactorIndex;
+
+import org.apache.maven.project.MavenProject;
+
+/**
+ * Ensures that the top-level project is a SNAPSHOT.
+ *
+ * @author Ronald Jack Jenkins Jr.
+ */
+public final class SnapshotRootRule extends AbstractEligibilityRule {
+  @Override
+  public void start(final EligibilityContext context) {
+    final ReactorIndex index = context.getIndex();
+    final MavenProject root = context.getSession().getTopLevelProject();
+    final int rootId = index.getId(root);
+    if (rootId < 0 ? !root.getArtifact().isSnapshot() : !index
+        .isSnapshot(rootId)) {
+      context.report("Top-level project " + root + " is not a SNAPSHOT.");
+    }
+  }
+}
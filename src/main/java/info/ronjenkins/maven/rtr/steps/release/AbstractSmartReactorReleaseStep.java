@@ -19,6 +19,7 @@ import info.ronjenkins.maven.rtr.RTR;
 import info.ronjenkins.maven.rtr.RTRComponents;
 import info.ronjenkins.maven.rtr.exceptions.SmartReactorReleaseException;
 import info.ronjenkins.maven.rtr.steps.AbstractSmartReactorStep;
+import info.ronjenkins.maven.rtr.timing.ExecutionTimings;
 
 import java.util.List;
 import java.util.Map;
@@ -116,15 +117,17 @@ public abstract class AbstractSmartReactorReleaseStep extends
       final RTRComponents components) throws MavenExecutionException {
     this.releaseEnvironment.setSettings(session.getSettings());
     final List<MavenProject> reactor = session.getProjects();
+    final ExecutionTimings timings = components == null ? null : components
+        .getTimings();
     // Execute the release steps.
     try {
-      this.runPhases(reactor, this.getReleasePhases());
+      this.runPhases(reactor, this.getReleasePhases(), timings);
     }
     catch (final MavenExecutionException | RuntimeException e) {
       // Rollback if ANY exception occurred, then rethrow.
       this.logger.error("Rolling back release due to error...");
       try {
-        this.runPhases(reactor, this.getRollbackPhases());
+        this.runPhases(reactor, this.getRollbackPhases(), timings);
       }
       catch (final MavenExecutionException | RuntimeException e2) {
         // Suppress this exception.
@@ -139,7 +142,8 @@ public abstract class AbstractSmartReactorReleaseStep extends
   // Derived from DefaultReleaseManager.java in maven-release-manager, see
   // THIRDPARTY file for further legal information.
   private final void runPhases(final List<MavenProject> reactor,
-      final List<String> phases) throws MavenExecutionException {
+      final List<String> phases, final ExecutionTimings timings)
+      throws MavenExecutionException {
     ReleasePhase phase;
     ReleaseResult result;
     for (final String name : phases) {
@@ -148,6 +152,8 @@ public abstract class AbstractSmartReactorReleaseStep extends
         throw new SmartReactorReleaseException("Unable to find phase '" + name
             + "' to execute");
       }
+      final ExecutionTimings.Sample sample = timings == null ? null : timings
+          .start("phase", name);
       try {
         result = phase.execute(this.releaseDescriptor, this.releaseEnvironment,
             reactor);
@@ -155,6 +161,11 @@ public abstract class AbstractSmartReactorReleaseStep extends
       catch (final ReleaseExecutionException | ReleaseFailureException e) {
         throw new SmartReactorReleaseException(e);
       }
+      finally {
+        if (sample != null) {
+          timings.stop(sample);
+        }
+      }
       if (result.getResultCode() == ReleaseResult.ERROR) {
         throw new SmartReactorReleaseException(result.getOutput());
       }
@@ -15,24 +15,47 @@
  */
 package info.ronjenkins.maven.rtr.steps.release;
 
+import info.ronjenkins.maven.rtr.ParallelTasks;
 import info.ronjenkins.maven.rtr.RTRComponents;
 import info.ronjenkins.maven.rtr.exceptions.SmartReactorReleaseException;
+import info.ronjenkins.maven.rtr.reactor.ImportedBoms;
+import info.ronjenkins.maven.rtr.reactor.PomDigests;
+import info.ronjenkins.maven.rtr.reactor.ReactorIndex;
 import info.ronjenkins.maven.rtr.steps.SmartReactorStep;
 
 import java.io.File;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import org.apache.maven.MavenExecutionException;
 import org.apache.maven.execution.MavenSession;
+import org.apache.maven.model.Dependency;
+import org.apache.maven.model.building.ModelProblem;
+import org.apache.maven.project.DefaultProjectBuildingRequest;
 import org.apache.maven.project.MavenProject;
 import org.apache.maven.project.ProjectBuilder;
 import org.apache.maven.project.ProjectBuildingException;
+import org.apache.maven.project.ProjectBuildingRequest;
 import org.apache.maven.project.ProjectBuildingResult;
 import org.codehaus.plexus.component.annotations.Component;
 
 /**
  * Rebuilds the release reactor to take POM filesystem changes into account.
+ * POMs are reloaded one at a time unless batch reload is enabled, in which
+ * case they are all handed to the project builder at once so that shared
+ * parents and imports are processed only once, or unless more than one reload
+ * thread is configured, in which case they are reloaded concurrently.
+ *
+ * <p>
+ * If only changed POMs should be reloaded, projects whose POMs were not
+ * rewritten and whose in-reactor parents and imported BOMs were not reloaded
+ * are kept as-is. If
+ * the reactor was transformed in memory, nothing is reloaded.
  *
  * @author Ronald Jack Jenkins Jr.
  */
@@ -56,31 +79,243 @@ public class RebuildReleaseReactor extends AbstractSmartReactorReleaseStep {
   @Override
   protected void releaseExecute(final MavenSession session,
       final RTRComponents components) throws MavenExecutionException {
+    if (this.rtr.isInMemoryTransform()) {
+      this.logger
+          .info("Release versions were applied in memory; nothing to reload.");
+      return;
+    }
+    // Unlike the other release steps, this one can't do without the
+    // components: it needs their project builder.
+    if (components == null) {
+      throw new SmartReactorReleaseException(
+          "Cannot reload POMs without the Smart Reactor's components.");
+    }
     final List<MavenProject> reactor = session.getProjects();
-    final List<MavenProject> newReactor = new ArrayList<>(reactor.size());
+    final List<MavenProject> staleProjects;
+    final Map<File, String> digests = components.getReleasePomDigests();
+    if (this.rtr.isReloadChangedPomsOnly() && digests != null) {
+      staleProjects = this.findChangedProjects(reactor, digests);
+      this.logger.info("Reloading " + staleProjects.size() + " of "
+          + reactor.size() + " POMs...");
+    }
+    else {
+      staleProjects = reactor;
+    }
     final ProjectBuilder projectBuilder = components.getProjectBuilder();
-    File pomFile;
-    ProjectBuildingResult result;
+    final ProjectBuildingRequest request = session.getProjectBuildingRequest();
+    final int threads = Math.min(this.rtr.getReloadThreads(),
+        staleProjects.size());
+    final List<MavenProject> reloadedProjects;
+    if (staleProjects.isEmpty()) {
+      reloadedProjects = new ArrayList<>();
+    }
+    else if (this.rtr.isBatchReload()) {
+      reloadedProjects = this.reloadInBatch(staleProjects, projectBuilder,
+          request);
+    }
+    else if (threads > 1) {
+      reloadedProjects = this.reloadConcurrently(staleProjects,
+          projectBuilder, request, threads);
+    }
+    else {
+      reloadedProjects = this.reloadSequentially(staleProjects,
+          projectBuilder, request);
+    }
+    final Map<MavenProject, MavenProject> replacements = new IdentityHashMap<>(
+        reactor.size());
+    MavenProject project;
     MavenProject newProject;
-    for (final MavenProject project : reactor) {
-      pomFile = project.getFile();
-      try {
-        result = projectBuilder.build(pomFile,
-            session.getProjectBuildingRequest());
-      }
-      catch (final ProjectBuildingException e) {
-        this.logger.error("");
-        throw new SmartReactorReleaseException(e);
-      }
-      newProject = result.getProject();
+    for (int i = 0; i < staleProjects.size(); i++) {
+      project = staleProjects.get(i);
+      newProject = reloadedProjects.get(i);
       if (project.isExecutionRoot()) {
         newProject.setExecutionRoot(true);
       }
-      newReactor.add(newProject);
+      replacements.put(project, newProject);
+    }
+    final List<MavenProject> newReactor = new ArrayList<>(reactor.size());
+    for (final MavenProject oldProject : reactor) {
+      newProject = replacements.get(oldProject);
+      newReactor.add(newProject == null ? oldProject : newProject);
+    }
+    // Keep the reactor index pointed at the live project instances.
+    final ReactorIndex index = components.getReactorIndex();
+    if (index != null) {
+      components.setReactorIndex(index.remap(replacements));
     }
     // Set the new list of projects, but don't replace the actual list
     // object.
     session.getProjects().clear();
     session.getProjects().addAll(newReactor);
   }
+
+  /*
+   * Returns the projects whose POMs changed since the given digests were
+   * taken, plus the in-reactor projects that inherit from them via <parent>
+   * or import them as BOMs, in reactor order.
+   */
+  private List<MavenProject> findChangedProjects(
+      final List<MavenProject> reactor, final Map<File, String> digests) {
+    final Set<MavenProject> stale = Collections
+        .newSetFromMap(new IdentityHashMap<MavenProject, Boolean>());
+    final Map<String, MavenProject> projectsByKey = new HashMap<>();
+    for (final MavenProject project : reactor) {
+      projectsByKey.put(project.getGroupId() + ":" + project.getArtifactId(),
+          project);
+      final File pomFile = project.getFile();
+      final String before = digests.get(pomFile);
+      if (before == null || !before.equals(PomDigests.digest(pomFile))) {
+        stale.add(project);
+      }
+    }
+    // BOMs need not precede their importers in the reactor, so propagate
+    // until nothing changes.
+    boolean changed = !stale.isEmpty();
+    while (changed) {
+      changed = false;
+      for (final MavenProject project : reactor) {
+        if (!stale.contains(project)
+            && RebuildReleaseReactor.dependsOnStalePom(project, stale,
+                projectsByKey)) {
+          stale.add(project);
+          changed = true;
+        }
+      }
+    }
+    final List<MavenProject> staleProjects = new ArrayList<>(stale.size());
+    for (final MavenProject project : reactor) {
+      if (stale.contains(project)) {
+        staleProjects.add(project);
+      }
+    }
+    return staleProjects;
+  }
+
+  /*
+   * A project's effective model is stale if its parent is, or if it or any
+   * of its parents imports a stale BOM.
+   */
+  private static boolean dependsOnStalePom(final MavenProject project,
+      final Set<MavenProject> stale,
+      final Map<String, MavenProject> projectsByKey) {
+    final MavenProject parent = project.getParent();
+    if (parent != null && stale.contains(parent)) {
+      return true;
+    }
+    for (MavenProject current = project; current != null; current = current
+        .getParent()) {
+      for (final Dependency bom : ImportedBoms.list(
+          current.getOriginalModel(), project.getProperties())) {
+        final MavenProject bomProject = projectsByKey.get(bom.getGroupId()
+            + ":" + bom.getArtifactId());
+        if (bomProject != null && stale.contains(bomProject)) {
+          return true;
+        }
+      }
+    }
+    return false;
+  }
+
+  private List<MavenProject> reloadInBatch(final List<MavenProject> reactor,
+      final ProjectBuilder projectBuilder, final ProjectBuildingRequest request)
+      throws MavenExecutionException {
+    final List<File> pomFiles = new ArrayList<>(reactor.size());
+    for (final MavenProject project : reactor) {
+      pomFiles.add(project.getFile());
+    }
+    final List<ProjectBuildingResult> results;
+    try {
+      results = projectBuilder.build(pomFiles, false, request);
+    }
+    catch (final ProjectBuildingException e) {
+      this.logger.error("");
+      if (e.getResults() != null) {
+        for (final ProjectBuildingResult result : e.getResults()) {
+          for (final ModelProblem problem : result.getProblems()) {
+            if (problem.getSeverity() != ModelProblem.Severity.WARNING) {
+              this.logger.error(result.getProjectId() + ": "
+                  + problem.getMessage());
+            }
+          }
+        }
+        this.logger.error("");
+      }
+      throw new SmartReactorReleaseException(e);
+    }
+    // Match results to the reactor by POM file, in reactor order.
+    final Map<File, MavenProject> projectsByPom = new HashMap<>();
+    for (final ProjectBuildingResult result : results) {
+      projectsByPom.put(result.getPomFile(), result.getProject());
+    }
+    final List<MavenProject> newReactor = new ArrayList<>(reactor.size());
+    MavenProject newProject;
+    for (final File pomFile : pomFiles) {
+      newProject = projectsByPom.get(pomFile);
+      if (newProject == null) {
+        this.logger.error("");
+        throw new SmartReactorReleaseException("No project was loaded from "
+            + pomFile);
+      }
+      newReactor.add(newProject);
+    }
+    return newReactor;
+  }
+
+  private List<MavenProject> reloadConcurrently(
+      final List<MavenProject> reactor, final ProjectBuilder projectBuilder,
+      final ProjectBuildingRequest request, final int threads)
+      throws MavenExecutionException {
+    final List<Exception> failures = new ArrayList<>();
+    final List<ProjectBuildingResult> results;
+    try {
+      results = ParallelTasks.applyToAll(reactor, threads,
+          new ParallelTasks.Task<MavenProject, ProjectBuildingResult>() {
+            @Override
+            public ProjectBuildingResult apply(final MavenProject project)
+                throws ProjectBuildingException {
+              // Each build gets its own copy of the request, which is
+              // mutable.
+              return projectBuilder.build(project.getFile(),
+                  new DefaultProjectBuildingRequest(request));
+            }
+          }, failures);
+    }
+    catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+      this.logger.error("");
+      throw new SmartReactorReleaseException(e);
+    }
+    if (!failures.isEmpty()) {
+      this.logger.error("");
+      for (final Exception failure : failures) {
+        this.logger.error(failure.getMessage());
+      }
+      this.logger.error("");
+      throw ParallelTasks.suppressRest(new SmartReactorReleaseException(
+          failures.get(0)), failures);
+    }
+    final List<MavenProject> newReactor = new ArrayList<>(reactor.size());
+    for (final ProjectBuildingResult result : results) {
+      newReactor.add(result.getProject());
+    }
+    return newReactor;
+  }
+
+  private List<MavenProject> reloadSequentially(
+      final List<MavenProject> reactor, final ProjectBuilder projectBuilder,
+      final ProjectBuildingRequest request) throws MavenExecutionException {
+    final List<MavenProject> newReactor = new ArrayList<>(reactor.size());
+    ProjectBuildingResult result;
+    for (final MavenProject project : reactor) {
+      try {
+        result = projectBuilder.build(project.getFile(), request);
+      }
+      catch (final ProjectBuildingException e) {
+        this.logger.error("");
+        throw new SmartReactorReleaseException(e);
+      }
+      newReactor.add(result.getProject());
+    }
+    return newReactor;
+  }
 }
@@ -16,53 +16,62 @@
 package info.ronjenkins.maven.rtr.steps.release;
 
 import info.ronjenkins.maven.rtr.RTRComponents;
-import info.ronjenkins.maven.rtr.RTRConfig;
+import info.ronjenkins.maven.rtr.RTRSettings;
+import info.ronjenkins.maven.rtr.reactor.PomDigests;
+import info.ronjenkins.maven.rtr.reactor.ReleaseVersionPatcher;
+import info.ronjenkins.maven.rtr.steps.AbstractSmartReactorStep;
 import info.ronjenkins.maven.rtr.steps.SmartReactorStep;
 
+import java.util.ArrayList;
 import java.util.List;
 
+import org.apache.maven.MavenExecutionException;
 import org.apache.maven.execution.MavenSession;
-import org.apache.maven.project.MavenProject;
 import org.codehaus.plexus.component.annotations.Component;
 
 /**
  * Transforms all projects in the Smart Reactor from SNAPSHOTs to non-SNAPSHOTs.
+ * POMs are always rewritten on disk; if in-memory transformation is enabled,
+ * the release versions are also applied to the projects in the reactor so
+ * that they need not be reloaded. If streaming rewrite is enabled, POMs are
+ * rewritten by the {@code stream-rewrite-poms-for-release} phase instead of
+ * the {@code rewrite-poms-for-release} phase.
  *
  * @author Ronald Jack Jenkins Jr.
  */
 @Component(role = SmartReactorStep.class, hint = "transform-poms")
 public class TransformProjectsIntoReleases extends
     AbstractSmartReactorReleaseStep {
-  private List<String> releasePhases;
-  private List<String> rollbackPhases;
+  private static final String REWRITE_PHASE        = "rewrite-poms-for-release";
+  private static final String STREAM_REWRITE_PHASE = "stream-rewrite-poms-for-release";
+  private List<String>        releasePhases;
+  private List<String>        rollbackPhases;
 
   @Override
   protected void configureReleaseDescriptor(final MavenSession session,
       final RTRComponents components) {
-    final MavenProject executionRoot = session.getTopLevelProject();
-    this.releaseDescriptor.setAddSchema(RTRConfig.isAddSchema(session,
-        executionRoot));
-    this.releaseDescriptor.setAllowTimestampedSnapshots(RTRConfig
-        .isAllowTimestampedSnapshots(session, executionRoot));
-    this.releaseDescriptor.setAutoVersionSubmodules(RTRConfig
-        .isAutoVersionSubmodules(session, executionRoot));
-    this.releaseDescriptor.setProjectVersionPolicyId(RTRConfig
-        .getProjectVersionPolicyId(session, executionRoot));
-    final String releaseVersion = RTRConfig.getReleaseVersion(session,
-        executionRoot);
+    final RTRSettings settings = AbstractSmartReactorStep.getSettings(session,
+        components);
+    this.releaseDescriptor.setAddSchema(settings.isAddSchema());
+    this.releaseDescriptor.setAllowTimestampedSnapshots(settings
+        .isAllowTimestampedSnapshots());
+    this.releaseDescriptor.setAutoVersionSubmodules(settings
+        .isAutoVersionSubmodules());
+    this.releaseDescriptor.setProjectVersionPolicyId(settings
+        .getProjectVersionPolicyId());
+    final String releaseVersion = settings.getReleaseVersion();
     if (releaseVersion != null) {
       this.releaseDescriptor.setDefaultReleaseVersion(releaseVersion);
     }
-    final String tag = RTRConfig.getTag(session, executionRoot);
+    final String tag = settings.getTag();
     if (tag != null) {
       this.releaseDescriptor.setScmReleaseLabel(tag);
     }
-    final String tagBase = RTRConfig.getTagBase(session, executionRoot);
+    final String tagBase = settings.getTagBase();
     if (tagBase != null) {
       this.releaseDescriptor.setScmTagBase(tagBase);
     }
-    final String tagNameFormat = RTRConfig.getTagNameFormat(session,
-        executionRoot);
+    final String tagNameFormat = settings.getTagNameFormat();
     if (tagNameFormat != null) {
       this.releaseDescriptor.setScmTagNameFormat(tagNameFormat);
     }
@@ -75,11 +84,40 @@ public class TransformProjectsIntoReleases extends
 
   @Override
   protected List<String> getReleasePhases() {
-    return this.releasePhases;
+    if (!this.rtr.isStreamingRewrite()) {
+      return this.releasePhases;
+    }
+    final List<String> phases = new ArrayList<>(this.releasePhases);
+    final int index = phases
+        .indexOf(TransformProjectsIntoReleases.REWRITE_PHASE);
+    if (index >= 0) {
+      phases.set(index, TransformProjectsIntoReleases.STREAM_REWRITE_PHASE);
+    }
+    return phases;
   }
 
   @Override
   protected List<String> getRollbackPhases() {
     return this.rollbackPhases;
   }
+
+  @Override
+  protected void releaseExecute(final MavenSession session,
+      final RTRComponents components) throws MavenExecutionException {
+    // Remember the original POM contents so that the reactor rebuild can tell
+    // which POMs were rewritten.
+    if (components != null && this.rtr.isReloadChangedPomsOnly()
+        && !this.rtr.isInMemoryTransform()) {
+      components.setReleasePomDigests(PomDigests.digestPoms(session
+          .getProjects()));
+    }
+    super.releaseExecute(session, components);
+    if (this.rtr.isInMemoryTransform()) {
+      final int patched = ReleaseVersionPatcher.patch(session.getProjects(),
+          this.releaseDescriptor.getReleaseVersions());
+      ReleaseVersionPatcher.reindex(session.getProjectMap());
+      this.logger.debug("Applied release versions to " + patched
+          + " projects in memory.");
+    }
+  }
 }
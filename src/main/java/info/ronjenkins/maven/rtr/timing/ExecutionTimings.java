@@ -0,0 +1,269 @@
+/*
+ * Copyright (C) 2016 Ronald Jack Jenkins Jr.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package info.ronjenkins.maven.rtr.timing;
+
+import info.ronjenkins.maven.rtr.Json;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+
+import org.apache.commons.lang.Validate;
+
+/**
+ * Records the wall time, CPU time and allocated bytes of Smart Reactor work
+ * (lifecycle callbacks, steps and release phases) and writes them as a JSON
+ * report.
+ *
+ * <p>
+ * Samples nest: a sample started while another is open becomes its child.
+ * CPU time and allocated bytes are measured for the calling thread only, so
+ * work handed off to other threads is reflected in wall time alone. Either
+ * measurement is reported as -1 if the JVM does not support it.
+ *
+ * <p>
+ * Instances are not thread-safe; samples must be started and stopped on one
+ * thread, in last-in first-out order.
+ *
+ * @author Ronald Jack Jenkins Jr.
+ */
+public final class ExecutionTimings {
+  /**
+   * A single measurement.
+   */
+  public static final class Sample {
+    private final String kind;
+    private final String name;
+    private final String parent;
+    private final long   startWall;
+    private final long   startCpu;
+    private final long   startAllocated;
+    private long         wallNanos      = -1;
+    private long         cpuNanos       = -1;
+    private long         allocatedBytes = -1;
+
+    private Sample(final String kind, final String name, final String parent,
+        final long startWall, final long startCpu, final long startAllocated) {
+      this.kind = kind;
+      this.name = name;
+      this.parent = parent;
+      this.startWall = startWall;
+      this.startCpu = startCpu;
+      this.startAllocated = startAllocated;
+    }
+
+    /**
+     * Returns the bytes allocated by the calling thread while this sample was
+     * open.
+     *
+     * @return -1 if unsupported or still open.
+     */
+    public long getAllocatedBytes() {
+      return this.allocatedBytes;
+    }
+
+    /**
+     * Returns the CPU time used by the calling thread while this sample was
+     * open.
+     *
+     * @return -1 if unsupported or still open.
+     */
+    public long getCpuNanos() {
+      return this.cpuNanos;
+    }
+
+    /**
+     * Returns the kind of this sample, e.g. "step" or "phase".
+     *
+     * @return never null.
+     */
+    public String getKind() {
+      return this.kind;
+    }
+
+    /**
+     * Returns the name of this sample.
+     *
+     * @return never null.
+     */
+    public String getName() {
+      return this.name;
+    }
+
+    /**
+     * Returns the name of the sample that was open when this sample started.
+     *
+     * @return null if this is a top-level sample.
+     */
+    public String getParent() {
+      return this.parent;
+    }
+
+    /**
+     * Returns the elapsed time while this sample was open.
+     *
+     * @return -1 if still open.
+     */
+    public long getWallNanos() {
+      return this.wallNanos;
+    }
+  }
+
+  private final ThreadMXBean  threads;
+  private final boolean       cpuTimeSupported;
+  private final boolean       allocatedBytesSupported;
+  private final List<Sample>  samples = new ArrayList<>();
+  private final Deque<Sample> open    = new ArrayDeque<>();
+
+  /**
+   * Constructor.
+   */
+  public ExecutionTimings() {
+    this.threads = ManagementFactory.getThreadMXBean();
+    this.cpuTimeSupported = this.threads.isCurrentThreadCpuTimeSupported()
+        && this.threads.isThreadCpuTimeEnabled();
+    // Allocation tracking is a HotSpot extension.
+    if (this.threads instanceof com.sun.management.ThreadMXBean) {
+      final com.sun.management.ThreadMXBean hotSpotThreads = (com.sun.management.ThreadMXBean) this.threads;
+      this.allocatedBytesSupported = hotSpotThreads
+          .isThreadAllocatedMemorySupported()
+          && hotSpotThreads.isThreadAllocatedMemoryEnabled();
+    }
+    else {
+      this.allocatedBytesSupported = false;
+    }
+  }
+
+  /**
+   * Returns all samples, in the order they were started.
+   *
+   * @return never null, unmodifiable.
+   */
+  public List<Sample> getSamples() {
+    return Collections.unmodifiableList(this.samples);
+  }
+
+  /**
+   * Opens a new sample.
+   *
+   * @param kind
+   *          e.g. "step" or "phase". Not null.
+   * @param name
+   *          not null.
+   * @return the sample, which must be passed to {@link #stop(Sample)}.
+   */
+  public Sample start(final String kind, final String name) {
+    Validate.notNull(kind, "Kind is null");
+    Validate.notNull(name, "Name is null");
+    final Sample parent = this.open.peek();
+    final Sample sample = new Sample(kind, name, parent == null ? null
+        : parent.name, System.nanoTime(), this.cpuTime(),
+        this.allocatedBytes());
+    this.samples.add(sample);
+    this.open.push(sample);
+    return sample;
+  }
+
+  /**
+   * Closes the given sample, which must be the most recently opened one.
+   *
+   * @param sample
+   *          not null.
+   * @throws IllegalStateException
+   *           if the sample is not the most recently opened one.
+   */
+  public void stop(final Sample sample) {
+    Validate.notNull(sample, "Sample is null");
+    if (this.open.peek() != sample) {
+      throw new IllegalStateException("Sample " + sample.name
+          + " is not the most recently started sample");
+    }
+    this.open.pop();
+    sample.wallNanos = System.nanoTime() - sample.startWall;
+    if (this.cpuTimeSupported) {
+      sample.cpuNanos = this.cpuTime() - sample.startCpu;
+    }
+    if (this.allocatedBytesSupported) {
+      sample.allocatedBytes = this.allocatedBytes() - sample.startAllocated;
+    }
+  }
+
+  /**
+   * Returns the samples as a JSON document.
+   *
+   * @return never null.
+   */
+  public String toJson() {
+    final StringBuilder json = new StringBuilder();
+    json.append("{\n  \"cpuTimeSupported\": ").append(this.cpuTimeSupported)
+        .append(",\n  \"allocatedBytesSupported\": ")
+        .append(this.allocatedBytesSupported).append(",\n  \"samples\": [");
+    for (int i = 0; i < this.samples.size(); i++) {
+      final Sample sample = this.samples.get(i);
+      json.append(i == 0 ? "\n" : ",\n").append("    {\"kind\": ");
+      Json.appendString(json, sample.kind);
+      json.append(", \"name\": ");
+      Json.appendString(json, sample.name);
+      json.append(", \"parent\": ");
+      Json.appendString(json, sample.parent);
+      json.append(", \"wallNanos\": ").append(sample.wallNanos)
+          .append(", \"cpuNanos\": ").append(sample.cpuNanos)
+          .append(", \"allocatedBytes\": ").append(sample.allocatedBytes)
+          .append('}');
+    }
+    json.append(this.samples.isEmpty() ? "]\n}\n" : "\n  ]\n}\n");
+    return json.toString();
+  }
+
+  /**
+   * Writes the samples as a JSON document to the given file, creating parent
+   * directories as needed.
+   *
+   * @param file
+   *          not null.
+   * @throws IOException
+   *           if the file cannot be written.
+   */
+  public void write(final File file) throws IOException {
+    Validate.notNull(file, "File is null");
+    Files.createDirectories(file.getAbsoluteFile().getParentFile().toPath());
+    try (final Writer writer = Files.newBufferedWriter(file.toPath(),
+        StandardCharsets.UTF_8)) {
+      writer.write(this.toJson());
+    }
+  }
+
+  private long allocatedBytes() {
+    if (!this.allocatedBytesSupported) {
+      return -1;
+    }
+    return ((com.sun.management.ThreadMXBean) this.threads)
+        .getThreadAllocatedBytes(Thread.currentThread().getId());
+  }
+
+  private long cpuTime() {
+    return this.cpuTimeSupported ? this.threads.getCurrentThreadCpuTime() : -1;
+  }
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright (C) 2016 Ronald Jack Jenkins Jr.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package info.ronjenkins.maven.rtr;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public final class ParallelTasksTest {
+  private static final ParallelTasks.Task<Integer, Integer> SQUARE_ODD = new ParallelTasks.Task<Integer, Integer>() {
+    @Override
+    public Integer apply(final Integer input) throws IOException {
+      if (input % 2 == 0) {
+        throw new IOException(String.valueOf(input));
+      }
+      return input * input;
+    }
+  };
+
+  private static void assertResults(final int threads)
+      throws InterruptedException {
+    final List<Exception> failures = new ArrayList<>();
+    final List<Integer> results = ParallelTasks.applyToAll(
+        Arrays.asList(1, 2, 3, 4, 5), threads, ParallelTasksTest.SQUARE_ODD,
+        failures);
+    Assert.assertEquals(Arrays.asList(1, null, 9, null, 25), results);
+    Assert.assertEquals(2, failures.size());
+    Assert.assertEquals("2", failures.get(0).getMessage());
+    Assert.assertEquals("4", failures.get(1).getMessage());
+  }
+
+  @Test
+  public void concurrentResultsKeepInputOrder() throws InterruptedException {
+    ParallelTasksTest.assertResults(3);
+  }
+
+  @Test
+  public void sequentialResultsKeepInputOrder() throws InterruptedException {
+    ParallelTasksTest.assertResults(1);
+  }
+
+  @Test
+  public void uncheckedFailuresAreGathered() throws InterruptedException {
+    final List<Exception> failures = new ArrayList<>();
+    ParallelTasks.applyToAll(Arrays.asList(1, 2), 1,
+        new ParallelTasks.Task<Integer, Void>() {
+          @Override
+          public Void apply(final Integer input) {
+            throw new IllegalStateException(String.valueOf(input));
+          }
+        }, failures);
+    Assert.assertEquals(2, failures.size());
+  }
+
+  @Test
+  public void suppressRestSkipsFirstFailure() {
+    final List<Exception> failures = Arrays.<Exception> asList(
+        new IOException("1"), new IOException("2"));
+    final Exception e = ParallelTasks.suppressRest(new Exception(
+        failures.get(0)), failures);
+    Assert.assertEquals(1, e.getSuppressed().length);
+    Assert.assertSame(failures.get(1), e.getSuppressed()[0]);
+    Assert.assertEquals(0, ParallelTasks.suppressRest(new Exception(),
+        new ArrayList<Exception>()).getSuppressed().length);
+  }
+}
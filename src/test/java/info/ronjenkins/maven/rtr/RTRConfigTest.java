@@ -72,6 +72,21 @@ public final class RTRConfigTest {
     Assert.assertFalse(value);
   }
 
+  @Test
+  public void getPlanOutput() {
+    new Expectations() {
+      {
+        RTRConfigTest.this.session.getUserProperties().getProperty(
+            this.anyString);
+        this.result = null;
+        RTRConfigTest.this.project.getProperties().getProperty(this.anyString);
+        this.result = null;
+      }
+    };
+    Assert.assertNull(Deencapsulation.invoke(RTRConfig.class,
+        "getPlanOutput", this.session, this.project));
+  }
+
   @Test
   public void getProjectVersionPolicyId() {
     final String propValue = Deencapsulation.getField(RTRConfig.class,
@@ -105,6 +120,66 @@ public final class RTRConfigTest {
         "getReleaseVersion", this.session, this.project));
   }
 
+  @Test
+  public void getChangedSince() {
+    new Expectations() {
+      {
+        RTRConfigTest.this.session.getUserProperties().getProperty(
+            this.anyString);
+        this.result = null;
+        RTRConfigTest.this.project.getProperties().getProperty(this.anyString);
+        this.result = null;
+      }
+    };
+    Assert.assertNull(Deencapsulation.invoke(RTRConfig.class,
+        "getChangedSince", this.session, this.project));
+  }
+
+  @Test
+  public void getForbiddenPlugins() {
+    new Expectations() {
+      {
+        RTRConfigTest.this.session.getUserProperties().getProperty(
+            this.anyString);
+        this.result = null;
+        RTRConfigTest.this.project.getProperties().getProperty(this.anyString);
+        this.result = null;
+      }
+    };
+    Assert.assertNull(Deencapsulation.invoke(RTRConfig.class,
+        "getForbiddenPlugins", this.session, this.project));
+  }
+
+  @Test
+  public void getPlanCache() {
+    new Expectations() {
+      {
+        RTRConfigTest.this.session.getUserProperties().getProperty(
+            this.anyString);
+        this.result = null;
+        RTRConfigTest.this.project.getProperties().getProperty(this.anyString);
+        this.result = null;
+      }
+    };
+    Assert.assertNull(Deencapsulation.invoke(RTRConfig.class, "getPlanCache",
+        this.session, this.project));
+  }
+
+  @Test
+  public void getSnapshotCheckCache() {
+    new Expectations() {
+      {
+        RTRConfigTest.this.session.getUserProperties().getProperty(
+            this.anyString);
+        this.result = null;
+        RTRConfigTest.this.project.getProperties().getProperty(this.anyString);
+        this.result = null;
+      }
+    };
+    Assert.assertNull(Deencapsulation.invoke(RTRConfig.class,
+        "getSnapshotCheckCache", this.session, this.project));
+  }
+
   @Test
   public void getTag() {
     new Expectations() {
@@ -204,6 +279,138 @@ public final class RTRConfigTest {
     Assert.assertEquals(propValue, value);
   }
 
+  @Test
+  public void getBackupStrategy() {
+    final String propValue = Deencapsulation.getField(RTRConfig.class,
+        "DEFAULT_BACKUP_STRATEGY");
+    new Expectations() {
+      {
+        RTRConfigTest.this.session.getUserProperties().getProperty(
+            this.anyString);
+        this.result = null;
+        RTRConfigTest.this.project.getProperties().getProperty(this.anyString);
+        this.result = null;
+      }
+    };
+    final String value = Deencapsulation.invoke(RTRConfig.class,
+        "getBackupStrategy", this.session, this.project);
+    Assert.assertEquals(propValue, value);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void getBackupStrategyRejectsUnknownValues() {
+    new Expectations() {
+      {
+        RTRConfigTest.this.session.getUserProperties().getProperty(
+            this.anyString);
+        this.result = "tape";
+      }
+    };
+    RTRConfig.getBackupStrategy(this.session, this.project);
+  }
+
+  @Test
+  public void getBackupThreads() {
+    final int propValue = Deencapsulation.getField(RTRConfig.class,
+        "DEFAULT_BACKUP_THREADS");
+    new Expectations() {
+      {
+        RTRConfigTest.this.session.getUserProperties().getProperty(
+            this.anyString);
+        this.result = null;
+        RTRConfigTest.this.project.getProperties().getProperty(this.anyString);
+        this.result = null;
+      }
+    };
+    final int value = Deencapsulation.invoke(RTRConfig.class,
+        "getBackupThreads", this.session, this.project);
+    Assert.assertEquals(propValue, value);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void getBackupThreadsRejectsNonNumericValues() {
+    new Expectations() {
+      {
+        RTRConfigTest.this.session.getUserProperties().getProperty(
+            this.anyString);
+        this.result = "four";
+      }
+    };
+    RTRConfig.getBackupThreads(this.session, this.project);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void getBackupThreadsRejectsValuesBelowOne() {
+    new Expectations() {
+      {
+        RTRConfigTest.this.session.getUserProperties().getProperty(
+            this.anyString);
+        this.result = "0";
+      }
+    };
+    RTRConfig.getBackupThreads(this.session, this.project);
+  }
+
+  @Test
+  public void getReloadThreads() {
+    final int propValue = Deencapsulation.getField(RTRConfig.class,
+        "DEFAULT_RELOAD_THREADS");
+    new Expectations() {
+      {
+        RTRConfigTest.this.session.getUserProperties().getProperty(
+            this.anyString);
+        this.result = null;
+        RTRConfigTest.this.project.getProperties().getProperty(this.anyString);
+        this.result = null;
+      }
+    };
+    final int value = Deencapsulation.invoke(RTRConfig.class,
+        "getReloadThreads", this.session, this.project);
+    Assert.assertEquals(propValue, value);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void getReloadThreadsRejectsNonNumericValues() {
+    new Expectations() {
+      {
+        RTRConfigTest.this.session.getUserProperties().getProperty(
+            this.anyString);
+        this.result = "four";
+      }
+    };
+    RTRConfig.getReloadThreads(this.session, this.project);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void getReloadThreadsRejectsValuesBelowOne() {
+    new Expectations() {
+      {
+        RTRConfigTest.this.session.getUserProperties().getProperty(
+            this.anyString);
+        this.result = "-4";
+      }
+    };
+    RTRConfig.getReloadThreads(this.session, this.project);
+  }
+
+  @Test
+  public void isBatchReload() {
+    final boolean propValue = Deencapsulation.getField(RTRConfig.class,
+        "DEFAULT_BATCH_RELOAD");
+    new Expectations() {
+      {
+        RTRConfigTest.this.session.getUserProperties().getProperty(
+            this.anyString);
+        this.result = null;
+        RTRConfigTest.this.project.getProperties().getProperty(this.anyString);
+        this.result = null;
+      }
+    };
+    final boolean value = Deencapsulation.invoke(RTRConfig.class,
+        "isBatchReload", this.session, this.project);
+    Assert.assertEquals(propValue, value);
+  }
+
   @Test
   public void isDisabled() {
     final boolean propValue = Deencapsulation.getField(RTRConfig.class,
@@ -227,6 +434,24 @@ public final class RTRConfigTest {
     RTRConfig.isDisabled(null, null);
   }
 
+  @Test
+  public void isEligibilityFailFast() {
+    final boolean propValue = Deencapsulation.getField(RTRConfig.class,
+        "DEFAULT_ELIGIBILITY_FAIL_FAST");
+    new Expectations() {
+      {
+        RTRConfigTest.this.session.getUserProperties().getProperty(
+            this.anyString);
+        this.result = null;
+        RTRConfigTest.this.project.getProperties().getProperty(this.anyString);
+        this.result = null;
+      }
+    };
+    final boolean value = Deencapsulation.invoke(RTRConfig.class,
+        "isEligibilityFailFast", this.session, this.project);
+    Assert.assertEquals(propValue, value);
+  }
+
   @Test
   public void isExternalSnapshotsAllowed() {
     final boolean propValue = Deencapsulation.getField(RTRConfig.class,
@@ -268,6 +493,114 @@ public final class RTRConfigTest {
     RTRConfig.isRelease(null, null);
   }
 
+  @Test
+  public void isTimingReport() {
+    final boolean propValue = Deencapsulation.getField(RTRConfig.class,
+        "DEFAULT_TIMING_REPORT");
+    new Expectations() {
+      {
+        RTRConfigTest.this.session.getUserProperties().getProperty(
+            this.anyString);
+        this.result = null;
+        RTRConfigTest.this.project.getProperties().getProperty(this.anyString);
+        this.result = null;
+      }
+    };
+    final boolean value = Deencapsulation.invoke(RTRConfig.class,
+        "isTimingReport", this.session, this.project);
+    Assert.assertEquals(propValue, value);
+  }
+
+  @Test
+  public void isInMemoryTransform() {
+    final boolean propValue = Deencapsulation.getField(RTRConfig.class,
+        "DEFAULT_IN_MEMORY_TRANSFORM");
+    new Expectations() {
+      {
+        RTRConfigTest.this.session.getUserProperties().getProperty(
+            this.anyString);
+        this.result = null;
+        RTRConfigTest.this.project.getProperties().getProperty(this.anyString);
+        this.result = null;
+      }
+    };
+    final boolean value = Deencapsulation.invoke(RTRConfig.class,
+        "isInMemoryTransform", this.session, this.project);
+    Assert.assertEquals(propValue, value);
+  }
+
+  @Test
+  public void isStreamingRewrite() {
+    final boolean propValue = Deencapsulation.getField(RTRConfig.class,
+        "DEFAULT_STREAMING_REWRITE");
+    new Expectations() {
+      {
+        RTRConfigTest.this.session.getUserProperties().getProperty(
+            this.anyString);
+        this.result = null;
+        RTRConfigTest.this.project.getProperties().getProperty(this.anyString);
+        this.result = null;
+      }
+    };
+    final boolean value = Deencapsulation.invoke(RTRConfig.class,
+        "isStreamingRewrite", this.session, this.project);
+    Assert.assertEquals(propValue, value);
+  }
+
+  @Test
+  public void isReactorSnapshotScan() {
+    final boolean propValue = Deencapsulation.getField(RTRConfig.class,
+        "DEFAULT_REACTOR_SNAPSHOT_SCAN");
+    new Expectations() {
+      {
+        RTRConfigTest.this.session.getUserProperties().getProperty(
+            this.anyString);
+        this.result = null;
+        RTRConfigTest.this.project.getProperties().getProperty(this.anyString);
+        this.result = null;
+      }
+    };
+    final boolean value = Deencapsulation.invoke(RTRConfig.class,
+        "isReactorSnapshotScan", this.session, this.project);
+    Assert.assertEquals(propValue, value);
+  }
+
+  @Test
+  public void isReloadChangedPomsOnly() {
+    final boolean propValue = Deencapsulation.getField(RTRConfig.class,
+        "DEFAULT_RELOAD_CHANGED_POMS_ONLY");
+    new Expectations() {
+      {
+        RTRConfigTest.this.session.getUserProperties().getProperty(
+            this.anyString);
+        this.result = null;
+        RTRConfigTest.this.project.getProperties().getProperty(this.anyString);
+        this.result = null;
+      }
+    };
+    final boolean value = Deencapsulation.invoke(RTRConfig.class,
+        "isReloadChangedPomsOnly", this.session, this.project);
+    Assert.assertEquals(propValue, value);
+  }
+
+  @Test
+  public void isReplayJournal() {
+    final boolean propValue = Deencapsulation.getField(RTRConfig.class,
+        "DEFAULT_REPLAY_JOURNAL");
+    new Expectations() {
+      {
+        RTRConfigTest.this.session.getUserProperties().getProperty(
+            this.anyString);
+        this.result = null;
+        RTRConfigTest.this.project.getProperties().getProperty(this.anyString);
+        this.result = null;
+      }
+    };
+    final boolean value = Deencapsulation.invoke(RTRConfig.class,
+        "isReplayJournal", this.session, this.project);
+    Assert.assertEquals(propValue, value);
+  }
+
   @Test
   public void isSinglePomReactorAllowed() {
     final boolean propValue = Deencapsulation.getField(RTRConfig.class,
@@ -0,0 +1,102 @@
+/*
+ * Copyright (C) 2016 Ronald Jack Jenkins Jr.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package info.ronjenkins.maven.rtr;
+
+import java.util.Properties;
+
+import mockit.Expectations;
+import mockit.Injectable;
+
+import org.apache.maven.execution.MavenSession;
+import org.apache.maven.project.MavenProject;
+import org.junit.Assert;
+import org.junit.Test;
+
+public final class RTRSettingsTest {
+  private static MavenProject newProject(final String artifactId) {
+    final MavenProject project = new MavenProject();
+    project.setGroupId("test");
+    project.setArtifactId(artifactId);
+    project.setVersion("1.0-SNAPSHOT");
+    return project;
+  }
+
+  @Injectable
+  MavenSession session;
+
+  @Test
+  public void defaultsWhenNothingIsSet() {
+    final MavenProject root = RTRSettingsTest.newProject("root");
+    this.recordSession(new Properties(), root);
+    final RTRSettings settings = RTRSettings.resolve(this.session);
+    Assert.assertFalse(settings.isDisabled());
+    Assert.assertFalse(settings.isRelease());
+    Assert.assertTrue(settings.isAddSchema());
+    Assert.assertEquals(RTRConfig.DEFAULT_RELOAD_THREADS,
+        settings.getReloadThreads());
+    Assert.assertEquals(RTRConfig.DEFAULT_PROJECTVERSIONPOLICYID,
+        settings.getProjectVersionPolicyId());
+    Assert.assertNull(settings.getChangedSince());
+    Assert.assertNull(settings.getTag());
+  }
+
+  @Test
+  public void invalidRootValueFailsResolution() {
+    final MavenProject root = RTRSettingsTest.newProject("root");
+    root.getProperties().setProperty(RTRConfig.PROP_BATCH_RELOAD, "maybe");
+    this.recordSession(new Properties(), root);
+    try {
+      RTRSettings.resolve(this.session);
+      Assert.fail();
+    }
+    catch (final IllegalArgumentException e) {
+      // Expected.
+    }
+  }
+
+  @Test
+  public void rootValuesAreResolved() {
+    final MavenProject root = RTRSettingsTest.newProject("root");
+    root.getProperties().setProperty(RTRConfig.PROP_TAG, "root-tag");
+    this.recordSession(new Properties(), root);
+    final RTRSettings settings = RTRSettings.resolve(this.session);
+    Assert.assertEquals("root-tag", settings.getTag());
+  }
+
+  @Test
+  public void userPropertiesOverrideProjectValues() {
+    final MavenProject root = RTRSettingsTest.newProject("root");
+    root.getProperties().setProperty(RTRConfig.PROP_RELOAD_THREADS, "2");
+    final Properties userProperties = new Properties();
+    userProperties.setProperty(RTRConfig.PROP_RELOAD_THREADS, "4");
+    this.recordSession(userProperties, root);
+    final RTRSettings settings = RTRSettings.resolve(this.session);
+    Assert.assertEquals(4, settings.getReloadThreads());
+  }
+
+  private void recordSession(final Properties userProperties,
+      final MavenProject root) {
+    new Expectations() {
+      {
+        RTRSettingsTest.this.session.getUserProperties();
+        this.result = userProperties;
+        this.minTimes = 0;
+        RTRSettingsTest.this.session.getTopLevelProject();
+        this.result = root;
+      }
+    };
+  }
+}
@@ -31,6 +31,7 @@ import mockit.Invocation;
 import mockit.Mock;
 import mockit.MockUp;
 import mockit.Mocked;
+import mockit.Verifications;
 
 import org.apache.maven.AbstractMavenLifecycleParticipant;
 import org.apache.maven.MavenExecutionException;
@@ -273,6 +274,56 @@ public final class RTRTest {
     rtr.afterProjectsRead(this.session);
   }
 
+  @Test
+  public void planOnlyExecution(
+      @Injectable final Map<String, SmartReactorStep> availableSteps,
+      @Injectable final SmartReactorStep planStep) {
+    final RTR rtr = new MockUp<RTR>() {
+      @Mock
+      List<AbstractMavenLifecycleParticipant> getExtensions(
+          final MavenSession session) {
+        return Collections.emptyList();
+      }
+    }.getMockInstance();
+    TestUtils.addLogger(rtr);
+    Deencapsulation.setField(rtr, "container", this.container);
+    Deencapsulation.setField(rtr, "builder", this.builder);
+    Deencapsulation.setField(rtr, "startSteps", Arrays.asList("step1"));
+    Deencapsulation.setField(rtr, "planSteps", Arrays.asList("plan1"));
+    Deencapsulation.setField(rtr, "endSuccessSteps", Arrays.asList("step2"));
+    Deencapsulation.setField(rtr, "availableSteps", availableSteps);
+    new Expectations() {
+      {
+        RTRTest.this.session.getTopLevelProject();
+        this.result = RTRTest.this.root;
+        RTRConfig.isDisabled(RTRTest.this.session, RTRTest.this.root);
+        this.result = false;
+        RTRConfig.getPlanOutput(RTRTest.this.session, RTRTest.this.root);
+        this.result = "plan.json";
+        availableSteps.get("plan1");
+        this.result = planStep;
+      }
+    };
+    try {
+      rtr.afterProjectsRead(this.session);
+      rtr.afterSessionEnd(this.session);
+    }
+    catch (final MavenExecutionException e) {
+      e.printStackTrace();
+      Assert.fail();
+    }
+    new Verifications() {
+      {
+        availableSteps.get("plan1");
+        this.times = 1;
+        availableSteps.get("step1");
+        this.times = 0;
+        availableSteps.get("step2");
+        this.times = 0;
+      }
+    };
+  }
+
   @Test
   public void successfulExecution(
       @Injectable final Map<String, SmartReactorStep> availableSteps) {
@@ -0,0 +1,118 @@
+/*
+ * Copyright (C) 2016 Ronald Jack Jenkins Jr.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package info.ronjenkins.maven.rtr.reactor;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import mockit.Expectations;
+import mockit.Injectable;
+
+import org.apache.maven.execution.ProjectDependencyGraph;
+import org.apache.maven.project.MavenProject;
+import org.junit.Assert;
+import org.junit.Test;
+
+public final class FilteredProjectDependencyGraphTest {
+  @Injectable
+  ProjectDependencyGraph pdg;
+  @Injectable
+  MavenProject           root;
+  @Injectable
+  MavenProject           child;
+  @Injectable
+  MavenProject           grandchild;
+
+  // root <- child <- grandchild
+  private ReactorIndex buildChain() {
+    new Expectations() {
+      {
+        FilteredProjectDependencyGraphTest.this.pdg.getUpstreamProjects(
+            FilteredProjectDependencyGraphTest.this.child, false);
+        this.result = FilteredProjectDependencyGraphTest.this.root;
+        FilteredProjectDependencyGraphTest.this.pdg.getUpstreamProjects(
+            FilteredProjectDependencyGraphTest.this.grandchild, false);
+        this.result = FilteredProjectDependencyGraphTest.this.child;
+      }
+    };
+    return ReactorIndex.build(
+        Arrays.asList(this.root, this.child, this.grandchild), this.pdg);
+  }
+
+  @Test
+  public void directProjectsAreInReactorOrder() {
+    new Expectations() {
+      {
+        FilteredProjectDependencyGraphTest.this.pdg.getUpstreamProjects(
+            FilteredProjectDependencyGraphTest.this.child, false);
+        this.result = FilteredProjectDependencyGraphTest.this.root;
+        FilteredProjectDependencyGraphTest.this.pdg.getUpstreamProjects(
+            FilteredProjectDependencyGraphTest.this.grandchild, false);
+        this.result = Arrays.asList(
+            FilteredProjectDependencyGraphTest.this.child,
+            FilteredProjectDependencyGraphTest.this.root);
+      }
+    };
+    final FilteredProjectDependencyGraph graph = new FilteredProjectDependencyGraph(
+        ReactorIndex.build(
+            Arrays.asList(this.root, this.child, this.grandchild), this.pdg),
+        Arrays.asList(this.root, this.child, this.grandchild));
+    Assert.assertEquals(Arrays.asList(this.root, this.child),
+        graph.getUpstreamProjects(this.grandchild, false));
+    Assert.assertEquals(Arrays.asList(this.child, this.grandchild),
+        graph.getDownstreamProjects(this.root, false));
+    // Repeated transitive walks on one thread don't see each other.
+    Assert.assertEquals(Arrays.asList(this.root, this.child),
+        graph.getUpstreamProjects(this.grandchild, true));
+    Assert.assertEquals(Arrays.asList(this.root),
+        graph.getUpstreamProjects(this.child, true));
+  }
+
+  @Test
+  public void prunedProjectsAreHidden() {
+    final FilteredProjectDependencyGraph graph = new FilteredProjectDependencyGraph(
+        this.buildChain(), Arrays.asList(this.grandchild, this.root));
+    Assert.assertEquals(Arrays.asList(this.root, this.grandchild),
+        graph.getSortedProjects());
+    Assert.assertEquals(Collections.emptyList(),
+        graph.getUpstreamProjects(this.grandchild, false));
+    Assert.assertEquals(Arrays.asList(this.root),
+        graph.getUpstreamProjects(this.grandchild, true));
+    Assert.assertEquals(Arrays.asList(this.grandchild),
+        graph.getDownstreamProjects(this.root, true));
+  }
+
+  @Test
+  public void unfilteredGraphMatchesOriginal() {
+    final FilteredProjectDependencyGraph graph = new FilteredProjectDependencyGraph(
+        this.buildChain(), Arrays.asList(this.root, this.child,
+            this.grandchild));
+    Assert.assertEquals(Arrays.asList(this.root, this.child, this.grandchild),
+        graph.getSortedProjects());
+    Assert.assertEquals(Arrays.asList(this.child),
+        graph.getUpstreamProjects(this.grandchild, false));
+    Assert.assertEquals(Arrays.asList(this.root, this.child),
+        graph.getUpstreamProjects(this.grandchild, true));
+    Assert.assertEquals(Arrays.asList(this.child, this.grandchild),
+        graph.getDownstreamProjects(this.root, true));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void unindexedProjectsAreRejected() {
+    new FilteredProjectDependencyGraph(this.buildChain(),
+        Arrays.asList(new MavenProject()));
+  }
+}
@@ -0,0 +1,40 @@
+/*
+ * Copyright (C) 2016 Ronald Jack Jenkins Jr.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package info.ronjenkins.maven.rtr.reactor;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Set;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public final class GitChangesTest {
+  @Test(expected = IllegalArgumentException.class)
+  public void optionLikeRefsAreRejected() throws IOException {
+    GitChanges.getChangedFiles(new File("."), "--output=x");
+  }
+
+  @Test
+  public void outputIsParsedRelativeToRoot() {
+    final File root = new File("root").getAbsoluteFile();
+    final Set<File> files = GitChanges.parse(root, "a/pom.xml\0b c/X.java\0"
+        + System.lineSeparator());
+    Assert.assertEquals(Arrays.asList(new File(root, "a/pom.xml"), new File(
+        root, "b c/X.java")), Arrays.asList(files.toArray()));
+  }
+}
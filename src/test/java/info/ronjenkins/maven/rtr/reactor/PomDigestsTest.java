@@ -0,0 +1,68 @@
+/*
+ * Copyright (C) 2016 Ronald Jack Jenkins Jr.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package info.ronjenkins.maven.rtr.reactor;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Map;
+
+import mockit.Expectations;
+import mockit.Injectable;
+
+import org.apache.maven.project.MavenProject;
+import org.junit.Assert;
+import org.junit.Test;
+
+public final class PomDigestsTest {
+  @Test
+  public void digestIsHexSha1() {
+    Assert.assertEquals("da39a3ee5e6b4b0d3255bfef95601890afd80709",
+        PomDigests.digest(new byte[0]));
+  }
+
+  @Test
+  public void missingFileHasNoDigest() {
+    Assert.assertNull(PomDigests.digest(new File("does-not-exist.xml")));
+  }
+
+  @Test
+  public void pomsAreDigestedByFile(@Injectable final MavenProject present,
+      @Injectable final MavenProject missing,
+      @Injectable final MavenProject fileless) throws IOException {
+    final File presentFile = File.createTempFile("pom", ".xml");
+    presentFile.deleteOnExit();
+    Files.write(presentFile.toPath(),
+        "<project/>".getBytes(StandardCharsets.UTF_8));
+    new Expectations() {
+      {
+        present.getFile();
+        this.result = presentFile;
+        missing.getFile();
+        this.result = new File("does-not-exist.xml");
+        fileless.getFile();
+        this.result = null;
+      }
+    };
+    final Map<File, String> digests = PomDigests.digestPoms(Arrays.asList(
+        present, missing, fileless));
+    Assert.assertEquals(1, digests.size());
+    Assert.assertEquals(PomDigests.digest(presentFile),
+        digests.get(presentFile));
+  }
+}
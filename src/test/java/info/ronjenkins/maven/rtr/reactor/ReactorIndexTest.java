@@ -0,0 +1,125 @@
+/*
+ * Copyright (C) 2016 Ronald Jack Jenkins Jr.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package info.ronjenkins.maven.rtr.reactor;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+import mockit.Expectations;
+import mockit.Injectable;
+
+import org.apache.maven.execution.ProjectDependencyGraph;
+import org.apache.maven.project.MavenProject;
+import org.junit.Assert;
+import org.junit.Test;
+
+public final class ReactorIndexTest {
+  @Injectable
+  ProjectDependencyGraph pdg;
+  @Injectable
+  MavenProject           root;
+  @Injectable
+  MavenProject           child;
+  @Injectable
+  MavenProject           grandchild;
+
+  private ReactorIndex buildFamily() {
+    new Expectations() {
+      {
+        ReactorIndexTest.this.root.getArtifact().isSnapshot();
+        this.result = true;
+        ReactorIndexTest.this.child.getArtifact().isSnapshot();
+        this.result = false;
+        ReactorIndexTest.this.grandchild.getArtifact().isSnapshot();
+        this.result = true;
+        ReactorIndexTest.this.pdg.getUpstreamProjects(
+            ReactorIndexTest.this.child, false);
+        this.result = ReactorIndexTest.this.root;
+        ReactorIndexTest.this.pdg.getUpstreamProjects(
+            ReactorIndexTest.this.grandchild, false);
+        this.result = Arrays.asList(ReactorIndexTest.this.child,
+            ReactorIndexTest.this.root);
+      }
+    };
+    return ReactorIndex.build(
+        Arrays.asList(this.root, this.child, this.grandchild), this.pdg);
+  }
+
+  @Test
+  public void edgesAreIndexed() {
+    final ReactorIndex index = this.buildFamily();
+    Assert.assertEquals(3, index.size());
+    Assert.assertArrayEquals(new int[0], index.getUpstream(0));
+    Assert.assertArrayEquals(new int[] { 0 }, index.getUpstream(1));
+    // Edges are sorted by id, whatever order the graph returned them in.
+    Assert.assertArrayEquals(new int[] { 0, 1 }, index.getUpstream(2));
+    Assert.assertArrayEquals(new int[] { 1, 2 }, index.getDownstream(0));
+    Assert.assertArrayEquals(new int[] { 2 }, index.getDownstream(1));
+    Assert.assertArrayEquals(new int[0], index.getDownstream(2));
+  }
+
+  @Test
+  public void releaseAncestorsOfSnapshotsAreFound() {
+    final ReactorIndex index = this.buildFamily();
+    final BitSet releaseAncestors = index.findReleaseAncestorsOfSnapshots();
+    Assert.assertEquals(1, releaseAncestors.cardinality());
+    Assert.assertTrue(releaseAncestors.get(1));
+  }
+
+  @Test
+  public void topologicalOrderPutsUpstreamFirst() {
+    new Expectations() {
+      {
+        ReactorIndexTest.this.pdg.getUpstreamProjects(
+            ReactorIndexTest.this.root, false);
+        this.result = ReactorIndexTest.this.grandchild;
+      }
+    };
+    final ReactorIndex index = ReactorIndex.build(
+        Arrays.asList(this.root, this.grandchild), this.pdg);
+    Assert.assertArrayEquals(new int[] { 1, 0 }, index.getTopologicalOrder());
+  }
+
+  @Test
+  public void idsAndSnapshotsAreIndexed() {
+    final ReactorIndex index = this.buildFamily();
+    Assert.assertEquals(0, index.getId(this.root));
+    Assert.assertEquals(1, index.getId(this.child));
+    Assert.assertEquals(2, index.getId(this.grandchild));
+    Assert.assertEquals(-1, index.getId(new MavenProject()));
+    Assert.assertTrue(index.isSnapshot(0));
+    Assert.assertFalse(index.isSnapshot(1));
+    Assert.assertTrue(index.isSnapshot(2));
+    Assert.assertEquals(2, index.getSnapshots().cardinality());
+  }
+
+  @Test
+  public void remapKeepsIdsAndEdges() {
+    final ReactorIndex index = this.buildFamily();
+    final MavenProject newChild = new MavenProject();
+    final Map<MavenProject, MavenProject> replacements = new IdentityHashMap<>();
+    replacements.put(this.child, newChild);
+    final ReactorIndex remapped = index.remap(replacements);
+    Assert.assertEquals(1, remapped.getId(newChild));
+    Assert.assertEquals(-1, remapped.getId(this.child));
+    Assert.assertTrue(newChild == remapped.getProject(1));
+    Assert.assertTrue(this.root == remapped.getProject(0));
+    Assert.assertArrayEquals(new int[] { 0, 1 }, remapped.getUpstream(2));
+    Assert.assertFalse(remapped.isSnapshot(1));
+  }
+}
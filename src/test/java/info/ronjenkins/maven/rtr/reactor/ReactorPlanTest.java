@@ -0,0 +1,184 @@
+/*
+ * Copyright (C) 2016 Ronald Jack Jenkins Jr.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package info.ronjenkins.maven.rtr.reactor;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.List;
+import java.util.Properties;
+
+import mockit.Expectations;
+import mockit.Injectable;
+
+import org.apache.maven.execution.MavenSession;
+import org.apache.maven.execution.ProjectDependencyGraph;
+import org.apache.maven.model.Dependency;
+import org.apache.maven.model.DependencyManagement;
+import org.apache.maven.model.Model;
+import org.apache.maven.project.MavenProject;
+import org.junit.Assert;
+import org.junit.Test;
+
+import util.TestUtils;
+
+public final class ReactorPlanTest {
+  @Injectable
+  MavenSession           session;
+  @Injectable
+  ProjectDependencyGraph pdg;
+
+  private static MavenProject project(final String artifactId,
+      final String version) throws IOException {
+    final MavenProject project = TestUtils.project(artifactId, version);
+    final File pomFile = File.createTempFile(artifactId, ".xml");
+    pomFile.deleteOnExit();
+    final String pom = "<project>" + version + "</project>";
+    Files.write(pomFile.toPath(), pom.getBytes(StandardCharsets.UTF_8));
+    project.setFile(pomFile);
+    return project;
+  }
+
+  private static File tempFile() throws IOException {
+    final File file = File.createTempFile("plan", ".properties");
+    file.deleteOnExit();
+    return file;
+  }
+
+  private String key(final List<MavenProject> reactor) {
+    new Expectations() {
+      {
+        ReactorPlanTest.this.session.getProjects();
+        this.result = reactor;
+        ReactorPlanTest.this.session.getUserProperties();
+        this.result = new Properties();
+        ReactorPlanTest.this.session.getTopLevelProject();
+        this.result = null;
+      }
+    };
+    return ReactorPlan.computeKey(this.session);
+  }
+
+  @Test
+  public void invalidFilesAreIgnored() throws IOException {
+    Assert.assertNull(ReactorPlan.read(new File("does-not-exist.properties")));
+    final File file = ReactorPlanTest.tempFile();
+    Files.write(file.toPath(),
+        "format=1\nkey=abc\nsize=2\n".getBytes(StandardCharsets.UTF_8));
+    Assert.assertNull(ReactorPlan.read(file));
+    Files.write(file.toPath(), ("format=1\nkey=abc\nsize=1\nsnapshots=\n"
+        + "upstreamOffsets=0,1\nupstreamTargets=5\nretained=\n")
+        .getBytes(StandardCharsets.UTF_8));
+    Assert.assertNull(ReactorPlan.read(file));
+  }
+
+  @Test
+  public void keyChangesWithActiveProfiles() throws IOException {
+    final MavenProject root = ReactorPlanTest.project("root", "1-SNAPSHOT");
+    final List<MavenProject> reactor = Collections.singletonList(root);
+    final String before = this.key(reactor);
+    root.setInjectedProfileIds("external", Collections.singletonList("ci"));
+    final String after = this.key(reactor);
+    Assert.assertNotEquals(before, after);
+    root.setInjectedProfileIds("external", Collections.singletonList("dev"));
+    Assert.assertNotEquals(after, this.key(reactor));
+  }
+
+  @Test
+  public void keyChangesWithImportedBoms() throws IOException {
+    final MavenProject root = ReactorPlanTest.project("root", "1-SNAPSHOT");
+    final Dependency bom = new Dependency();
+    bom.setGroupId("g");
+    bom.setArtifactId("bom");
+    bom.setType("pom");
+    bom.setScope("import");
+    bom.setVersion("${bom.version}");
+    final DependencyManagement management = new DependencyManagement();
+    management.addDependency(bom);
+    final Model original = new Model();
+    original.setDependencyManagement(management);
+    root.setOriginalModel(original);
+    root.getProperties().setProperty("bom.version", "1");
+    final List<MavenProject> reactor = Collections.singletonList(root);
+    final String before = this.key(reactor);
+    Assert.assertEquals(before, this.key(reactor));
+    root.getProperties().setProperty("bom.version", "2");
+    Assert.assertNotEquals(before, this.key(reactor));
+    bom.setScope("compile");
+    final String withoutImport = this.key(reactor);
+    root.getProperties().setProperty("bom.version", "3");
+    Assert.assertEquals(withoutImport, this.key(reactor));
+  }
+
+  @Test
+  public void keyChangesWithPoms() throws IOException {
+    final MavenProject root = ReactorPlanTest.project("root", "1-SNAPSHOT");
+    final List<MavenProject> reactor = Collections.singletonList(root);
+    final String before = this.key(reactor);
+    Assert.assertNotNull(before);
+    Assert.assertEquals(before, this.key(reactor));
+    Files.write(root.getFile().toPath(),
+        "<project>changed</project>".getBytes(StandardCharsets.UTF_8));
+    Assert.assertNotEquals(before, this.key(reactor));
+    Assert.assertTrue(root.getFile().delete());
+    Assert.assertNull(this.key(reactor));
+  }
+
+  @Test
+  public void planSurvivesRoundTrip() throws IOException {
+    final MavenProject root = ReactorPlanTest.project("root", "1-SNAPSHOT");
+    final MavenProject child = ReactorPlanTest.project("child", "1");
+    final MavenProject grandchild = ReactorPlanTest.project("grandchild",
+        "1-SNAPSHOT");
+    new Expectations() {
+      {
+        ReactorPlanTest.this.pdg.getUpstreamProjects(child, false);
+        this.result = root;
+        ReactorPlanTest.this.pdg.getUpstreamProjects(grandchild, false);
+        this.result = Arrays.asList(child, root);
+      }
+    };
+    final List<MavenProject> reactor = Arrays.asList(root, child, grandchild);
+    final ReactorIndex index = ReactorIndex.build(reactor, this.pdg);
+    final BitSet retained = new BitSet();
+    retained.set(0);
+    retained.set(2);
+    final ReactorPlan plan = ReactorPlan.create("key", index, retained);
+    final File file = ReactorPlanTest.tempFile();
+    plan.write(file);
+    final ReactorPlan read = ReactorPlan.read(file);
+    Assert.assertNotNull(read);
+    Assert.assertEquals("key", read.getKey());
+    Assert.assertTrue(read.matches("key", reactor));
+    Assert.assertFalse(read.matches("other", reactor));
+    Assert.assertFalse(read.matches("key", reactor.subList(0, 2)));
+    Assert.assertEquals(2, read.getRetained().cardinality());
+    Assert.assertTrue(read.getRetained().get(0));
+    Assert.assertTrue(read.getRetained().get(2));
+    final ReactorIndex rebuilt = read.toIndex(reactor);
+    Assert.assertEquals(index.getSnapshots(), rebuilt.getSnapshots());
+    for (int id = 0; id < reactor.size(); id++) {
+      Assert.assertArrayEquals(index.getUpstream(id), rebuilt.getUpstream(id));
+      Assert.assertArrayEquals(index.getDownstream(id),
+          rebuilt.getDownstream(id));
+    }
+    Assert.assertEquals(1, rebuilt.getId(child));
+  }
+}
@@ -0,0 +1,144 @@
+/*
+ * Copyright (C) 2016 Ronald Jack Jenkins Jr.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package info.ronjenkins.maven.rtr.reactor;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.maven.artifact.Artifact;
+import org.apache.maven.artifact.ArtifactUtils;
+import org.apache.maven.artifact.DefaultArtifact;
+import org.apache.maven.artifact.handler.DefaultArtifactHandler;
+import org.apache.maven.model.Dependency;
+import org.apache.maven.model.DependencyManagement;
+import org.apache.maven.model.Parent;
+import org.apache.maven.project.MavenProject;
+import org.junit.Assert;
+import org.junit.Test;
+
+import util.TestUtils;
+
+public final class ReleaseVersionPatcherTest {
+  private static Artifact artifact(final String artifactId,
+      final String version) {
+    return new DefaultArtifact("g", artifactId, version, "compile", "jar",
+        null, new DefaultArtifactHandler("jar"));
+  }
+
+  private static Dependency dependency(final String artifactId,
+      final String version) {
+    final Dependency dependency = new Dependency();
+    dependency.setGroupId("g");
+    dependency.setArtifactId(artifactId);
+    dependency.setVersion(version);
+    return dependency;
+  }
+
+  @Test
+  public void snapshotVersionsAreReplaced() {
+    final MavenProject parent = TestUtils.project("parent", "1.0-SNAPSHOT");
+    final MavenProject child = TestUtils.project("child", "2.0-SNAPSHOT");
+    final Parent parentRef = new Parent();
+    parentRef.setGroupId("g");
+    parentRef.setArtifactId("parent");
+    parentRef.setVersion("1.0-SNAPSHOT");
+    child.getModel().setParent(parentRef);
+    child.getModel().addDependency(
+        ReleaseVersionPatcherTest.dependency("parent", "1.0-SNAPSHOT"));
+    child.getModel().addDependency(
+        ReleaseVersionPatcherTest.dependency("external", "3.0-SNAPSHOT"));
+    child.getModel().setDependencyManagement(new DependencyManagement());
+    child
+        .getModel()
+        .getDependencyManagement()
+        .addDependency(
+            ReleaseVersionPatcherTest.dependency("parent", "0.9-SNAPSHOT"));
+    child.getBuild().setFinalName("custom");
+    final Map<String, String> releaseVersions = new HashMap<>();
+    releaseVersions.put("g:parent", "1.0");
+    releaseVersions.put("g:child", "2.0");
+    final int patched = ReleaseVersionPatcher.patch(
+        Arrays.asList(parent, child), releaseVersions);
+    Assert.assertEquals(2, patched);
+    Assert.assertEquals("1.0", parent.getVersion());
+    Assert.assertEquals("1.0", parent.getArtifact().getVersion());
+    Assert.assertFalse(parent.getArtifact().isSnapshot());
+    Assert.assertEquals("parent-1.0", parent.getBuild().getFinalName());
+    Assert.assertEquals("2.0", child.getVersion());
+    Assert.assertEquals("custom", child.getBuild().getFinalName());
+    Assert.assertEquals("1.0", child.getModel().getParent().getVersion());
+    Assert.assertEquals("1.0", child.getDependencies().get(0).getVersion());
+    Assert.assertEquals("3.0-SNAPSHOT", child.getDependencies().get(1)
+        .getVersion());
+    Assert.assertEquals("1.0", child.getDependencyManagement()
+        .getDependencies().get(0).getVersion());
+  }
+
+  @Test
+  public void downstreamProjectResolvesReleaseVersion() {
+    final MavenProject upstream = TestUtils.project("lib", "1.0-SNAPSHOT");
+    final MavenProject downstream = TestUtils.project("app", "1.0-SNAPSHOT");
+    downstream.getModel().addDependency(
+        ReleaseVersionPatcherTest.dependency("lib", "1.0-SNAPSHOT"));
+    final Artifact dependencyArtifact = ReleaseVersionPatcherTest.artifact(
+        "lib", "1.0-SNAPSHOT");
+    downstream.setDependencyArtifacts(Collections
+        .singleton(dependencyArtifact));
+    final Artifact managedArtifact = ReleaseVersionPatcherTest.artifact("lib",
+        "1.0-SNAPSHOT");
+    downstream.setManagedVersionMap(Collections.singletonMap("g:lib",
+        managedArtifact));
+    final Artifact pluginArtifact = ReleaseVersionPatcherTest.artifact(
+        "plugin", "1.0-SNAPSHOT");
+    downstream.setPluginArtifacts(Collections.singleton(pluginArtifact));
+    final Map<String, MavenProject> projectMap = new HashMap<>();
+    for (final MavenProject project : Arrays.asList(upstream, downstream)) {
+      projectMap.put(ArtifactUtils.key(project.getGroupId(),
+          project.getArtifactId(), project.getVersion()), project);
+    }
+    final Map<String, String> releaseVersions = new HashMap<>();
+    releaseVersions.put("g:lib", "1.0");
+    releaseVersions.put("g:app", "1.0");
+    releaseVersions.put("g:plugin", "2.0");
+    ReleaseVersionPatcher.patch(Arrays.asList(upstream, downstream),
+        releaseVersions);
+    ReleaseVersionPatcher.reindex(projectMap);
+    final Dependency dependency = downstream.getDependencies().get(0);
+    Assert.assertEquals("1.0", dependency.getVersion());
+    Assert.assertEquals("1.0", dependencyArtifact.getVersion());
+    Assert.assertEquals("1.0", downstream.getManagedVersionMap().get("g:lib")
+        .getVersion());
+    Assert.assertEquals("2.0", pluginArtifact.getVersion());
+    // This is how the reactor's workspace reader finds reactor projects.
+    Assert.assertSame(upstream, projectMap.get(ArtifactUtils.key(
+        dependency.getGroupId(), dependency.getArtifactId(),
+        dependency.getVersion())));
+    Assert.assertSame(downstream, projectMap.get("g:app:1.0"));
+    Assert.assertEquals(2, projectMap.size());
+  }
+
+  @Test
+  public void releaseVersionsAreKept() {
+    final MavenProject project = TestUtils.project("p", "1.0");
+    final Map<String, String> releaseVersions = new HashMap<>();
+    releaseVersions.put("g:p", "2.0");
+    Assert.assertEquals(0,
+        ReleaseVersionPatcher.patch(Arrays.asList(project), releaseVersions));
+    Assert.assertEquals("1.0", project.getVersion());
+  }
+}
@@ -0,0 +1,111 @@
+/*
+ * Copyright (C) 2016 Ronald Jack Jenkins Jr.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package info.ronjenkins.maven.rtr.reactor;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public final class StreamingPomRewriterTest {
+  private StreamingPomRewriter rewriter;
+
+  @Before
+  public void setUp() {
+    final Map<String, String> releaseVersions = new HashMap<>();
+    releaseVersions.put("g:parent", "1.0");
+    releaseVersions.put("g:a", "1.0");
+    releaseVersions.put("g:b", "2.0");
+    releaseVersions.put("org.apache.maven.plugins:maven-rtr-plugin", "3.0");
+    final Map<String, String> originalVersions = new HashMap<>();
+    originalVersions.put("g:parent", "1.0-SNAPSHOT");
+    originalVersions.put("g:a", "1.0-SNAPSHOT");
+    originalVersions.put("g:b", "2.0-SNAPSHOT");
+    originalVersions.put("org.apache.maven.plugins:maven-rtr-plugin",
+        "3.0-SNAPSHOT");
+    this.rewriter = new StreamingPomRewriter(releaseVersions,
+        originalVersions);
+  }
+
+  @Test
+  public void configurationIsLeftAlone() {
+    final String pom = "<project><groupId>g</groupId><artifactId>a</artifactId><version>1.0</version><build><plugins><plugin><artifactId>x</artifactId><configuration><dependencies><dependency><groupId>g</groupId><artifactId>b</artifactId><version>2.0-SNAPSHOT</version></dependency></dependencies></configuration></plugin></plugins></build></project>";
+    Assert.assertSame(pom, this.rewriter.rewrite(pom, null, false));
+  }
+
+  @Test
+  public void dependencyVersionsAreRewritten() {
+    final String pom = "<project>\n  <groupId>g</groupId>\n  <artifactId>a</artifactId>\n  <version>1.0-SNAPSHOT</version>\n  <!-- <version>1.0-SNAPSHOT</version> -->\n  <dependencies>\n    <dependency>\n      <groupId>g</groupId>\n      <artifactId>b</artifactId>\n      <version> 2.0-SNAPSHOT </version>\n    </dependency>\n    <dependency>\n      <groupId>other</groupId>\n      <artifactId>b</artifactId>\n      <version>2.0-SNAPSHOT</version>\n    </dependency>\n  </dependencies>\n  <build>\n    <plugins>\n      <plugin>\n        <artifactId>maven-rtr-plugin</artifactId>\n        <version>3.0-SNAPSHOT</version>\n      </plugin>\n    </plugins>\n  </build>\n</project>\n";
+    Assert.assertEquals(
+        "<project>\n  <groupId>g</groupId>\n  <artifactId>a</artifactId>\n  <version>1.0</version>\n  <!-- <version>1.0-SNAPSHOT</version> -->\n  <dependencies>\n    <dependency>\n      <groupId>g</groupId>\n      <artifactId>b</artifactId>\n      <version> 2.0 </version>\n    </dependency>\n    <dependency>\n      <groupId>other</groupId>\n      <artifactId>b</artifactId>\n      <version>2.0-SNAPSHOT</version>\n    </dependency>\n  </dependencies>\n  <build>\n    <plugins>\n      <plugin>\n        <artifactId>maven-rtr-plugin</artifactId>\n        <version>3.0</version>\n      </plugin>\n    </plugins>\n  </build>\n</project>\n",
+        this.rewriter.rewrite(pom, null, false));
+  }
+
+  @Test
+  public void inheritedVersionIsAddedWhenItDiffers() {
+    final String pom = "<project>\n  <parent>\n    <groupId>g</groupId>\n    <artifactId>other</artifactId>\n    <version>5</version>\n  </parent>\n  <artifactId>a</artifactId>\n</project>";
+    Assert.assertEquals(
+        "<project>\n  <parent>\n    <groupId>g</groupId>\n    <artifactId>other</artifactId>\n    <version>5</version>\n  </parent>\n  <artifactId>a</artifactId>\n  <version>1.0</version>\n</project>",
+        this.rewriter.rewrite(pom, null, false));
+  }
+
+  @Test
+  public void inheritedVersionIsLeftAloneWhenItMatches() {
+    final String pom = "<project>\n  <parent>\n    <groupId>g</groupId>\n    <artifactId>parent</artifactId>\n    <version>1.0-SNAPSHOT</version>\n  </parent>\n  <artifactId>a</artifactId>\n</project>";
+    Assert.assertEquals(
+        "<project>\n  <parent>\n    <groupId>g</groupId>\n    <artifactId>parent</artifactId>\n    <version>1.0</version>\n  </parent>\n  <artifactId>a</artifactId>\n</project>",
+        this.rewriter.rewrite(pom, null, false));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void malformedPomIsRejected() {
+    this.rewriter.rewrite("<project><version>1.0</project>", null, false);
+  }
+
+  @Test
+  public void propertiesAreRewritten() {
+    final String pom = "<project><groupId>g</groupId><artifactId>a</artifactId><version>1.0</version><dependencies><dependency><groupId>g</groupId><artifactId>b</artifactId><version>${b.version}</version></dependency></dependencies><properties><b.version>2.0-SNAPSHOT</b.version></properties></project>";
+    Assert.assertEquals(
+        "<project><groupId>g</groupId><artifactId>a</artifactId><version>1.0</version><dependencies><dependency><groupId>g</groupId><artifactId>b</artifactId><version>${b.version}</version></dependency></dependencies><properties><b.version>2.0</b.version></properties></project>",
+        this.rewriter.rewrite(pom, null, false));
+  }
+
+  @Test
+  public void schemaIsAdded() {
+    final String pom = "<?xml version=\"1.0\"?>\n<project><modelVersion>4.0.0</modelVersion><groupId>g</groupId><artifactId>a</artifactId><version>1.0</version></project>";
+    Assert.assertEquals(
+        "<?xml version=\"1.0\"?>\n<project xmlns=\"http://maven.apache.org/POM/4.0.0\" xmlns:xsi=\"http://www.w3.org/2001/XMLSchema-instance\" xsi:schemaLocation=\"http://maven.apache.org/POM/4.0.0 http://maven.apache.org/maven-v4_0_0.xsd\"><modelVersion>4.0.0</modelVersion><groupId>g</groupId><artifactId>a</artifactId><version>1.0</version></project>",
+        this.rewriter.rewrite(pom, null, true));
+  }
+
+  @Test
+  public void scmTagIsInserted() {
+    final String pom = "<project>\n  <groupId>g</groupId>\n  <artifactId>a</artifactId>\n  <version>1.0</version>\n  <scm>\n    <connection>scm:git:x</connection>\n  </scm>\n</project>";
+    Assert.assertEquals(
+        "<project>\n  <groupId>g</groupId>\n  <artifactId>a</artifactId>\n  <version>1.0</version>\n  <scm>\n    <connection>scm:git:x</connection>\n    <tag>a-1.0</tag>\n  </scm>\n</project>",
+        this.rewriter.rewrite(pom, "a-1.0", false));
+  }
+
+  @Test
+  public void scmTagIsReplaced() {
+    final String pom = "<project><groupId>g</groupId><artifactId>a</artifactId><version>1.0</version><scm><tag>HEAD</tag></scm></project>";
+    Assert.assertEquals(
+        "<project><groupId>g</groupId><artifactId>a</artifactId><version>1.0</version><scm><tag>a-1.0</tag></scm></project>",
+        this.rewriter.rewrite(pom, "a-1.0", false));
+  }
+}
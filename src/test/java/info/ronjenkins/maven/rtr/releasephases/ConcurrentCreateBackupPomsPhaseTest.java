@@ -0,0 +1,265 @@
+/*
+ * Copyright (C) 2016 Ronald Jack Jenkins Jr.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package info.ronjenkins.maven.rtr.releasephases;
+
+import info.ronjenkins.maven.rtr.RTR;
+import info.ronjenkins.maven.rtr.RTRConfig;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+import mockit.Deencapsulation;
+import mockit.Expectations;
+import mockit.Injectable;
+import mockit.Mock;
+import mockit.MockUp;
+import mockit.Verifications;
+
+import org.apache.maven.project.MavenProject;
+import org.apache.maven.shared.release.ReleaseExecutionException;
+import org.apache.maven.shared.release.ReleaseFailureException;
+import org.apache.maven.shared.release.ReleaseResult;
+import org.apache.maven.shared.release.config.ReleaseDescriptor;
+import org.apache.maven.shared.release.env.ReleaseEnvironment;
+import org.codehaus.plexus.util.FileUtils;
+import org.junit.Assert;
+import org.junit.Test;
+
+import util.TestLogger;
+import util.TestUtils;
+
+public final class ConcurrentCreateBackupPomsPhaseTest {
+  private static List<MavenProject> newProjects(final File directory,
+      final int count) throws IOException {
+    final List<MavenProject> projects = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      final File basedir = new File(directory, "project-" + i);
+      Files.createDirectories(basedir.toPath());
+      final File pomFile = new File(basedir, "pom.xml");
+      Files.write(pomFile.toPath(),
+          ("<project>" + i + "</project>").getBytes(StandardCharsets.UTF_8));
+      final MavenProject project = new MavenProject();
+      project.setFile(pomFile);
+      projects.add(project);
+    }
+    return projects;
+  }
+
+  private static File backupOf(final MavenProject project) {
+    return new File(project.getFile().getPath() + ".releaseBackup");
+  }
+
+  @Injectable
+  RTR rtr;
+
+  @Test
+  public void backupPomsAreCreated() throws IOException,
+      ReleaseExecutionException, ReleaseFailureException {
+    final File directory = Files.createTempDirectory("rtr-test").toFile();
+    try {
+      final List<MavenProject> projects = ConcurrentCreateBackupPomsPhaseTest
+          .newProjects(directory, 10);
+      final ConcurrentCreateBackupPomsPhase phase = new ConcurrentCreateBackupPomsPhase();
+      Deencapsulation.setField(phase, "rtr", this.rtr);
+      new Expectations() {
+        {
+          ConcurrentCreateBackupPomsPhaseTest.this.rtr.getBackupThreads();
+          this.result = 4;
+        }
+      };
+      final ReleaseResult result = phase.execute((ReleaseDescriptor) null,
+          (ReleaseEnvironment) null, projects);
+      Assert.assertEquals(ReleaseResult.SUCCESS, result.getResultCode());
+      for (final MavenProject project : projects) {
+        Assert.assertArrayEquals(Files.readAllBytes(project.getFile()
+            .toPath()), Files.readAllBytes(ConcurrentCreateBackupPomsPhaseTest
+            .backupOf(project).toPath()));
+      }
+      new Verifications() {
+        {
+          ConcurrentCreateBackupPomsPhaseTest.this.rtr.setBackupPomCreated(
+              (File) this.any, true);
+          this.times = 10;
+        }
+      };
+    }
+    finally {
+      FileUtils.deleteDirectory(directory);
+    }
+  }
+
+  @Test
+  public void failureRemovesAllBackupPoms() throws IOException,
+      ReleaseFailureException {
+    final File directory = Files.createTempDirectory("rtr-test").toFile();
+    try {
+      final List<MavenProject> projects = ConcurrentCreateBackupPomsPhaseTest
+          .newProjects(directory, 10);
+      Files.delete(projects.get(3).getFile().toPath());
+      final ConcurrentCreateBackupPomsPhase phase = new ConcurrentCreateBackupPomsPhase();
+      Deencapsulation.setField(phase, "rtr", this.rtr);
+      new Expectations() {
+        {
+          ConcurrentCreateBackupPomsPhaseTest.this.rtr.getBackupThreads();
+          this.result = 4;
+        }
+      };
+      try {
+        phase.execute((ReleaseDescriptor) null, (ReleaseEnvironment) null,
+            projects);
+        Assert.fail();
+      }
+      catch (final ReleaseExecutionException e) {
+        // Expected.
+      }
+      for (final MavenProject project : projects) {
+        Assert.assertFalse(ConcurrentCreateBackupPomsPhaseTest.backupOf(
+            project).exists());
+      }
+      // Every record made before the failure is withdrawn again.
+      new Verifications() {
+        {
+          ConcurrentCreateBackupPomsPhaseTest.this.rtr.setBackupPomCreated(
+              (File) this.any, false);
+          this.times = 10;
+        }
+      };
+    }
+    finally {
+      FileUtils.deleteDirectory(directory);
+    }
+  }
+
+  @Test
+  public void journalStrategyWritesSingleJournal() throws IOException,
+      ReleaseExecutionException, ReleaseFailureException {
+    final File directory = Files.createTempDirectory("rtr-test").toFile();
+    try {
+      final List<MavenProject> projects = ConcurrentCreateBackupPomsPhaseTest
+          .newProjects(directory, 10);
+      final ConcurrentCreateBackupPomsPhase phase = new ConcurrentCreateBackupPomsPhase();
+      Deencapsulation.setField(phase, "rtr", this.rtr);
+      final TestLogger logger = TestUtils.addLogger(phase);
+      new Expectations() {
+        {
+          ConcurrentCreateBackupPomsPhaseTest.this.rtr.getBackupStrategy();
+          this.result = RTRConfig.BACKUP_STRATEGY_JOURNAL;
+          ConcurrentCreateBackupPomsPhaseTest.this.rtr.isReplayJournal();
+          this.result = false;
+          this.result = true;
+        }
+      };
+      phase.execute((ReleaseDescriptor) null, (ReleaseEnvironment) null,
+          projects);
+      final File journal = PomJournal.getFile(projects);
+      Assert.assertTrue(PomJournal.isCommitted(journal));
+      for (final MavenProject project : projects) {
+        Assert.assertFalse(ConcurrentCreateBackupPomsPhaseTest.backupOf(
+            project).exists());
+      }
+      Assert.assertTrue(logger.getWarnLog().isEmpty());
+      // The first release crashes after rewriting a POM. The next one fails
+      // unless asked to restore it before journaling the originals again.
+      final File pomFile = projects.get(2).getFile();
+      Files.write(pomFile.toPath(),
+          "<project>release</project>".getBytes(StandardCharsets.UTF_8));
+      try {
+        phase.execute((ReleaseDescriptor) null, (ReleaseEnvironment) null,
+            projects);
+        Assert.fail();
+      }
+      catch (final ReleaseFailureException e) {
+        Assert.assertTrue(e.getMessage().contains(journal.getPath()));
+      }
+      Assert.assertEquals("<project>release</project>", new String(
+          Files.readAllBytes(pomFile.toPath()), StandardCharsets.UTF_8));
+      Assert.assertTrue(PomJournal.isCommitted(journal));
+      phase.execute((ReleaseDescriptor) null, (ReleaseEnvironment) null,
+          projects);
+      Assert.assertEquals("<project>2</project>", new String(
+          Files.readAllBytes(pomFile.toPath()), StandardCharsets.UTF_8));
+      Assert.assertFalse(logger.getWarnLog().isEmpty());
+      Files.write(pomFile.toPath(),
+          "<project>release</project>".getBytes(StandardCharsets.UTF_8));
+      Assert.assertEquals(1, PomJournal.replay(journal));
+    }
+    finally {
+      FileUtils.deleteDirectory(directory);
+    }
+  }
+
+  @Test
+  public void linkStrategyCopiesPomsForInPlaceRewrite()
+      throws IOException, ReleaseExecutionException, ReleaseFailureException {
+    final File directory = Files.createTempDirectory("rtr-test").toFile();
+    try {
+      final List<MavenProject> projects = ConcurrentCreateBackupPomsPhaseTest
+          .newProjects(directory, 4);
+      final ConcurrentCreateBackupPomsPhase phase = new ConcurrentCreateBackupPomsPhase();
+      Deencapsulation.setField(phase, "rtr", this.rtr);
+      new Expectations() {
+        {
+          ConcurrentCreateBackupPomsPhaseTest.this.rtr.getBackupStrategy();
+          this.result = RTRConfig.BACKUP_STRATEGY_LINK;
+          ConcurrentCreateBackupPomsPhaseTest.this.rtr.isStreamingRewrite();
+          this.returns(true, false);
+        }
+      };
+      phase.execute((ReleaseDescriptor) null, (ReleaseEnvironment) null,
+          projects);
+      for (final MavenProject project : projects) {
+        Assert.assertTrue(Files.isSameFile(project.getFile().toPath(),
+            ConcurrentCreateBackupPomsPhaseTest.backupOf(project).toPath()));
+      }
+      phase.execute((ReleaseDescriptor) null, (ReleaseEnvironment) null,
+          projects);
+      for (final MavenProject project : projects) {
+        Assert.assertFalse(Files.isSameFile(project.getFile().toPath(),
+            ConcurrentCreateBackupPomsPhaseTest.backupOf(project).toPath()));
+        Assert.assertArrayEquals(Files.readAllBytes(project.getFile()
+            .toPath()), Files.readAllBytes(ConcurrentCreateBackupPomsPhaseTest
+            .backupOf(project).toPath()));
+      }
+    }
+    finally {
+      FileUtils.deleteDirectory(directory);
+    }
+  }
+
+  @Test
+  public void simulateEqualsExecute() {
+    final ConcurrentCreateBackupPomsPhase phase = new MockUp<ConcurrentCreateBackupPomsPhase>() {
+      @Mock
+      ReleaseResult execute(final ReleaseDescriptor rd,
+          final ReleaseEnvironment re, final List<MavenProject> projects)
+          throws Throwable {
+        return new ReleaseResult();
+      }
+    }.getMockInstance();
+    try {
+      final ReleaseResult result = phase.simulate((ReleaseDescriptor) null,
+          (ReleaseEnvironment) null, (List<MavenProject>) null);
+      Assert.assertEquals(ReleaseResult.UNDEFINED, result.getResultCode());
+    }
+    catch (final ReleaseExecutionException | ReleaseFailureException e) {
+      Assert.fail();
+    }
+  }
+}
@@ -17,8 +17,13 @@ package info.ronjenkins.maven.rtr.releasephases;
 
 import info.ronjenkins.maven.rtr.RTR;
 
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 
 import mockit.Deencapsulation;
 import mockit.Expectations;
@@ -28,6 +33,8 @@ import mockit.Mock;
 import mockit.MockUp;
 import mockit.Mocked;
 
+import org.apache.maven.model.Dependency;
+import org.apache.maven.model.Model;
 import org.apache.maven.project.MavenProject;
 import org.apache.maven.shared.release.ReleaseExecutionException;
 import org.apache.maven.shared.release.ReleaseFailureException;
@@ -35,6 +42,7 @@ import org.apache.maven.shared.release.ReleaseResult;
 import org.apache.maven.shared.release.config.ReleaseDescriptor;
 import org.apache.maven.shared.release.env.ReleaseEnvironment;
 import org.apache.maven.shared.release.phase.CheckDependencySnapshotsPhase;
+import org.codehaus.plexus.util.FileUtils;
 import org.junit.Assert;
 import org.junit.Test;
 
@@ -71,6 +79,64 @@ public final class ConditionalCheckDependencySnapshotsPhaseTest {
     Assert.assertFalse(logger.getWarnLog().isEmpty());
   }
 
+  @Test
+  public void cachedProjectsAreNotCheckedAgain() throws IOException,
+      ReleaseExecutionException, ReleaseFailureException {
+    final File directory = Files.createTempDirectory("rtr-test").toFile();
+    final File cacheFile = new File(directory, "snapshots.properties");
+    final ConditionalCheckDependencySnapshotsPhase phase = new ConditionalCheckDependencySnapshotsPhase();
+    TestUtils.addLogger(phase);
+    Deencapsulation.setField(phase, "rtr", this.rtr);
+    final Model model = new Model();
+    model.setGroupId("g");
+    model.setArtifactId("a");
+    model.setVersion("1.0-SNAPSHOT");
+    final List<MavenProject> projects = Arrays.asList(new MavenProject(model));
+    final List<Integer> scanned = new ArrayList<>();
+    new MockUp<ExternalSnapshotScan>() {
+      @Mock
+      Map<String, List<MavenProject>> scan(final Invocation inv,
+          final List<MavenProject> unchecked, final int threads) {
+        scanned.add(unchecked.size());
+        return inv.proceed();
+      }
+    };
+    new Expectations() {
+      {
+        ConditionalCheckDependencySnapshotsPhaseTest.this.rtr
+            .isExternalSnapshotsAllowed();
+        this.result = false;
+        ConditionalCheckDependencySnapshotsPhaseTest.this.rtr
+            .isReactorSnapshotScan();
+        this.result = true;
+        ConditionalCheckDependencySnapshotsPhaseTest.this.rtr
+            .getSnapshotCheckCache();
+        this.result = cacheFile;
+      }
+    };
+    try {
+      for (int i = 0; i < 2; i++) {
+        final ReleaseDescriptor rd = new ReleaseDescriptor();
+        rd.setInteractive(false);
+        phase.execute(rd, (ReleaseEnvironment) null, projects);
+      }
+      Assert.assertEquals(Arrays.asList(1), scanned);
+      // A changed project is checked again.
+      final Dependency dependency = new Dependency();
+      dependency.setGroupId("g");
+      dependency.setArtifactId("lib");
+      dependency.setVersion("2.0");
+      model.addDependency(dependency);
+      final ReleaseDescriptor rd = new ReleaseDescriptor();
+      rd.setInteractive(false);
+      phase.execute(rd, (ReleaseEnvironment) null, projects);
+      Assert.assertEquals(Arrays.asList(1, 1), scanned);
+    }
+    finally {
+      FileUtils.deleteDirectory(directory);
+    }
+  }
+
   @Test
   public void notAllowedMeansSuccessfulExecution(
       @Mocked final CheckDependencySnapshotsPhase superMock) {
@@ -101,6 +167,46 @@ public final class ConditionalCheckDependencySnapshotsPhaseTest {
     }
   }
 
+  @Test
+  public void reactorScanReportsExternalSnapshots() {
+    final ConditionalCheckDependencySnapshotsPhase phase = new ConditionalCheckDependencySnapshotsPhase();
+    TestUtils.addLogger(phase);
+    Deencapsulation.setField(phase, "rtr", this.rtr);
+    final Model model = new Model();
+    model.setGroupId("g");
+    model.setArtifactId("a");
+    model.setVersion("1.0-SNAPSHOT");
+    final Dependency dependency = new Dependency();
+    dependency.setGroupId("g");
+    dependency.setArtifactId("lib");
+    dependency.setVersion("2.0-SNAPSHOT");
+    model.addDependency(dependency);
+    final ReleaseDescriptor rd = new ReleaseDescriptor();
+    rd.setInteractive(false);
+    new Expectations() {
+      {
+        ConditionalCheckDependencySnapshotsPhaseTest.this.rtr
+            .isExternalSnapshotsAllowed();
+        this.result = false;
+        ConditionalCheckDependencySnapshotsPhaseTest.this.rtr
+            .isReactorSnapshotScan();
+        this.result = true;
+      }
+    };
+    try {
+      phase.execute(rd, (ReleaseEnvironment) null,
+          Arrays.asList(new MavenProject(model)));
+      Assert.fail();
+    }
+    catch (final ReleaseFailureException e) {
+      Assert.assertTrue(e.getMessage().contains("g:lib:2.0-SNAPSHOT"));
+    }
+    catch (final ReleaseExecutionException e) {
+      e.printStackTrace();
+      Assert.fail();
+    }
+  }
+
   @Test
   public void simulateEqualsExecute() {
     final ConditionalCheckDependencySnapshotsPhase phase = new MockUp<ConditionalCheckDependencySnapshotsPhase>() {
@@ -17,7 +17,13 @@ package info.ronjenkins.maven.rtr.releasephases;
 
 import info.ronjenkins.maven.rtr.RTR;
 
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 
 import mockit.Deencapsulation;
@@ -29,12 +35,17 @@ import mockit.MockUp;
 import mockit.Mocked;
 
 import org.apache.maven.project.MavenProject;
+import org.apache.maven.scm.manager.NoSuchScmProviderException;
+import org.apache.maven.scm.provider.ScmProvider;
+import org.apache.maven.scm.repository.ScmRepository;
 import org.apache.maven.shared.release.ReleaseExecutionException;
 import org.apache.maven.shared.release.ReleaseFailureException;
 import org.apache.maven.shared.release.ReleaseResult;
 import org.apache.maven.shared.release.config.ReleaseDescriptor;
 import org.apache.maven.shared.release.env.ReleaseEnvironment;
 import org.apache.maven.shared.release.phase.RestoreBackupPomsPhase;
+import org.apache.maven.shared.release.scm.ScmRepositoryConfigurator;
+import org.codehaus.plexus.util.FileUtils;
 import org.junit.Assert;
 import org.junit.Test;
 
@@ -46,7 +57,8 @@ public final class DefensiveRestoreBackupPomsPhaseTest {
 
   @Test
   public void backupPomsCreatedMeansSuccessfulExecution(
-      @Mocked final RestoreBackupPomsPhase superMock) {
+      @Mocked final RestoreBackupPomsPhase superMock,
+      @Mocked final ReleaseDescriptor rd) {
     final DefensiveRestoreBackupPomsPhase phase = new MockUp<DefensiveRestoreBackupPomsPhase>() {
       @Mock
       ReleaseResult execute(final Invocation inv, final ReleaseDescriptor rd,
@@ -60,10 +72,15 @@ public final class DefensiveRestoreBackupPomsPhaseTest {
       {
         DefensiveRestoreBackupPomsPhaseTest.this.rtr.isBackupPomsCreated();
         this.result = true;
+        DefensiveRestoreBackupPomsPhaseTest.this.rtr
+            .isBackupPomCreated((File) this.any);
+        this.result = true;
+        rd.isScmUseEditMode();
+        this.result = true;
       }
     };
     try {
-      final ReleaseResult result = phase.execute((ReleaseDescriptor) null,
+      final ReleaseResult result = phase.execute(rd,
           (ReleaseEnvironment) null, Arrays.asList(this.root));
       Assert.assertEquals(ReleaseResult.SUCCESS, result.getResultCode());
     }
@@ -93,6 +110,137 @@ public final class DefensiveRestoreBackupPomsPhaseTest {
     }
   }
 
+  @Test
+  public void unmodifiedPomsAreNotRestored() throws IOException {
+    final File directory = Files.createTempDirectory("rtr-test").toFile();
+    try {
+      final File pomFile = new File(directory, "pom.xml");
+      final File backupFile = new File(directory, "pom.xml.releaseBackup");
+      Files.write(pomFile.toPath(),
+          "<project/>".getBytes(StandardCharsets.UTF_8));
+      Files.write(backupFile.toPath(),
+          "<project/>".getBytes(StandardCharsets.UTF_8));
+      final MavenProject project = new MavenProject();
+      project.setFile(pomFile);
+      final DefensiveRestoreBackupPomsPhase phase = new DefensiveRestoreBackupPomsPhase();
+      final boolean unmodified = Deencapsulation.invoke(phase, "isModified",
+          project);
+      Assert.assertFalse(unmodified);
+      Files.write(pomFile.toPath(),
+          "<project></project>".getBytes(StandardCharsets.UTF_8));
+      final boolean modified = Deencapsulation.invoke(phase, "isModified",
+          project);
+      Assert.assertTrue(modified);
+      Files.delete(backupFile.toPath());
+      final boolean missingBackup = Deencapsulation.invoke(phase,
+          "isModified", project);
+      Assert.assertTrue(missingBackup);
+    }
+    finally {
+      FileUtils.deleteDirectory(directory);
+    }
+  }
+
+  @Test
+  public void withoutEditModeBackupPomsAreCopiedConcurrently(
+      @Injectable final ScmRepositoryConfigurator scmConfigurator,
+      @Injectable final ReleaseEnvironment re,
+      @Injectable final ScmProvider provider) throws IOException,
+      NoSuchScmProviderException, ReleaseExecutionException,
+      ReleaseFailureException {
+    final File directory = Files.createTempDirectory("rtr-test").toFile();
+    try {
+      final List<MavenProject> projects = new ArrayList<>();
+      for (int i = 0; i < 4; i++) {
+        final File pomFile = new File(directory, "pom-" + i + ".xml");
+        Files.write(pomFile.toPath(),
+            "<project>release</project>".getBytes(StandardCharsets.UTF_8));
+        Files.write(new File(directory, "pom-" + i
+            + ".xml.releaseBackup").toPath(),
+            ("<project>" + i + "</project>").getBytes(StandardCharsets.UTF_8));
+        final MavenProject project = new MavenProject();
+        project.setFile(pomFile);
+        projects.add(project);
+      }
+      // The Release Manager's restore is never invoked, so its own SCM
+      // requirements are left unset.
+      final DefensiveRestoreBackupPomsPhase phase = new DefensiveRestoreBackupPomsPhase();
+      Deencapsulation.setField(phase, "rtr", this.rtr);
+      Deencapsulation.setField(phase, "scmConfigurator", scmConfigurator);
+      new Expectations() {
+        {
+          DefensiveRestoreBackupPomsPhaseTest.this.rtr.isBackupPomsCreated();
+          this.result = true;
+          DefensiveRestoreBackupPomsPhaseTest.this.rtr
+              .isBackupPomCreated((File) this.any);
+          this.result = true;
+          DefensiveRestoreBackupPomsPhaseTest.this.rtr.getBackupThreads();
+          this.result = 4;
+          scmConfigurator.getRepositoryProvider((ScmRepository) this.any);
+          this.result = provider;
+          provider.requiresEditMode();
+          this.result = false;
+        }
+      };
+      final ReleaseResult result = phase.execute(new ReleaseDescriptor(), re,
+          projects);
+      Assert.assertEquals(ReleaseResult.SUCCESS, result.getResultCode());
+      for (int i = 0; i < 4; i++) {
+        Assert.assertEquals("<project>" + i + "</project>", new String(
+            Files.readAllBytes(projects.get(i).getFile().toPath()),
+            StandardCharsets.UTF_8));
+      }
+    }
+    finally {
+      FileUtils.deleteDirectory(directory);
+    }
+  }
+
+  @Test
+  public void missingBackupPomFailsRestore(
+      @Injectable final ScmRepositoryConfigurator scmConfigurator,
+      @Injectable final ReleaseEnvironment re,
+      @Injectable final ScmProvider provider) throws IOException,
+      NoSuchScmProviderException, ReleaseFailureException {
+    final File directory = Files.createTempDirectory("rtr-test").toFile();
+    try {
+      final File pomFile = new File(directory, "pom.xml");
+      Files.write(pomFile.toPath(),
+          "<project>release</project>".getBytes(StandardCharsets.UTF_8));
+      final MavenProject project = new MavenProject();
+      project.setFile(pomFile);
+      final DefensiveRestoreBackupPomsPhase phase = new DefensiveRestoreBackupPomsPhase();
+      Deencapsulation.setField(phase, "rtr", this.rtr);
+      Deencapsulation.setField(phase, "scmConfigurator", scmConfigurator);
+      new Expectations() {
+        {
+          DefensiveRestoreBackupPomsPhaseTest.this.rtr.isBackupPomsCreated();
+          this.result = true;
+          DefensiveRestoreBackupPomsPhaseTest.this.rtr
+              .isBackupPomCreated((File) this.any);
+          this.result = true;
+          scmConfigurator.getRepositoryProvider((ScmRepository) this.any);
+          this.result = provider;
+          provider.requiresEditMode();
+          this.result = false;
+        }
+      };
+      try {
+        phase.execute(new ReleaseDescriptor(), re,
+            Collections.singletonList(project));
+        Assert.fail();
+      }
+      catch (final ReleaseExecutionException e) {
+        Assert.assertTrue(e.getMessage().contains("pom.xml.releaseBackup"));
+      }
+      Assert.assertEquals("<project>release</project>", new String(
+          Files.readAllBytes(pomFile.toPath()), StandardCharsets.UTF_8));
+    }
+    finally {
+      FileUtils.deleteDirectory(directory);
+    }
+  }
+
   @Test
   public void simulateEqualsExecute() {
     final DefensiveRestoreBackupPomsPhase phase = new MockUp<DefensiveRestoreBackupPomsPhase>() {
@@ -0,0 +1,132 @@
+/*
+ * Copyright (C) 2016 Ronald Jack Jenkins Jr.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package info.ronjenkins.maven.rtr.releasephases;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.maven.artifact.Artifact;
+import org.apache.maven.artifact.DefaultArtifact;
+import org.apache.maven.artifact.handler.DefaultArtifactHandler;
+import org.apache.maven.model.Dependency;
+import org.apache.maven.project.MavenProject;
+import org.apache.maven.shared.release.ReleaseExecutionException;
+import org.apache.maven.shared.release.ReleaseFailureException;
+import org.junit.Assert;
+import org.junit.Test;
+
+import util.TestUtils;
+
+public final class ExternalSnapshotScanTest {
+  private static Artifact artifact(final String artifactId,
+      final String version) {
+    return new DefaultArtifact("g", artifactId, version, "compile", "jar",
+        null, new DefaultArtifactHandler("jar"));
+  }
+
+  private static Dependency dependency(final String artifactId,
+      final String version) {
+    final Dependency dependency = new Dependency();
+    dependency.setGroupId("g");
+    dependency.setArtifactId(artifactId);
+    dependency.setVersion(version);
+    return dependency;
+  }
+
+  private final Map<String, String> originalVersions = new HashMap<>();
+
+  @Test
+  public void digestCoversArtifactsReactorAndFlags() {
+    final MavenProject a = TestUtils.project("a", "1.0-SNAPSHOT");
+    a.getModel().addDependency(
+        ExternalSnapshotScanTest.dependency("b", "1.0-SNAPSHOT"));
+    final String digest = ExternalSnapshotScan.digest(a,
+        this.originalVersions, "x");
+    Assert.assertEquals(digest,
+        ExternalSnapshotScan.digest(a, this.originalVersions, "x"));
+    Assert.assertNotEquals(digest,
+        ExternalSnapshotScan.digest(a, this.originalVersions, "y"));
+    // The dependency becomes a reactor project.
+    this.originalVersions.put("g:b", "1.0-SNAPSHOT");
+    final String inReactor = ExternalSnapshotScan.digest(a,
+        this.originalVersions, "x");
+    Assert.assertNotEquals(digest, inReactor);
+    a.getModel().getDependencies().get(0).setVersion("1.0");
+    Assert.assertNotEquals(inReactor,
+        ExternalSnapshotScan.digest(a, this.originalVersions, "x"));
+  }
+
+  @Test
+  public void externalSnapshotsAreGroupedByArtifact()
+      throws ReleaseExecutionException, ReleaseFailureException {
+    final MavenProject a = TestUtils.project("a", "1.0-SNAPSHOT");
+    final MavenProject b = TestUtils.project("b", "1.0-SNAPSHOT");
+    final MavenProject c = TestUtils.project("c", "1.0-SNAPSHOT");
+    this.originalVersions.put("g:a", "1.0-SNAPSHOT");
+    this.originalVersions.put("g:b", "1.0-SNAPSHOT");
+    this.originalVersions.put("g:c", "1.0-SNAPSHOT");
+    a.getModel().addDependency(
+        ExternalSnapshotScanTest.dependency("lib", "2.0-SNAPSHOT"));
+    a.getModel().addDependency(
+        ExternalSnapshotScanTest.dependency("released", "2.0"));
+    b.getModel().addDependency(
+        ExternalSnapshotScanTest.dependency("lib", "2.0-SNAPSHOT"));
+    b.getModel().addDependency(
+        ExternalSnapshotScanTest.dependency("a", "1.0-SNAPSHOT"));
+    b.setPluginArtifacts(Collections.singleton(ExternalSnapshotScanTest
+        .artifact("plugin", "3.0-SNAPSHOT")));
+    c.setParentArtifact(ExternalSnapshotScanTest.artifact("a", "1.0-SNAPSHOT"));
+    final List<MavenProject> projects = Arrays.asList(a, b, c);
+    for (final int threads : new int[] { 1, 3 }) {
+      final Map<String, List<MavenProject>> violations = new ExternalSnapshotScan(
+          this.originalVersions).scan(projects, threads);
+      Assert.assertEquals(Arrays.asList("g:lib:2.0-SNAPSHOT",
+          "g:plugin:3.0-SNAPSHOT"), new ArrayList<>(violations.keySet()));
+      Assert.assertEquals(Arrays.asList(a, b),
+          violations.get("g:lib:2.0-SNAPSHOT"));
+      Assert.assertEquals(Arrays.asList(b),
+          violations.get("g:plugin:3.0-SNAPSHOT"));
+    }
+  }
+
+  @Test
+  public void messageListsProjectsUnderEachArtifact() {
+    final MavenProject a = TestUtils.project("a", "1.0-SNAPSHOT");
+    final Map<String, List<MavenProject>> violations = new HashMap<>();
+    violations.put("g:lib:2.0-SNAPSHOT", Arrays.asList(a));
+    Assert.assertEquals(
+        "Can't release project due to non released dependencies :\n    g:lib:2.0-SNAPSHOT\n        in project 'a' ("
+            + a.getId() + ")", ExternalSnapshotScan.describe(violations));
+  }
+
+  @Test
+  public void resolvedVersionsTakePrecedence()
+      throws ReleaseExecutionException, ReleaseFailureException {
+    final MavenProject a = TestUtils.project("a", "1.0-SNAPSHOT");
+    a.getModel().addDependency(
+        ExternalSnapshotScanTest.dependency("lib", "[1.0,)"));
+    a.setArtifacts(Collections.singleton(ExternalSnapshotScanTest.artifact(
+        "lib", "2.0-20160101.000000-1")));
+    final Map<String, List<MavenProject>> violations = new ExternalSnapshotScan(
+        this.originalVersions).scan(Arrays.asList(a), 1);
+    Assert.assertEquals(Arrays.asList(a),
+        violations.get("g:lib:2.0-20160101.000000-1"));
+  }
+}
@@ -0,0 +1,113 @@
+/*
+ * Copyright (C) 2016 Ronald Jack Jenkins Jr.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package info.ronjenkins.maven.rtr.releasephases;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.Set;
+
+import org.codehaus.plexus.util.FileUtils;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public final class LinkedPomBackupsTest {
+  private File backupFile;
+  private File directory;
+  private File pomFile;
+
+  @Before
+  public void setUp() throws IOException {
+    this.directory = Files.createTempDirectory("rtr-test").toFile();
+    this.pomFile = new File(this.directory, "pom.xml");
+    this.backupFile = new File(this.directory, "pom.xml.releaseBackup");
+    Files.write(this.pomFile.toPath(),
+        "<project>original</project>".getBytes(StandardCharsets.UTF_8));
+  }
+
+  @After
+  public void tearDown() throws IOException {
+    FileUtils.deleteDirectory(this.directory);
+  }
+
+  @Test
+  public void backupIsLinkedUntilPomIsReplaced() throws IOException {
+    Assert.assertTrue(LinkedPomBackups.create(this.pomFile, this.backupFile));
+    Assert.assertTrue(Files.isSameFile(this.pomFile.toPath(),
+        this.backupFile.toPath()));
+    Assert.assertEquals(2, this.directory.listFiles().length);
+  }
+
+  @Test
+  public void copyPermissionsReplacesTemporaryFileMode() throws IOException {
+    final Set<PosixFilePermission> permissions = PosixFilePermissions
+        .fromString("rwxr-xr--");
+    try {
+      Files.setPosixFilePermissions(this.pomFile.toPath(), permissions);
+    }
+    catch (final UnsupportedOperationException e) {
+      return;
+    }
+    final File temp = Files.createTempFile(this.directory.toPath(), "pom",
+        ".tmp").toFile();
+    LinkedPomBackups.copyPermissions(this.pomFile.toPath(), temp.toPath());
+    Assert.assertEquals(permissions,
+        Files.getPosixFilePermissions(temp.toPath()));
+  }
+
+  @Test
+  public void existingBackupIsReplaced() throws IOException {
+    Files.write(this.backupFile.toPath(),
+        "<project>stale</project>".getBytes(StandardCharsets.UTF_8));
+    LinkedPomBackups.create(this.pomFile, this.backupFile);
+    Assert.assertEquals("<project>original</project>",
+        LinkedPomBackupsTest.read(this.backupFile));
+  }
+
+  @Test
+  public void missingBackupRestoresNothing() throws IOException {
+    Assert.assertFalse(LinkedPomBackups.restore(this.pomFile, this.backupFile));
+    Assert.assertEquals("<project>original</project>",
+        LinkedPomBackupsTest.read(this.pomFile));
+  }
+
+  @Test
+  public void restoreRenamesBackupOverPom() throws IOException {
+    LinkedPomBackups.create(this.pomFile, this.backupFile);
+    // The streaming rewrite replaces POMs with a rename.
+    final File temp = Files.createTempFile(this.directory.toPath(), "pom",
+        ".tmp").toFile();
+    Files.write(temp.toPath(),
+        "<project>release</project>".getBytes(StandardCharsets.UTF_8));
+    LinkedPomBackups.move(temp.toPath(), this.pomFile.toPath());
+    Assert.assertEquals("<project>original</project>",
+        LinkedPomBackupsTest.read(this.backupFile));
+    Assert.assertTrue(LinkedPomBackups.restore(this.pomFile, this.backupFile));
+    Assert.assertEquals("<project>original</project>",
+        LinkedPomBackupsTest.read(this.pomFile));
+    Assert.assertFalse(this.backupFile.exists());
+  }
+
+  private static String read(final File file) throws IOException {
+    return new String(Files.readAllBytes(file.toPath()),
+        StandardCharsets.UTF_8);
+  }
+}
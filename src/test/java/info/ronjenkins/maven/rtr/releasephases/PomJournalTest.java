@@ -0,0 +1,182 @@
+/*
+ * Copyright (C) 2016 Ronald Jack Jenkins Jr.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package info.ronjenkins.maven.rtr.releasephases;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+
+import org.apache.maven.project.MavenProject;
+import org.codehaus.plexus.util.FileUtils;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public final class PomJournalTest {
+  private File       directory;
+  private File       journal;
+  private List<File> pomFiles;
+
+  @Before
+  public void setUp() throws IOException {
+    this.directory = Files.createTempDirectory("rtr-test").toFile();
+    this.journal = new File(this.directory, PomJournal.FILE_NAME);
+    this.pomFiles = new ArrayList<>();
+    for (int i = 0; i < 3; i++) {
+      final File pomFile = new File(this.directory, "pom-" + i + ".xml");
+      PomJournalTest.write(pomFile, "<project>" + i + "</project>");
+      this.pomFiles.add(pomFile);
+    }
+  }
+
+  @After
+  public void tearDown() throws IOException {
+    FileUtils.deleteDirectory(this.directory);
+  }
+
+  @Test(expected = IOException.class)
+  public void corruptJournalIsRejected() throws IOException {
+    PomJournal.write(this.journal, this.pomFiles);
+    // Flip a byte of the first POM's contents.
+    try (final RandomAccessFile file = new RandomAccessFile(this.journal, "rw")) {
+      final long offset = 4 + 1 + 2
+          + this.pomFiles.get(0).getAbsolutePath().length() + 4;
+      file.seek(offset);
+      final int b = file.read();
+      file.seek(offset);
+      file.write(b ^ 0xFF);
+    }
+    PomJournal.replay(this.journal);
+  }
+
+  @Test
+  public void executionRootDeterminesLocation() {
+    final MavenProject first = new MavenProject();
+    first.setFile(new File(this.directory, "first/pom.xml"));
+    final MavenProject root = new MavenProject();
+    root.setFile(new File(this.directory, "pom.xml"));
+    root.setExecutionRoot(true);
+    Assert.assertEquals(this.journal,
+        PomJournal.getFile(Arrays.asList(first, root)));
+    Assert.assertEquals(new File(this.directory, "first/"
+        + PomJournal.FILE_NAME), PomJournal.getFile(Arrays.asList(first)));
+  }
+
+  @Test
+  public void incompleteJournalRestoresNothing() throws IOException {
+    PomJournal.write(this.journal, this.pomFiles);
+    // Cut off the commit marker, as if the JVM died while writing it.
+    try (final RandomAccessFile file = new RandomAccessFile(this.journal, "rw")) {
+      file.setLength(file.length() - 5);
+    }
+    PomJournalTest.write(this.pomFiles.get(0), "<project>release</project>");
+    Assert.assertFalse(PomJournal.isCommitted(this.journal));
+    Assert.assertEquals(0, PomJournal.replay(this.journal));
+    Assert.assertEquals("<project>release</project>",
+        PomJournalTest.read(this.pomFiles.get(0)));
+  }
+
+  @Test
+  public void journalIsDeleted() throws IOException {
+    PomJournal.write(this.journal, this.pomFiles);
+    PomJournal.delete(this.journal);
+    Assert.assertFalse(this.journal.exists());
+    // Deleting a missing journal is fine.
+    PomJournal.delete(this.journal);
+  }
+
+  @Test
+  public void missingJournalRestoresNothing() throws IOException {
+    Assert.assertFalse(PomJournal.isCommitted(this.journal));
+    Assert.assertEquals(0, PomJournal.replay(this.journal));
+  }
+
+  @Test
+  public void replayRestoresOriginalPoms() throws IOException {
+    PomJournal.write(this.journal, this.pomFiles);
+    Assert.assertTrue(PomJournal.isCommitted(this.journal));
+    for (final File pomFile : this.pomFiles) {
+      PomJournalTest.write(pomFile, "<project>release</project>");
+    }
+    Assert.assertEquals(this.pomFiles.size(), PomJournal.replay(this.journal));
+    for (int i = 0; i < this.pomFiles.size(); i++) {
+      Assert.assertEquals("<project>" + i + "</project>",
+          PomJournalTest.read(this.pomFiles.get(i)));
+    }
+    // No temporary files are left behind.
+    Assert.assertEquals(this.pomFiles.size() + 1,
+        this.directory.listFiles().length);
+  }
+
+  @Test
+  public void replayKeepsPermissions() throws IOException {
+    final File pomFile = this.pomFiles.get(0);
+    final Set<PosixFilePermission> permissions = PosixFilePermissions
+        .fromString("rw-r--r--");
+    try {
+      Files.setPosixFilePermissions(pomFile.toPath(), permissions);
+    }
+    catch (final UnsupportedOperationException e) {
+      return;
+    }
+    PomJournal.write(this.journal, this.pomFiles);
+    PomJournalTest.write(pomFile, "<project>release</project>");
+    Assert.assertEquals(1, PomJournal.replay(this.journal));
+    Assert.assertEquals(permissions,
+        Files.getPosixFilePermissions(pomFile.toPath()));
+  }
+
+  @Test
+  public void replaySkipsUnchangedPoms() throws IOException {
+    PomJournal.write(this.journal, this.pomFiles);
+    PomJournalTest.write(this.pomFiles.get(1), "<project>release</project>");
+    final long lastModified = this.pomFiles.get(0).lastModified();
+    Assert.assertEquals(1, PomJournal.replay(this.journal));
+    Assert.assertEquals("<project>1</project>",
+        PomJournalTest.read(this.pomFiles.get(1)));
+    Assert.assertEquals(lastModified, this.pomFiles.get(0).lastModified());
+  }
+
+  @Test(expected = IOException.class)
+  public void unknownRecordTypeIsRejected() throws IOException {
+    PomJournal.write(this.journal, this.pomFiles);
+    // Overwrite the commit marker, which precedes the record count.
+    try (final RandomAccessFile file = new RandomAccessFile(this.journal, "rw")) {
+      file.seek(file.length() - 5);
+      file.write(7);
+    }
+    PomJournal.isCommitted(this.journal);
+  }
+
+  private static String read(final File file) throws IOException {
+    return new String(Files.readAllBytes(file.toPath()),
+        StandardCharsets.UTF_8);
+  }
+
+  private static void write(final File file, final String contents)
+      throws IOException {
+    Files.write(file.toPath(), contents.getBytes(StandardCharsets.UTF_8));
+  }
+}
@@ -0,0 +1,143 @@
+/*
+ * Copyright (C) 2016 Ronald Jack Jenkins Jr.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package info.ronjenkins.maven.rtr.releasephases;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.maven.project.MavenProject;
+import org.apache.maven.shared.release.ReleaseExecutionException;
+import org.apache.maven.shared.release.ReleaseFailureException;
+import org.junit.Assert;
+import org.junit.Test;
+
+public final class ProjectOperationsTest {
+  private static class FailingOperation implements
+      ProjectOperations.Operation {
+    private final Set<MavenProject> applied = Collections
+        .newSetFromMap(new ConcurrentHashMap<MavenProject, Boolean>());
+    private final Set<MavenProject> failing;
+
+    FailingOperation(final Set<MavenProject> failing) {
+      this.failing = failing;
+    }
+
+    @Override
+    public void apply(final MavenProject project)
+        throws ReleaseExecutionException {
+      this.applied.add(project);
+      if (this.failing.contains(project)) {
+        throw new ReleaseExecutionException(project.getArtifactId());
+      }
+    }
+  }
+
+  private static List<MavenProject> newProjects(final int count) {
+    final List<MavenProject> projects = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      final MavenProject project = new MavenProject();
+      project.setGroupId("test");
+      project.setArtifactId("project-" + i);
+      project.setVersion("1.0-SNAPSHOT");
+      projects.add(project);
+    }
+    return projects;
+  }
+
+  @Test
+  public void everyProjectIsProcessedConcurrently()
+      throws ReleaseExecutionException, ReleaseFailureException {
+    final List<MavenProject> projects = ProjectOperationsTest.newProjects(50);
+    final FailingOperation operation = new FailingOperation(
+        Collections.<MavenProject> emptySet());
+    ProjectOperations.applyToAll(projects, 4, operation);
+    Assert.assertEquals(projects.size(), operation.applied.size());
+  }
+
+  @Test
+  public void everyProjectIsProcessedSequentially()
+      throws ReleaseExecutionException, ReleaseFailureException {
+    final List<MavenProject> projects = ProjectOperationsTest.newProjects(5);
+    final FailingOperation operation = new FailingOperation(
+        Collections.<MavenProject> emptySet());
+    ProjectOperations.applyToAll(projects, 1, operation);
+    Assert.assertEquals(projects.size(), operation.applied.size());
+  }
+
+  @Test
+  public void multipleFailuresAreAggregated() throws ReleaseFailureException {
+    final List<MavenProject> projects = ProjectOperationsTest.newProjects(10);
+    final FailingOperation operation = new FailingOperation(
+        new HashSet<>(projects.subList(2, 5)));
+    try {
+      ProjectOperations.applyToAll(projects, 3, operation);
+      Assert.fail();
+    }
+    catch (final ReleaseExecutionException e) {
+      Assert.assertEquals("project-2", e.getCause().getMessage());
+      Assert.assertEquals(2, e.getSuppressed().length);
+      Assert.assertEquals("project-3", e.getSuppressed()[0].getMessage());
+      Assert.assertEquals("project-4", e.getSuppressed()[1].getMessage());
+    }
+    // Failures don't stop the other projects from being processed.
+    Assert.assertEquals(projects.size(), operation.applied.size());
+  }
+
+  @Test
+  public void singleFailureIsRethrown() throws ReleaseFailureException {
+    final List<MavenProject> projects = ProjectOperationsTest.newProjects(3);
+    final FailingOperation operation = new FailingOperation(
+        Collections.singleton(projects.get(0)));
+    try {
+      ProjectOperations.applyToAll(projects, 1, operation);
+      Assert.fail();
+    }
+    catch (final ReleaseExecutionException e) {
+      Assert.assertEquals("project-0", e.getMessage());
+    }
+    Assert.assertEquals(projects.size(), operation.applied.size());
+  }
+
+  @Test
+  public void uncheckedFailureIsReportedSequentially()
+      throws ReleaseFailureException {
+    final List<MavenProject> projects = ProjectOperationsTest.newProjects(3);
+    final FailingOperation operation = new FailingOperation(
+        Collections.<MavenProject> emptySet()) {
+      @Override
+      public void apply(final MavenProject project)
+          throws ReleaseExecutionException {
+        super.apply(project);
+        if (project == projects.get(1)) {
+          throw new IllegalStateException(project.getArtifactId());
+        }
+      }
+    };
+    try {
+      ProjectOperations.applyToAll(projects, 1, operation);
+      Assert.fail();
+    }
+    catch (final ReleaseExecutionException e) {
+      Assert.assertTrue(e.getCause() instanceof IllegalStateException);
+      Assert.assertEquals("project-1", e.getCause().getMessage());
+    }
+    Assert.assertEquals(projects.size(), operation.applied.size());
+  }
+}
@@ -16,7 +16,12 @@
 package info.ronjenkins.maven.rtr.releasephases;
 
 import info.ronjenkins.maven.rtr.RTR;
+import info.ronjenkins.maven.rtr.RTRSettings;
 
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 
@@ -26,12 +31,14 @@ import mockit.Injectable;
 import mockit.Mock;
 import mockit.MockUp;
 
+import org.apache.maven.execution.MavenSession;
 import org.apache.maven.project.MavenProject;
 import org.apache.maven.shared.release.ReleaseExecutionException;
 import org.apache.maven.shared.release.ReleaseFailureException;
 import org.apache.maven.shared.release.ReleaseResult;
 import org.apache.maven.shared.release.config.ReleaseDescriptor;
 import org.apache.maven.shared.release.env.ReleaseEnvironment;
+import org.codehaus.plexus.util.FileUtils;
 import org.junit.Assert;
 import org.junit.Test;
 
@@ -81,6 +88,40 @@ public final class RemoveBackupPomsPhaseTest {
     }
   }
 
+  @Test
+  public void onlyBackedUpProjectsAreCleanedUp() throws IOException,
+      ReleaseExecutionException, ReleaseFailureException {
+    final File directory = Files.createTempDirectory("rtr-test").toFile();
+    try {
+      final List<MavenProject> projects = new ArrayList<>();
+      for (int i = 0; i < 2; i++) {
+        final File pomFile = new File(directory, "pom-" + i + ".xml");
+        Files.write(pomFile.toPath(), new byte[0]);
+        Files.write(new File(pomFile.getPath() + ".releaseBackup").toPath(),
+            new byte[0]);
+        final MavenProject project = new MavenProject();
+        project.setFile(pomFile);
+        projects.add(project);
+      }
+      final RTR realRtr = new RTR();
+      Deencapsulation.setField(realRtr, "settings", new RTRSettings(
+          (MavenSession) null, new MavenProject()));
+      realRtr.setBackupPomCreated(projects.get(0).getFile(), true);
+      final RemoveBackupPomsPhase phase = new RemoveBackupPomsPhase();
+      Deencapsulation.setField(phase, "rtr", realRtr);
+      phase.execute((ReleaseDescriptor) null, (ReleaseEnvironment) null,
+          projects);
+      Assert.assertFalse(new File(projects.get(0).getFile().getPath()
+          + ".releaseBackup").exists());
+      Assert.assertTrue(new File(projects.get(1).getFile().getPath()
+          + ".releaseBackup").exists());
+      Assert.assertFalse(realRtr.isBackupPomsCreated());
+    }
+    finally {
+      FileUtils.deleteDirectory(directory);
+    }
+  }
+
   @Test
   public void simulateEqualsExecute() {
     final RemoveBackupPomsPhase phase = new MockUp<RemoveBackupPomsPhase>() {
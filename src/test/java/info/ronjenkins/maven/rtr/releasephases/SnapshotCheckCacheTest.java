@@ -0,0 +1,90 @@
+/*
+ * Copyright (C) 2016 Ronald Jack Jenkins Jr.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package info.ronjenkins.maven.rtr.releasephases;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import org.apache.maven.model.Model;
+import org.apache.maven.project.MavenProject;
+import org.codehaus.plexus.util.FileUtils;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public final class SnapshotCheckCacheTest {
+  private File         directory;
+  private File         file;
+  private MavenProject project;
+
+  @Before
+  public void setUp() throws IOException {
+    this.directory = Files.createTempDirectory("rtr-test").toFile();
+    this.file = new File(this.directory, "cache/snapshots.properties");
+    final Model model = new Model();
+    model.setGroupId("g");
+    model.setArtifactId("a");
+    model.setVersion("1.0-SNAPSHOT");
+    this.project = new MavenProject(model);
+  }
+
+  @After
+  public void tearDown() throws IOException {
+    FileUtils.deleteDirectory(this.directory);
+  }
+
+  @Test
+  public void changedDigestIsNotPassed() throws IOException {
+    final SnapshotCheckCache cache = SnapshotCheckCache.read(this.file);
+    cache.setPassed(this.project, "abc");
+    cache.write(this.file);
+    Assert.assertFalse(SnapshotCheckCache.read(this.file).isPassed(
+        this.project, "def"));
+  }
+
+  @Test
+  public void missingCacheIsEmpty() {
+    final SnapshotCheckCache cache = SnapshotCheckCache.read(this.file);
+    Assert.assertFalse(cache.isPassed(this.project, "abc"));
+    Assert.assertFalse(cache.isModified());
+  }
+
+  @Test
+  public void passedProjectsAreRead() throws IOException {
+    final SnapshotCheckCache cache = SnapshotCheckCache.read(this.file);
+    cache.setPassed(this.project, "abc");
+    Assert.assertTrue(cache.isModified());
+    cache.write(this.file);
+    Assert.assertFalse(cache.isModified());
+    final SnapshotCheckCache read = SnapshotCheckCache.read(this.file);
+    Assert.assertTrue(read.isPassed(this.project, "abc"));
+    // Recording the same result again changes nothing.
+    read.setPassed(this.project, "abc");
+    Assert.assertFalse(read.isModified());
+  }
+
+  @Test
+  public void unknownFormatIsIgnored() throws IOException {
+    this.file.getParentFile().mkdirs();
+    Files.write(this.file.toPath(),
+        "format=0\nproject.g\\:a=abc\n".getBytes(StandardCharsets.ISO_8859_1));
+    Assert.assertFalse(SnapshotCheckCache.read(this.file).isPassed(
+        this.project, "abc"));
+  }
+}
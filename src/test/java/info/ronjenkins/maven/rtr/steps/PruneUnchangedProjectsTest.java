@@ -0,0 +1,228 @@
+/*
+ * Copyright (C) 2016 Ronald Jack Jenkins Jr.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package info.ronjenkins.maven.rtr.steps;
+
+import info.ronjenkins.maven.rtr.RTRComponents;
+import info.ronjenkins.maven.rtr.RTRConfig;
+import info.ronjenkins.maven.rtr.exceptions.SmartReactorSanityCheckException;
+import info.ronjenkins.maven.rtr.reactor.GitChanges;
+import info.ronjenkins.maven.rtr.reactor.ReactorIndex;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import mockit.Expectations;
+import mockit.Injectable;
+import mockit.Mocked;
+
+import org.apache.maven.MavenExecutionException;
+import org.apache.maven.artifact.DefaultArtifact;
+import org.apache.maven.artifact.handler.DefaultArtifactHandler;
+import org.apache.maven.execution.MavenSession;
+import org.apache.maven.execution.ProjectDependencyGraph;
+import org.apache.maven.project.MavenProject;
+import org.apache.maven.project.ProjectBuilder;
+import org.junit.Assert;
+import org.junit.Test;
+
+import util.TestLogger;
+import util.TestUtils;
+
+public final class PruneUnchangedProjectsTest {
+  private static final File ROOT = new File("rtr-prune-test").getAbsoluteFile();
+
+  private static MavenProject project(final String path) {
+    final MavenProject project = new MavenProject();
+    project.setGroupId("g");
+    project.setArtifactId(path.isEmpty() ? "root" : path);
+    project.setVersion("1-SNAPSHOT");
+    project.setArtifact(new DefaultArtifact("g", project.getArtifactId(),
+        "1-SNAPSHOT", "compile", "jar", null, new DefaultArtifactHandler(
+            "jar")));
+    project.setFile(new File(new File(PruneUnchangedProjectsTest.ROOT, path),
+        "pom.xml"));
+    return project;
+  }
+
+  @Injectable
+  MavenSession           session;
+  @Injectable
+  ProjectDependencyGraph pdg;
+  @Injectable
+  ProjectBuilder         projectBuilder;
+  @Mocked
+  RTRConfig              config;
+  @Mocked
+  GitChanges             gitChanges;
+
+  @Test
+  public void changedProjectsAndDownstreamRemain() throws IOException {
+    final PruneUnchangedProjects step = new PruneUnchangedProjects();
+    final TestLogger logger = TestUtils.addLogger(step);
+    final MavenProject root = PruneUnchangedProjectsTest.project("");
+    final MavenProject a = PruneUnchangedProjectsTest.project("a");
+    final MavenProject b = PruneUnchangedProjectsTest.project("b");
+    final MavenProject c = PruneUnchangedProjectsTest.project("c");
+    final List<MavenProject> reactor = new ArrayList<>(Arrays.asList(root, a,
+        b, c));
+    new Expectations() {
+      {
+        PruneUnchangedProjectsTest.this.pdg.getUpstreamProjects(b, false);
+        this.result = a;
+      }
+    };
+    final RTRComponents components = new RTRComponents(this.projectBuilder);
+    components.setReactorIndex(ReactorIndex.build(reactor, this.pdg));
+    new Expectations() {
+      {
+        PruneUnchangedProjectsTest.this.session.getTopLevelProject();
+        this.result = root;
+        RTRConfig.getChangedSince(PruneUnchangedProjectsTest.this.session,
+            root);
+        this.result = "origin/master";
+        RTRConfig.isRelease(PruneUnchangedProjectsTest.this.session, root);
+        this.result = false;
+        GitChanges.getChangedFiles((File) this.any, "origin/master");
+        this.result = Collections.singleton(new File(
+            PruneUnchangedProjectsTest.ROOT, "a/src/main/java/A.java"));
+        PruneUnchangedProjectsTest.this.session.getProjects();
+        this.result = reactor;
+      }
+    };
+    try {
+      step.execute(this.session, components);
+    }
+    catch (final MavenExecutionException e) {
+      Assert.fail();
+    }
+    Assert.assertTrue(logger.getErrorLog().isEmpty());
+    Assert.assertEquals(Arrays.asList(a, b), reactor);
+  }
+
+  @Test
+  public void noChangesLeaveAnEmptyReactor() throws IOException {
+    final PruneUnchangedProjects step = new PruneUnchangedProjects();
+    final TestLogger logger = TestUtils.addLogger(step);
+    final MavenProject root = PruneUnchangedProjectsTest.project("");
+    final MavenProject a = PruneUnchangedProjectsTest.project("a");
+    final List<MavenProject> reactor = new ArrayList<>(Arrays.asList(root, a));
+    final RTRComponents components = new RTRComponents(this.projectBuilder);
+    components.setReactorIndex(ReactorIndex.build(reactor, this.pdg));
+    new Expectations() {
+      {
+        PruneUnchangedProjectsTest.this.session.getTopLevelProject();
+        this.result = root;
+        RTRConfig.getChangedSince(PruneUnchangedProjectsTest.this.session,
+            root);
+        this.result = "HEAD";
+        RTRConfig.isRelease(PruneUnchangedProjectsTest.this.session, root);
+        this.result = false;
+        GitChanges.getChangedFiles((File) this.any, "HEAD");
+        this.result = Collections.emptySet();
+        PruneUnchangedProjectsTest.this.session.getProjects();
+        this.result = reactor;
+      }
+    };
+    try {
+      step.execute(this.session, components);
+    }
+    catch (final MavenExecutionException e) {
+      Assert.fail();
+    }
+    Assert.assertTrue(logger.getErrorLog().isEmpty());
+    Assert.assertTrue(reactor.isEmpty());
+    Assert.assertEquals("No projects are affected by changes since HEAD.",
+        logger.getInfoLog().get(0).getMessage());
+  }
+
+  @Test
+  public void gitFailuresAreFatal() throws IOException {
+    final PruneUnchangedProjects step = new PruneUnchangedProjects();
+    final TestLogger logger = TestUtils.addLogger(step);
+    final MavenProject root = PruneUnchangedProjectsTest.project("");
+    new Expectations() {
+      {
+        PruneUnchangedProjectsTest.this.session.getTopLevelProject();
+        this.result = root;
+        RTRConfig.getChangedSince(PruneUnchangedProjectsTest.this.session,
+            root);
+        this.result = "nope";
+        RTRConfig.isRelease(PruneUnchangedProjectsTest.this.session, root);
+        this.result = false;
+        GitChanges.getChangedFiles((File) this.any, "nope");
+        this.result = new IOException("unknown revision");
+      }
+    };
+    try {
+      step.execute(this.session, null);
+      Assert.fail();
+    }
+    catch (final MavenExecutionException e) {
+      Assert.assertTrue(e instanceof SmartReactorSanityCheckException);
+    }
+    Assert.assertFalse(logger.getErrorLog().isEmpty());
+  }
+
+  @Test
+  public void noBaseRefMeansNoop() {
+    final PruneUnchangedProjects step = new PruneUnchangedProjects();
+    final TestLogger logger = TestUtils.addLogger(step);
+    new Expectations() {
+      {
+        RTRConfig.getChangedSince(PruneUnchangedProjectsTest.this.session,
+            (MavenProject) this.any);
+        this.result = null;
+        PruneUnchangedProjectsTest.this.session.getProjects();
+        this.times = 0;
+      }
+    };
+    try {
+      step.execute(this.session, null);
+    }
+    catch (final MavenExecutionException e) {
+      Assert.fail();
+    }
+    Assert.assertTrue(logger.getErrorLog().isEmpty());
+  }
+
+  @Test
+  public void releasesAreRejected() {
+    final PruneUnchangedProjects step = new PruneUnchangedProjects();
+    final TestLogger logger = TestUtils.addLogger(step);
+    new Expectations() {
+      {
+        RTRConfig.getChangedSince(PruneUnchangedProjectsTest.this.session,
+            (MavenProject) this.any);
+        this.result = "origin/master";
+        RTRConfig.isRelease(PruneUnchangedProjectsTest.this.session,
+            (MavenProject) this.any);
+        this.result = true;
+      }
+    };
+    try {
+      step.execute(this.session, null);
+      Assert.fail();
+    }
+    catch (final MavenExecutionException e) {
+      Assert.assertTrue(e instanceof SmartReactorSanityCheckException);
+    }
+    Assert.assertFalse(logger.getErrorLog().isEmpty());
+  }
+}
@@ -15,13 +15,20 @@
  */
 package info.ronjenkins.maven.rtr.steps;
 
+import java.io.File;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 
 import mockit.Expectations;
 import mockit.Injectable;
+import mockit.Verifications;
 
 import org.apache.maven.MavenExecutionException;
+import org.apache.maven.artifact.Artifact;
 import org.apache.maven.execution.MavenSession;
+import org.apache.maven.execution.ProjectDependencyGraph;
 import org.apache.maven.project.MavenProject;
 import org.junit.Assert;
 import org.junit.Test;
@@ -35,6 +42,48 @@ public final class RebuildProjectDependencyGraphTest {
   @Injectable
   MavenProject root;
 
+  @Test
+  public void emptyReactorBuildsNothing() throws MavenExecutionException {
+    final RebuildProjectDependencyGraph step = new RebuildProjectDependencyGraph();
+    final TestLogger logger = TestUtils.addLogger(step);
+    final MavenProject executionRoot = new MavenProject();
+    executionRoot.setGroupId("g");
+    executionRoot.setArtifactId("root");
+    executionRoot.setVersion("1-SNAPSHOT");
+    executionRoot.setFile(new File("rtr-test", "pom.xml").getAbsoluteFile());
+    final List<MavenProject> reactor = new ArrayList<>();
+    new Expectations() {
+      {
+        RebuildProjectDependencyGraphTest.this.session.getProjects();
+        this.result = reactor;
+        RebuildProjectDependencyGraphTest.this.session.getTopLevelProject();
+        this.result = executionRoot;
+      }
+    };
+    step.execute(this.session, null);
+    Assert.assertTrue(logger.getErrorLog().isEmpty());
+    Assert.assertFalse(logger.getInfoLog().isEmpty());
+    // The reactor is replaced with an empty project that binds no mojos.
+    Assert.assertEquals(1, reactor.size());
+    final MavenProject placeholder = reactor.get(0);
+    Assert.assertTrue(placeholder.getBuildPlugins().isEmpty());
+    Assert.assertTrue(placeholder.isExecutionRoot());
+    Assert.assertEquals(executionRoot.getBasedir(), placeholder.getBasedir());
+    final Artifact artifact = placeholder.getArtifact();
+    Assert.assertNotNull(artifact);
+    Assert.assertEquals(placeholder.getId(), artifact.getGroupId() + ":"
+        + artifact.getArtifactId() + ":" + artifact.getType() + ":"
+        + artifact.getVersion());
+    new Verifications() {
+      {
+        RebuildProjectDependencyGraphTest.this.session.getRequest().setGoals(
+            Collections.singletonList("validate"));
+        RebuildProjectDependencyGraphTest.this.session
+            .setProjectDependencyGraph((ProjectDependencyGraph) this.any);
+      }
+    };
+  }
+
   @Test
   public void exceptionsGetTranslated() {
     final RebuildProjectDependencyGraph step = new RebuildProjectDependencyGraph();
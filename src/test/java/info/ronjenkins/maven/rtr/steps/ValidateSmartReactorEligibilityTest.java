@@ -25,9 +25,9 @@ import mockit.Mocked;
 
 import org.apache.commons.lang.exception.ExceptionUtils;
 import org.apache.maven.MavenExecutionException;
-import org.apache.maven.artifact.Artifact;
 import org.apache.maven.execution.MavenSession;
 import org.apache.maven.execution.ProjectDependencyGraph;
+import org.apache.maven.model.Plugin;
 import org.apache.maven.project.MavenProject;
 import org.junit.Assert;
 import org.junit.Test;
@@ -41,6 +41,39 @@ public final class ValidateSmartReactorEligibilityTest {
   @Mocked
   MavenProject root;
 
+  @Test
+  public void configuredForbiddenPluginInPomIsNotEligible() {
+    final Plugin plugin = new Plugin();
+    plugin.setGroupId("com.example");
+    plugin.setArtifactId("versions-plugin");
+    final ValidateSmartReactorEligibility step = new ValidateSmartReactorEligibility();
+    final TestLogger logger = TestUtils.addLogger(step);
+    new Expectations() {
+      {
+        ValidateSmartReactorEligibilityTest.this.session.getUserProperties()
+            .getProperty("rtr.forbiddenPlugins");
+        this.result = "org.example:other, com.example:versions-plugin";
+        ValidateSmartReactorEligibilityTest.this.session.getProjects();
+        this.result = ValidateSmartReactorEligibilityTest.this.root;
+        ValidateSmartReactorEligibilityTest.this.root.getBuildPlugins();
+        this.result = plugin;
+        ValidateSmartReactorEligibilityTest.this.session.getTopLevelProject();
+        this.result = ValidateSmartReactorEligibilityTest.this.root;
+        ValidateSmartReactorEligibilityTest.this.root.getArtifact()
+            .isSnapshot();
+        this.result = true;
+      }
+    };
+    try {
+      step.execute(this.session, null);
+      Assert.fail("Forbidden plugin was not detected.");
+    }
+    catch (final MavenExecutionException e) {
+      Assert.assertTrue(e instanceof SmartReactorSanityCheckException);
+    }
+    Assert.assertFalse(logger.getErrorLog().isEmpty());
+  }
+
   @Test
   public void mavenReleasePluginInGoalsFullyQualifiedIsNotEligible() {
     final ValidateSmartReactorEligibility step = new ValidateSmartReactorEligibility();
@@ -80,20 +113,17 @@ public final class ValidateSmartReactorEligibilityTest {
   }
 
   @Test
-  public void mavenReleasePluginInPomIsNotEligible(
-      @Injectable final Artifact mrp) {
+  public void mavenReleasePluginInPomIsNotEligible() {
+    final Plugin mrp = new Plugin();
+    mrp.setArtifactId("maven-release-plugin");
     final ValidateSmartReactorEligibility step = new ValidateSmartReactorEligibility();
     final TestLogger logger = TestUtils.addLogger(step);
     new Expectations() {
       {
         ValidateSmartReactorEligibilityTest.this.session.getProjects();
         this.result = ValidateSmartReactorEligibilityTest.this.root;
-        ValidateSmartReactorEligibilityTest.this.root.getPluginArtifacts();
+        ValidateSmartReactorEligibilityTest.this.root.getBuildPlugins();
         this.result = mrp;
-        mrp.getGroupId();
-        this.result = "org.apache.maven.plugins";
-        mrp.getArtifactId();
-        this.result = "maven-release-plugin";
       }
     };
     try {
@@ -106,19 +136,17 @@ public final class ValidateSmartReactorEligibilityTest {
   }
 
   @Test
-  public void otherApachePluginsInPomIsEligible(@Injectable final Artifact mrp) {
+  public void otherApachePluginsInPomIsEligible() {
+    final Plugin mrp = new Plugin();
+    mrp.setArtifactId("maven-antrun-plugin");
     final ValidateSmartReactorEligibility step = new ValidateSmartReactorEligibility();
     final TestLogger logger = TestUtils.addLogger(step);
     new Expectations() {
       {
         ValidateSmartReactorEligibilityTest.this.session.getProjects();
         this.result = ValidateSmartReactorEligibilityTest.this.root;
-        ValidateSmartReactorEligibilityTest.this.root.getPluginArtifacts();
+        ValidateSmartReactorEligibilityTest.this.root.getBuildPlugins();
         this.result = mrp;
-        mrp.getGroupId();
-        this.result = "org.apache.maven.plugins";
-        mrp.getArtifactId();
-        this.result = "maven-antrun-plugin";
         ValidateSmartReactorEligibilityTest.this.session.getTopLevelProject();
         this.result = ValidateSmartReactorEligibilityTest.this.root;
         ValidateSmartReactorEligibilityTest.this.root.getArtifact()
@@ -160,17 +188,18 @@ public final class ValidateSmartReactorEligibilityTest {
   }
 
   @Test
-  public void otherGroupIdsInPomIsEligible(@Injectable final Artifact mrp) {
+  public void otherGroupIdsInPomIsEligible() {
+    final Plugin mrp = new Plugin();
+    mrp.setGroupId("org.notapache.maven.plugins");
+    mrp.setArtifactId("maven-release-plugin");
     final ValidateSmartReactorEligibility step = new ValidateSmartReactorEligibility();
     final TestLogger logger = TestUtils.addLogger(step);
     new Expectations() {
       {
         ValidateSmartReactorEligibilityTest.this.session.getProjects();
         this.result = ValidateSmartReactorEligibilityTest.this.root;
-        ValidateSmartReactorEligibilityTest.this.root.getPluginArtifacts();
+        ValidateSmartReactorEligibilityTest.this.root.getBuildPlugins();
         this.result = mrp;
-        mrp.getGroupId();
-        this.result = "org.notapache.maven.plugins";
         ValidateSmartReactorEligibilityTest.this.session.getTopLevelProject();
         this.result = ValidateSmartReactorEligibilityTest.this.root;
         ValidateSmartReactorEligibilityTest.this.root.getArtifact()
@@ -236,7 +265,7 @@ public final class ValidateSmartReactorEligibilityTest {
         this.result = true;
         child.getArtifact().isSnapshot();
         this.result = true;
-        pdg.getUpstreamProjects(child, true);
+        pdg.getUpstreamProjects(child, false);
         this.result = ValidateSmartReactorEligibilityTest.this.root;
       }
     };
@@ -317,11 +346,10 @@ public final class ValidateSmartReactorEligibilityTest {
         this.result = true;
         grandchild.getArtifact().isSnapshot();
         this.result = true;
-        pdg.getUpstreamProjects(child, true);
+        pdg.getUpstreamProjects(child, false);
         this.result = ValidateSmartReactorEligibilityTest.this.root;
-        pdg.getUpstreamProjects(grandchild, true);
-        this.result = Arrays.asList(child,
-            ValidateSmartReactorEligibilityTest.this.root);
+        pdg.getUpstreamProjects(grandchild, false);
+        this.result = child;
       }
     };
     try {
@@ -357,9 +385,10 @@ public final class ValidateSmartReactorEligibilityTest {
         this.result = false;
         grandchild.getArtifact().isSnapshot();
         this.result = true;
-        pdg.getUpstreamProjects(grandchild, true);
-        this.result = Arrays.asList(child,
-            ValidateSmartReactorEligibilityTest.this.root);
+        pdg.getUpstreamProjects(child, false);
+        this.result = ValidateSmartReactorEligibilityTest.this.root;
+        pdg.getUpstreamProjects(grandchild, false);
+        this.result = child;
       }
     };
     try {
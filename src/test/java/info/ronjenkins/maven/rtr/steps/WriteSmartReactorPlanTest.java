@@ -0,0 +1,141 @@
+/*
+ * Copyright (C) 2016 Ronald Jack Jenkins Jr.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package info.ronjenkins.maven.rtr.steps;
+
+import info.ronjenkins.maven.rtr.RTRConfig;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import mockit.Expectations;
+import mockit.Injectable;
+import mockit.Mocked;
+import mockit.Verifications;
+
+import org.apache.maven.MavenExecutionException;
+import org.apache.maven.execution.MavenSession;
+import org.apache.maven.project.MavenProject;
+import org.codehaus.plexus.util.FileUtils;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import util.TestLogger;
+import util.TestUtils;
+
+public final class WriteSmartReactorPlanTest {
+  private static MavenProject project(final File root, final String path) {
+    final MavenProject project = new MavenProject();
+    project.setGroupId("g");
+    project.setArtifactId(path.isEmpty() ? "root" : path);
+    project.setVersion("1-SNAPSHOT");
+    project.setFile(new File(new File(root, path), "pom.xml"));
+    return project;
+  }
+
+  @Injectable
+  MavenSession session;
+  @Mocked
+  RTRConfig    config;
+  private File directory;
+
+  @Before
+  public void setUp() throws IOException {
+    this.directory = Files.createTempDirectory("rtr-test").toFile();
+  }
+
+  @After
+  public void tearDown() throws IOException {
+    FileUtils.deleteDirectory(this.directory);
+  }
+
+  @Test
+  public void disabledMeansNoop() throws MavenExecutionException {
+    final WriteSmartReactorPlan step = new WriteSmartReactorPlan();
+    TestUtils.addLogger(step);
+    final MavenProject root = WriteSmartReactorPlanTest.project(
+        this.directory, "");
+    new Expectations() {
+      {
+        WriteSmartReactorPlanTest.this.session.getTopLevelProject();
+        this.result = root;
+        RTRConfig.getPlanOutput(WriteSmartReactorPlanTest.this.session, root);
+        this.result = null;
+      }
+    };
+    step.execute(this.session, null);
+    new Verifications() {
+      {
+        WriteSmartReactorPlanTest.this.session.getProjects();
+        this.times = 0;
+        WriteSmartReactorPlanTest.this.session.getRequest();
+        this.times = 0;
+      }
+    };
+  }
+
+  @Test
+  public void jsonListsProjectsInBuildOrder() {
+    final MavenProject root = WriteSmartReactorPlanTest.project(
+        this.directory, "");
+    final MavenProject a = WriteSmartReactorPlanTest.project(this.directory,
+        "a");
+    Assert.assertEquals(
+        "{\n  \"release\": true,\n  \"projects\": [\n    {\"groupId\": \"g\", \"artifactId\": \"root\", \"version\": \"1-SNAPSHOT\", \"path\": \"\"},\n    {\"groupId\": \"g\", \"artifactId\": \"a\", \"version\": \"1-SNAPSHOT\", \"path\": \"a\"}\n  ]\n}\n",
+        WriteSmartReactorPlan.toJson(true, root, Arrays.asList(root, a)));
+    Assert.assertEquals("{\n  \"release\": false,\n  \"projects\": []\n}\n",
+        WriteSmartReactorPlan.toJson(false, root,
+            Collections.<MavenProject> emptyList()));
+  }
+
+  @Test
+  public void planIsWrittenAndReactorIsEmptied() throws IOException,
+      MavenExecutionException {
+    final WriteSmartReactorPlan step = new WriteSmartReactorPlan();
+    final TestLogger logger = TestUtils.addLogger(step);
+    final MavenProject root = WriteSmartReactorPlanTest.project(
+        this.directory, "");
+    final MavenProject a = WriteSmartReactorPlanTest.project(this.directory,
+        "a");
+    final List<MavenProject> reactor = new ArrayList<>(Arrays.asList(root, a));
+    new Expectations() {
+      {
+        WriteSmartReactorPlanTest.this.session.getTopLevelProject();
+        this.result = root;
+        RTRConfig.getPlanOutput(WriteSmartReactorPlanTest.this.session, root);
+        this.result = "target/plan.json";
+        RTRConfig.isRelease(WriteSmartReactorPlanTest.this.session, root);
+        this.result = false;
+        WriteSmartReactorPlanTest.this.session.getProjects();
+        this.result = reactor;
+      }
+    };
+    step.execute(this.session, null);
+    Assert.assertEquals(WriteSmartReactorPlan.toJson(false, root,
+        Arrays.asList(root, a)), new String(Files.readAllBytes(new File(
+        this.directory, "target/plan.json").toPath()), StandardCharsets.UTF_8));
+    Assert.assertFalse(logger.getInfoLog().isEmpty());
+    // The rebuild-graph step ends the session of the empty reactor.
+    Assert.assertTrue(reactor.isEmpty());
+  }
+}
@@ -0,0 +1,120 @@
+/*
+ * Copyright (C) 2016 Ronald Jack Jenkins Jr.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package info.ronjenkins.maven.rtr.steps.eligibility;
+
+import info.ronjenkins.maven.rtr.reactor.ReactorIndex;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import mockit.Expectations;
+import mockit.Injectable;
+
+import org.apache.maven.execution.MavenSession;
+import org.apache.maven.project.MavenProject;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import util.TestUtils;
+
+public final class EligibilityValidatorTest {
+  /* Records every call, and optionally rejects every project. */
+  private static final class RecordingRule implements EligibilityRule {
+    private final String       name;
+    private final List<String> calls;
+    private final boolean      failing;
+
+    private RecordingRule(final String name, final List<String> calls,
+        final boolean failing) {
+      this.name = name;
+      this.calls = calls;
+      this.failing = failing;
+    }
+
+    @Override
+    public void start(final EligibilityContext context) {
+      this.calls.add(this.name + ":start");
+    }
+
+    @Override
+    public void visit(final EligibilityContext context, final int id) {
+      this.calls.add(this.name + ":" + id);
+      if (this.failing) {
+        context.report(this.name + " rejects " + id);
+      }
+    }
+  }
+
+  private final List<String>   calls = new ArrayList<>();
+  private ReactorIndex         index;
+  private EligibilityValidator validator;
+
+  @Before
+  public void setUp() {
+    this.index = ReactorIndex.build(Arrays.asList(
+        TestUtils.project("a", "1.0-SNAPSHOT"),
+        TestUtils.project("b", "1.0-SNAPSHOT"),
+        TestUtils.project("c", "1.0-SNAPSHOT")), null);
+    this.validator = new EligibilityValidator(Arrays.<EligibilityRule> asList(
+        new RecordingRule("x", this.calls, true), new RecordingRule("y",
+            this.calls, false)));
+  }
+
+  @Test
+  public void failFastStopsAtFirstViolation() {
+    Assert.assertEquals(Arrays.asList("x rejects 0"), this.validator
+        .validate(new EligibilityContext(null, this.index, true)));
+    Assert.assertEquals(Arrays.asList("x:start", "y:start", "x:0"),
+        this.calls);
+  }
+
+  @Test
+  public void projectsAreVisitedOnceByEveryRule() {
+    Assert.assertEquals(
+        Arrays.asList("x rejects 0", "x rejects 1", "x rejects 2"),
+        this.validator.validate(new EligibilityContext(null, this.index,
+            false)));
+    Assert.assertEquals(Arrays.asList("x:start", "y:start", "x:0", "y:0",
+        "x:1", "y:1", "x:2", "y:2"), this.calls);
+  }
+
+  @Test
+  public void standardRulesReportEveryViolation(
+      @Injectable final MavenSession session) {
+    final MavenProject root = TestUtils.project("root", "1.0");
+    new Expectations() {
+      {
+        session.getGoals();
+        this.result = Arrays.asList("release:prepare", "clean");
+        session.getTopLevelProject();
+        this.result = root;
+      }
+    };
+    final ReactorIndex rootIndex = ReactorIndex.build(Arrays.asList(root),
+        null);
+    final EligibilityValidator standard = new EligibilityValidator(
+        EligibilityValidator.getStandardRules(null));
+    Assert.assertEquals(Arrays.asList(
+        "A goal from the Maven Release Plugin was specified for execution: release:prepare",
+        "Top-level project " + root + " is not a SNAPSHOT."),
+        standard.validate(new EligibilityContext(session, rootIndex, false)));
+    Assert.assertEquals(1,
+        standard.validate(new EligibilityContext(session, rootIndex, true))
+            .size());
+  }
+}
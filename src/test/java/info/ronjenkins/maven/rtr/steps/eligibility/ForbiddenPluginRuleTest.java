@@ -0,0 +1,44 @@
+/*
+ * Copyright (C) 2016 Ronald Jack Jenkins Jr.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package info.ronjenkins.maven.rtr.steps.eligibility;
+
+import java.util.Arrays;
+import java.util.HashSet;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public final class ForbiddenPluginRuleTest {
+  @Test
+  public void configuredPluginsAreAdded() {
+    Assert.assertEquals(new HashSet<>(Arrays.asList(
+        "org.apache.maven.plugins:maven-release-plugin", "g:a", "g:b")),
+        new ForbiddenPluginRule(" g:a,, g:b ").getForbiddenPlugins());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void malformedCoordinatesAreRejected() {
+    new ForbiddenPluginRule("g:a:1.0");
+  }
+
+  @Test
+  public void releasePluginIsAlwaysForbidden() {
+    Assert.assertEquals(
+        new HashSet<>(Arrays
+            .asList("org.apache.maven.plugins:maven-release-plugin")),
+        new ForbiddenPluginRule(null).getForbiddenPlugins());
+  }
+}
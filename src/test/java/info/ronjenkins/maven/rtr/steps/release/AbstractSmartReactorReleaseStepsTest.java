@@ -21,6 +21,7 @@ import info.ronjenkins.maven.rtr.exceptions.SmartReactorReleaseException;
 import java.util.List;
 import java.util.Map;
 
+import mockit.Deencapsulation;
 import mockit.Expectations;
 import mockit.Injectable;
 import mockit.Mocked;
@@ -57,6 +58,7 @@ public final class AbstractSmartReactorReleaseStepsTest {
   @Test
   public void coverBasicImplementations() {
     final TransformProjectsIntoReleases tpir = new TransformProjectsIntoReleases();
+    Deencapsulation.setField(tpir, "rtr", this.rtr);
     tpir.getAnnouncement();
     tpir.getReleasePhases();
     tpir.getRollbackPhases();
@@ -18,17 +18,28 @@ package info.ronjenkins.maven.rtr.steps.release;
 import info.ronjenkins.maven.rtr.RTR;
 import info.ronjenkins.maven.rtr.RTRComponents;
 import info.ronjenkins.maven.rtr.exceptions.SmartReactorReleaseException;
+import info.ronjenkins.maven.rtr.reactor.PomDigests;
 
 import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import mockit.Expectations;
 import mockit.Injectable;
 import mockit.Mocked;
+import mockit.Verifications;
 
 import org.apache.maven.MavenExecutionException;
 import org.apache.maven.execution.MavenSession;
+import org.apache.maven.model.Dependency;
+import org.apache.maven.model.DependencyManagement;
+import org.apache.maven.model.Model;
 import org.apache.maven.project.MavenProject;
 import org.apache.maven.project.ProjectBuilder;
 import org.apache.maven.project.ProjectBuildingException;
@@ -41,6 +52,19 @@ import util.TestLogger;
 import util.TestUtils;
 
 public final class RebuildReleaseReactorTest {
+  private static MavenProject project(final String artifactId)
+      throws IOException {
+    final MavenProject project = new MavenProject();
+    project.setGroupId("g");
+    project.setArtifactId(artifactId);
+    project.setVersion("1-SNAPSHOT");
+    final File pomFile = File.createTempFile(artifactId, ".xml");
+    pomFile.deleteOnExit();
+    Files.write(pomFile.toPath(), artifactId.getBytes(StandardCharsets.UTF_8));
+    project.setFile(pomFile);
+    return project;
+  }
+
   @Injectable
   MavenSession   session;
   @Injectable
@@ -75,6 +99,216 @@ public final class RebuildReleaseReactorTest {
     }
   }
 
+  @Test
+  public void batchReloadKeepsReactorOrder(@Injectable final MavenProject root,
+      @Injectable final MavenProject child,
+      @Injectable final ProjectBuildingResult rootResult,
+      @Injectable final ProjectBuildingResult childResult) {
+    final RebuildReleaseReactor step = new RebuildReleaseReactor();
+    final TestLogger logger = TestUtils.addLoggerAndReleaseDependencies(step,
+        this.rtr, null, null, null);
+    final List<MavenProject> reactor = new ArrayList<MavenProject>();
+    reactor.add(root);
+    reactor.add(child);
+    final File rootFile = new File("rootFile");
+    final File childFile = new File("childFile");
+    final MavenProject newRoot = new MavenProject();
+    final MavenProject newChild = new MavenProject();
+    try {
+      new Expectations() {
+        {
+          RebuildReleaseReactorTest.this.rtr.isRelease();
+          this.result = true;
+          RebuildReleaseReactorTest.this.rtr.isBatchReload();
+          this.result = true;
+          RebuildReleaseReactorTest.this.session.getProjects();
+          this.result = reactor;
+          root.getFile();
+          this.result = rootFile;
+          child.getFile();
+          this.result = childFile;
+          root.isExecutionRoot();
+          this.result = true;
+          RebuildReleaseReactorTest.this.components.getProjectBuilder();
+          this.result = RebuildReleaseReactorTest.this.projectBuilder;
+          RebuildReleaseReactorTest.this.projectBuilder.build(
+              Arrays.asList(rootFile, childFile), false,
+              (ProjectBuildingRequest) this.any);
+          this.result = Arrays.asList(childResult, rootResult);
+          rootResult.getPomFile();
+          this.result = rootFile;
+          rootResult.getProject();
+          this.result = newRoot;
+          childResult.getPomFile();
+          this.result = childFile;
+          childResult.getProject();
+          this.result = newChild;
+        }
+      };
+    }
+    catch (final ProjectBuildingException notPossibleDuringTesting) {
+      notPossibleDuringTesting.printStackTrace();
+      Assert.fail();
+    }
+    try {
+      step.execute(this.session, this.components);
+    }
+    catch (final MavenExecutionException e) {
+      Assert.fail();
+    }
+    Assert.assertTrue(logger.getErrorLog().isEmpty());
+    Assert.assertTrue(this.session.getProjects() == reactor);
+    Assert.assertTrue(this.session.getProjects().get(0) == newRoot);
+    Assert.assertTrue(this.session.getProjects().get(1) == newChild);
+    Assert.assertTrue(newRoot.isExecutionRoot());
+    Assert.assertFalse(newChild.isExecutionRoot());
+  }
+
+  @Test
+  public void changedPomsOnlyReloadsImportersOfChangedBoms(
+      @Injectable final ProjectBuildingResult bomResult,
+      @Injectable final ProjectBuildingResult moduleResult)
+      throws IOException {
+    final RebuildReleaseReactor step = new RebuildReleaseReactor();
+    final TestLogger logger = TestUtils.addLoggerAndReleaseDependencies(step,
+        this.rtr, null, null, null);
+    final MavenProject parent = RebuildReleaseReactorTest.project("parent");
+    final MavenProject bom = RebuildReleaseReactorTest.project("bom");
+    bom.setParent(parent);
+    // The module imports the BOM but declares no in-reactor versions itself,
+    // and it precedes the BOM in the reactor.
+    final MavenProject module = RebuildReleaseReactorTest.project("module");
+    module.setParent(parent);
+    final Dependency bomImport = new Dependency();
+    bomImport.setGroupId("g");
+    bomImport.setArtifactId("bom");
+    bomImport.setVersion("${bom.version}");
+    bomImport.setType("pom");
+    bomImport.setScope("import");
+    final Model original = new Model();
+    original.setDependencyManagement(new DependencyManagement());
+    original.getDependencyManagement().addDependency(bomImport);
+    module.setOriginalModel(original);
+    module.getProperties().setProperty("bom.version", "1-SNAPSHOT");
+    final List<MavenProject> reactor = new ArrayList<MavenProject>();
+    reactor.add(parent);
+    reactor.add(module);
+    reactor.add(bom);
+    final Map<File, String> digests = new HashMap<>();
+    for (final MavenProject project : reactor) {
+      digests.put(project.getFile(), PomDigests.digest(project.getFile()));
+    }
+    Files.write(bom.getFile().toPath(),
+        "changed".getBytes(StandardCharsets.UTF_8));
+    final MavenProject newBom = new MavenProject();
+    final MavenProject newModule = new MavenProject();
+    try {
+      new Expectations() {
+        {
+          RebuildReleaseReactorTest.this.rtr.isRelease();
+          this.result = true;
+          RebuildReleaseReactorTest.this.rtr.isReloadChangedPomsOnly();
+          this.result = true;
+          RebuildReleaseReactorTest.this.components.getReleasePomDigests();
+          this.result = digests;
+          RebuildReleaseReactorTest.this.session.getProjects();
+          this.result = reactor;
+          RebuildReleaseReactorTest.this.components.getProjectBuilder();
+          this.result = RebuildReleaseReactorTest.this.projectBuilder;
+          RebuildReleaseReactorTest.this.projectBuilder.build(bom.getFile(),
+              (ProjectBuildingRequest) this.any);
+          this.result = bomResult;
+          RebuildReleaseReactorTest.this.projectBuilder.build(
+              module.getFile(), (ProjectBuildingRequest) this.any);
+          this.result = moduleResult;
+          bomResult.getProject();
+          this.result = newBom;
+          moduleResult.getProject();
+          this.result = newModule;
+        }
+      };
+    }
+    catch (final ProjectBuildingException notPossibleDuringTesting) {
+      notPossibleDuringTesting.printStackTrace();
+      Assert.fail();
+    }
+    try {
+      step.execute(this.session, this.components);
+    }
+    catch (final MavenExecutionException e) {
+      Assert.fail();
+    }
+    Assert.assertTrue(logger.getErrorLog().isEmpty());
+    Assert.assertTrue(this.session.getProjects().get(0) == parent);
+    Assert.assertTrue(this.session.getProjects().get(1) == newModule);
+    Assert.assertTrue(this.session.getProjects().get(2) == newBom);
+    try {
+      new Verifications() {
+        {
+          RebuildReleaseReactorTest.this.projectBuilder.build(
+              parent.getFile(), (ProjectBuildingRequest) this.any);
+          this.times = 0;
+        }
+      };
+    }
+    catch (final ProjectBuildingException notPossibleDuringTesting) {
+      Assert.fail();
+    }
+  }
+
+  @Test
+  public void concurrentFailuresAreAggregated(
+      @Injectable final MavenProject root, @Injectable final MavenProject child) {
+    final RebuildReleaseReactor step = new RebuildReleaseReactor();
+    final TestLogger logger = TestUtils.addLoggerAndReleaseDependencies(step,
+        this.rtr, null, null, null);
+    final File rootFile = new File("rootFile");
+    final File childFile = new File("childFile");
+    final ProjectBuildingException rootPbe = new ProjectBuildingException(
+        "root", "error", rootFile);
+    final ProjectBuildingException childPbe = new ProjectBuildingException(
+        "child", "error", childFile);
+    try {
+      new Expectations() {
+        {
+          RebuildReleaseReactorTest.this.rtr.isRelease();
+          this.result = true;
+          RebuildReleaseReactorTest.this.rtr.getReloadThreads();
+          this.result = 2;
+          RebuildReleaseReactorTest.this.session.getProjects();
+          this.result = Arrays.asList(root, child);
+          root.getFile();
+          this.result = rootFile;
+          child.getFile();
+          this.result = childFile;
+          RebuildReleaseReactorTest.this.components.getProjectBuilder();
+          this.result = RebuildReleaseReactorTest.this.projectBuilder;
+          RebuildReleaseReactorTest.this.projectBuilder.build(rootFile,
+              (ProjectBuildingRequest) this.any);
+          this.result = rootPbe;
+          RebuildReleaseReactorTest.this.projectBuilder.build(childFile,
+              (ProjectBuildingRequest) this.any);
+          this.result = childPbe;
+        }
+      };
+    }
+    catch (final ProjectBuildingException notPossibleDuringTesting) {
+      notPossibleDuringTesting.printStackTrace();
+      Assert.fail();
+    }
+    try {
+      step.execute(this.session, this.components);
+      Assert.fail();
+    }
+    catch (final MavenExecutionException e) {
+      Assert.assertTrue(e instanceof SmartReactorReleaseException);
+      Assert.assertEquals(rootPbe, e.getCause());
+      Assert.assertEquals(1, e.getSuppressed().length);
+      Assert.assertEquals(childPbe, e.getSuppressed()[0]);
+    }
+    Assert.assertFalse(logger.getErrorLog().isEmpty());
+  }
+
   @Test
   public void disabledReleaseMeansNoop() {
     final RebuildReleaseReactor step = new RebuildReleaseReactor();
@@ -95,6 +329,89 @@ public final class RebuildReleaseReactorTest {
     Assert.assertTrue(logger.getErrorLog().isEmpty());
   }
 
+  @Test
+  public void changedPomsOnlyReloadsChangedPomsAndTheirChildren(
+      @Injectable final MavenProject root,
+      @Injectable final MavenProject child,
+      @Injectable final MavenProject sibling,
+      @Injectable final ProjectBuildingResult rootResult,
+      @Injectable final ProjectBuildingResult childResult)
+      throws IOException {
+    final RebuildReleaseReactor step = new RebuildReleaseReactor();
+    final TestLogger logger = TestUtils.addLoggerAndReleaseDependencies(step,
+        this.rtr, null, null, null);
+    final List<MavenProject> reactor = new ArrayList<MavenProject>();
+    reactor.add(root);
+    reactor.add(child);
+    reactor.add(sibling);
+    final File rootFile = File.createTempFile("root", ".xml");
+    final File childFile = File.createTempFile("child", ".xml");
+    final File siblingFile = File.createTempFile("sibling", ".xml");
+    rootFile.deleteOnExit();
+    childFile.deleteOnExit();
+    siblingFile.deleteOnExit();
+    final Map<File, String> digests = new HashMap<>();
+    digests.put(rootFile, PomDigests.digest(new byte[] { 1 }));
+    digests.put(childFile, PomDigests.digest(new byte[0]));
+    digests.put(siblingFile, PomDigests.digest(new byte[0]));
+    Files.write(rootFile.toPath(), "changed".getBytes(StandardCharsets.UTF_8));
+    final MavenProject newRoot = new MavenProject();
+    final MavenProject newChild = new MavenProject();
+    try {
+      new Expectations() {
+        {
+          RebuildReleaseReactorTest.this.rtr.isRelease();
+          this.result = true;
+          RebuildReleaseReactorTest.this.rtr.isReloadChangedPomsOnly();
+          this.result = true;
+          RebuildReleaseReactorTest.this.components.getReleasePomDigests();
+          this.result = digests;
+          RebuildReleaseReactorTest.this.session.getProjects();
+          this.result = reactor;
+          root.getFile();
+          this.result = rootFile;
+          root.getParent();
+          this.result = null;
+          child.getFile();
+          this.result = childFile;
+          child.getParent();
+          this.result = root;
+          sibling.getFile();
+          this.result = siblingFile;
+          sibling.getParent();
+          this.result = null;
+          RebuildReleaseReactorTest.this.components.getProjectBuilder();
+          this.result = RebuildReleaseReactorTest.this.projectBuilder;
+          RebuildReleaseReactorTest.this.projectBuilder.build(rootFile,
+              (ProjectBuildingRequest) this.any);
+          this.result = rootResult;
+          RebuildReleaseReactorTest.this.projectBuilder.build(childFile,
+              (ProjectBuildingRequest) this.any);
+          this.result = childResult;
+          rootResult.getProject();
+          this.result = newRoot;
+          childResult.getProject();
+          this.result = newChild;
+        }
+      };
+    }
+    catch (final ProjectBuildingException notPossibleDuringTesting) {
+      notPossibleDuringTesting.printStackTrace();
+      Assert.fail();
+    }
+    try {
+      step.execute(this.session, this.components);
+    }
+    catch (final MavenExecutionException e) {
+      Assert.fail();
+    }
+    Assert.assertTrue(logger.getErrorLog().isEmpty());
+    Assert.assertTrue(this.session.getProjects() == reactor);
+    Assert.assertTrue(this.session.getProjects().get(0) == newRoot);
+    Assert.assertTrue(this.session.getProjects().get(1) == newChild);
+    Assert.assertTrue(this.session.getProjects().get(2) == sibling);
+  }
+
   @Test
   public void exceptionsArePropagated(@Injectable final MavenProject root) {
     final RebuildReleaseReactor step = new RebuildReleaseReactor();
@@ -131,6 +448,61 @@ public final class RebuildReleaseReactorTest {
     Assert.assertFalse(logger.getErrorLog().isEmpty());
   }
 
+  @Test
+  public void inMemoryTransformMeansNoReload(
+      @Injectable final MavenProject root) {
+    final RebuildReleaseReactor step = new RebuildReleaseReactor();
+    final TestLogger logger = TestUtils.addLoggerAndReleaseDependencies(step,
+        this.rtr, null, null, null);
+    final List<MavenProject> reactor = new ArrayList<MavenProject>();
+    reactor.add(root);
+    new Expectations() {
+      {
+        RebuildReleaseReactorTest.this.rtr.isRelease();
+        this.result = true;
+        RebuildReleaseReactorTest.this.rtr.isInMemoryTransform();
+        this.result = true;
+        RebuildReleaseReactorTest.this.session.getProjects();
+        this.result = reactor;
+        this.minTimes = 0;
+      }
+    };
+    try {
+      step.execute(this.session, this.components);
+    }
+    catch (final MavenExecutionException e) {
+      Assert.fail();
+    }
+    Assert.assertTrue(logger.getErrorLog().isEmpty());
+    Assert.assertTrue(this.session.getProjects().get(0) == root);
+    new Verifications() {
+      {
+        RebuildReleaseReactorTest.this.components.getProjectBuilder();
+        this.times = 0;
+      }
+    };
+  }
+
+  @Test
+  public void missingComponentsAreRejected() {
+    final RebuildReleaseReactor step = new RebuildReleaseReactor();
+    TestUtils.addLoggerAndReleaseDependencies(step, this.rtr, null, null,
+        null);
+    new Expectations() {
+      {
+        RebuildReleaseReactorTest.this.rtr.isRelease();
+        this.result = true;
+      }
+    };
+    try {
+      step.execute(this.session, null);
+      Assert.fail();
+    }
+    catch (final MavenExecutionException e) {
+      Assert.assertTrue(e instanceof SmartReactorReleaseException);
+    }
+  }
+
   @Test
   public void successfulExecution(@Injectable final MavenProject root,
       @Injectable final MavenProject child,
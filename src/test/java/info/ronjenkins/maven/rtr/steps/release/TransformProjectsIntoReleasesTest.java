@@ -15,6 +15,7 @@
  */
 package info.ronjenkins.maven.rtr.steps.release;
 
+import info.ronjenkins.maven.rtr.RTR;
 import info.ronjenkins.maven.rtr.RTRComponents;
 import info.ronjenkins.maven.rtr.RTRConfig;
 import mockit.Deencapsulation;
@@ -23,6 +24,9 @@ import mockit.Injectable;
 import mockit.Mocked;
 import mockit.Verifications;
 
+import java.util.Arrays;
+import java.util.List;
+
 import org.apache.maven.execution.MavenSession;
 import org.apache.maven.project.MavenProject;
 import org.apache.maven.shared.release.config.ReleaseDescriptor;
@@ -125,4 +129,24 @@ public class TransformProjectsIntoReleasesTest {
       }
     };
   }
+
+  @Test
+  public void streamingRewriteReplacesRewritePhase(@Mocked final RTR rtr) {
+    final TransformProjectsIntoReleases tpir = new TransformProjectsIntoReleases();
+    final List<String> phases = Arrays.asList("check-poms",
+        "rewrite-poms-for-release", "end-release");
+    Deencapsulation.setField(tpir, "releasePhases", phases);
+    Deencapsulation.setField(tpir, "rtr", rtr);
+    new Expectations() {
+      {
+        rtr.isStreamingRewrite();
+        this.result = true;
+      }
+    };
+    Assert.assertEquals(Arrays.asList("check-poms",
+        "stream-rewrite-poms-for-release", "end-release"),
+        tpir.getReleasePhases());
+    // The configured phases are left alone.
+    Assert.assertEquals("rewrite-poms-for-release", phases.get(1));
+  }
 }
@@ -0,0 +1,72 @@
+/*
+ * Copyright (C) 2016 Ronald Jack Jenkins Jr.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package info.ronjenkins.maven.rtr.timing;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public final class ExecutionTimingsTest {
+  @Test
+  public void emptyReportIsValid() {
+    final String json = new ExecutionTimings().toJson();
+    Assert.assertTrue(json.contains("\"samples\": []"));
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void outOfOrderStopIsRejected() {
+    final ExecutionTimings timings = new ExecutionTimings();
+    final ExecutionTimings.Sample outer = timings.start("step", "outer");
+    timings.start("phase", "inner");
+    timings.stop(outer);
+  }
+
+  @Test
+  public void samplesNest() {
+    final ExecutionTimings timings = new ExecutionTimings();
+    final ExecutionTimings.Sample outer = timings.start("step", "outer");
+    final ExecutionTimings.Sample inner = timings.start("phase", "inner");
+    Assert.assertEquals(-1, inner.getWallNanos());
+    timings.stop(inner);
+    timings.stop(outer);
+    Assert.assertEquals(2, timings.getSamples().size());
+    Assert.assertNull(outer.getParent());
+    Assert.assertEquals("outer", inner.getParent());
+    Assert.assertEquals("phase", inner.getKind());
+    Assert.assertTrue(inner.getWallNanos() >= 0);
+    Assert.assertTrue(outer.getWallNanos() >= inner.getWallNanos());
+  }
+
+  @Test
+  public void reportIsWritten() throws IOException {
+    final ExecutionTimings timings = new ExecutionTimings();
+    timings.stop(timings.start("step", "quote\"and\\slash"));
+    final File dir = Files.createTempDirectory("timings").toFile();
+    final File report = new File(new File(dir, "target"), "report.json");
+    timings.write(report);
+    final String json = new String(Files.readAllBytes(report.toPath()),
+        StandardCharsets.UTF_8);
+    Assert.assertTrue(json.contains("\"name\": \"quote\\\"and\\\\slash\""));
+    Assert.assertTrue(json.contains("\"parent\": null"));
+    Assert.assertTrue(report.delete());
+    Assert.assertTrue(report.getParentFile().delete());
+    Assert.assertTrue(dir.delete());
+  }
+}
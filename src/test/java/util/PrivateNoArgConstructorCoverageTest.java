@@ -15,7 +15,12 @@
  */
 package util;
 
+import info.ronjenkins.maven.rtr.ParallelTasks;
 import info.ronjenkins.maven.rtr.RTRConfig;
+import info.ronjenkins.maven.rtr.reactor.GitChanges;
+import info.ronjenkins.maven.rtr.reactor.ImportedBoms;
+import info.ronjenkins.maven.rtr.reactor.PomDigests;
+import info.ronjenkins.maven.rtr.reactor.ReleaseVersionPatcher;
 import mockit.Deencapsulation;
 
 import org.junit.Test;
@@ -23,7 +28,9 @@ import org.junit.Test;
 public final class PrivateNoArgConstructorCoverageTest {
   @Test
   public void cover() {
-    final Class<?>[] classes = new Class<?>[] { RTRConfig.class };
+    final Class<?>[] classes = new Class<?>[] { ParallelTasks.class,
+        RTRConfig.class, GitChanges.class, ImportedBoms.class,
+        PomDigests.class, ReleaseVersionPatcher.class };
     for (final Class<?> clazz : classes) {
       Deencapsulation.newInstance(clazz);
     }
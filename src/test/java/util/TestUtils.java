@@ -24,6 +24,11 @@ import java.util.Map;
 import mockit.Deencapsulation;
 
 import org.apache.commons.lang.Validate;
+import org.apache.maven.artifact.DefaultArtifact;
+import org.apache.maven.artifact.handler.DefaultArtifactHandler;
+import org.apache.maven.model.Build;
+import org.apache.maven.model.Model;
+import org.apache.maven.project.MavenProject;
 import org.apache.maven.shared.release.config.ReleaseDescriptor;
 import org.apache.maven.shared.release.env.ReleaseEnvironment;
 import org.apache.maven.shared.release.phase.ReleasePhase;
@@ -107,6 +112,31 @@ public final class TestUtils {
     return logger;
   }
 
+  /**
+   * Creates a POM project in group "g", named after its artifact ID, with an
+   * artifact and with the default final name.
+   *
+   * @param artifactId
+   *          not null.
+   * @param version
+   *          not null.
+   * @return never null.
+   */
+  public static MavenProject project(final String artifactId,
+      final String version) {
+    final Model model = new Model();
+    model.setGroupId("g");
+    model.setArtifactId(artifactId);
+    model.setVersion(version);
+    model.setName(artifactId);
+    model.setBuild(new Build());
+    model.getBuild().setFinalName(artifactId + "-" + version);
+    final MavenProject project = new MavenProject(model);
+    project.setArtifact(new DefaultArtifact("g", artifactId, version,
+        "compile", "pom", null, new DefaultArtifactHandler("pom")));
+    return project;
+  }
+
   /** Uninstantiable. */
   private TestUtils() {}
 }